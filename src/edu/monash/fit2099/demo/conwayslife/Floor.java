@@ -8,4 +8,9 @@ public class Floor extends Ground {
         super('.', "Floor");
         addCapability(Status.DEAD);
     }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
 }
@@ -14,4 +14,9 @@ public class Dirt extends Ground {
     public Dirt() {
         super('.', "Dirt");
     }
-}
\ No newline at end of file
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
+}
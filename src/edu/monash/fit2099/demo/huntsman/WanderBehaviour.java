@@ -6,9 +6,9 @@ import edu.monash.fit2099.engine.actors.Behaviour;
 import edu.monash.fit2099.engine.positions.Exit;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
+import edu.monash.fit2099.engine.positions.RandomStream;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * Created by:
@@ -18,8 +18,6 @@ import java.util.Random;
  */
 public class WanderBehaviour implements Behaviour {
 
-    private final Random random = new Random();
-
     /**
      * Returns a MoveAction to wander to a random location, if possible.
      * If no movement is possible, returns null.
@@ -40,7 +38,7 @@ public class WanderBehaviour implements Behaviour {
         }
 
         if (!actions.isEmpty()) {
-            return actions.get(random.nextInt(actions.size()));
+            return actions.get(RandomStream.current().nextInt(actions.size()));
         }
         else {
             return null;
@@ -3,12 +3,12 @@ package edu.monash.fit2099.demo.mars.actions;
 import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.positions.GameMap;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import java.util.*;
 
 public class KickAction extends Action {
 
 	private final Actor target;
-	private final Random rand = new Random();
 
 	public KickAction(Actor target) {
 		this.target = target;
@@ -16,7 +16,7 @@ public class KickAction extends Action {
 
 	@Override
 	public String execute(Actor actor, GameMap map) {
-		if (rand.nextBoolean()) {
+		if (RandomStream.current().nextBoolean()) {
 			return target + " evades the clumsy kick.";
 		} else {
 			map.removeActor(target);
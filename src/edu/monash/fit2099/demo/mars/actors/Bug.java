@@ -9,11 +9,11 @@ import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.actors.Behaviour;
+import edu.monash.fit2099.engine.positions.RandomStream;
 
 
 public class Bug extends Actor {
 
-    private final Random rand = new Random();
     public List<Behaviour> behaviours = new ArrayList<>();
 
     public Bug() {
@@ -28,7 +28,7 @@ public class Bug extends Actor {
                 return action;
         }
 
-        return actions.get(rand.nextInt(actions.size()));
+        return actions.get(RandomStream.current().nextInt(actions.size()));
     }
 
     @Override
@@ -2,7 +2,8 @@ package edu.monash.fit2099.demo.mars.behaviours;
 
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actions.Action;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
+import edu.monash.fit2099.engine.positions.FlowField;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.actions.MoveActorAction;
@@ -10,7 +11,7 @@ import edu.monash.fit2099.engine.actors.Behaviour;
 
 /**
  * A class that figures out a MoveAction that will move the actor one step 
- * closer to a target Actor.
+ * closer to a target Actor, along the shortest way around whatever is in between.
  * @see edu.monash.fit2099.demo.mars.Application
  *
  * Created by:
@@ -37,30 +38,11 @@ public class FollowBehaviour implements Behaviour {
 			return null;
 		
 		Location here = map.locationOf(actor);
-		Location there = map.locationOf(target);
-
-		int currentDistance = distance(here, there);
-		for (Exit exit : here.getExits()) {
-			Location destination = exit.getDestination();
-			if (destination.canActorEnter(actor)) {
-				int newDistance = distance(destination, there);
-				if (newDistance < currentDistance) {
-					return new MoveActorAction(destination, exit.getName());
-				}
-			}
-		}
-
-		return null;
-	}
+		FlowField field = map.flowFieldTo(target, actor);
+		Direction direction = field == null ? null : field.nextStep(actor, here);
+		if (direction == null)
+			return null;
 
-	/**
-	 * Compute the Manhattan distance between two locations.
-	 * 
-	 * @param a the first location
-	 * @param b the first location
-	 * @return the number of steps between a and b if you only move in the four cardinal directions.
-	 */
-	private int distance(Location a, Location b) {
-		return Math.abs(a.x() - b.x()) + Math.abs(a.y() - b.y());
+		return new MoveActorAction(here.neighbour(direction), direction.getName());
 	}
 }
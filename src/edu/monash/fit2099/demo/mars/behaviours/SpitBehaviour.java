@@ -1,7 +1,7 @@
 package edu.monash.fit2099.demo.mars.behaviours;
 
 import edu.monash.fit2099.engine.actions.Action;
-import edu.monash.fit2099.engine.positions.NumberRange;
+import edu.monash.fit2099.engine.positions.IntRange;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
@@ -26,13 +26,13 @@ public class SpitBehaviour extends Action implements Behaviour {
 		Location here = map.locationOf(actor);
 		Location there = map.locationOf(target);
 
-		NumberRange xs, ys;
+		IntRange xs, ys;
 		if (here.x() == there.x() || here.y() == there.y()) {
-			xs = new NumberRange(Math.min(here.x(), there.x()), Math.abs(here.x() - there.x()) + 1);
-			ys = new NumberRange(Math.min(here.y(), there.y()), Math.abs(here.y() - there.y()) + 1);
+			xs = new IntRange(Math.min(here.x(), there.x()), Math.abs(here.x() - there.x()) + 1);
+			ys = new IntRange(Math.min(here.y(), there.y()), Math.abs(here.y() - there.y()) + 1);
 
-			for (int x : xs) {
-				for (int y : ys) {
+			for (int x = xs.min(); x <= xs.max(); x++) {
+				for (int y = ys.min(); y <= ys.max(); y++) {
 					if(map.at(x, y).getGround().blocksThrownObjects())
 						return null;
 				}
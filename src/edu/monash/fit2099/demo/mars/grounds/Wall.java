@@ -18,4 +18,9 @@ public class Wall extends Ground {
     public boolean blocksThrownObjects() {
         return true;
     }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
 }
@@ -25,6 +25,7 @@ public abstract class GameEntity {
      */
     public void addCapability(Enum<?> capability) {
         capabilitySet.addCapability(capability);
+        capabilitiesChanged();
     }
 
     /** 
@@ -34,6 +35,14 @@ public abstract class GameEntity {
      */
     public void removeCapability(Enum<?> capability) {
         capabilitySet.removeCapability(capability);
+        capabilitiesChanged();
+    }
+
+    /**
+     * Called after a capability has been added to or removed from this entity, for entities that
+     * keep something worked out from their capabilities.
+     */
+    protected void capabilitiesChanged() {
     }
 
     /**
@@ -46,6 +55,36 @@ public abstract class GameEntity {
         return capabilitySet.hasCapability(capability);
     }
 
+    /**
+     * Check whether the current entity has every capability in a set.
+     * Example #1: hasAllCapabilities(CapabilitySet.of(Status.HOSTILE, Ability.FLY)) will return true if the current entity
+     * has both capabilities.
+     * @param capabilities the capabilities to check against
+     * @return true if the current entity has all of them, false otherwise
+     */
+    public boolean hasAllCapabilities(CapabilitySet capabilities) {
+        return capabilitySet.containsAll(capabilities);
+    }
+
+    /**
+     * Check whether the current entity has any capability in a set.
+     * Example #1: hasAnyCapability(CapabilitySet.of(Status.HOSTILE, Status.WANTED)) will return true if the current entity
+     * has either capability.
+     * @param capabilities the capabilities to check against
+     * @return true if the current entity has at least one of them, false otherwise
+     */
+    public boolean hasAnyCapability(CapabilitySet capabilities) {
+        return capabilitySet.containsAny(capabilities);
+    }
+
+    /**
+     * Attach every capability of the current entity to a set, e.g. to gather those of an Actor and the items it carries.
+     * @param capabilities the set to add them to
+     */
+    public final void addCapabilitiesTo(CapabilitySet capabilities) {
+        capabilities.addAll(capabilitySet);
+    }
+
     /**
      * Get unmodifiable capabilities list
      * Example #1: if the current entity has the Status.POISONED and Ability.FALL_FROM_CLIFF capabilities, this method will return a list of
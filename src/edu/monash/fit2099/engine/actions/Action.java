@@ -42,4 +42,21 @@ public abstract class Action {
 	public Action getNextAction() {
 		return null;
 	}
+
+	/**
+	 * Can this Action still be performed?
+	 *
+	 * When turns are planned in two phases, an Action is chosen against the state of the
+	 * world at the start of the turn, and other Actors' Actions may have been performed by the
+	 * time it is executed. Actions that depend on something another Actor can change (e.g. the
+	 * destination being free) should check it here. An Action that can't be executed any more
+	 * is replaced by a DoNothingAction.
+	 *
+	 * @param actor The actor performing the action.
+	 * @param map The map the actor is on.
+	 * @return true by default
+	 */
+	public boolean canExecute(Actor actor, GameMap map) {
+		return true;
+	}
 }
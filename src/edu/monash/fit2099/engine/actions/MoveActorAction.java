@@ -71,6 +71,18 @@ public class MoveActorAction extends Action {
 		return menuDescription(actor);
 	}
 
+	/**
+	 * The destination must still be one the Actor can enter, i.e. nobody has moved there since.
+	 *
+	 * @param actor The actor performing the action.
+	 * @param map The map the actor is on.
+	 * @return true if the move can go ahead
+	 */
+	@Override
+	public boolean canExecute(Actor actor, GameMap map) {
+		return moveToLocation.canActorEnter(actor);
+	}
+
 	/**
 	 * Returns a description of this movement suitable to display in the menu.
 	 *
@@ -6,8 +6,9 @@ import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttribute;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
-import edu.monash.fit2099.engine.actors.attributes.BaseActorAttribute;
+import edu.monash.fit2099.engine.actors.attributes.AttributeStore;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
+import edu.monash.fit2099.engine.capabilities.CapabilitySet;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.displays.Printable;
 import edu.monash.fit2099.engine.weapons.IntrinsicWeapon;
@@ -15,6 +16,7 @@ import edu.monash.fit2099.engine.items.Item;
 import edu.monash.fit2099.engine.positions.GameMap;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * The Actor class represents a {@link GameEntity} that can perform an {@link Action}.
@@ -24,14 +26,17 @@ import java.util.*;
  */
 public abstract class Actor extends GameEntity implements Printable {
     private static final float DEFAULT_DAMAGE_MULTIPLIER = 1.0f;
+    private static final AtomicReferenceFieldUpdater<Actor, CapabilitySet> ALL_CAPABILITIES =
+            AtomicReferenceFieldUpdater.newUpdater(Actor.class, CapabilitySet.class, "allCapabilities");
 
     /**
      * A flexible and extensible attributes system that allows new attributes to be added,
      * which enables more interesting game mechanics.
      * For example, in addition to hit points, another attribute that represents its stamina can be added.
      * If the actor runs out of stamina, it will be unable to perform certain actions, such as attacking.
+     * Basic attributes are kept as plain ints, so reading and changing them doesn't box anything.
      */
-    private final Map<Enum<?>, ActorAttribute<Integer>> attributes = new HashMap<>();
+    private final AttributeStore attributes = new AttributeStore();
     /**
      * Actor's name
      */
@@ -44,6 +49,16 @@ public abstract class Actor extends GameEntity implements Printable {
      * A bag of items
      */
     private final List<Item> itemInventory = new ArrayList<>();
+    /**
+     * The capabilities of this Actor and of everything it carries, or null if they have changed
+     * since it was last worked out
+     */
+    private transient volatile CapabilitySet allCapabilities;
+    /**
+     * Counts the times allCapabilities has been forgotten, so that a set worked out while it
+     * was can be taken back
+     */
+    private transient volatile int capabilityChanges;
     /**
      * Status effects of the current actor,
      * e.g., the current actor might be poisoned, so a Poison status effect
@@ -56,6 +71,17 @@ public abstract class Actor extends GameEntity implements Printable {
     protected float damageMultiplier;
     private final Wallet wallet;
     private IntrinsicWeapon intrinsicWeapon;
+    /**
+     * The registry this Actor is placed in, and its slot there. Maintained by {@link ActorLocationsIterator}.
+     */
+    ActorLocationsIterator registry;
+    int registrySlot = -1;
+    /**
+     * The store this Actor's int attributes are kept in while it is placed, and its row there. Maintained by
+     * {@link EntityStore}.
+     */
+    EntityStore entities;
+    int entityRow = -1;
 
     /**
      * The constructor of the Actor class.
@@ -68,7 +94,7 @@ public abstract class Actor extends GameEntity implements Printable {
         this.name = name;
         this.displayChar = displayChar;
         this.damageMultiplier = DEFAULT_DAMAGE_MULTIPLIER;
-        this.addAttribute(BaseActorAttributes.HEALTH, new BaseActorAttribute(hitPoints));
+        this.attributes.putInt(BaseActorAttributes.HEALTH, hitPoints);
         this.wallet = new Wallet();
     }
 
@@ -79,14 +105,15 @@ public abstract class Actor extends GameEntity implements Printable {
      * @return true if the actor has the queried attribute, false otherwise
      */
     public boolean hasAttribute(Enum<?> name) {
-        return this.attributes.containsKey(name);
+        return this.attributes.has(name);
     }
 
     /**
      * A method for adding an attribute to the actor.
      *
      * @param name      the name of the attribute to be added, which must be a value of an enumeration, such as BaseActorAttributes.STAMINA.
-     * @param attribute an object that implements the {@link ActorAttribute} interface.
+     * @param attribute an object that implements the {@link ActorAttribute} interface. A {@link edu.monash.fit2099.engine.actors.attributes.BaseActorAttribute}
+     *                  is copied, so changing it afterwards doesn't change the actor's attribute.
      */
     public void addAttribute(Enum<?> name, ActorAttribute<Integer> attribute) {
         this.attributes.put(name, attribute);
@@ -111,11 +138,11 @@ public abstract class Actor extends GameEntity implements Printable {
      */
     public void modifyAttribute(Enum<?> name, ActorAttributeOperations operation, int value) throws IllegalArgumentException {
         if (operation == ActorAttributeOperations.INCREASE) {
-            this.attributes.get(name).increase(value);
+            this.attributes.addInt(name, value);
         } else if (operation == ActorAttributeOperations.DECREASE) {
-            this.attributes.get(name).decrease(value);
+            this.attributes.addInt(name, -value);
         } else if (operation == ActorAttributeOperations.UPDATE) {
-            this.attributes.get(name).update(value);
+            this.attributes.setInt(name, value);
         } else {
             throw new IllegalArgumentException("Invalid operation for modifying the value of actor's attribute.");
         }
@@ -131,15 +158,7 @@ public abstract class Actor extends GameEntity implements Printable {
      * @throws IllegalArgumentException if the operation is invalid.
      */
     public void modifyAttributeMaximum(Enum<?> name, ActorAttributeOperations operation, int value) throws IllegalArgumentException {
-        if (operation == ActorAttributeOperations.INCREASE) {
-            this.attributes.get(name).increaseMaximum(value);
-        } else if (operation == ActorAttributeOperations.DECREASE) {
-            this.attributes.get(name).decreaseMaximum(value);
-        } else if (operation == ActorAttributeOperations.UPDATE) {
-            this.attributes.get(name).updateMaximum(value);
-        } else {
-            throw new IllegalArgumentException("Invalid operation for modifying the maximum value of actor's attribute.");
-        }
+        this.attributes.modifyMaximum(name, operation, value);
     }
 
     /**
@@ -149,11 +168,10 @@ public abstract class Actor extends GameEntity implements Printable {
      * @return the value of the attribute or null if the attribute doesn't exist
      */
     public Integer getAttribute(Enum<?> name) {
-        ActorAttribute<Integer> attribute = this.attributes.get(name);
-        if (attribute == null) {
+        if (!this.attributes.has(name)) {
             return null;
         }
-        return attribute.get();
+        return this.attributes.getInt(name);
     }
 
     /**
@@ -163,11 +181,71 @@ public abstract class Actor extends GameEntity implements Printable {
      * @return the maximum value of the attribute or null if the attribute doesn't exist
      */
     public Integer getAttributeMaximum(Enum<?> name) {
-        ActorAttribute<Integer> attribute = this.attributes.get(name);
-        if (attribute == null) {
+        if (!this.attributes.has(name)) {
             return null;
         }
-        return attribute.getMaximum();
+        return this.attributes.getMaximumInt(name);
+    }
+
+    /**
+     * A method for getting the value of an attribute without boxing it.
+     *
+     * @param name the name of the attribute to be retrieved, which must be a value of an enumeration, such as BaseActorAttributes.STAMINA.
+     * @return the value of the attribute
+     * @throws IllegalArgumentException if the attribute doesn't exist
+     */
+    public int getIntAttribute(Enum<?> name) {
+        return this.attributes.getInt(name);
+    }
+
+    /**
+     * A method for getting the maximum value of an attribute without boxing it.
+     *
+     * @param name the name of the attribute to be retrieved, which must be a value of an enumeration, such as BaseActorAttributes.STAMINA.
+     * @return the maximum value of the attribute
+     * @throws IllegalArgumentException if the attribute doesn't exist
+     */
+    public int getIntAttributeMaximum(Enum<?> name) {
+        return this.attributes.getMaximumInt(name);
+    }
+
+    /**
+     * A method for adding to the value of an attribute, or taking from it if the amount is negative.
+     * The value never goes above the attribute's maximum, nor below 0.
+     *
+     * @param name   the name of the attribute to be modified, which must be a value of an enumeration, such as BaseActorAttributes.STAMINA.
+     * @param amount the amount to add
+     * @throws IllegalArgumentException if the attribute doesn't exist
+     */
+    public void addIntAttribute(Enum<?> name, int amount) {
+        this.attributes.addInt(name, amount);
+    }
+
+    /**
+     * The row this Actor has in an {@link EntityStore}, if the map it is on keeps one.
+     *
+     * @return the row, or -1 if it hasn't got one
+     */
+    public int getEntityRow() {
+        return entityRow;
+    }
+
+    /**
+     * Move this Actor's int attributes into a row of an {@link EntityStore}.
+     */
+    void attachTo(EntityStore store, int row) {
+        this.entities = store;
+        this.entityRow = row;
+        this.attributes.attach(store, row);
+    }
+
+    /**
+     * Move this Actor's int attributes back out of its {@link EntityStore}.
+     */
+    void detachFrom() {
+        this.attributes.detach();
+        this.entities = null;
+        this.entityRow = -1;
     }
 
     /**
@@ -227,8 +305,8 @@ public abstract class Actor extends GameEntity implements Printable {
     @Override
     public String toString() {
         return name + " (" +
-                this.getAttribute(BaseActorAttributes.HEALTH) + "/" +
-                this.getAttributeMaximum(BaseActorAttributes.HEALTH) +
+                this.getIntAttribute(BaseActorAttributes.HEALTH) + "/" +
+                this.getIntAttributeMaximum(BaseActorAttributes.HEALTH) +
                 ")";
     }
 
@@ -258,6 +336,8 @@ public abstract class Actor extends GameEntity implements Printable {
      */
     public void addItemToInventory(Item item) {
         itemInventory.add(item);
+        item.setCarrier(this);
+        forgetCapabilities();
     }
 
     /**
@@ -268,7 +348,11 @@ public abstract class Actor extends GameEntity implements Printable {
      * @param item The Item to remove.
      */
     public void removeItemFromInventory(Item item) {
-        itemInventory.remove(item);
+        if (itemInventory.remove(item)) {
+            if (item.getCarrier() == this && !itemInventory.contains(item))
+                item.setCarrier(null);
+            forgetCapabilities();
+        }
     }
 
     /**
@@ -322,6 +406,78 @@ public abstract class Actor extends GameEntity implements Printable {
      */
     public abstract Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display);
 
+    /**
+     * Can this Actor's playTurn() run at the same time as other Actors'?
+     * <p>
+     * When the World plans turns in two phases (see
+     * {@link edu.monash.fit2099.engine.positions.World#setTurnPlanningExecutor}), the turns of
+     * Actors that return true are chosen concurrently, against the state of the world at the
+     * start of the turn. Such an Actor may change itself and the maps (its changes are held back
+     * until its turn comes), but must not change other Actors, read the keyboard, or rely on
+     * seeing what the Actors before it did this turn.
+     *
+     * @return false, i.e. the turn is played the usual way
+     */
+    public boolean canPlanTurnConcurrently() {
+        return false;
+    }
+
+    /**
+     * Does this Actor read the keyboard when it plays its turn, e.g. through a Menu?
+     * <p>
+     * Input can't be read while a turn is planned, so the World refuses to plan the turns of
+     * Actors that return true concurrently, even if {@link #canPlanTurnConcurrently()} says it may.
+     *
+     * @return false
+     */
+    public boolean readsInput() {
+        return false;
+    }
+
+    /**
+     * Remember this Actor's attributes, capabilities, balance and damage multiplier as they are now.
+     * <p>
+     * The World does this before it plans a turn, so that a planned turn it has to turn down
+     * (see {@link #canPlanTurnConcurrently()}) can be taken back as a whole, including the
+     * changes the Actor made to itself while choosing it.
+     *
+     * @return what to pass to {@link #restoreState(SavedState)}
+     */
+    public SavedState saveState() {
+        return new SavedState(this);
+    }
+
+    /**
+     * Put this Actor's attributes, capabilities, balance and damage multiplier back as they were.
+     *
+     * @param saved what {@link #saveState()} returned for this Actor
+     */
+    public void restoreState(SavedState saved) {
+        attributes.restore(saved.attributes);
+        capabilitySet.clear();
+        capabilitySet.addAll(saved.capabilities);
+        wallet.addBalance(saved.balance - wallet.getBalance());
+        damageMultiplier = saved.damageMultiplier;
+        forgetCapabilities();
+    }
+
+    /**
+     * The state of an Actor that {@link #saveState()} remembers.
+     */
+    public static final class SavedState {
+        private final AttributeStore attributes;
+        private final CapabilitySet capabilities = new CapabilitySet();
+        private final int balance;
+        private final float damageMultiplier;
+
+        private SavedState(Actor actor) {
+            this.attributes = actor.attributes.copy();
+            this.capabilities.addAll(actor.capabilitySet);
+            this.balance = actor.wallet.getBalance();
+            this.damageMultiplier = actor.damageMultiplier;
+        }
+    }
+
     /**
      * Returns a new collection of the Actions that the otherActor can do to the current Actor.
      *
@@ -344,7 +500,7 @@ public abstract class Actor extends GameEntity implements Printable {
      * @return true if and only if hitPoints is positive.
      */
     public boolean isConscious() {
-        return this.getAttribute(BaseActorAttributes.HEALTH) > 0;
+        return this.attributes.getInt(BaseActorAttributes.HEALTH) > 0;
     }
 
     /**
@@ -377,7 +533,7 @@ public abstract class Actor extends GameEntity implements Printable {
      * @param damage the damage points that the actor receives
      */
     public void hurt(int damage) {
-        this.modifyAttribute(BaseActorAttributes.HEALTH, ActorAttributeOperations.DECREASE, damage);
+        this.attributes.addInt(BaseActorAttributes.HEALTH, -damage);
     }
 
     /**
@@ -386,7 +542,7 @@ public abstract class Actor extends GameEntity implements Printable {
      * @param points the health points that the actor receives
      */
     public void heal(int points) {
-        this.modifyAttribute(BaseActorAttributes.HEALTH, ActorAttributeOperations.INCREASE, points);
+        this.attributes.addInt(BaseActorAttributes.HEALTH, points);
     }
 
     /**
@@ -414,11 +570,76 @@ public abstract class Actor extends GameEntity implements Printable {
      */
     @Override
     public final boolean hasCapability(Enum<?> capability) {
-        for (Item item : itemInventory) {
-            if (item.hasCapability(capability)) {
-                return true;
+        return allCapabilities().hasCapability(capability);
+    }
+
+    /**
+     * Returns true if and only if the current Actor, or the items it is carrying between them, have
+     * every capability in a set.
+     *
+     * @param capabilities the capabilities required
+     * @return true if and only if all of them are there
+     */
+    @Override
+    public final boolean hasAllCapabilities(CapabilitySet capabilities) {
+        return allCapabilities().containsAll(capabilities);
+    }
+
+    /**
+     * Returns true if and only if the current Actor, or any of the items it is carrying, has a
+     * capability in a set.
+     *
+     * @param capabilities the capabilities to look for
+     * @return true if and only if at least one of them is there
+     */
+    @Override
+    public final boolean hasAnyCapability(CapabilitySet capabilities) {
+        return allCapabilities().containsAny(capabilities);
+    }
+
+    /**
+     * Called by a carried Item when its capabilities change.
+     */
+    public final void inventoryCapabilitiesChanged() {
+        forgetCapabilities();
+    }
+
+    @Override
+    protected void capabilitiesChanged() {
+        forgetCapabilities();
+    }
+
+    private void forgetCapabilities() {
+        capabilityChanges++;
+        allCapabilities = null;
+        EntityStore entities = this.entities;
+        if (entities != null)
+            entities.capabilitiesChanged(entityRow);
+        ActorLocationsIterator registry = this.registry;
+        if (registry != null)
+            registry.capabilitiesChanged(this);
+    }
+
+    /**
+     * The capabilities of this Actor and of everything it carries, worked out again only after
+     * one of them has changed. A new set is made each time, so other threads never see one
+     * half built.
+     * <p>
+     * A change can come while the set is being worked out. Either it clears the set after it
+     * is put in place, or it has already been counted by then, and the set is taken back.
+     */
+    CapabilitySet allCapabilities() {
+        CapabilitySet all = allCapabilities;
+        if (all == null) {
+            int changes = capabilityChanges;
+            all = new CapabilitySet();
+            addCapabilitiesTo(all);
+            for (Item item : itemInventory) {
+                item.addCapabilitiesTo(all);
             }
+            if (ALL_CAPABILITIES.compareAndSet(this, null, all) && changes != capabilityChanges)
+                ALL_CAPABILITIES.compareAndSet(this, all, null);
         }
-        return capabilitySet.hasCapability(capability);
+        return all;
     }
 }
@@ -8,55 +8,109 @@ import java.util.*;
  * Represents a bimap of locations and actors. Hence it enforces the one actor
  * per location rule. Has a nifty iterator that lets us modify the collection
  * while iterating it.
- *
+ * <p>
+ * Actors are kept in an array of slots, in the order they were added, and each Actor
+ * remembers its own slot, so adding, removing and finding an Actor take constant time.
+ * The other direction, from a Location to its Actor, is kept in the occupancy grid of the
+ * Location's GameMap, so checking a Location is an array lookup with no hashing.
+ * Removing an Actor only leaves a tombstone in its slot; the tombstones are swept out by
+ * {@link #compact()}, which must not be called while a pass over the Actors is under way.
+ * An Actor can only be placed in one registry at a time.
  */
 public class ActorLocationsIterator implements Iterable<Actor> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * The Actors in the order they were added; null marks a removed Actor
+	 */
+	private Actor[] actors = new Actor[INITIAL_CAPACITY];
+	/**
+	 * The Location of the Actor in the same slot
+	 */
+	private Location[] locations = new Location[INITIAL_CAPACITY];
 	/**
-	 * A mapping of location to the actor
+	 * Number of slots in use, including tombstones
 	 */
-	private final Map<Location, Actor> locationToActor;
+	private int size = 0;
 	/**
-	 * A mapping of actor to location
+	 * Number of tombstones below size
 	 */
-	private final Map<Actor, Location> actorToLocation;
+	private int removed = 0;
 	/**
 	 * Current actor
 	 */
 	private Actor player;
+	/**
+	 * The store the placed Actors get rows in, or null if they don't
+	 */
+	private EntityStore entities;
 
 	/**
 	 * Default constructor.
 	 */
 	public ActorLocationsIterator() {
-		locationToActor = new HashMap<Location, Actor>();
-		actorToLocation = new HashMap<Actor, Location>();
 	}
 
 	/**
-	 * Adds an Actor and identifies it as the player. 
+	 * Adds an Actor and identifies it as the player.
 	 * The player always gets to go first in any turn.
 	 * @param player the player
 	 */
 	public void setPlayer(Actor player) {
 		this.player = player;
 	}
-			
-			
+
+	/**
+	 * Give every Actor placed here a row in an {@link EntityStore}, starting with those that
+	 * already are, so that systems can sweep over them without visiting each Actor in turn.
+	 *
+	 * @param entities the store, or null to stop keeping one
+	 */
+	public void setEntityStore(EntityStore entities) {
+		for (int slot = 0; slot < size; slot++) {
+			Actor actor = actors[slot];
+			if (actor == null)
+				continue;
+			if (this.entities != null)
+				this.entities.detach(actor);
+			if (entities != null)
+				entities.attach(actor, locations[slot]);
+		}
+		this.entities = entities;
+	}
+
+	/**
+	 * @return the store the Actors placed here have rows in, or null if there isn't one
+	 */
+	public EntityStore getEntityStore() {
+		return entities;
+	}
+
 	/**
 	 * Add a new Actor at the given Location.
 	 *
 	 * @param actor the Actor to place
 	 * @param location where to place the Actor
-	 * @throws IllegalArgumentException if the Actor is already placed or there is already an Actor at the target Location
+	 * @throws IllegalArgumentException if the Actor is already placed (here or in another registry) or there is already an Actor at the target Location
 	 */
 	public void add(Actor actor, Location location) {
-		if(actorToLocation.containsKey(actor))
+		if(actor.registry != null)
 			throw new IllegalArgumentException();
-		if(locationToActor.containsKey(location))
+		if(isAnActorAt(location))
 			throw new IllegalArgumentException();
-		
-		actorToLocation.put(actor, location);
-		locationToActor.put(location, actor);
+
+		if (size == actors.length) {
+			actors = Arrays.copyOf(actors, size * 2);
+			locations = Arrays.copyOf(locations, size * 2);
+		}
+		actors[size] = actor;
+		locations[size] = location;
+		actor.registry = this;
+		actor.registrySlot = size;
+		size++;
+		location.map().setOccupant(location, actor);
+		if (entities != null)
+			entities.attach(actor, location);
 	}
 
 	/**
@@ -65,9 +119,18 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 	 * @param actor the Actor to remove
 	 */
 	public void remove(Actor actor) {
-		Location location = actorToLocation.get(actor);
-		actorToLocation.remove(actor);
-		locationToActor.remove(location);
+		if (!contains(actor))
+			return;
+
+		int slot = actor.registrySlot;
+		vacate(locations[slot]);
+		actors[slot] = null;
+		locations[slot] = null;
+		actor.registry = null;
+		actor.registrySlot = -1;
+		removed++;
+		if (entities != null)
+			entities.detach(actor);
 	}
 
 	/**
@@ -80,11 +143,30 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 	public void move(Actor actor, Location newLocation) {
 		if(isAnActorAt(newLocation))
 			throw new IllegalArgumentException("Can't move to another actor");
+		if(!contains(actor))
+			throw new IllegalArgumentException("Can't move an actor that isn't placed");
 
-		Location oldLocation = actorToLocation.get(actor);
-		actorToLocation.put(actor, newLocation);
-		locationToActor.remove(oldLocation);
-		locationToActor.put(newLocation, actor);
+		int slot = actor.registrySlot;
+		vacate(locations[slot]);
+		locations[slot] = newLocation;
+		newLocation.map().setOccupant(newLocation, actor);
+		if (entities != null)
+			entities.moved(actor.entityRow, newLocation);
+	}
+
+	/**
+	 * Let the map of a placed Actor know that its capabilities have changed.
+	 *
+	 * @param actor the Actor
+	 */
+	void capabilitiesChanged(Actor actor) {
+		Location location = locations[actor.registrySlot];
+		if (location != null)
+			location.map().occupantCapabilitiesChanged(location);
+	}
+
+	private void vacate(Location location) {
+		location.map().setOccupant(location, null);
 	}
 
 	/**
@@ -94,7 +176,7 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 	 * @return true if and only if actor is somewhere in the system
 	 */
 	public boolean contains(Actor actor) {
-		return actorToLocation.containsKey(actor);
+		return actor != null && actor.registry == this;
 	}
 
 	/**
@@ -104,17 +186,17 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 	 * @return true if and only if an Actor is at the given Location.
 	 */
 	public boolean isAnActorAt(Location location) {
-		return locationToActor.containsKey(location);
+		return location.map().occupantAt(location) != null;
 	}
 
 	/**
 	 * Returns a reference to the Actor at the given location, if there is one.
 	 *
 	 * @param location the location to check
-	 * @return a reference to the Actor, or null if there isn't one 
+	 * @return a reference to the Actor, or null if there isn't one
 	 */
 	public Actor getActorAt(Location location) {
-		return locationToActor.get(location);
+		return location.map().occupantAt(location);
 	}
 
 	/**
@@ -123,32 +205,94 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 	 * @return the Location containing actor
 	 */
 	public Location locationOf(Actor actor) {
-		return actorToLocation.get(actor);
+		if (!contains(actor))
+			return null;
+		return locations[actor.registrySlot];
+	}
+
+	/**
+	 * @return the number of Actors in the system
+	 */
+	public int size() {
+		return size - removed;
+	}
+
+	/**
+	 * Sweep out the slots of removed Actors, keeping the others in order.
+	 * Only call this between passes over the Actors, e.g. at the start of a turn.
+	 */
+	public void compact() {
+		if (removed == 0)
+			return;
+
+		int live = 0;
+		for (int slot = 0; slot < size; slot++) {
+			Actor actor = actors[slot];
+			if (actor != null) {
+				actors[live] = actor;
+				locations[live] = locations[slot];
+				actor.registrySlot = live;
+				live++;
+			}
+		}
+		Arrays.fill(actors, live, size, null);
+		Arrays.fill(locations, live, size, null);
+		size = live;
+		removed = 0;
+	}
+
+	/**
+	 * The number of positions in a pass over the Actors in turn order that starts now: one for
+	 * the player, and one for each slot in use. Together with {@link #inTurnOrder(int, int)} this
+	 * makes a pass without an Iterator, for the loops that run every turn:
+	 * <pre>
+	 * int length = actorLocations.passLength();
+	 * for (int i = 0; i < length; i++) {
+	 *     Actor actor = actorLocations.inTurnOrder(i, length);
+	 *     if (actor != null)
+	 *         ...
+	 * }
+	 * </pre>
+	 * Such a pass sees the same Actors as the {@link #iterator() iterator}: Actors added during
+	 * the pass wait for the next one, and Actors removed during it are skipped.
+	 *
+	 * @return the length of the pass
+	 */
+	public int passLength() {
+		return size + 1;
+	}
+
+	/**
+	 * The Actor at a position of a pass over the Actors in turn order: the player at position 0,
+	 * then the others in the order they were added.
+	 *
+	 * @param position   the position, from 0 to length - 1
+	 * @param passLength what {@link #passLength()} returned when the pass started
+	 * @return the Actor, or null if there is none at that position, e.g. because it was removed
+	 */
+	public Actor inTurnOrder(int position, int passLength) {
+		if (position == 0)
+			return contains(player) && player.registrySlot < passLength - 1 ? player : null;
+		Actor actor = actors[position - 1];
+		return actor == player ? null : actor;
 	}
 
 	/**
 	 * Class to allow iterating over all Actors in the system, player first
 	 * This allows Actors to take turns in a known order.
+	 * <p>
+	 * The pass covers the slots that were in use when it started, so Actors added during
+	 * the pass wait for the next one, and Actors removed during the pass are skipped.
 	 */
 	class ActorIterator implements Iterator<Actor> {
-		Map<Actor, Location> actorLocations;
-		List<Actor> actors;
-
 		/**
-		 * Constructor.
-		 *
-		 * @param actorLocations the collection of mappings between Actors and Locations
+		 * The length of this pass
 		 */
-		public ActorIterator(Map<Actor, Location> actorLocations) {
-			this.actorLocations = actorLocations;
-			actors = new ArrayList<Actor>(actorLocations.keySet());
-			
-			// Make sure the player is first. 
-			if(actors.contains(player)) {
-				actors.remove(player);
-				actors.add(0, player);
-			}
-		}
+		private final int length = passLength();
+		/**
+		 * The next position to look at
+		 */
+		private int cursor = 0;
 
 		/**
 		 * @see Iterator#hasNext()
@@ -156,12 +300,9 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 		 */
 		@Override
 		public boolean hasNext() {
-			for (Actor actor : actors) {
-				if (actorLocations.containsKey(actor))
-					return true;
-			}
-
-			return false;
+			while (cursor < length && inTurnOrder(cursor, length) == null)
+				cursor++;
+			return cursor < length;
 		}
 
 		/**
@@ -169,21 +310,20 @@ public class ActorLocationsIterator implements Iterable<Actor> {
 		 */
 		@Override
 		public Actor next() {
-			while (!actors.isEmpty()) {
-				Actor actor = actors.remove(0);
-				if (actorLocations.containsKey(actor))
-					return actor;
-			}
-
-			throw new ConcurrentModificationException();
+			if (!hasNext())
+				throw new NoSuchElementException();
+			return inTurnOrder(cursor++, length);
 		}
 	}
 
 	/**
+	 * A new pass over the Actors, player first. The engine's own loops that run every turn
+	 * use {@link #inTurnOrder(int, int)} instead, which needs no Iterator.
+	 *
 	 * @see Iterable#iterator()
 	 */
 	@Override
 	public Iterator<Actor> iterator() {
-		return new ActorIterator(actorToLocation);
+		return new ActorIterator();
 	}
 }
@@ -0,0 +1,321 @@
+package edu.monash.fit2099.engine.actors;
+
+import edu.monash.fit2099.engine.capabilities.CapabilityRegistry;
+import edu.monash.fit2099.engine.capabilities.CapabilitySet;
+import edu.monash.fit2099.engine.positions.GameMap;
+import edu.monash.fit2099.engine.positions.Location;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the data that is read most often about many Actors in parallel arrays, a row per Actor,
+ * so that a system can sweep over all of them in a tight loop instead of visiting one object
+ * after another.
+ * <p>
+ * A row holds where its Actor is (map, x and y), the points and maximum of each of its int
+ * attributes (a column per attribute name, e.g. health, stamina or an egg counter), and the
+ * capabilities of the Actor and everything it carries as a bitmask numbered by the
+ * {@link CapabilityRegistry}. While an Actor has a row, its int attributes live in the row
+ * and nowhere else, and the Actor object is a handle for them. Other attributes, e.g. a
+ * {@link edu.monash.fit2099.engine.actors.attributes.CountdownAttribute}, stay with the Actor.
+ * The capability bits are worked out from the Actor's capabilities, and brought up to date
+ * before each sweep.
+ * <p>
+ * The store is optional: an {@link ActorLocationsIterator} given one with
+ * {@link ActorLocationsIterator#setEntityStore(EntityStore)} gives a row to every Actor that is
+ * placed, and frees it when the Actor is removed. Rows are reused, so a row number only stands
+ * for an Actor while it is placed. Sweeps must run on the World's thread, between turns or
+ * during a turn played on that thread.
+ */
+public class EntityStore {
+	private static final int INITIAL_CAPACITY = 64;
+
+	private Actor[] actors = new Actor[INITIAL_CAPACITY];
+	private GameMap[] maps = new GameMap[INITIAL_CAPACITY];
+	private int[] xs = new int[INITIAL_CAPACITY];
+	private int[] ys = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The attribute names of the int columns, and the columns themselves
+	 */
+	private Enum<?>[] columnNames = new Enum<?>[4];
+	private int[][] points = new int[4][];
+	private int[][] maximums = new int[4][];
+	private int columnCount = 0;
+
+	/**
+	 * Capability bits, stride words per row. Worked out again from the Actors after a snapshot,
+	 * since another run numbers capabilities differently.
+	 */
+	private transient long[] capabilities;
+	private transient int stride;
+	/**
+	 * Rows whose capability bits are out of date
+	 */
+	private transient boolean[] stale;
+	private transient volatile boolean anyStale;
+
+	/**
+	 * One past the highest row in use
+	 */
+	private int size = 0;
+	/**
+	 * Rows below size that are free, to be used again before size grows
+	 */
+	private int[] free = new int[INITIAL_CAPACITY];
+	private int freeCount = 0;
+
+	/**
+	 * @return one past the highest row that may be in use; rows below it whose Actor is null are free
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param row a row
+	 * @return the Actor in that row, or null if the row is free
+	 */
+	public Actor actor(int row) {
+		return actors[row];
+	}
+
+	/**
+	 * @param row a row in use
+	 * @return the GameMap its Actor is on
+	 */
+	public GameMap map(int row) {
+		return maps[row];
+	}
+
+	/**
+	 * @param row a row in use
+	 * @return the x coordinate of its Actor
+	 */
+	public int x(int row) {
+		return xs[row];
+	}
+
+	/**
+	 * @param row a row in use
+	 * @return the y coordinate of its Actor
+	 */
+	public int y(int row) {
+		return ys[row];
+	}
+
+	/**
+	 * Find the column of an int attribute, adding one if there isn't one yet.
+	 *
+	 * @param name the name of the attribute
+	 * @return the number of its column
+	 */
+	public int column(Enum<?> name) {
+		for (int i = 0; i < columnCount; i++) {
+			if (columnNames[i] == name)
+				return i;
+		}
+		if (columnCount == columnNames.length) {
+			columnNames = Arrays.copyOf(columnNames, columnCount * 2);
+			points = Arrays.copyOf(points, columnCount * 2);
+			maximums = Arrays.copyOf(maximums, columnCount * 2);
+		}
+		columnNames[columnCount] = name;
+		points[columnCount] = new int[actors.length];
+		maximums[columnCount] = new int[actors.length];
+		return columnCount++;
+	}
+
+	/**
+	 * The points of an int attribute, for every row. Rows whose Actor hasn't got the attribute
+	 * hold 0. The array is replaced when the store grows, so don't keep it across turns.
+	 *
+	 * @param column the number of the column
+	 * @return the points, indexed by row
+	 */
+	public int[] points(int column) {
+		return points[column];
+	}
+
+	/**
+	 * The maximums of an int attribute, for every row. The array is replaced when the store
+	 * grows, so don't keep it across turns.
+	 *
+	 * @param column the number of the column
+	 * @return the maximums, indexed by row
+	 */
+	public int[] maximums(int column) {
+		return maximums[column];
+	}
+
+	/**
+	 * @param row        a row in use
+	 * @param capability a capability
+	 * @return true if the row's Actor, or something it carries, has the capability
+	 */
+	public boolean hasCapability(int row, Enum<?> capability) {
+		refreshCapabilities();
+		int index = CapabilityRegistry.indexOf(capability);
+		int word = index >>> 6;
+		return word < stride && (capabilities[row * stride + word] & (1L << index)) != 0;
+	}
+
+	/**
+	 * Visit every Actor that has a capability, or carries something that has it, in row order.
+	 * The Actors can be changed and removed along the way.
+	 *
+	 * @param capability the capability to look for
+	 * @param action     what to do with each Actor
+	 */
+	public void forEachWith(Enum<?> capability, Consumer<Actor> action) {
+		refreshCapabilities();
+		int index = CapabilityRegistry.indexOf(capability);
+		int word = index >>> 6;
+		if (word >= stride)
+			return;
+		long bit = 1L << index;
+		int end = size;
+		for (int row = 0; row < end; row++) {
+			if ((capabilities[row * stride + word] & bit) != 0 && actors[row] != null)
+				action.accept(actors[row]);
+		}
+	}
+
+	/**
+	 * Visit every Actor on a GameMap that has a capability, or carries something that has it.
+	 *
+	 * @param map        the GameMap
+	 * @param capability the capability to look for
+	 * @param action     what to do with each Actor
+	 * @see #forEachWith(Enum, Consumer)
+	 */
+	public void forEachWith(GameMap map, Enum<?> capability, Consumer<Actor> action) {
+		refreshCapabilities();
+		int index = CapabilityRegistry.indexOf(capability);
+		int word = index >>> 6;
+		if (word >= stride)
+			return;
+		long bit = 1L << index;
+		int end = size;
+		for (int row = 0; row < end; row++) {
+			if ((capabilities[row * stride + word] & bit) != 0 && maps[row] == map && actors[row] != null)
+				action.accept(actors[row]);
+		}
+	}
+
+	/**
+	 * Give an Actor a row. Its int attributes move into the row.
+	 *
+	 * @param actor    the Actor
+	 * @param location where it is
+	 */
+	void attach(Actor actor, Location location) {
+		int row = freeCount > 0 ? free[--freeCount] : size++;
+		if (row >= actors.length)
+			grow();
+		actors[row] = actor;
+		moved(row, location);
+		actor.attachTo(this, row);
+		capabilitiesChanged(row);
+	}
+
+	/**
+	 * Free an Actor's row. Its int attributes move back into the Actor.
+	 *
+	 * @param actor the Actor
+	 */
+	void detach(Actor actor) {
+		int row = actor.entityRow;
+		actor.detachFrom();
+		actors[row] = null;
+		maps[row] = null;
+		for (int i = 0; i < columnCount; i++) {
+			points[i][row] = 0;
+			maximums[i][row] = 0;
+		}
+		if (capabilities != null)
+			Arrays.fill(capabilities, row * stride, (row + 1) * stride, 0L);
+		if (freeCount == free.length)
+			free = Arrays.copyOf(free, freeCount * 2);
+		free[freeCount++] = row;
+	}
+
+	/**
+	 * Record where the Actor in a row has moved to.
+	 *
+	 * @param row      the row
+	 * @param location its new Location
+	 */
+	void moved(int row, Location location) {
+		maps[row] = location.map();
+		xs[row] = location.x();
+		ys[row] = location.y();
+	}
+
+	/**
+	 * Note that the capabilities of the Actor in a row, or of something it carries, have changed.
+	 * May be called from any thread, for the row of the Actor whose turn that thread is playing.
+	 *
+	 * @param row the row
+	 */
+	void capabilitiesChanged(int row) {
+		if (stale == null || row >= stale.length)
+			return; // the whole table is worked out on the next sweep anyway
+		stale[row] = true;
+		anyStale = true;
+	}
+
+	private void grow() {
+		int capacity = actors.length * 2;
+		actors = Arrays.copyOf(actors, capacity);
+		maps = Arrays.copyOf(maps, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		for (int i = 0; i < columnCount; i++) {
+			points[i] = Arrays.copyOf(points[i], capacity);
+			maximums[i] = Arrays.copyOf(maximums[i], capacity);
+		}
+		capabilities = null; // rebuilt at the new size on the next sweep
+	}
+
+	/**
+	 * Bring the capability bits up to date: the rows that changed, or the whole table if it is
+	 * missing or too narrow for the capabilities numbered so far.
+	 */
+	private void refreshCapabilities() {
+		int needed = (CapabilityRegistry.size() + 63) >>> 6;
+		if (capabilities == null || stride < needed) {
+			stride = Math.max(needed, 1);
+			capabilities = new long[actors.length * stride];
+			stale = new boolean[actors.length];
+			anyStale = false;
+			for (int row = 0; row < size; row++) {
+				writeCapabilities(row);
+			}
+			return;
+		}
+		if (!anyStale)
+			return;
+		anyStale = false;
+		for (int row = 0; row < size; row++) {
+			if (stale[row]) {
+				stale[row] = false;
+				writeCapabilities(row);
+			}
+		}
+	}
+
+	private void writeCapabilities(int row) {
+		int start = row * stride;
+		Actor actor = actors[row];
+		if (actor == null) {
+			Arrays.fill(capabilities, start, start + stride, 0L);
+			return;
+		}
+		CapabilitySet all = actor.allCapabilities();
+		for (int word = 0; word < stride; word++) {
+			capabilities[start + word] = all.word(word);
+		}
+	}
+}
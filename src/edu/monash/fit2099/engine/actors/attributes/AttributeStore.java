@@ -0,0 +1,318 @@
+package edu.monash.fit2099.engine.actors.attributes;
+
+import edu.monash.fit2099.engine.actors.EntityStore;
+
+import java.util.Arrays;
+
+/**
+ * The attributes of an actor, kept as plain ints.
+ * <p>
+ * An attribute added as a {@link BaseActorAttribute} is taken apart into an int slot for its
+ * points and one for its maximum, and behaves exactly as the BaseActorAttribute would, without
+ * boxing a single Integer. Any other {@link ActorAttribute}, e.g. a {@link CountdownAttribute},
+ * is kept as it is and asked for its values.
+ * <p>
+ * An actor only has a handful of attributes, so they are found by comparing names one after
+ * the other, which is quicker than hashing for so few.
+ * <p>
+ * While the actor has a row in an {@link EntityStore}, the int slots are kept in the store's
+ * columns instead of here, so that a sweep over the store sees them.
+ */
+public final class AttributeStore {
+
+    private Enum<?>[] names = new Enum<?>[2];
+    private int[] points = new int[2];
+    private int[] maximums = new int[2];
+    /**
+     * The attributes that aren't kept in the int slots, or null for those that are
+     */
+    @SuppressWarnings("unchecked")
+    private ActorAttribute<Integer>[] others = (ActorAttribute<Integer>[]) new ActorAttribute<?>[2];
+    private int size = 0;
+    /**
+     * The store the int slots are kept in, the actor's row there, and the column of each slot;
+     * or null while the actor hasn't got a row
+     */
+    private EntityStore store;
+    private int row;
+    private int[] columns;
+
+    /**
+     * @param name the name of an attribute
+     * @return true if the actor has the attribute
+     */
+    public boolean has(Enum<?> name) {
+        return slotOf(name) >= 0;
+    }
+
+    /**
+     * Add an attribute, replacing any of the same name. A BaseActorAttribute is copied into
+     * int slots, so changing it afterwards doesn't change the actor's attribute.
+     *
+     * @param name      the name of the attribute
+     * @param attribute the attribute
+     */
+    public void put(Enum<?> name, ActorAttribute<Integer> attribute) {
+        int slot = slotFor(name);
+        if (attribute.getClass() == BaseActorAttribute.class) {
+            others[slot] = null;
+            setMaximum(slot, attribute.getMaximum());
+            setPoints(slot, attribute.get());
+        } else {
+            if (store != null && others[slot] == null)
+                store.points(columns[slot])[row] = store.maximums(columns[slot])[row] = 0;
+            others[slot] = attribute;
+        }
+    }
+
+    /**
+     * Add an attribute that starts at its maximum, as a {@link BaseActorAttribute} does,
+     * replacing any of the same name.
+     *
+     * @param name    the name of the attribute
+     * @param maximum the maximum points of the attribute
+     */
+    public void putInt(Enum<?> name, int maximum) {
+        int slot = slotFor(name);
+        others[slot] = null;
+        setMaximum(slot, maximum);
+        setPoints(slot, maximum);
+    }
+
+    /**
+     * @param name the name of an attribute
+     * @return its current points
+     * @throws IllegalArgumentException if there is no such attribute
+     */
+    public int getInt(Enum<?> name) {
+        int slot = existingSlot(name);
+        ActorAttribute<Integer> other = others[slot];
+        return other == null ? points(slot) : other.get();
+    }
+
+    /**
+     * @param name the name of an attribute
+     * @return its maximum points
+     * @throws IllegalArgumentException if there is no such attribute
+     */
+    public int getMaximumInt(Enum<?> name) {
+        int slot = existingSlot(name);
+        ActorAttribute<Integer> other = others[slot];
+        return other == null ? maximum(slot) : other.getMaximum();
+    }
+
+    /**
+     * Add to an attribute's points, or take from them if the amount is negative, as
+     * {@link ActorAttribute#increase(Object)} and {@link ActorAttribute#decrease(Object)} do:
+     * never above the maximum, and never below 0.
+     *
+     * @param name   the name of the attribute
+     * @param amount the points to add
+     * @throws IllegalArgumentException if there is no such attribute
+     */
+    public void addInt(Enum<?> name, int amount) {
+        int slot = existingSlot(name);
+        ActorAttribute<Integer> other = others[slot];
+        if (other != null) {
+            if (amount >= 0)
+                other.increase(amount);
+            else
+                other.decrease(-amount);
+        } else if (amount >= 0) {
+            setPoints(slot, Math.min(points(slot) + amount, maximum(slot)));
+        } else {
+            setPoints(slot, Math.max(points(slot) + amount, 0));
+        }
+    }
+
+    /**
+     * Overwrite an attribute's points, as {@link ActorAttribute#update(Object)} does: never above the maximum.
+     *
+     * @param name   the name of the attribute
+     * @param points the new points
+     * @throws IllegalArgumentException if there is no such attribute
+     */
+    public void setInt(Enum<?> name, int points) {
+        int slot = existingSlot(name);
+        ActorAttribute<Integer> other = others[slot];
+        if (other != null)
+            other.update(points);
+        else
+            setPoints(slot, Math.min(points, maximum(slot)));
+    }
+
+    /**
+     * Change an attribute's maximum points, as the maximum methods of {@link BaseActorAttribute} do.
+     *
+     * @param name      the name of the attribute
+     * @param operation whether to increase, decrease or overwrite the maximum
+     * @param value     the points to change it by, or the new maximum
+     * @throws IllegalArgumentException if there is no such attribute, or the operation is invalid
+     */
+    public void modifyMaximum(Enum<?> name, ActorAttributeOperations operation, int value) {
+        int slot = existingSlot(name);
+        ActorAttribute<Integer> other = others[slot];
+        if (other != null) {
+            switch (operation) {
+                case INCREASE -> other.increaseMaximum(value);
+                case DECREASE -> other.decreaseMaximum(value);
+                case UPDATE -> other.updateMaximum(value);
+                default -> throw new IllegalArgumentException("Invalid operation for modifying the maximum value of actor's attribute.");
+            }
+            return;
+        }
+        switch (operation) {
+            case INCREASE -> {
+                setMaximum(slot, maximum(slot) + value);
+                setPoints(slot, maximum(slot));
+            }
+            case DECREASE -> {
+                setMaximum(slot, maximum(slot) - value);
+                setPoints(slot, Math.min(points(slot), maximum(slot)));
+            }
+            case UPDATE -> {
+                setMaximum(slot, value);
+                setPoints(slot, value);
+            }
+            default -> throw new IllegalArgumentException("Invalid operation for modifying the maximum value of actor's attribute.");
+        }
+    }
+
+    /**
+     * Take a copy of the attributes as they are now, to put back later with {@link #restore(AttributeStore)}.
+     * The copy holds the values of every attribute, including those that aren't kept in int slots.
+     *
+     * @return the copy
+     */
+    public AttributeStore copy() {
+        AttributeStore copy = new AttributeStore();
+        copy.names = names.clone();
+        copy.points = new int[names.length];
+        copy.maximums = new int[names.length];
+        copy.others = others.clone();
+        copy.size = size;
+        for (int slot = 0; slot < size; slot++) {
+            ActorAttribute<Integer> other = others[slot];
+            copy.points[slot] = other == null ? points(slot) : other.get();
+            copy.maximums[slot] = other == null ? maximum(slot) : other.getMaximum();
+        }
+        return copy;
+    }
+
+    /**
+     * Put the attributes back as they were when a copy was taken. Attributes added since are
+     * dropped; attributes only ever get added after the ones that were there, so the others
+     * are still in the same slots.
+     *
+     * @param saved a copy taken of this store with {@link #copy()}
+     */
+    public void restore(AttributeStore saved) {
+        size = saved.size;
+        for (int slot = 0; slot < size; slot++) {
+            ActorAttribute<Integer> other = saved.others[slot];
+            if (other == null) {
+                others[slot] = null;
+                setMaximum(slot, saved.maximums[slot]);
+                setPoints(slot, saved.points[slot]);
+            } else {
+                others[slot] = other;
+                if (other.getMaximum() != saved.maximums[slot])
+                    other.updateMaximum(saved.maximums[slot]);
+                if (other.get() != saved.points[slot])
+                    other.update(saved.points[slot]);
+            }
+        }
+    }
+
+    /**
+     * Move the int slots into the actor's row of an {@link EntityStore}.
+     *
+     * @param store the store
+     * @param row   the actor's row
+     */
+    public void attach(EntityStore store, int row) {
+        if (this.store != null)
+            detach();
+        columns = new int[names.length];
+        for (int slot = 0; slot < size; slot++) {
+            columns[slot] = store.column(names[slot]);
+            if (others[slot] == null) {
+                store.points(columns[slot])[row] = points[slot];
+                store.maximums(columns[slot])[row] = maximums[slot];
+            }
+        }
+        this.store = store;
+        this.row = row;
+    }
+
+    /**
+     * Move the int slots back out of the {@link EntityStore} they were attached to, if any.
+     */
+    public void detach() {
+        if (store == null)
+            return;
+        for (int slot = 0; slot < size; slot++) {
+            if (others[slot] == null) {
+                points[slot] = store.points(columns[slot])[row];
+                maximums[slot] = store.maximums(columns[slot])[row];
+            }
+        }
+        store = null;
+        columns = null;
+    }
+
+    private int points(int slot) {
+        return store == null ? points[slot] : store.points(columns[slot])[row];
+    }
+
+    private int maximum(int slot) {
+        return store == null ? maximums[slot] : store.maximums(columns[slot])[row];
+    }
+
+    private void setPoints(int slot, int value) {
+        if (store == null)
+            points[slot] = value;
+        else
+            store.points(columns[slot])[row] = value;
+    }
+
+    private void setMaximum(int slot, int value) {
+        if (store == null)
+            maximums[slot] = value;
+        else
+            store.maximums(columns[slot])[row] = value;
+    }
+
+    private int slotOf(Enum<?> name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i] == name)
+                return i;
+        }
+        return -1;
+    }
+
+    private int existingSlot(Enum<?> name) {
+        int slot = slotOf(name);
+        if (slot < 0)
+            throw new IllegalArgumentException("No attribute " + name);
+        return slot;
+    }
+
+    private int slotFor(Enum<?> name) {
+        int slot = slotOf(name);
+        if (slot >= 0)
+            return slot;
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            points = Arrays.copyOf(points, size * 2);
+            maximums = Arrays.copyOf(maximums, size * 2);
+            others = Arrays.copyOf(others, size * 2);
+            if (columns != null)
+                columns = Arrays.copyOf(columns, size * 2);
+        }
+        names[size] = name;
+        if (store != null)
+            columns[size] = store.column(name);
+        return size++;
+    }
+}
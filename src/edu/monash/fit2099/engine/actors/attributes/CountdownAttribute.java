@@ -0,0 +1,100 @@
+package edu.monash.fit2099.engine.actors.attributes;
+
+import edu.monash.fit2099.engine.positions.TimingWheel;
+
+/**
+ * An attribute that counts down by one every turn on its own, e.g. the turns left before something happens.
+ * <p>
+ * Once started, it keeps the turn it runs out on rather than a count, and reads the World's
+ * clock to work out what is left, so it costs nothing from one turn to the next. Updating it
+ * (e.g. resetting a timer to its full length) moves the turn it runs out on.
+ * Before it is started it behaves like a plain attribute that doesn't count down.
+ */
+public class CountdownAttribute implements ActorAttribute<Integer> {
+    private int maximumPoints;
+    private int points; // only used until the countdown starts
+    private TimingWheel clock;
+    private long runsOutAt;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumPoints the length of the countdown, in turns
+     */
+    public CountdownAttribute(int maximumPoints) {
+        this.maximumPoints = maximumPoints;
+        this.points = maximumPoints;
+    }
+
+    /**
+     * Start counting down, if the countdown hasn't started yet.
+     * The current turn counts as the first one, i.e. one turn has already gone when this returns.
+     *
+     * @param clock the World's clock, e.g. from {@link edu.monash.fit2099.engine.positions.GameMap#getTimers()}
+     */
+    public void start(TimingWheel clock) {
+        if (this.clock != null || clock == null)
+            return;
+        this.clock = clock;
+        runsOutAt = clock.now() + points - 1;
+    }
+
+    /**
+     * @return true if the countdown has started
+     */
+    public boolean isRunning() {
+        return clock != null;
+    }
+
+    private void set(int points) {
+        if (clock == null)
+            this.points = points;
+        else
+            runsOutAt = clock.now() + points;
+    }
+
+    @Override
+    public void update(Integer points) {
+        set(Math.min(points, maximumPoints));
+    }
+
+    @Override
+    public void increase(Integer points) {
+        set(Math.min(get() + points, maximumPoints));
+    }
+
+    @Override
+    public void decrease(Integer points) {
+        set(Math.max(get() - points, 0));
+    }
+
+    @Override
+    public Integer get() {
+        if (clock == null)
+            return points;
+        return (int) Math.max(runsOutAt - clock.now(), 0);
+    }
+
+    @Override
+    public Integer getMaximum() {
+        return maximumPoints;
+    }
+
+    @Override
+    public void updateMaximum(Integer points) {
+        this.maximumPoints = points;
+        set(maximumPoints);
+    }
+
+    @Override
+    public void increaseMaximum(Integer points) {
+        this.maximumPoints += points;
+        set(maximumPoints);
+    }
+
+    @Override
+    public void decreaseMaximum(Integer points) {
+        this.maximumPoints -= points;
+        set(Math.min(get(), maximumPoints));
+    }
+}
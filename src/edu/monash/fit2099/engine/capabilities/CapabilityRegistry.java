@@ -0,0 +1,135 @@
+package edu.monash.fit2099.engine.capabilities;
+
+import java.util.Arrays;
+
+/**
+ * Numbers every capability, so that a set of them can be kept as a bitmask.
+ * <p>
+ * Each enum type used as a capability is given a block of numbers the first time it is seen,
+ * one per constant, starting at its base: the first type seen gets 0 to n - 1, the next
+ * starts at n, and so on. A capability's number is its type's base plus its ordinal.
+ * Numbers are never reused or moved within a run of the program, but a different run may see
+ * the types in a different order. A {@link CapabilitySet} therefore remembers the registry its
+ * bits were numbered by, which lets sets brought back from a snapshot renumber themselves.
+ */
+public final class CapabilityRegistry {
+
+	/**
+	 * The registry of this run of the program
+	 */
+	private static final CapabilityRegistry INSTANCE = new CapabilityRegistry();
+
+	/**
+	 * The base of each enum type, looked up without locking once it has one
+	 */
+	private static final ClassValue<Integer> BASES = new ClassValue<>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return INSTANCE.register(type);
+		}
+	};
+
+	/**
+	 * Every capability so far, by number
+	 */
+	private static volatile Enum<?>[] capabilities = new Enum<?>[0];
+
+	/**
+	 * The enum types, in the order they were given their bases
+	 */
+	private Class<?>[] types = new Class<?>[8];
+	private int[] bases = new int[8];
+	private int size = 0;
+	private int next = 0; // the base of the next type
+
+	private CapabilityRegistry() {
+	}
+
+	/**
+	 * @return the registry of this run of the program
+	 */
+	static CapabilityRegistry instance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @param capability a capability
+	 * @return its number
+	 */
+	public static int indexOf(Enum<?> capability) {
+		return BASES.get(capability.getDeclaringClass()) + capability.ordinal();
+	}
+
+	/**
+	 * @param enumType an enum type
+	 * @return the number of its first constant; the others follow it in ordinal order
+	 */
+	public static int baseOf(Class<? extends Enum<?>> enumType) {
+		return BASES.get(enumType);
+	}
+
+	/**
+	 * @param index the number of a capability
+	 * @return the capability
+	 * @throws IndexOutOfBoundsException if no capability has that number
+	 */
+	public static Enum<?> capability(int index) {
+		return capabilities[index];
+	}
+
+	/**
+	 * @return one more than the highest number given to a capability so far
+	 */
+	public static int size() {
+		return capabilities.length;
+	}
+
+	private synchronized int register(Class<?> type) {
+		Enum<?>[] constants = (Enum<?>[]) type.getEnumConstants();
+		if (constants == null)
+			throw new IllegalArgumentException(type.getName() + " is not an enum type");
+		for (int i = 0; i < size; i++) {
+			if (types[i] == type)
+				return bases[i]; // computed again after a race between threads
+		}
+		if (size == types.length) {
+			types = Arrays.copyOf(types, size * 2);
+			bases = Arrays.copyOf(bases, size * 2);
+		}
+		int base = next;
+		types[size] = type;
+		bases[size] = base;
+		size++;
+		next += constants.length;
+
+		Enum<?>[] all = Arrays.copyOf(capabilities, next);
+		System.arraycopy(constants, 0, all, base, constants.length);
+		capabilities = all;
+		return base;
+	}
+
+	/**
+	 * Find the capability a number stood for in this registry. Used on registries brought back
+	 * from a snapshot, to renumber the sets that were numbered by them.
+	 *
+	 * @param index the number of a capability in this registry
+	 * @return the capability, or null if this registry gave the number to none
+	 */
+	synchronized Enum<?> lookUp(int index) {
+		// The last type whose base is at or below the number
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			if (bases[middle] <= index)
+				low = middle + 1;
+			else
+				high = middle - 1;
+		}
+		if (high < 0)
+			return null;
+		Object[] constants = types[high].getEnumConstants();
+		int ordinal = index - bases[high];
+		return ordinal < constants.length ? (Enum<?>) constants[ordinal] : null;
+	}
+}
@@ -1,9 +1,9 @@
 package edu.monash.fit2099.engine.capabilities;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * A collection of Capability objects.
@@ -11,14 +11,41 @@ import java.util.stream.Collectors;
  * whether Items provided (or required) certain abilities, whether terrain was passable under particular
  * circumstances, etc.  Consider Capabilities an all-purpose mechanism for enabling game capabilities, statuses, etc.
  * Don't be too literal about the name. You can keep all sorts of things in here.
- * PURPLE, FLAT, HOUSE_RAVENCLAW, TEAM_HERBIVORE, etc.  
+ * PURPLE, FLAT, HOUSE_RAVENCLAW, TEAM_HERBIVORE, etc.
  * Any Enum type can be used to represent a Capability, so these classes can and should be defined in the game client.
+ * <p>
+ * The set is a bitmask, with a bit for each capability numbered by the {@link CapabilityRegistry}, so checking
+ * for a capability, or comparing two sets, takes no hashing and no allocation.
  */
 public class CapabilitySet {
+
+	private static final long[] NO_WORDS = new long[0];
+
 	/**
-	 * The set of capability (uniques only)
+	 * The set of capability (uniques only): bit i of word i / 64 is set if this set holds capability i
 	 */
-	private final Set<Enum<?>> capabilitySet = new HashSet<>();
+	private long[] words = NO_WORDS;
+
+	/**
+	 * The registry the bits are numbered by. Always the running program's, except for a set brought
+	 * back from a snapshot, which is renumbered the first time it is used. Set only after the
+	 * renumbered bits are, so a thread that sees the running program's registry here sees them too.
+	 */
+	private volatile CapabilityRegistry registry = CapabilityRegistry.instance();
+
+	/**
+	 * Create a set holding some capabilities, e.g. to pass to {@link #containsAll(CapabilitySet)}.
+	 *
+	 * @param capabilities the capabilities
+	 * @return a new set of them
+	 */
+	public static CapabilitySet of(Enum<?>... capabilities) {
+		CapabilitySet set = new CapabilitySet();
+		for (Enum<?> capability : capabilities) {
+			set.addCapability(capability);
+		}
+		return set;
+	}
 
 	/**
 	 * Check if this instance has capability
@@ -26,7 +53,18 @@ public class CapabilitySet {
 	 * @return true if it has the capability, false otherwise
 	 */
 	public boolean hasCapability(Enum<?> capability) {
-		return capabilitySet.contains(capability);
+		return has(CapabilityRegistry.indexOf(capability));
+	}
+
+	/**
+	 * Check if this instance has a capability, by its number in the {@link CapabilityRegistry}.
+	 * @param index the number of the capability
+	 * @return true if it has the capability, false otherwise
+	 */
+	public boolean has(int index) {
+		long[] words = words();
+		int word = index >>> 6;
+		return word < words.length && (words[word] & (1L << index)) != 0;
 	}
 
 	/**
@@ -34,9 +72,12 @@ public class CapabilitySet {
 	 * @param capability enum
 	 */
 	public void addCapability(Enum<?> capability) {
-		if(!hasCapability(capability)){
-			capabilitySet.add(capability);
-		}
+		int index = CapabilityRegistry.indexOf(capability);
+		int word = index >>> 6;
+		long[] words = words();
+		if (word >= words.length)
+			this.words = words = Arrays.copyOf(words, word + 1);
+		words[word] |= 1L << index;
 	}
 
 	/**
@@ -44,17 +85,88 @@ public class CapabilitySet {
 	 * @param capability enum
 	 */
 	public void removeCapability(Enum<?> capability) {
-		if(hasCapability(capability)){
-			capabilitySet.remove(capability);
+		int index = CapabilityRegistry.indexOf(capability);
+		int word = index >>> 6;
+		long[] words = words();
+		if (word < words.length)
+			words[word] &= ~(1L << index);
+	}
+
+	/**
+	 * Detach every capability from the instance
+	 */
+	public void clear() {
+		Arrays.fill(words(), 0);
+	}
+
+	/**
+	 * Attach every capability of another set to the instance
+	 * @param other the capabilities to attach
+	 */
+	public void addAll(CapabilitySet other) {
+		long[] others = other.words();
+		long[] words = words();
+		if (others.length > words.length)
+			this.words = words = Arrays.copyOf(words, others.length);
+		for (int i = 0; i < others.length; i++) {
+			words[i] |= others[i];
 		}
 	}
 
+	/**
+	 * Check if this instance has every capability of another set
+	 * @param other the capabilities to look for
+	 * @return true if it has all of them (or the other set is empty), false otherwise
+	 */
+	public boolean containsAll(CapabilitySet other) {
+		long[] words = words();
+		long[] others = other.words();
+		for (int i = 0; i < others.length; i++) {
+			long mine = i < words.length ? words[i] : 0;
+			if ((others[i] & ~mine) != 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Check if this instance has any capability of another set
+	 * @param other the capabilities to look for
+	 * @return true if it has at least one of them, false otherwise
+	 */
+	public boolean containsAny(CapabilitySet other) {
+		long[] words = words();
+		long[] others = other.words();
+		for (int i = Math.min(words.length, others.length) - 1; i >= 0; i--) {
+			if ((words[i] & others[i]) != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Get 64 of the bits of this set, e.g. to copy them into a table of many sets
+	 * @param word which 64: bit i of word w stands for capability w * 64 + i
+	 * @return the bits, 0 past the highest capability in the set
+	 */
+	public long word(int word) {
+		long[] words = words();
+		return word < words.length ? words[word] : 0;
+	}
+
 	/**
 	 * Get unmodifiable capabilities list to avoid privacy leak
 	 * @return unmodifiable list of capabilities
 	 */
 	public List<Enum<?>> capabilitiesList(){
-		return List.copyOf(capabilitySet);
+		long[] words = words();
+		List<Enum<?>> capabilities = new ArrayList<>();
+		for (int i = 0; i < words.length; i++) {
+			for (long bits = words[i]; bits != 0; bits &= bits - 1) {
+				capabilities.add(CapabilityRegistry.capability(i * 64 + Long.numberOfTrailingZeros(bits)));
+			}
+		}
+		return Collections.unmodifiableList(capabilities);
 	}
 
 	/**
@@ -65,9 +177,51 @@ public class CapabilitySet {
 	 */
 	@SuppressWarnings("unchecked")
 	public <T extends Enum<?>> List<T> findCapabilitiesByType(Class<T> enumType){
-		return capabilitySet.stream()
-				.filter(c -> c.getDeclaringClass().equals(enumType))
-				.map(response -> (T) response)
-				.collect(Collectors.toList());
+		List<T> capabilities = new ArrayList<>();
+		T[] constants = enumType.getEnumConstants();
+		if (constants == null)
+			return capabilities;
+		int base = CapabilityRegistry.baseOf((Class<? extends Enum<?>>) enumType);
+		for (int ordinal = 0; ordinal < constants.length; ordinal++) {
+			if (has(base + ordinal))
+				capabilities.add(constants[ordinal]);
+		}
+		return capabilities;
+	}
+
+	/**
+	 * The bits of this set, renumbered first if they were numbered by another run of the program.
+	 */
+	private long[] words() {
+		if (registry != CapabilityRegistry.instance())
+			renumber();
+		return words;
+	}
+
+	/**
+	 * Renumber the bits into a new array, and only then put it in place, so that threads that
+	 * read the set meanwhile see either the old bits with the old registry or the new ones.
+	 */
+	private synchronized void renumber() {
+		CapabilityRegistry current = CapabilityRegistry.instance();
+		CapabilityRegistry oldRegistry = registry;
+		if (oldRegistry == current)
+			return;
+		long[] old = words;
+		long[] renumbered = NO_WORDS;
+		for (int i = 0; i < old.length; i++) {
+			for (long bits = old[i]; bits != 0; bits &= bits - 1) {
+				Enum<?> capability = oldRegistry.lookUp(i * 64 + Long.numberOfTrailingZeros(bits));
+				if (capability == null)
+					continue;
+				int index = CapabilityRegistry.indexOf(capability);
+				int word = index >>> 6;
+				if (word >= renumbered.length)
+					renumbered = Arrays.copyOf(renumbered, word + 1);
+				renumbered[word] |= 1L << index;
+			}
+		}
+		words = renumbered;
+		registry = current;
 	}
 }
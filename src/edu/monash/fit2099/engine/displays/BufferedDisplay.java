@@ -0,0 +1,233 @@
+package edu.monash.fit2099.engine.displays;
+
+import java.io.PrintStream;
+
+/**
+ * A Display that collects its output in a ring buffer and writes it out in large pieces.
+ * <p>
+ * Output is sent on its way when the World flushes at the end of a turn, before the keyboard
+ * is read, and whenever the ring fills up. A synchronous BufferedDisplay writes on the game's
+ * thread at those points. An asynchronous one hands the writing to a background thread, so a
+ * slow terminal holds up the game only when the ring is full or the player is about to be
+ * asked for a key -- then the game waits for the output to catch up, so the prompt is on
+ * screen before the read. Output is written in the order it was printed either way, and the
+ * Display can be used from any thread.
+ */
+public class BufferedDisplay extends Display {
+
+	private static final int DEFAULT_CAPACITY = 1 << 16;
+
+	private final PrintStream out;
+	private final char[] ring;
+	/**
+	 * Index of the oldest buffered char
+	 */
+	private int head = 0;
+	/**
+	 * Number of buffered chars
+	 */
+	private int count = 0;
+	/**
+	 * Set when the writer should empty the ring, cleared once it has
+	 */
+	private boolean flushRequested = false;
+	/**
+	 * Set while the writer is writing a piece it took out of the ring
+	 */
+	private boolean writing = false;
+	private boolean closed = false;
+	/**
+	 * The background writer, or null if this Display writes on the caller's thread
+	 */
+	private final Thread writer;
+
+	/**
+	 * Constructor for a Display that writes to the console.
+	 *
+	 * @param asynchronous true to do the writing on a background thread
+	 */
+	public BufferedDisplay(boolean asynchronous) {
+		this(System.out, DEFAULT_CAPACITY, asynchronous);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param out          where the output goes
+	 * @param capacity     size of the ring buffer, in chars
+	 * @param asynchronous true to do the writing on a background thread
+	 * @throws IllegalArgumentException if capacity is less than 1
+	 */
+	public BufferedDisplay(PrintStream out, int capacity, boolean asynchronous) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("A buffered display needs room for at least one char");
+		this.out = out;
+		this.ring = new char[capacity];
+		if (asynchronous) {
+			writer = new Thread(this::runWriter, "display-writer");
+			writer.setDaemon(true);
+			writer.start();
+		} else {
+			writer = null;
+		}
+	}
+
+	/**
+	 * Add text to the ring. If the ring fills up, the buffered output is written out (or, with
+	 * a background writer, handed over and waited for) to make room.
+	 *
+	 * @param text the text to write; only read during the call
+	 */
+	@Override
+	protected synchronized void write(CharSequence text) {
+		int length = text.length();
+		int written = 0;
+		while (written < length) {
+			if (count == ring.length)
+				makeRoom();
+			int tail = (head + count) % ring.length;
+			int chunk = Math.min(length - written, Math.min(ring.length - count, ring.length - tail));
+			for (int i = 0; i < chunk; i++) {
+				ring[tail + i] = text.charAt(written + i);
+			}
+			count += chunk;
+			written += chunk;
+		}
+	}
+
+	/**
+	 * Send the buffered output on its way. A synchronous Display writes it out before returning;
+	 * an asynchronous one wakes its writer and returns straight away.
+	 */
+	@Override
+	public synchronized void flush() {
+		if (writer == null || closed) {
+			drain();
+		} else {
+			flushRequested = true;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Wait until everything printed so far has been written out.
+	 */
+	public synchronized void awaitWritten() {
+		flush();
+		boolean interrupted = false;
+		while (writer != null && (count > 0 || writing) && !closed) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Write out everything that is still buffered and stop the background writer, if there is one.
+	 * Output printed after this is written on the caller's thread.
+	 */
+	public void close() {
+		awaitWritten();
+		synchronized (this) {
+			closed = true;
+			notifyAll();
+		}
+		if (writer != null) {
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		synchronized (this) {
+			drain();
+		}
+	}
+
+	/**
+	 * Reads a key once the prompt and everything before it are on screen.
+	 *
+	 * @return the first char of the next entered string.
+	 */
+	@Override
+	public char readChar() {
+		awaitWritten();
+		return super.readChar();
+	}
+
+	private void makeRoom() {
+		if (writer == null || closed) {
+			drain();
+			return;
+		}
+		flushRequested = true;
+		notifyAll();
+		boolean interrupted = false;
+		while (count == ring.length) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Write out the whole ring on the current thread. Only call this holding the lock.
+	 */
+	private void drain() {
+		while (count > 0) {
+			int chunk = Math.min(count, ring.length - head);
+			out.append(new String(ring, head, chunk));
+			head = (head + chunk) % ring.length;
+			count -= chunk;
+		}
+		head = 0;
+		out.flush();
+	}
+
+	/**
+	 * The background writer: waits to be asked to flush, then writes the ring out a piece at
+	 * a time without holding the lock while it writes.
+	 */
+	private void runWriter() {
+		while (true) {
+			String piece;
+			synchronized (this) {
+				while (!closed && !(flushRequested && count > 0)) {
+					if (flushRequested) {
+						flushRequested = false;
+						notifyAll();
+					}
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if (count == 0)
+					return; // closed with nothing left to write
+				int chunk = Math.min(count, ring.length - head);
+				piece = new String(ring, head, chunk);
+				head = (head + chunk) % ring.length;
+				count -= chunk;
+				if (count == 0)
+					head = 0;
+				writing = true;
+				notifyAll(); // there is room in the ring again
+			}
+			out.append(piece);
+			out.flush();
+			synchronized (this) {
+				writing = false;
+				notifyAll();
+			}
+		}
+	}
+}
@@ -1,24 +1,115 @@
 package edu.monash.fit2099.engine.displays;
 
+import edu.monash.fit2099.engine.journal.JournalWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Scanner;
 
 /**
  * Class that manages I/O for the system
+ * <p>
+ * All output goes through {@link #write(CharSequence)}, so a subclass only has to override
+ * that (and {@link #flush()}) to send it somewhere else or to batch it up.
+ * <p>
+ * Output can be printed from any thread. Each print call, and the count of lines the
+ * {@link FrameRenderer} keeps to find the map on screen again, happen under the Display's
+ * own lock, so a line is never split by another thread's and the count stays right. Reading
+ * the keyboard is only for the World's thread.
  */
 public class Display  {
 
 	/**
-	 * Input
+	 * The Display that code without one to hand should use
 	 */
-	private final Scanner keyboard = new Scanner(System.in);
+	private static volatile Display instance;
+
+	/**
+	 * The Display that stands in for the shared one on each thread, while the World holds back
+	 * the output of work done away from its own thread
+	 */
+	private static final ThreadLocal<Display> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * Input, opened on the first read so that output-only Displays are cheap to create
+	 */
+	private Scanner keyboard;
+
+	/**
+	 * Draws maps, created on the first frame
+	 */
+	private FrameRenderer renderer;
+
+	/**
+	 * Where menu selections are recorded, or null if they aren't
+	 */
+	private JournalWriter journal;
+
+	/**
+	 * Returns the shared Display, for code that has to write something but wasn't handed a
+	 * Display, e.g. a Ground reporting from its tick. Use this instead of creating a new Display,
+	 * so that the output goes wherever the rest of the game's output goes.
+	 *
+	 * While the World plans a turn or ticks a map on another thread, this is a Display that holds
+	 * the output back until it can be shown in order.
+	 *
+	 * @return the Display set with {@link #setInstance(Display)}, or a console Display if none was set
+	 */
+	public static Display getInstance() {
+		Display display = CURRENT.get();
+		if (display != null)
+			return display;
+		display = instance;
+		if (display == null) {
+			synchronized (Display.class) {
+				if (instance == null)
+					instance = new Display();
+				display = instance;
+			}
+		}
+		return display;
+	}
+
+	/**
+	 * Sets the shared Display. This is normally the Display the World is given.
+	 *
+	 * @param display the Display to hand out from {@link #getInstance()}
+	 */
+	public static void setInstance(Display display) {
+		instance = display;
+	}
+
+	/**
+	 * Make {@link #getInstance()} hand out another Display on this thread, until the shared one
+	 * is handed back.
+	 * <p>
+	 * Engine-internal: the World calls this around work whose output it holds back.
+	 *
+	 * @param display the Display to hand out on this thread
+	 * @return the Display that was handed out on this thread before, to pass to {@link #restore(Display)}
+	 */
+	public static Display enter(Display display) {
+		Display previous = CURRENT.get();
+		CURRENT.set(display);
+		return previous;
+	}
+
+	/**
+	 * Hand out the Display that was in use on this thread again, after {@link #enter(Display)}.
+	 *
+	 * @param previous the Display that enter() returned
+	 */
+	public static void restore(Display previous) {
+		CURRENT.set(previous);
+	}
 
 	/**
 	 * Display a displayable object.
 	 *
 	 * @param printable the object to display
 	 */
-	public void print(Printable printable) {
-		System.out.print(printable.getDisplayChar());
+	public synchronized void print(Printable printable) {
+		write(String.valueOf(printable.getDisplayChar()));
 	}
 
 	/**
@@ -26,32 +117,121 @@ public class Display  {
 	 *
 	 * @param s the string
 	 */
-	public void print(String s) {
-		System.out.print(s);
+	public synchronized void print(String s) {
+		write(s);
+		linesWritten(s);
 	}
 
 	/**
 	 * Prints a String and then terminates the line.
 	 * @param s the string to print
 	 */
-	public void println(String s) {
-		System.out.println(s);
+	public synchronized void println(String s) {
+		write(s);
+		write(System.lineSeparator());
+		linesWritten(s);
+		linesWritten(1);
 	}
 
 	/**
 	 * Terminates the line.
 	 */
-	public void endLine() {
-		System.out.println("");
+	public synchronized void endLine() {
+		write(System.lineSeparator());
+		linesWritten(1);
+	}
+
+	/**
+	 * Display a whole map at once.
+	 * <p>
+	 * The frame goes through a {@link FrameRenderer}, which only redraws the cells that
+	 * changed since the last frame when the terminal allows it.
+	 *
+	 * @param frame  the display characters of the map, row by row
+	 * @param width  width of the map
+	 * @param height height of the map
+	 */
+	public synchronized void printFrame(char[] frame, int width, int height) {
+		if (renderer == null)
+			renderer = new FrameRenderer();
+		write(renderer.render(frame, width, height));
+		flush();
+	}
+
+	/**
+	 * Send text to the console. Everything the Display prints goes through here.
+	 *
+	 * @param text the text to write; only read during the call
+	 */
+	protected void write(CharSequence text) {
+		System.out.append(text);
+	}
+
+	/**
+	 * Make sure everything written so far has been sent on its way.
+	 * The World calls this at the end of every turn.
+	 */
+	public void flush() {
+		System.out.flush();
+	}
+
+	/**
+	 * Tell the renderer about lines written since the last frame. Only call this holding the lock.
+	 */
+	private void linesWritten(String s) {
+		if (renderer == null)
+			return;
+		int lines = 0;
+		for (int i = s.indexOf('\n'); i >= 0; i = s.indexOf('\n', i + 1))
+			lines++;
+		renderer.linesWritten(lines);
+	}
+
+	private void linesWritten(int lines) {
+		if (renderer != null)
+			renderer.linesWritten(lines);
 	}
 
 	/**
 	 * Read a char from the keyboard.
-	 * 
+	 * Everything written so far is flushed first, so the prompt is on screen.
+	 *
 	 * @return the first char of the next entered string.
 	 */
 	public char readChar() {
+		flush();
+		if (keyboard == null)
+			keyboard = new Scanner(System.in);
 		String s = keyboard.next();
+		synchronized (this) {
+			linesWritten(1); // the echoed Enter
+		}
 		return s.charAt(0);
 	}
+
+	/**
+	 * Record the menu selections made through this Display in a journal.
+	 *
+	 * @param journal the journal to record them in, or null to stop recording
+	 */
+	public void setJournal(JournalWriter journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Called by {@link Menu} with the key that was chosen, once it is known to be on offer.
+	 * Does nothing unless a journal is being recorded.
+	 *
+	 * @param key the chosen key
+	 * @throws UncheckedIOException if the journal can't be written
+	 */
+	public void recordSelection(char key) {
+		if (journal == null)
+			return;
+		try {
+			journal.recordSelection(key);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
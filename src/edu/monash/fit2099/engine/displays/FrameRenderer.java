@@ -0,0 +1,158 @@
+package edu.monash.fit2099.engine.displays;
+
+/**
+ * Turns frames of map characters into as little terminal output as it can.
+ * <p>
+ * Each frame is kept in a buffer that is reused from one frame to the next. On a terminal that
+ * understands ANSI escape codes, a frame the same size as the one before it is drawn by moving
+ * the cursor to the cells that changed and writing only those, then clearing whatever was
+ * written below the map since the last frame. Anything else -- the first frame, a frame of a
+ * different size, or too much output since the last frame for the map to still be on screen --
+ * is written whole, in a single write. Without ANSI support every frame is written whole.
+ * <p>
+ * A FrameRenderer is not safe to use from several threads at once; a Display only uses its
+ * own while holding its lock.
+ */
+public class FrameRenderer {
+
+	private static final String ESC = "\u001b[";
+
+	private final boolean ansi;
+	private final int terminalRows;
+
+	/**
+	 * What is on screen, row by row, or null if nothing is known to be
+	 */
+	private char[] previous;
+	private int previousWidth;
+	private int previousHeight;
+	/**
+	 * Lines written below the map since the last frame
+	 */
+	private int linesSinceFrame = 0;
+	private final StringBuilder output = new StringBuilder();
+
+	/**
+	 * Constructor for the console.
+	 * <p>
+	 * ANSI output is used when there is a console and TERM names a terminal other than "dumb";
+	 * the system property {@code display.ansi} overrides that. The terminal height comes from the
+	 * system property {@code display.rows} or the LINES environment variable. When the height is
+	 * unknown there is no telling whether the last frame has scrolled away, so every frame is
+	 * written whole.
+	 */
+	public FrameRenderer() {
+		this(detectAnsi(), detectRows());
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param ansi         true if the terminal understands ANSI cursor positioning
+	 * @param terminalRows the height of the terminal, in lines, or 0 if unknown
+	 */
+	public FrameRenderer(boolean ansi, int terminalRows) {
+		this.ansi = ansi;
+		this.terminalRows = terminalRows;
+	}
+
+	/**
+	 * Tell the renderer that text has been written since the last frame, so it can tell
+	 * whether the frame is still on screen.
+	 *
+	 * @param lines the number of line breaks written
+	 */
+	public void linesWritten(int lines) {
+		linesSinceFrame += lines;
+	}
+
+	/**
+	 * Forget what is on screen, so that the next frame is written whole.
+	 */
+	public void invalidate() {
+		previous = null;
+	}
+
+	/**
+	 * Draw a frame. The text returned must be written out before anything else.
+	 *
+	 * @param frame  the characters of the frame, row by row; only read during the call
+	 * @param width  width of the frame
+	 * @param height height of the frame
+	 * @return the text that takes the terminal from the last frame to this one; reused by the next call
+	 */
+	public CharSequence render(char[] frame, int width, int height) {
+		int cells = width * height;
+		output.setLength(0);
+		if (canDiff(width, height)) {
+			writeChanges(frame, width, height);
+		} else {
+			writeWhole(frame, width, height);
+		}
+
+		if (previous == null || previous.length < cells)
+			previous = new char[cells];
+		System.arraycopy(frame, 0, previous, 0, cells);
+		previousWidth = width;
+		previousHeight = height;
+		linesSinceFrame = 0;
+		return output;
+	}
+
+	private boolean canDiff(int width, int height) {
+		return ansi
+				&& previous != null
+				&& width == previousWidth
+				&& height == previousHeight
+				&& terminalRows > 0
+				&& height + linesSinceFrame < terminalRows;
+	}
+
+	private void writeWhole(char[] frame, int width, int height) {
+		if (ansi)
+			output.append(ESC).append('H').append(ESC).append("2J");
+		for (int y = 0; y < height; y++) {
+			output.append(frame, y * width, width).append(System.lineSeparator());
+		}
+	}
+
+	private void writeChanges(char[] frame, int width, int height) {
+		for (int y = 0; y < height; y++) {
+			int row = y * width;
+			int x = 0;
+			while (x < width) {
+				if (frame[row + x] == previous[row + x]) {
+					x++;
+					continue;
+				}
+				// One cursor move for each run of changed cells
+				int start = x;
+				while (x < width && frame[row + x] != previous[row + x])
+					x++;
+				output.append(ESC).append(y + 1).append(';').append(start + 1).append('H');
+				output.append(frame, row + start, x - start);
+			}
+		}
+		// Park the cursor under the map and clear the messages and menu from last time.
+		output.append(ESC).append(height + 1).append(";1H").append(ESC).append('J');
+	}
+
+	private static boolean detectAnsi() {
+		String setting = System.getProperty("display.ansi");
+		if (setting != null)
+			return Boolean.parseBoolean(setting);
+		String term = System.getenv("TERM");
+		return System.console() != null && term != null && !term.isEmpty() && !term.equals("dumb");
+	}
+
+	private static int detectRows() {
+		String rows = System.getProperty("display.rows", System.getenv("LINES"));
+		if (rows == null)
+			return 0;
+		try {
+			return Math.max(Integer.parseInt(rows.trim()), 0);
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package edu.monash.fit2099.engine.displays;
+
+/**
+ * A Display with no terminal attached.
+ *
+ * All output is discarded and keyboard input is replaced by a script of keys that is
+ * replayed in a loop, so a World can be driven without anyone at the keyboard.
+ * The Menu keeps reading until it gets a key that is on offer, so a script that mixes
+ * movement hotkeys with menu letters (e.g. "8462a") always ends up choosing something.
+ */
+public class HeadlessDisplay extends Display {
+
+	/**
+	 * The keys that are handed out by readChar(), in order
+	 */
+	private final String script;
+	/**
+	 * Index of the next key in the script
+	 */
+	private int next = 0;
+
+	/**
+	 * Constructor.
+	 * The scripted player always picks the first unassigned menu entry.
+	 */
+	public HeadlessDisplay() {
+		this("a");
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param script the keys to feed to readChar(), replayed in a loop
+	 * @throws IllegalArgumentException if the script is empty
+	 */
+	public HeadlessDisplay(String script) {
+		if (script == null || script.isEmpty())
+			throw new IllegalArgumentException("A headless display needs at least one scripted key");
+		this.script = script;
+	}
+
+	@Override
+	public void print(Printable printable) {
+	}
+
+	@Override
+	public void print(String s) {
+	}
+
+	@Override
+	public void println(String s) {
+	}
+
+	@Override
+	public void endLine() {
+	}
+
+	@Override
+	public void printFrame(char[] frame, int width, int height) {
+	}
+
+	/**
+	 * Returns the next key from the script instead of reading the keyboard.
+	 *
+	 * @return the next scripted key
+	 */
+	@Override
+	public char readChar() {
+		char key = script.charAt(next);
+		next = (next + 1) % script.length();
+		return key;
+	}
+}
@@ -55,14 +55,14 @@ public class Menu {
 
         if (page < totalPage) {
             char nextPageHotKey = '>';
-            UpdatePageAction updatePageAction = new UpdatePageAction(this, page + 1);
+            UpdatePageAction updatePageAction = new UpdatePageAction(this, page + 1, display);
             keyToActionMap.put(nextPageHotKey, updatePageAction);
             display.println(nextPageHotKey + ": " + updatePageAction.menuDescription(actor));
         }
 
         if (page > 1) {
             char previousPageHotKey = '<';
-            UpdatePageAction updatePageAction = new UpdatePageAction(this, page - 1);
+            UpdatePageAction updatePageAction = new UpdatePageAction(this, page - 1, display);
             keyToActionMap.put(previousPageHotKey, updatePageAction);
             display.println(previousPageHotKey + ": " + updatePageAction.menuDescription(actor));
         }
@@ -87,6 +87,7 @@ public class Menu {
         do {
             key = display.readChar();
         } while (!keyToActionMap.containsKey(key));
+        display.recordSelection(key);
 
         return keyToActionMap.get(key);
     }
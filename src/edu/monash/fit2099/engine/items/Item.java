@@ -16,6 +16,14 @@ public abstract class Item extends GameEntity implements Printable {
 	private final String name;
 	private char displayChar;
 	protected boolean portable;
+	/**
+	 * The Actor whose inventory this Item is in, or null
+	 */
+	private Actor carrier;
+	/**
+	 * The Location this Item lies on, or null
+	 */
+	private Location location;
 
 	/***
 	 * Constructor.
@@ -48,6 +56,61 @@ public abstract class Item extends GameEntity implements Printable {
 	public void tick(Location currentLocation) {
 	}
 
+	/**
+	 * Does this Item need tick(Location) to be called while it lies on the ground?
+	 *
+	 * Only matters for Items that override tick(Location): an Item that is waiting on a timer
+	 * can return false to stop its Location being ticked. The answer is checked when the
+	 * Item is put down and after each of its Location's ticks.
+	 *
+	 * @return true
+	 */
+	public boolean ticksOnGround() {
+		return true;
+	}
+
+	/**
+	 * Called by an Actor when this Item goes into or out of its inventory, so the Actor can be
+	 * told when the Item's capabilities change.
+	 *
+	 * @param carrier the Actor now carrying this Item, or null if none is
+	 */
+	public final void setCarrier(Actor carrier) {
+		this.carrier = carrier;
+	}
+
+	/**
+	 * @return the Actor whose inventory this Item is in, or null
+	 */
+	public final Actor getCarrier() {
+		return carrier;
+	}
+
+	/**
+	 * Called by a Location when this Item is put down on it or taken away, so the Location can
+	 * be told when the Item's capabilities change.
+	 *
+	 * @param location the Location this Item now lies on, or null if it lies on none
+	 */
+	public final void setLocation(Location location) {
+		this.location = location;
+	}
+
+	/**
+	 * @return the Location this Item lies on, or null
+	 */
+	public final Location getLocation() {
+		return location;
+	}
+
+	@Override
+	protected void capabilitiesChanged() {
+		if (carrier != null)
+			carrier.inventoryCapabilitiesChanged();
+		if (location != null)
+			location.itemCapabilitiesChanged();
+	}
+
 	@Override
 	public String toString() {
 		return name;
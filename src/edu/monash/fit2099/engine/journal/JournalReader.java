@@ -0,0 +1,126 @@
+package edu.monash.fit2099.engine.journal;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A journal file written by a {@link JournalWriter}, read in full.
+ * <p>
+ * A journal cut short by a crash is read up to its last whole entry; only the turns that
+ * were finished count.
+ */
+public class JournalReader {
+
+	private final long seed;
+	private final boolean concurrent;
+	private final boolean checksums;
+	private final String selections;
+	private final long[] turnChecksums;
+	private final int turns;
+
+	/**
+	 * Constructor. Reads the whole journal.
+	 *
+	 * @param file the journal file
+	 * @throws IOException when the file can't be read, or isn't a journal
+	 */
+	public JournalReader(Path file) throws IOException {
+		ByteBuffer bytes;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		StringBuilder selections = new StringBuilder();
+		long[] turnChecksums = new long[64];
+		int turns = 0;
+		try {
+			byte[] magic = new byte[JournalWriter.MAGIC.length];
+			bytes.get(magic);
+			if (!Arrays.equals(magic, JournalWriter.MAGIC))
+				throw new IOException(file + " is not a journal file");
+			int version = bytes.get() & 0xff;
+			if (version != JournalWriter.VERSION)
+				throw new IOException("Unknown journal file version " + version);
+			seed = bytes.getLong();
+			concurrent = bytes.get() != 0;
+			checksums = bytes.get() != 0;
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Journal file ends too soon", e);
+		}
+
+		try {
+			while (bytes.hasRemaining()) {
+				byte tag = bytes.get();
+				if (tag == JournalWriter.SELECTION) {
+					selections.append(bytes.getChar());
+				} else if (tag == JournalWriter.END_OF_TURN) {
+					long checksum = checksums ? bytes.getLong() : 0;
+					if (turns == turnChecksums.length)
+						turnChecksums = Arrays.copyOf(turnChecksums, turns * 2);
+					turnChecksums[turns++] = checksum;
+				} else {
+					throw new IOException("Bad entry in journal file at byte " + (bytes.position() - 1));
+				}
+			}
+		} catch (BufferUnderflowException e) {
+			// The session stopped partway through writing an entry; everything before it stands.
+		}
+		this.selections = selections.toString();
+		this.turnChecksums = turnChecksums;
+		this.turns = turns;
+	}
+
+	/**
+	 * @return the seed the session's randomness started from
+	 */
+	public long seed() {
+		return seed;
+	}
+
+	/**
+	 * @return true if the session's turns were planned concurrently, so a replay has to plan
+	 * them concurrently too
+	 */
+	public boolean plansTurnsConcurrently() {
+		return concurrent;
+	}
+
+	/**
+	 * @return true if the journal holds a checksum for every turn
+	 */
+	public boolean hasChecksums() {
+		return checksums;
+	}
+
+	/**
+	 * @return the number of turns the session finished
+	 */
+	public int turns() {
+		return turns;
+	}
+
+	/**
+	 * @param turn a turn of the session, counting from 0
+	 * @return the checksum of the World at the end of that turn
+	 * @throws IllegalStateException if the journal doesn't hold checksums
+	 */
+	public long checksum(int turn) {
+		if (!checksums)
+			throw new IllegalStateException("This journal was recorded without checksums");
+		if (turn < 0 || turn >= turns)
+			throw new IndexOutOfBoundsException("Turn " + turn + " is not in the journal");
+		return turnChecksums[turn];
+	}
+
+	/**
+	 * @return the keys the player chose from menus, in order
+	 */
+	public String selections() {
+		return selections;
+	}
+}
@@ -0,0 +1,128 @@
+package edu.monash.fit2099.engine.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records a session to a journal file as it is played, so that it can be played again
+ * with a {@link JournalReader}.
+ * <p>
+ * A journal holds what can't be worked out from the game itself: the seed the session's
+ * randomness starts from, whether the Actors' turns were planned concurrently (see
+ * {@link edu.monash.fit2099.engine.positions.World#setTurnPlanningExecutor}), which changes
+ * how turns play out, and the menu key the player chose each time they were asked.
+ * It can also hold a checksum of the state of the World at the end of every turn, so that a
+ * replay can tell where it stopped following the recorded session.
+ * <pre>
+ *     magic      the 4 bytes "FJNL"
+ *     version    1 byte, currently 2
+ *     seed       long
+ *     planning   1 byte, 1 if turns were planned concurrently
+ *     checksums  1 byte, 1 if turns carry a checksum
+ *     entries    until the end of the file, each a tag byte and what follows it:
+ *                'K' a menu selection: the chosen key, as a char
+ *                'T' the end of a turn: its checksum as a long, if turns carry one
+ * </pre>
+ * Numbers are big-endian. The file is only ever appended to, and is flushed at the end of
+ * every turn, so a session that crashes leaves a journal of everything up to its last turn.
+ */
+public class JournalWriter implements Closeable {
+
+	static final byte[] MAGIC = {'F', 'J', 'N', 'L'};
+	static final int VERSION = 2;
+	static final byte SELECTION = 'K';
+	static final byte END_OF_TURN = 'T';
+
+	private final DataOutputStream out;
+	private final long seed;
+	private final boolean concurrent;
+	private final boolean checksums;
+	private int turns = 0;
+
+	/**
+	 * Constructor. Starts a new journal file.
+	 *
+	 * @param file      the journal file; replaced if it exists
+	 * @param seed       the seed the session's randomness starts from
+	 * @param concurrent true if the World plans turns concurrently
+	 * @param checksums  true to record a checksum of the World at the end of every turn
+	 * @throws IOException when the file can't be written
+	 */
+	public JournalWriter(Path file, long seed, boolean concurrent, boolean checksums) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)));
+		this.seed = seed;
+		this.concurrent = concurrent;
+		this.checksums = checksums;
+		out.write(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(seed);
+		out.writeBoolean(concurrent);
+		out.writeBoolean(checksums);
+		out.flush();
+	}
+
+	/**
+	 * @return the seed the session's randomness starts from
+	 */
+	public long seed() {
+		return seed;
+	}
+
+	/**
+	 * @return true if the session's turns are planned concurrently
+	 */
+	public boolean plansTurnsConcurrently() {
+		return concurrent;
+	}
+
+	/**
+	 * @return true if the World should pass a checksum to {@link #endTurn(long)}
+	 */
+	public boolean hasChecksums() {
+		return checksums;
+	}
+
+	/**
+	 * @return the number of turns recorded so far
+	 */
+	public int turns() {
+		return turns;
+	}
+
+	/**
+	 * Record the key the player chose from a menu.
+	 *
+	 * @param key the hotkey of the chosen Action
+	 * @throws IOException when writing fails
+	 */
+	public void recordSelection(char key) throws IOException {
+		out.writeByte(SELECTION);
+		out.writeChar(key);
+	}
+
+	/**
+	 * Record the end of a turn, and send everything recorded so far to the file.
+	 *
+	 * @param checksum a checksum of the World at the end of the turn; ignored if the journal
+	 *                 doesn't carry checksums
+	 * @throws IOException when writing fails
+	 */
+	public void endTurn(long checksum) throws IOException {
+		out.writeByte(END_OF_TURN);
+		if (checksums)
+			out.writeLong(checksum);
+		out.flush();
+		turns++;
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+}
@@ -0,0 +1,61 @@
+package edu.monash.fit2099.engine.journal;
+
+import edu.monash.fit2099.engine.displays.Display;
+
+/**
+ * A Display that plays back the menu selections of a journal, and throws away all output.
+ * <p>
+ * Unlike a {@link edu.monash.fit2099.engine.displays.HeadlessDisplay}, it hands out each
+ * recorded key once, and only keys that the player actually chose, so a replay that asks
+ * for a key the session never chose has gone off course and is stopped.
+ */
+public class ReplayDisplay extends Display {
+
+	private final String selections;
+	/**
+	 * Index of the next selection to hand out
+	 */
+	private int next = 0;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param journal the journal whose selections to play back
+	 */
+	public ReplayDisplay(JournalReader journal) {
+		this.selections = journal.selections();
+	}
+
+	@Override
+	public void printFrame(char[] frame, int width, int height) {
+	}
+
+	@Override
+	protected void write(CharSequence text) {
+	}
+
+	@Override
+	public void flush() {
+	}
+
+	/**
+	 * Returns the next recorded selection instead of reading the keyboard.
+	 *
+	 * @return the next key the player chose
+	 * @throws IllegalStateException if every recorded selection has been handed out
+	 */
+	@Override
+	public char readChar() {
+		if (next == selections.length())
+			throw new IllegalStateException("The replay asked for more menu selections than the journal holds ("
+					+ selections.length() + ")");
+		return selections.charAt(next++);
+	}
+
+	/**
+	 * @return the number of recorded selections handed out so far
+	 */
+	public int selectionsUsed() {
+		return next;
+	}
+}
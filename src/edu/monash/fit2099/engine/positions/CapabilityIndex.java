@@ -0,0 +1,237 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.capabilities.CapabilityRegistry;
+import edu.monash.fit2099.engine.items.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Which cells of a GameMap have a Ground, an Actor or an Item with a capability, kept as one
+ * bit per cell for each capability that has been asked about. A question like "is there
+ * anything cursed within two cells" is then answered a row of the map at a time, with a mask
+ * over one or two words of bits per row.
+ * <p>
+ * The bits of a capability are worked out the first time it is asked about, and from then on
+ * the map keeps them up to date as Grounds are set, Actors move and Items are put down or
+ * taken away, and as the Actors and Items on the map gain and lose capabilities. Grounds don't
+ * know where they are, and one Ground can be on many cells of a chunked map, so a change to
+ * the capabilities of a Ground that has been placed sends every index back over its Grounds
+ * on the next question.
+ * <p>
+ * Changes come from the threads that plan turns as well as from the World's, so all access
+ * is under the index's lock.
+ */
+final class CapabilityIndex {
+
+	private final GameMap map;
+	private final int width;
+	private final int height;
+	/**
+	 * The number of words of bits in each row
+	 */
+	private final int stride;
+	/**
+	 * The bits of each capability asked about, by its number in the {@link CapabilityRegistry}
+	 */
+	private Bits[] byCapability = new Bits[0];
+	private final List<Bits> all = new ArrayList<>();
+	/**
+	 * The value of Ground.CAPABILITY_CHANGES when the bits of the Grounds were last worked out
+	 */
+	private int groundChanges = Ground.CAPABILITY_CHANGES.get();
+	/**
+	 * True if the bits of the Grounds have to be worked out again anyway
+	 */
+	private boolean groundsStale = false;
+
+	/**
+	 * The bits of one capability. A cell's bit in any is set if its bit is set in one of the others.
+	 */
+	private static final class Bits {
+		final Enum<?> capability;
+		final long[] grounds;
+		final long[] actors;
+		final long[] items;
+		final long[] any;
+
+		Bits(Enum<?> capability, int words) {
+			this.capability = capability;
+			this.grounds = new long[words];
+			this.actors = new long[words];
+			this.items = new long[words];
+			this.any = new long[words];
+		}
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param map the GameMap to index
+	 */
+	CapabilityIndex(GameMap map) {
+		this.map = map;
+		this.width = map.getXBounds().size();
+		this.height = map.getYBounds().size();
+		this.stride = (width + 63) >>> 6;
+	}
+
+	/**
+	 * Is there a cell in a rectangle with something on it that has a capability?
+	 *
+	 * @param capability the capability
+	 * @param x0         the first column
+	 * @param y0         the first row
+	 * @param x1         the last column
+	 * @param y1         the last row
+	 * @param skipX      the column of a cell to leave out, or -1 for none
+	 * @param skipY      the row of that cell
+	 * @param withActors false to leave Actors out, e.g. because the caller looks at them itself
+	 * @return true if there is
+	 */
+	synchronized boolean anyWithin(Enum<?> capability, int x0, int y0, int x1, int y1, int skipX, int skipY, boolean withActors) {
+		Bits bits = bitsOf(capability);
+		for (int y = y0; y <= y1; y++) {
+			boolean found;
+			if (y == skipY && skipX >= x0 && skipX <= x1)
+				found = skipX > x0 && anyInRow(bits, y, x0, skipX - 1, withActors)
+						|| skipX < x1 && anyInRow(bits, y, skipX + 1, x1, withActors);
+			else
+				found = anyInRow(bits, y, x0, x1, withActors);
+			if (found)
+				return true;
+		}
+		return false;
+	}
+
+	private boolean anyInRow(Bits bits, int y, int x0, int x1, boolean withActors) {
+		int row = y * stride;
+		int last = x1 >>> 6;
+		for (int word = x0 >>> 6; word <= last; word++) {
+			long mask = -1L;
+			if (word == x0 >>> 6)
+				mask &= -1L << x0;
+			if (word == last)
+				mask &= -1L >>> (63 - (x1 & 63));
+			long set = withActors ? bits.any[row + word] : bits.grounds[row + word] | bits.items[row + word];
+			if ((set & mask) != 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * A cell has a new Ground.
+	 */
+	synchronized void groundChanged(int x, int y, Ground ground) {
+		if (all.isEmpty())
+			return;
+		ground.watched = true;
+		for (Bits bits : all) {
+			set(bits, bits.grounds, x, y, ground.hasCapability(bits.capability));
+		}
+	}
+
+	/**
+	 * Grounds have changed on more cells than are worth going through one at a time.
+	 */
+	synchronized void groundsChanged() {
+		groundsStale = true;
+	}
+
+	/**
+	 * An Actor has arrived at or left a cell, or gained or lost a capability.
+	 *
+	 * @param actor the Actor now there, or null
+	 */
+	synchronized void actorChanged(int x, int y, Actor actor) {
+		for (Bits bits : all) {
+			set(bits, bits.actors, x, y, actor != null && actor.hasCapability(bits.capability));
+		}
+	}
+
+	/**
+	 * The Items on a cell have changed, or one of them has gained or lost a capability.
+	 */
+	synchronized void itemsChanged(int x, int y, List<Item> items) {
+		for (Bits bits : all) {
+			set(bits, bits.items, x, y, anyHas(items, bits.capability));
+		}
+	}
+
+	private void set(Bits bits, long[] layer, int x, int y, boolean on) {
+		int word = y * stride + (x >>> 6);
+		long mask = 1L << x;
+		if (on)
+			layer[word] |= mask;
+		else
+			layer[word] &= ~mask;
+		long any = bits.grounds[word] | bits.actors[word] | bits.items[word];
+		bits.any[word] = bits.any[word] & ~mask | any & mask;
+	}
+
+	private static boolean anyHas(List<Item> items, Enum<?> capability) {
+		for (Item item : items) {
+			if (item.hasCapability(capability))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * The bits of a capability, worked out if it hasn't been asked about before, and with the
+	 * bits of the Grounds worked out again if one of them has changed.
+	 */
+	private Bits bitsOf(Enum<?> capability) {
+		int number = CapabilityRegistry.indexOf(capability);
+		if (number >= byCapability.length)
+			byCapability = Arrays.copyOf(byCapability, Math.max(number + 1, byCapability.length * 2));
+		Bits bits = byCapability[number];
+		if (bits == null) {
+			bits = new Bits(capability, stride * height);
+			byCapability[number] = bits;
+			all.add(bits);
+			survey(bits);
+		}
+
+		int changes = Ground.CAPABILITY_CHANGES.get();
+		if (groundsStale || changes != groundChanges) {
+			groundsStale = false;
+			groundChanges = changes;
+			for (Bits each : all) {
+				Arrays.fill(each.grounds, 0);
+			}
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					Ground ground = map.groundAt(x, y);
+					ground.watched = true;
+					for (Bits each : all) {
+						set(each, each.grounds, x, y, ground.hasCapability(each.capability));
+					}
+				}
+			}
+		}
+		return bits;
+	}
+
+	private void survey(Bits bits) {
+		Enum<?> capability = bits.capability;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Ground ground = map.groundAt(x, y);
+				ground.watched = true;
+				set(bits, bits.grounds, x, y, ground.hasCapability(capability));
+				Location location = map.existingAt(x, y);
+				if (location == null)
+					continue;
+				Actor actor = map.occupantAt(location);
+				if (actor != null && actor.hasCapability(capability))
+					set(bits, bits.actors, x, y, true);
+				if (anyHas(location.getItems(), capability))
+					set(bits, bits.items, x, y, true);
+			}
+		}
+	}
+}
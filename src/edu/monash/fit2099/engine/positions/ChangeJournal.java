@@ -0,0 +1,388 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.items.Item;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records changes to the shared actor/location registry instead of applying them,
+ * so that several GameMaps can be worked on at the same time.
+ * <p>
+ * While a journal is open on a thread, {@link GameMap#addActor(Actor, Location)},
+ * {@link GameMap#moveActor(Actor, Location)} and {@link GameMap#removeActor(Actor)} append
+ * to it, and the lookup methods of GameMap see the pending changes on top of the state the
+ * registry was in when the journal was opened. Nothing is shared until {@link #commit()}.
+ * <p>
+ * A journal can also hold back changes to Locations ({@link Location#addItem(Item)},
+ * {@link Location#removeItem(Item)} and {@link Location#setGround(Ground)}), for work that
+ * shares Locations with other threads. Those are not visible to lookups before the commit.
+ * Timers scheduled on the World's {@link TimingWheel} are always held back, and put into
+ * the wheel at the end of the commit, so that they are numbered in commit order. They don't
+ * belong to a unit: a timer stands for work that has already been done, e.g. an egg going to
+ * sleep until it hatches, so it goes in even if the changes made alongside it are dropped.
+ * <p>
+ * Changes are grouped into units. A unit is committed as a whole: if one of its changes
+ * conflicts with something committed before it (e.g. two maps placing an Actor on the same
+ * Location), the changes of that unit that were already applied are undone and the rest of
+ * the unit is dropped. Committing journals in a fixed order therefore gives the same result
+ * however the threads were scheduled.
+ * <p>
+ * The journal of one Actor's planned turn is committed as a whole instead: a conflict in any
+ * of its units undoes every change of the turn, and its timers are cancelled. The World
+ * puts the Actor's own state back as well (see {@link edu.monash.fit2099.engine.actors.Actor#saveState()}),
+ * so nothing of a turn it turns down is left behind.
+ */
+class ChangeJournal {
+
+	private static final ThreadLocal<ChangeJournal> CURRENT = new ThreadLocal<>();
+	/**
+	 * Number of journals open on any thread, so the common case of none skips the thread-local lookup
+	 */
+	private static final AtomicInteger OPEN = new AtomicInteger();
+
+	private final boolean turn;
+	private final List<List<Change>> units = new ArrayList<>();
+	private boolean unitStarted = false;
+	private final Map<Location, Actor> pendingOccupants = new HashMap<>();
+	private final Map<Actor, Location> pendingLocations = new HashMap<>();
+	private final List<TimingWheel.Timer> timers = new ArrayList<>();
+
+	/**
+	 * Constructor for a journal that only holds back changes to the actor/location registry.
+	 */
+	ChangeJournal() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param turn true for the journal of an Actor's planned turn, which also holds back changes
+	 *             to the items and ground of Locations and is committed all or nothing
+	 */
+	ChangeJournal(boolean turn) {
+		this.turn = turn;
+	}
+
+	/**
+	 * Returns the journal that is open on the calling thread.
+	 *
+	 * @return the open journal, or null if changes should be applied immediately
+	 */
+	static ChangeJournal current() {
+		if (OPEN.get() == 0)
+			return null;
+		return CURRENT.get();
+	}
+
+	/**
+	 * Start a new unit in the journal open on the calling thread, if there is one.
+	 */
+	static void startUnit() {
+		ChangeJournal journal = current();
+		if (journal != null)
+			journal.unitStarted = false;
+	}
+
+	/**
+	 * Run a task with this journal open on the calling thread.
+	 *
+	 * @param task the work whose registry changes should be recorded
+	 */
+	void record(Runnable task) {
+		ChangeJournal previous = CURRENT.get();
+		CURRENT.set(this);
+		OPEN.incrementAndGet();
+		try {
+			task.run();
+		} finally {
+			OPEN.decrementAndGet();
+			CURRENT.set(previous);
+		}
+	}
+
+	/**
+	 * Apply the recorded changes, unit by unit, in the order they were recorded.
+	 * Must be called on a thread with no journal open.
+	 *
+	 * @return true if every unit was applied, false if at least one was dropped (for a turn,
+	 * if the whole turn was)
+	 */
+	boolean commit() {
+		boolean clean = true;
+		List<Change> applied = new ArrayList<>();
+		for (List<Change> unit : units) {
+			int start = applied.size();
+			try {
+				for (Change change : unit) {
+					change.apply();
+					applied.add(change);
+				}
+			} catch (IllegalArgumentException conflict) {
+				clean = false;
+				int from = turn ? 0 : start;
+				for (int i = applied.size() - 1; i >= from; i--) {
+					applied.get(i).undo();
+				}
+				applied.subList(from, applied.size()).clear();
+				if (turn)
+					break;
+			}
+		}
+		// Timers go in after everything else, in the order they were scheduled
+		for (TimingWheel.Timer timer : timers) {
+			if (clean || !turn)
+				timer.release();
+			else
+				timer.cancel();
+		}
+		discard();
+		return clean;
+	}
+
+	/**
+	 * Throw away everything recorded so far.
+	 */
+	void discard() {
+		units.clear();
+		timers.clear();
+		unitStarted = false;
+		pendingOccupants.clear();
+		pendingLocations.clear();
+	}
+
+	/**
+	 * @return true if changes to the items and ground of Locations are held back as well
+	 */
+	boolean defersLocations() {
+		return turn;
+	}
+
+	/**
+	 * Does this journal have a pending change for the given Location?
+	 *
+	 * @param location the Location to check
+	 * @return true if an Actor is pending to arrive at or leave location
+	 */
+	boolean overrides(Location location) {
+		return pendingOccupants.containsKey(location);
+	}
+
+	/**
+	 * @return true if an Actor is pending to arrive at or leave any Location
+	 */
+	boolean hasPendingOccupants() {
+		return !pendingOccupants.isEmpty();
+	}
+
+	/**
+	 * Does this journal have a pending change for the given Actor?
+	 *
+	 * @param actor the Actor to check
+	 * @return true if actor is pending to be added, moved or removed
+	 */
+	boolean overrides(Actor actor) {
+		return pendingLocations.containsKey(actor);
+	}
+
+	/**
+	 * @param location a Location for which {@link #overrides(Location)} is true
+	 * @return the Actor that will be at location, or null if it will be empty
+	 */
+	Actor actorAt(Location location) {
+		return pendingOccupants.get(location);
+	}
+
+	/**
+	 * @param actor an Actor for which {@link #overrides(Actor)} is true
+	 * @return where actor will be, or null if it will have been removed
+	 */
+	Location locationOf(Actor actor) {
+		return pendingLocations.get(actor);
+	}
+
+	/**
+	 * Record placing a new Actor.
+	 *
+	 * @param map      the map the request was made on
+	 * @param actor    the Actor to place
+	 * @param location where to place it
+	 */
+	void add(GameMap map, Actor actor, Location location) {
+		append(new ActorChange(map, actor, null, location));
+		pendingOccupants.put(location, actor);
+		pendingLocations.put(actor, location);
+	}
+
+	/**
+	 * Record moving an Actor.
+	 *
+	 * @param map      the map the request was made on
+	 * @param actor    the Actor to move
+	 * @param from     where the Actor is now, as seen by this journal
+	 * @param location the Actor's destination
+	 */
+	void move(GameMap map, Actor actor, Location from, Location location) {
+		append(new ActorChange(map, actor, from, location));
+		if (from != null)
+			pendingOccupants.put(from, null);
+		pendingOccupants.put(location, actor);
+		pendingLocations.put(actor, location);
+	}
+
+	/**
+	 * Record removing an Actor.
+	 *
+	 * @param map   the map the request was made on
+	 * @param actor the Actor to remove
+	 * @param from  where the Actor is now, as seen by this journal
+	 */
+	void remove(GameMap map, Actor actor, Location from) {
+		append(new ActorChange(map, actor, from, null));
+		if (from != null)
+			pendingOccupants.put(from, null);
+		pendingLocations.put(actor, null);
+	}
+
+	/**
+	 * Record adding an Item to a Location.
+	 *
+	 * @param location where the Item goes
+	 * @param item     the Item
+	 */
+	void addItem(Location location, Item item) {
+		append(new Change() {
+			@Override
+			public void apply() {
+				location.addItem(item);
+			}
+
+			@Override
+			public void undo() {
+				location.removeItem(item);
+			}
+		});
+	}
+
+	/**
+	 * Record removing an Item from a Location.
+	 *
+	 * @param location where the Item is
+	 * @param item     the Item
+	 */
+	void removeItem(Location location, Item item) {
+		append(new Change() {
+			private boolean removed;
+
+			@Override
+			public void apply() {
+				removed = location.getItems().contains(item);
+				location.removeItem(item);
+			}
+
+			@Override
+			public void undo() {
+				if (removed)
+					location.addItem(item);
+			}
+		});
+	}
+
+	/**
+	 * Record replacing the Ground of a Location.
+	 *
+	 * @param location the Location
+	 * @param ground   the new Ground
+	 */
+	void setGround(Location location, Ground ground) {
+		append(new Change() {
+			private Ground previous;
+
+			@Override
+			public void apply() {
+				previous = location.getGround();
+				location.setGround(ground);
+			}
+
+			@Override
+			public void undo() {
+				location.setGround(previous);
+			}
+		});
+	}
+
+	/**
+	 * Record putting a timer into its wheel.
+	 *
+	 * @param timer a timer held back by its wheel
+	 */
+	void schedule(TimingWheel.Timer timer) {
+		timers.add(timer);
+	}
+
+	private void append(Change change) {
+		if (!unitStarted) {
+			units.add(new ArrayList<>());
+			unitStarted = true;
+		}
+		units.get(units.size() - 1).add(change);
+	}
+
+	/**
+	 * One recorded change. Undo is only called on a change that has been applied.
+	 */
+	private interface Change {
+		void apply();
+
+		void undo();
+	}
+
+	/**
+	 * One recorded add, move or remove. An add has no origin and a remove has no destination.
+	 */
+	private static class ActorChange implements Change {
+		private final GameMap map;
+		private final Actor actor;
+		private final Location from;
+		private final Location to;
+		private Location undoLocation;
+
+		ActorChange(GameMap map, Actor actor, Location from, Location to) {
+			this.map = map;
+			this.actor = actor;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void apply() {
+			undoLocation = map.locationOf(actor);
+			if (to == null) {
+				map.removeActor(actor);
+			} else if (from == null) {
+				map.addActor(actor, to);
+			} else {
+				if (undoLocation == null)
+					throw new IllegalArgumentException("Can't move an actor that has left the game");
+				map.moveActor(actor, to);
+			}
+		}
+
+		@Override
+		public void undo() {
+			if (to == null) {
+				if (undoLocation != null)
+					map.addActor(actor, undoLocation);
+			} else if (from == null) {
+				map.removeActor(actor);
+			} else {
+				map.moveActor(actor, undoLocation);
+			}
+		}
+	}
+}
@@ -0,0 +1,398 @@
+package edu.monash.fit2099.engine.positions;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The terrain of a chunked GameMap: a ground type id per cell, and the Locations that have
+ * been created so far.
+ * <p>
+ * The map is cut into square chunks of 64 by 64 cells. A chunk whose cells all have the same
+ * ground type is just that id; the others hold an array of ids. Locations are kept in tables
+ * per chunk, which are only allocated when the first Location in the chunk is created.
+ * <p>
+ * Every Location that is in use is found through a weak reference, so looking at a cell, e.g.
+ * while scanning the neighbours of another, doesn't keep its Location for good. A Location the
+ * map {@link #keep(int, int, Location, boolean) keeps} because something is on it is held as well.
+ * One that has nothing on it goes once nothing else holds it, and a new one is made the next
+ * time the cell is asked for; as nothing could hold the old one by then, each cell still has at
+ * most one Location at a time.
+ * <p>
+ * Each ground type gets one instance from the GroundFactory. If it is stateless (see
+ * {@link Ground#isStateless()}), every cell of that type shares the instance; otherwise every
+ * cell of that type gets a Location and a Ground of its own.
+ * Locations can be looked up and created from any thread; ids must only be changed between
+ * turns or on the World's thread.
+ */
+class ChunkedTerrain {
+
+	static final int CHUNK_BITS = 6;
+	static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private final int width;
+	private final int height;
+	private final int chunksAcross;
+
+	/**
+	 * Ground type ids by chunk, or null for a chunk that is all one type
+	 */
+	private final short[][] ids;
+	/**
+	 * The ground type of each chunk that is all one type
+	 */
+	private final short[] uniformIds;
+	/**
+	 * The Locations the map keeps, by chunk, each table created with the chunk's first one
+	 */
+	private final AtomicReferenceArray<AtomicReferenceArray<Location>> locations;
+	/**
+	 * Every Location in use, kept or not, by chunk. Rebuilt from the kept ones after a snapshot
+	 * is loaded.
+	 */
+	private transient AtomicReferenceArray<AtomicReferenceArray<WeakReference<Location>>> inUse;
+	/**
+	 * Where the references to Locations that have gone turn up, to be cleared out of inUse
+	 */
+	private transient ReferenceQueue<Location> gone = new ReferenceQueue<>();
+
+	/**
+	 * One Ground per type, shared by all the cells of that type if it is stateless
+	 */
+	private final List<Ground> palette = new ArrayList<>();
+	private final List<Boolean> shared = new ArrayList<>();
+	private final Map<Character, Short> idsByChar = new HashMap<>();
+	/**
+	 * The last type looked up, since maps tend to have runs of the same ground
+	 */
+	private char lastChar;
+	private short lastId = -1;
+
+	/**
+	 * Constructor. Every cell starts out as ground type 0, which is registered by the first
+	 * call to {@link #idFor(char, GroundFactory)}.
+	 *
+	 * @param width  width of the map, in cells
+	 * @param height height of the map, in cells
+	 */
+	ChunkedTerrain(int width, int height) {
+		this.width = width;
+		this.height = height;
+		this.chunksAcross = (width + CHUNK_MASK) >> CHUNK_BITS;
+		int chunks = chunksAcross * ((height + CHUNK_MASK) >> CHUNK_BITS);
+		ids = new short[chunks][];
+		uniformIds = new short[chunks];
+		locations = new AtomicReferenceArray<>(chunks);
+		inUse = new AtomicReferenceArray<>(chunks);
+	}
+
+	/**
+	 * Returns the id of a ground type, registering it the first time it is seen.
+	 *
+	 * @param displayChar the character of the ground type
+	 * @param factory     where to get the ground type's instance from
+	 * @return the ground type id
+	 */
+	short idFor(char displayChar, GroundFactory factory) {
+		if (lastId >= 0 && lastChar == displayChar)
+			return lastId;
+		Short id = idsByChar.get(displayChar);
+		if (id != null) {
+			lastChar = displayChar;
+			lastId = id;
+			return id;
+		}
+		if (palette.size() > Short.MAX_VALUE)
+			throw new IllegalStateException("Too many ground types for one map");
+		Ground ground = factory.newGround(displayChar);
+		id = (short) palette.size();
+		palette.add(ground);
+		shared.add(ground != null && ground.isStateless());
+		idsByChar.put(displayChar, id);
+		return id;
+	}
+
+	/**
+	 * Returns the id of the ground type of a Ground that has been set on a Location. A Ground
+	 * with a character that hasn't been seen before registers a type of its own, which isn't
+	 * shared; the Ground is only kept as the sample of that type.
+	 *
+	 * @param ground the Ground
+	 * @return the ground type id
+	 */
+	short idOf(Ground ground) {
+		char displayChar = ground.getDisplayChar();
+		Short id = idsByChar.get(displayChar);
+		if (id != null)
+			return id;
+		if (palette.size() > Short.MAX_VALUE)
+			throw new IllegalStateException("Too many ground types for one map");
+		id = (short) palette.size();
+		palette.add(ground);
+		shared.add(false);
+		idsByChar.put(displayChar, id);
+		return id;
+	}
+
+	/**
+	 * @param id a ground type id
+	 * @return the instance that all cells of that type share, or null if each cell needs its own
+	 */
+	Ground sharedGround(short id) {
+		return shared.get(id) ? palette.get(id) : null;
+	}
+
+	/**
+	 * @param id a ground type id
+	 * @return an instance of that ground type, for its display character and such
+	 */
+	Ground sample(short id) {
+		return palette.get(id);
+	}
+
+	/**
+	 * @param id a ground type id
+	 * @return the character the ground type was registered with
+	 */
+	char displayChar(short id) {
+		Ground ground = palette.get(id);
+		return ground == null ? ' ' : ground.getDisplayChar();
+	}
+
+	/**
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 * @return the ground type id of the cell
+	 */
+	short get(int x, int y) {
+		int chunk = chunkOf(x, y);
+		short[] chunkIds = ids[chunk];
+		return chunkIds == null ? uniformIds[chunk] : chunkIds[cellOf(x, y)];
+	}
+
+	/**
+	 * Set the ground type id of a cell.
+	 *
+	 * @param x  X coordinate
+	 * @param y  Y coordinate
+	 * @param id the ground type id
+	 */
+	void set(int x, int y, short id) {
+		int chunk = chunkOf(x, y);
+		short[] chunkIds = ids[chunk];
+		if (chunkIds == null) {
+			if (uniformIds[chunk] == id)
+				return;
+			chunkIds = new short[CHUNK_SIZE * CHUNK_SIZE];
+			Arrays.fill(chunkIds, uniformIds[chunk]);
+			ids[chunk] = chunkIds;
+		}
+		chunkIds[cellOf(x, y)] = id;
+	}
+
+	/**
+	 * Set the ground type id of every cell in a rectangle. Chunks the rectangle covers
+	 * completely become all one type, whatever they were before.
+	 *
+	 * @param minX smallest X coordinate
+	 * @param minY smallest Y coordinate
+	 * @param maxX largest X coordinate
+	 * @param maxY largest Y coordinate
+	 * @param id   the ground type id
+	 */
+	void fill(int minX, int minY, int maxX, int maxY, short id) {
+		for (int chunkY = minY >> CHUNK_BITS; chunkY <= maxY >> CHUNK_BITS; chunkY++) {
+			int top = Math.max(minY, chunkY << CHUNK_BITS);
+			int bottom = Math.min(maxY, (chunkY << CHUNK_BITS) + CHUNK_MASK);
+			for (int chunkX = minX >> CHUNK_BITS; chunkX <= maxX >> CHUNK_BITS; chunkX++) {
+				int left = Math.max(minX, chunkX << CHUNK_BITS);
+				int right = Math.min(maxX, (chunkX << CHUNK_BITS) + CHUNK_MASK);
+				if (right - left == CHUNK_MASK && bottom - top == CHUNK_MASK) {
+					int chunk = chunkY * chunksAcross + chunkX;
+					ids[chunk] = null;
+					uniformIds[chunk] = id;
+					continue;
+				}
+				for (int y = top; y <= bottom; y++) {
+					for (int x = left; x <= right; x++) {
+						set(x, y, id);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 * @return the Location of the cell, or null if it hasn't got one at the moment
+	 */
+	Location location(int x, int y) {
+		AtomicReferenceArray<WeakReference<Location>> chunk = inUse.get(chunkOf(x, y));
+		if (chunk == null)
+			return null;
+		WeakReference<Location> reference = chunk.get(cellOf(x, y));
+		return reference == null ? null : reference.get();
+	}
+
+	/**
+	 * Store the Location of a cell, unless another thread got there first. It isn't kept until
+	 * {@link #keep(int, int, Location, boolean)} says so.
+	 *
+	 * @param x        X coordinate
+	 * @param y        Y coordinate
+	 * @param location a new Location for the cell
+	 * @return the cell's Location, which is location unless one was already stored
+	 */
+	Location putIfAbsent(int x, int y, Location location) {
+		clearGone();
+		int chunkIndex = chunkOf(x, y);
+		AtomicReferenceArray<WeakReference<Location>> chunk = table(inUse, chunkIndex);
+		int cell = cellOf(x, y);
+		WeakReference<Location> reference = new CellReference(location, gone, chunkIndex, cell);
+		while (true) {
+			WeakReference<Location> current = chunk.get(cell);
+			Location existing = current == null ? null : current.get();
+			if (existing != null)
+				return existing;
+			// Nothing there, or a Location that has gone
+			if (chunk.compareAndSet(cell, current, reference))
+				return location;
+		}
+	}
+
+	/**
+	 * Keep the Location of a cell while something is on it, or stop keeping it so that it can
+	 * go once nothing else holds it.
+	 *
+	 * @param x        X coordinate
+	 * @param y        Y coordinate
+	 * @param location the cell's Location
+	 * @param keep     true to keep it
+	 */
+	void keep(int x, int y, Location location, boolean keep) {
+		int chunkIndex = chunkOf(x, y);
+		if (keep) {
+			table(locations, chunkIndex).set(cellOf(x, y), location);
+			return;
+		}
+		AtomicReferenceArray<Location> chunk = locations.get(chunkIndex);
+		if (chunk != null)
+			chunk.compareAndSet(cellOf(x, y), location, null);
+	}
+
+	/**
+	 * Keep every Location that is in use, e.g. so that a snapshot has all of them, not just
+	 * the ones with something on them.
+	 *
+	 * @return the Locations that weren't kept already, to let go of afterwards
+	 */
+	List<Location> keepAll() {
+		List<Location> added = new ArrayList<>();
+		for (int chunkIndex = 0; chunkIndex < inUse.length(); chunkIndex++) {
+			AtomicReferenceArray<WeakReference<Location>> chunk = inUse.get(chunkIndex);
+			if (chunk == null)
+				continue;
+			for (int cell = 0; cell < chunk.length(); cell++) {
+				WeakReference<Location> reference = chunk.get(cell);
+				Location location = reference == null ? null : reference.get();
+				if (location == null)
+					continue;
+				AtomicReferenceArray<Location> kept = table(locations, chunkIndex);
+				if (kept.get(cell) != location) {
+					kept.set(cell, location);
+					added.add(location);
+				}
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Find the Locations again after a snapshot has been loaded, which only has the kept ones.
+	 *
+	 * @return the Locations that were kept
+	 */
+	List<Location> snapshotLoaded() {
+		List<Location> kept = new ArrayList<>();
+		inUse = new AtomicReferenceArray<>(locations.length());
+		gone = new ReferenceQueue<>();
+		for (int chunkIndex = 0; chunkIndex < locations.length(); chunkIndex++) {
+			AtomicReferenceArray<Location> chunk = locations.get(chunkIndex);
+			if (chunk == null)
+				continue;
+			AtomicReferenceArray<WeakReference<Location>> references = table(inUse, chunkIndex);
+			for (int cell = 0; cell < chunk.length(); cell++) {
+				Location location = chunk.get(cell);
+				if (location != null) {
+					references.set(cell, new CellReference(location, gone, chunkIndex, cell));
+					kept.add(location);
+				}
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * Take the references to Locations that have gone out of inUse, unless they have been
+	 * replaced already.
+	 */
+	private void clearGone() {
+		Reference<? extends Location> reference;
+		while ((reference = gone.poll()) != null) {
+			CellReference cellReference = (CellReference) reference;
+			inUse.get(cellReference.chunkIndex).compareAndSet(cellReference.cell, cellReference, null);
+		}
+	}
+
+	/**
+	 * A reference to a Location that knows where in inUse it is.
+	 */
+	private static final class CellReference extends WeakReference<Location> {
+
+		private final int chunkIndex;
+		private final int cell;
+
+		CellReference(Location location, ReferenceQueue<Location> queue, int chunkIndex, int cell) {
+			super(location, queue);
+			this.chunkIndex = chunkIndex;
+			this.cell = cell;
+		}
+	}
+
+	/**
+	 * The table of a chunk, created if it hasn't been yet.
+	 */
+	private static <T> AtomicReferenceArray<T> table(AtomicReferenceArray<AtomicReferenceArray<T>> tables, int chunkIndex) {
+		AtomicReferenceArray<T> chunk = tables.get(chunkIndex);
+		if (chunk == null) {
+			tables.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE * CHUNK_SIZE));
+			chunk = tables.get(chunkIndex);
+		}
+		return chunk;
+	}
+
+	/**
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 * @return true if (x, y) is on the map
+	 */
+	boolean inBounds(int x, int y) {
+		return x >= 0 && x < width && y >= 0 && y < height;
+	}
+
+	private int chunkOf(int x, int y) {
+		return (y >> CHUNK_BITS) * chunksAcross + (x >> CHUNK_BITS);
+	}
+
+	private static int cellOf(int x, int y) {
+		return ((y & CHUNK_MASK) << CHUNK_BITS) | (x & CHUNK_MASK);
+	}
+}
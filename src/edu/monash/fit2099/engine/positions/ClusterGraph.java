@@ -0,0 +1,650 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actors.Actor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The abstract graph of a GameMap that hierarchical path finding (HPA*) searches, for Actors
+ * of one kind.
+ * <p>
+ * The map is cut into square clusters of {@link #CLUSTER_SIZE} cells. Wherever Actors can
+ * cross the border between two clusters, each run of crossable cells gets an entrance: a node
+ * on either side, in the middle of the run, one step apart. Actors also step diagonally, so
+ * a diagonal step over a border that no straight step next to it can stand in for is an
+ * entrance too, and so is one from the corner of a cluster to the cluster diagonally across
+ * from it, when both cells beside that step are blocked. The cells whose Ground links
+ * somewhere else ({@link Ground#getLinks(Location)}) are nodes too, with an edge of one step to
+ * each place they link to, which may be on another map; and so are the cells those links lead to.
+ * Within a cluster, the nodes are joined by the length of the shortest walk between them that
+ * stays inside the cluster. A search therefore crosses a cluster in one edge, and only the
+ * part of the route the Actor is about to walk is worked out cell by cell (see {@link Route}).
+ * <p>
+ * A cluster is only surveyed when a search first reaches it. A change to the terrain of a
+ * cell marks its own cluster to be surveyed again, and also the cluster on the other side if
+ * the cell is on a border, and the other clusters around the corner if it is in a corner;
+ * nothing else is thrown away.
+ * <p>
+ * Graphs are shared by every thread, so all work on a graph is done holding the path finding
+ * lock of its map ({@link GameMap#pathLock}). A search that crosses maps holds one map's lock
+ * at a time, so searches never wait on each other in a circle, and searches on different
+ * maps don't wait on each other at all.
+ */
+final class ClusterGraph {
+	static final int CLUSTER_SIZE = 16;
+
+	private static final int[] NO_CELLS = new int[0];
+	/**
+	 * The way out of each corner of a cluster, north-east, south-east, south-west and north-west
+	 */
+	private static final Direction[] CORNER_WAYS = {
+			Direction.NORTH_EAST, Direction.SOUTH_EAST, Direction.SOUTH_WEST, Direction.NORTH_WEST};
+	private static final Location[] NO_LINKS = new Location[0];
+
+	private final GameMap map;
+	/**
+	 * The Actor the Ground is asked about, standing for every Actor of its kind
+	 */
+	private final Actor mover;
+	private final int width;
+	private final int height;
+	private final int across;
+	private final int down;
+
+	/**
+	 * By cluster: the cells that are nodes; the steps between each two of them, nodes.length
+	 * squared, -1 where there is no way within the cluster; and for each node, the cells it
+	 * crosses a border to and the Locations it links to
+	 */
+	private final int[][] nodes;
+	private final int[][] costs;
+	private final int[][][] crossings;
+	private final Location[][][] links;
+	private final boolean[] dirty;
+
+	/**
+	 * By cluster: the entrances on its east and south borders, as pairs of cells, the one in
+	 * this cluster first
+	 */
+	private final int[][] eastEntrances;
+	private final int[][] southEntrances;
+	private final boolean[] eastDirty;
+	private final boolean[] southDirty;
+
+	/**
+	 * Cells that must be nodes because links from elsewhere lead to them
+	 */
+	private final BitSet pinned = new BitSet();
+
+	/**
+	 * Scratch space for searching within one cluster
+	 */
+	private final int[] distances = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+	private final int[] queue = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+
+	/**
+	 * Constructor. Nothing is surveyed until a search needs it.
+	 *
+	 * @param map   the GameMap
+	 * @param mover an Actor of the kind the routes are for
+	 */
+	ClusterGraph(GameMap map, Actor mover) {
+		this.map = map;
+		this.mover = mover;
+		this.width = map.getXBounds().size();
+		this.height = map.getYBounds().size();
+		this.across = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		this.down = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+		int clusters = across * down;
+		nodes = new int[clusters][];
+		costs = new int[clusters][];
+		crossings = new int[clusters][][];
+		links = new Location[clusters][][];
+		dirty = new boolean[clusters];
+		eastEntrances = new int[clusters][];
+		southEntrances = new int[clusters][];
+		eastDirty = new boolean[clusters];
+		southDirty = new boolean[clusters];
+		Arrays.fill(dirty, true);
+		Arrays.fill(eastDirty, true);
+		Arrays.fill(southDirty, true);
+	}
+
+	/**
+	 * Note that something about a cell that affects where Actors can go has changed.
+	 *
+	 * @param x X coordinate
+	 * @param y Y coordinate
+	 */
+	void cellChanged(int x, int y) {
+		int cx = x / CLUSTER_SIZE;
+		int cy = y / CLUSTER_SIZE;
+		int cluster = cy * across + cx;
+		dirty[cluster] = true;
+		if (x % CLUSTER_SIZE == 0 && cx > 0)
+			borderChanged(eastDirty, cluster - 1, cluster);
+		if (x % CLUSTER_SIZE == CLUSTER_SIZE - 1 && cx < across - 1)
+			borderChanged(eastDirty, cluster, cluster + 1);
+		if (y % CLUSTER_SIZE == 0 && cy > 0)
+			borderChanged(southDirty, cluster - across, cluster);
+		if (y % CLUSTER_SIZE == CLUSTER_SIZE - 1 && cy < down - 1)
+			borderChanged(southDirty, cluster, cluster + across);
+
+		// A corner cell decides whether the clusters around that corner need a diagonal entrance
+		int ox = x % CLUSTER_SIZE == 0 ? -1 : x % CLUSTER_SIZE == CLUSTER_SIZE - 1 ? 1 : 0;
+		int oy = y % CLUSTER_SIZE == 0 ? -1 : y % CLUSTER_SIZE == CLUSTER_SIZE - 1 ? 1 : 0;
+		if (ox != 0 && oy != 0 && cx + ox >= 0 && cx + ox < across && cy + oy >= 0 && cy + oy < down) {
+			dirty[cluster + ox] = true;
+			dirty[cluster + oy * across] = true;
+			dirty[cluster + oy * across + ox] = true;
+		}
+	}
+
+	private void borderChanged(boolean[] borders, int first, int second) {
+		borders[first] = true;
+		dirty[first] = true;
+		dirty[second] = true;
+	}
+
+	/**
+	 * Find a route, through other maps if that is the way.
+	 *
+	 * @param mover the Actor that will take the route
+	 * @param from  where it starts
+	 * @param to    where it should end up
+	 * @return the route, or null if there is no way
+	 */
+	static Route findRoute(Actor mover, Location from, Location to) {
+		ClusterGraph start = from.map().clusterGraph(mover);
+		ClusterGraph goal = to.map().clusterGraph(mover);
+		return start.search(goal, from, to);
+	}
+
+	private record Node(ClusterGraph graph, int cell) {
+	}
+
+	/**
+	 * What a search knows about a node: the fewest steps to it so far, and how they got there
+	 */
+	private static final class Visit {
+		private final Node node;
+		private int cost = Integer.MAX_VALUE;
+		private Visit previous;
+		private boolean viaLink;
+		private boolean done;
+
+		private Visit(Node node) {
+			this.node = node;
+		}
+	}
+
+	private record Entry(Visit visit, int cost, int estimate, long order) implements Comparable<Entry> {
+		@Override
+		public int compareTo(Entry other) {
+			if (estimate != other.estimate)
+				return Integer.compare(estimate, other.estimate);
+			return Long.compare(order, other.order);
+		}
+	}
+
+	/**
+	 * One A* search over the nodes. The start and goal are joined to the nodes of their
+	 * clusters just for the search.
+	 */
+	private static final class Search {
+		private final ClusterGraph goalGraph;
+		private final int goalCell;
+		private final Map<Node, Visit> visits = new HashMap<>();
+		private final PriorityQueue<Entry> open = new PriorityQueue<>();
+		private long order = 0;
+
+		private Search(ClusterGraph goalGraph, int goalCell) {
+			this.goalGraph = goalGraph;
+			this.goalCell = goalCell;
+		}
+
+		private void offer(Node node, int cost, Visit previous, boolean viaLink) {
+			Visit visit = visits.computeIfAbsent(node, Visit::new);
+			if (visit.cost <= cost)
+				return;
+			visit.cost = cost;
+			visit.previous = previous;
+			visit.viaLink = viaLink;
+			int estimate = cost;
+			if (node.graph() == goalGraph && node.cell() >= 0)
+				estimate += goalGraph.stepsBetween(node.cell(), goalCell);
+			open.add(new Entry(visit, cost, estimate, order++));
+		}
+	}
+
+	/**
+	 * A* over the nodes, from a start that is on this graph's map.
+	 */
+	private Route search(ClusterGraph goalGraph, Location from, Location to) {
+		int startCell = cellOf(from);
+		int goalCell = goalGraph.cellOf(to);
+		if (!goalGraph.passable(to.x(), to.y()))
+			return null;
+		if (from == to)
+			return new Route(new Location[]{from}, new boolean[1]);
+
+		Search search = new Search(goalGraph, goalCell);
+		Visit start = new Visit(new Node(this, -1));
+		Node goal = new Node(goalGraph, -2);
+		int goalCluster = goalGraph.clusterOf(goalCell);
+
+		// From the start to the nodes of its cluster, and straight to the goal if it is there too
+		synchronized (map.pathLock) {
+			int startCluster = clusterOf(startCell);
+			survey(startCluster);
+			walkWithin(startCluster, startCell);
+			for (int cell : nodes[startCluster]) {
+				int cost = distances[localIndex(startCluster, cell)];
+				if (cost >= 0)
+					search.offer(new Node(this, cell), cost, start, false);
+			}
+			if (goalGraph == this && goalCluster == startCluster) {
+				int cost = distances[localIndex(startCluster, goalCell)];
+				if (cost >= 0)
+					search.offer(goal, cost, start, false);
+			}
+		}
+
+		while (!search.open.isEmpty()) {
+			Entry entry = search.open.poll();
+			Visit visit = entry.visit();
+			if (visit.done || entry.cost() > visit.cost)
+				continue; // superseded
+			visit.done = true;
+			Node node = visit.node;
+			if (node.equals(goal))
+				return route(visit, from, to);
+
+			ClusterGraph graph = node.graph();
+			Location[] linksOut;
+			synchronized (graph.map.pathLock) {
+				int cluster = graph.clusterOf(node.cell());
+				graph.survey(cluster);
+				int index = graph.indexOf(cluster, node.cell());
+				if (index < 0)
+					continue; // no longer a node, after the terrain changed
+				int[] here = graph.nodes[cluster];
+				int[] steps = graph.costs[cluster];
+				for (int other = 0; other < here.length; other++) {
+					int cost = steps[index * here.length + other];
+					if (other != index && cost >= 0)
+						search.offer(new Node(graph, here[other]), visit.cost + cost, visit, false);
+				}
+				for (int partner : graph.crossings[cluster][index]) {
+					search.offer(new Node(graph, partner), visit.cost + 1, visit, false);
+				}
+				if (graph == goalGraph && cluster == goalCluster) {
+					graph.walkWithin(cluster, node.cell());
+					int cost = graph.distances[graph.localIndex(cluster, goalCell)];
+					if (cost >= 0)
+						search.offer(goal, visit.cost + cost, visit, false);
+				}
+				linksOut = graph.links[cluster][index];
+			}
+			// Links may lead to other maps, whose locks are taken one at a time
+			for (Location link : linksOut) {
+				ClusterGraph linked = link.map().clusterGraph(mover);
+				synchronized (linked.map.pathLock) {
+					if (!linked.passable(link.x(), link.y()))
+						continue;
+					int linkCell = linked.cellOf(link);
+					linked.pin(linkCell);
+					search.offer(new Node(linked, linkCell), visit.cost + 1, visit, true);
+				}
+			}
+		}
+		return null;
+	}
+
+	private static Route route(Visit end, Location from, Location to) {
+		List<Visit> visits = new ArrayList<>();
+		for (Visit visit = end; visit.previous != null; visit = visit.previous) {
+			visits.add(visit);
+		}
+		int count = visits.size() + 1;
+		Location[] waypoints = new Location[count];
+		boolean[] viaLink = new boolean[count];
+		waypoints[0] = from;
+		for (int i = 1; i < count; i++) {
+			Visit visit = visits.get(count - 1 - i);
+			waypoints[i] = visit == end ? to : visit.node.graph().locationOf(visit.node.cell());
+			viaLink[i] = visit.viaLink;
+		}
+		return new Route(waypoints, viaLink);
+	}
+
+	/**
+	 * Make sure a cell is a node, e.g. because a link from somewhere else leads to it.
+	 */
+	private void pin(int cell) {
+		if (pinned.get(cell))
+			return;
+		pinned.set(cell);
+		dirty[clusterOf(cell)] = true;
+	}
+
+	/**
+	 * Survey a cluster again if it has changed: its entrances, links and the steps between its nodes.
+	 */
+	private void survey(int cluster) {
+		if (!dirty[cluster])
+			return;
+		int cx = cluster % across;
+		int cy = cluster / across;
+		if (cx > 0)
+			surveyBorder(cluster - 1, true);
+		if (cx < across - 1)
+			surveyBorder(cluster, true);
+		if (cy > 0)
+			surveyBorder(cluster - across, false);
+		if (cy < down - 1)
+			surveyBorder(cluster, false);
+
+		// The nodes, and the cells across the border from each
+		int[] cells = new int[CLUSTER_SIZE * 4];
+		int[][] partners = new int[cells.length][];
+		int count = 0;
+		int[][] sides = {
+				cx < across - 1 ? eastEntrances[cluster] : NO_CELLS,
+				cy < down - 1 ? southEntrances[cluster] : NO_CELLS,
+				cornerEntrances(cx, cy),
+				cx > 0 ? eastEntrances[cluster - 1] : NO_CELLS,
+				cy > 0 ? southEntrances[cluster - across] : NO_CELLS};
+		for (int side = 0; side < sides.length; side++) {
+			int[] pairs = sides[side];
+			boolean mine = side < 3; // the first cell of each pair is in this cluster
+			for (int i = 0; i < pairs.length; i += 2) {
+				int cell = mine ? pairs[i] : pairs[i + 1];
+				int partner = mine ? pairs[i + 1] : pairs[i];
+				int index = indexIn(cells, count, cell);
+				if (index < 0) {
+					if (count == cells.length) {
+						cells = Arrays.copyOf(cells, count * 2);
+						partners = Arrays.copyOf(partners, count * 2);
+					}
+					index = count++;
+					cells[index] = cell;
+					partners[index] = NO_CELLS;
+				}
+				partners[index] = Arrays.copyOf(partners[index], partners[index].length + 1);
+				partners[index][partners[index].length - 1] = partner;
+			}
+		}
+
+		// Links out, and cells that links lead into
+		Location[][] linksOut = new Location[cells.length][];
+		int x0 = cx * CLUSTER_SIZE;
+		int y0 = cy * CLUSTER_SIZE;
+		int x1 = Math.min(x0 + CLUSTER_SIZE, width) - 1;
+		int y1 = Math.min(y0 + CLUSTER_SIZE, height) - 1;
+		for (int y = y0; y <= y1; y++) {
+			for (int x = x0; x <= x1; x++) {
+				int cell = y * width + x;
+				Location location = map.existingAt(x, y);
+				List<Location> out = location == null ? List.of() : location.getGround().getLinks(location);
+				if (out.isEmpty() && !pinned.get(cell))
+					continue;
+				if (!passable(x, y))
+					continue;
+				int index = indexIn(cells, count, cell);
+				if (index < 0) {
+					if (count == cells.length) {
+						cells = Arrays.copyOf(cells, count * 2);
+						partners = Arrays.copyOf(partners, count * 2);
+					}
+					index = count++;
+					cells[index] = cell;
+					partners[index] = NO_CELLS;
+				}
+				if (linksOut.length < cells.length)
+					linksOut = Arrays.copyOf(linksOut, cells.length);
+				linksOut[index] = out.toArray(NO_LINKS);
+			}
+		}
+
+		int[] found = Arrays.copyOf(cells, count);
+		int[] steps = new int[count * count];
+		for (int i = 0; i < count; i++) {
+			walkWithin(cluster, found[i]);
+			for (int j = 0; j < count; j++) {
+				steps[i * count + j] = distances[localIndex(cluster, found[j])];
+			}
+		}
+		nodes[cluster] = found;
+		costs[cluster] = steps;
+		crossings[cluster] = Arrays.copyOf(partners, count);
+		links[cluster] = new Location[count][];
+		for (int i = 0; i < count; i++) {
+			links[cluster][i] = i < linksOut.length && linksOut[i] != null ? linksOut[i] : NO_LINKS;
+		}
+		dirty[cluster] = false;
+	}
+
+	/**
+	 * Find the entrances on the east or south border of a cluster: one in the middle of each
+	 * run of cells that can be crossed straight over, and one for each diagonal step over the
+	 * border between two cells that can't.
+	 */
+	private void surveyBorder(int cluster, boolean east) {
+		boolean[] borderDirty = east ? eastDirty : southDirty;
+		if (!borderDirty[cluster])
+			return;
+		int cx = cluster % across;
+		int cy = cluster / across;
+		int length = east ? Math.min(CLUSTER_SIZE, height - cy * CLUSTER_SIZE) : Math.min(CLUSTER_SIZE, width - cx * CLUSTER_SIZE);
+		Direction out = east ? Direction.EAST : Direction.SOUTH;
+		// Stepping out diagonally, towards the next cell along the border and the one before it
+		Direction forward = Direction.SOUTH_EAST;
+		Direction back = east ? Direction.NORTH_EAST : Direction.SOUTH_WEST;
+		int x0 = east ? cx * CLUSTER_SIZE + CLUSTER_SIZE - 1 : cx * CLUSTER_SIZE;
+		int y0 = east ? cy * CLUSTER_SIZE : cy * CLUSTER_SIZE + CLUSTER_SIZE - 1;
+		int alongX = east ? 0 : 1;
+		int alongY = east ? 1 : 0;
+
+		boolean[] straight = new boolean[length];
+		for (int i = 0; i < length; i++) {
+			straight[i] = crossable(x0 + i * alongX, y0 + i * alongY, out);
+		}
+		int[] pairs = new int[length * 4];
+		int count = 0;
+		int run = -1;
+		for (int i = 0; i <= length; i++) {
+			boolean open = i < length && straight[i];
+			if (open && run < 0) {
+				run = i;
+			} else if (!open && run >= 0) {
+				int middle = (run + i - 1) / 2;
+				count = addPair(pairs, count, x0 + middle * alongX, y0 + middle * alongY, out);
+				run = -1;
+			}
+		}
+		for (int i = 0; i + 1 < length; i++) {
+			if (straight[i] || straight[i + 1])
+				continue;
+			int x = x0 + i * alongX;
+			int y = y0 + i * alongY;
+			if (crossable(x, y, forward))
+				count = addPair(pairs, count, x, y, forward);
+			if (crossable(x + alongX, y + alongY, back))
+				count = addPair(pairs, count, x + alongX, y + alongY, back);
+		}
+		(east ? eastEntrances : southEntrances)[cluster] = Arrays.copyOf(pairs, count);
+		borderDirty[cluster] = false;
+	}
+
+	/**
+	 * Find the entrances from the corners of a cluster to the clusters diagonally across from
+	 * them, where the two cells beside the diagonal step are both blocked. Otherwise the way
+	 * round through one of them, over two straight entrances, does as well.
+	 *
+	 * @return pairs of cells, the one in this cluster first
+	 */
+	private int[] cornerEntrances(int cx, int cy) {
+		int x0 = cx * CLUSTER_SIZE;
+		int y0 = cy * CLUSTER_SIZE;
+		int x1 = Math.min(x0 + CLUSTER_SIZE, width) - 1;
+		int y1 = Math.min(y0 + CLUSTER_SIZE, height) - 1;
+		int[] pairs = NO_CELLS;
+		for (Direction way : CORNER_WAYS) {
+			int x = way.dx() > 0 ? x1 : x0;
+			int y = way.dy() > 0 ? y1 : y0;
+			int nx = x + way.dx();
+			int ny = y + way.dy();
+			if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+				continue;
+			if (passable(nx, y) || passable(x, ny) || !crossable(x, y, way))
+				continue;
+			pairs = Arrays.copyOf(pairs, pairs.length + 2);
+			addPair(pairs, pairs.length - 2, x, y, way);
+		}
+		return pairs;
+	}
+
+	/**
+	 * Can an Actor step from a cell to its neighbour in a direction, both ways?
+	 */
+	private boolean crossable(int x, int y, Direction direction) {
+		int nx = x + direction.dx();
+		int ny = y + direction.dy();
+		return passable(x, y) && passable(nx, ny)
+				&& !map.isClosed(x, y, direction) && !map.isClosed(nx, ny, direction.opposite());
+	}
+
+	/**
+	 * Put a cell and its neighbour in a direction into an array of pairs.
+	 *
+	 * @return the count of the array after them
+	 */
+	private int addPair(int[] pairs, int count, int x, int y, Direction direction) {
+		pairs[count++] = y * width + x;
+		pairs[count++] = (y + direction.dy()) * width + x + direction.dx();
+		return count;
+	}
+
+	/**
+	 * Breadth-first search from a cell over the rest of its cluster, leaving the steps to each
+	 * cell in {@link #distances} by {@link #localIndex(int, int)}.
+	 */
+	private void walkWithin(int cluster, int from) {
+		int x0 = (cluster % across) * CLUSTER_SIZE;
+		int y0 = (cluster / across) * CLUSTER_SIZE;
+		int x1 = Math.min(x0 + CLUSTER_SIZE, width) - 1;
+		int y1 = Math.min(y0 + CLUSTER_SIZE, height) - 1;
+		Arrays.fill(distances, -1);
+		walk(from, x0, y0, x1, y1, distances, queue, null);
+	}
+
+	/**
+	 * Find the cells of the shortest walk between two cells that stays inside a rectangle.
+	 *
+	 * @return the cells from the first to the last, or null if there is no such walk
+	 */
+	int[] walkBetween(int from, int to, int x0, int y0, int x1, int y1) {
+		int size = (x1 - x0 + 1) * (y1 - y0 + 1);
+		int[] steps = new int[size];
+		int[] parents = new int[size];
+		Arrays.fill(steps, -1);
+		walk(from, x0, y0, x1, y1, steps, new int[size], parents);
+		int span = x1 - x0 + 1;
+		int target = (to / width - y0) * span + (to % width - x0);
+		if (steps[target] < 0)
+			return null;
+		int[] cells = new int[steps[target] + 1];
+		for (int local = target, i = cells.length - 1; i >= 0; local = parents[local], i--) {
+			cells[i] = (local / span + y0) * width + local % span + x0;
+		}
+		return cells;
+	}
+
+	private void walk(int from, int x0, int y0, int x1, int y1, int[] steps, int[] queue, int[] parents) {
+		int span = x1 - x0 + 1;
+		int head = 0;
+		int tail = 0;
+		int start = (from / width - y0) * span + (from % width - x0);
+		steps[start] = 0;
+		queue[tail++] = start;
+		while (head < tail) {
+			int local = queue[head++];
+			int x = local % span + x0;
+			int y = local / span + y0;
+			for (int i = 0; i < Direction.count(); i++) {
+				Direction direction = Direction.get(i);
+				int nx = x + direction.dx();
+				int ny = y + direction.dy();
+				if (nx < x0 || nx > x1 || ny < y0 || ny > y1)
+					continue;
+				int next = (ny - y0) * span + (nx - x0);
+				if (steps[next] >= 0 || map.isClosed(x, y, direction) || !passable(nx, ny))
+					continue;
+				steps[next] = steps[local] + 1;
+				if (parents != null)
+					parents[next] = local;
+				queue[tail++] = next;
+			}
+		}
+	}
+
+	/**
+	 * @return the rectangle, x0, y0, x1 and y1, that covers the clusters of two cells
+	 */
+	int[] boundsOf(int first, int second) {
+		int a = clusterOf(first);
+		int b = clusterOf(second);
+		int ax = (a % across) * CLUSTER_SIZE;
+		int ay = (a / across) * CLUSTER_SIZE;
+		int bx = (b % across) * CLUSTER_SIZE;
+		int by = (b / across) * CLUSTER_SIZE;
+		return new int[]{Math.min(ax, bx), Math.min(ay, by),
+				Math.min(Math.max(ax, bx) + CLUSTER_SIZE, width) - 1, Math.min(Math.max(ay, by) + CLUSTER_SIZE, height) - 1};
+	}
+
+	boolean passable(int x, int y) {
+		return map.groundAt(x, y).canActorEnter(mover);
+	}
+
+	int cellOf(Location location) {
+		return location.y() * width + location.x();
+	}
+
+	Location locationOf(int cell) {
+		return map.at(cell % width, cell / width);
+	}
+
+	private int clusterOf(int cell) {
+		return (cell / width / CLUSTER_SIZE) * across + (cell % width) / CLUSTER_SIZE;
+	}
+
+	private int localIndex(int cluster, int cell) {
+		int x0 = (cluster % across) * CLUSTER_SIZE;
+		int y0 = (cluster / across) * CLUSTER_SIZE;
+		int span = Math.min(x0 + CLUSTER_SIZE, width) - x0;
+		return (cell / width - y0) * span + (cell % width - x0);
+	}
+
+	private int indexOf(int cluster, int cell) {
+		return indexIn(nodes[cluster], nodes[cluster].length, cell);
+	}
+
+	private static int indexIn(int[] cells, int count, int cell) {
+		for (int i = 0; i < count; i++) {
+			if (cells[i] == cell)
+				return i;
+		}
+		return -1;
+	}
+
+	private int stepsBetween(int first, int second) {
+		return Math.max(Math.abs(first % width - second % width), Math.abs(first / width - second / width));
+	}
+}
@@ -0,0 +1,101 @@
+package edu.monash.fit2099.engine.positions;
+
+/**
+ * The eight directions to the cells around a Location, with the name and menu hotkey that
+ * moving that way has always had.
+ * <p>
+ * This is the one table every Location uses to find its neighbours, so a Location doesn't
+ * have to keep an Exit for each of them. To visit the directions in order without creating
+ * anything, loop over the indices:
+ * <pre>
+ *     for (int i = 0; i &lt; Direction.count(); i++) {
+ *         Location neighbour = here.neighbour(Direction.get(i));
+ *         if (neighbour == null)
+ *             continue; // off the edge of the map, or closed off
+ *         ...
+ *     }
+ * </pre>
+ */
+public enum Direction {
+	NORTH(0, -1, "North", "8"),
+	NORTH_EAST(1, -1, "North-East", "9"),
+	EAST(1, 0, "East", "6"),
+	SOUTH_EAST(1, 1, "South-East", "3"),
+	SOUTH(0, 1, "South", "2"),
+	SOUTH_WEST(-1, 1, "South-West", "1"),
+	WEST(-1, 0, "West", "4"),
+	NORTH_WEST(-1, -1, "North-West", "7");
+
+	private static final Direction[] ALL = values();
+
+	private final int dx;
+	private final int dy;
+	private final String name;
+	private final String hotKey;
+
+	Direction(int dx, int dy, String name, String hotKey) {
+		this.dx = dx;
+		this.dy = dy;
+		this.name = name;
+		this.hotKey = hotKey;
+	}
+
+	/**
+	 * @return the number of directions
+	 */
+	public static int count() {
+		return ALL.length;
+	}
+
+	/**
+	 * Look a direction up by its position in the table, without copying the table as values() does.
+	 *
+	 * @param index the position, counting from zero, in the order North, North-East, ... North-West
+	 * @return the direction
+	 */
+	public static Direction get(int index) {
+		return ALL[index];
+	}
+
+	/**
+	 * @return how far this direction goes across, from -1 to 1
+	 */
+	public int dx() {
+		return dx;
+	}
+
+	/**
+	 * @return how far this direction goes down, from -1 to 1
+	 */
+	public int dy() {
+		return dy;
+	}
+
+	/**
+	 * @return the name of the direction, e.g. "North-East"
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return the hotkey for moving this way, e.g. "9"
+	 */
+	public String getHotKey() {
+		return hotKey;
+	}
+
+	/**
+	 * @return the direction that goes back the way this one came, e.g. South for North
+	 */
+	public Direction opposite() {
+		return ALL[(ordinal() + ALL.length / 2) % ALL.length];
+	}
+
+	/**
+	 * @return this direction's bit in a mask of directions
+	 */
+	int bit() {
+		return 1 << ordinal();
+	}
+}
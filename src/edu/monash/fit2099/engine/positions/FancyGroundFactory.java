@@ -1,16 +1,28 @@
 package edu.monash.fit2099.engine.positions;
 
-import java.lang.reflect.Constructor;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.function.Supplier;
 
 /**
  * Class that can create different types of Ground based on the character that
  * represents it.
+ * <p>
+ * The Suppliers are kept in a table indexed by the character, in pages of 256 that are only
+ * allocated for the characters in use, so a lookup is two array reads. A stateless Ground
+ * (see {@link Ground#isStateless()}) is not created again at all: the instance passed in is
+ * handed out every time. Other Grounds are created through a Supplier that calls their
+ * constructor directly, without reflection.
  */
 public class FancyGroundFactory implements GroundFactory {
 
-	private Map<Character, Constructor<? extends Ground>> map = new HashMap<>();
+	private static final int PAGE_BITS = 8;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+	@SuppressWarnings("unchecked")
+	private final Supplier<? extends Ground>[][] pages = (Supplier<? extends Ground>[][]) new Supplier<?>[(Character.MAX_VALUE + 1) >> PAGE_BITS][];
 
 	/**
 	 * Constructor.
@@ -22,33 +34,96 @@ public class FancyGroundFactory implements GroundFactory {
 	 * but that would make the maps look confusing in the UI anyway.
 	 *
 	 * @param groundTypes A collection of all types of ground required for a GameMap
+	 * @throws IllegalArgumentException if a Ground that isn't stateless has no public no-argument constructor
 	 */
 	public FancyGroundFactory(Ground... groundTypes) {
 		for (Ground ground : groundTypes) {
-			try {
-				Class<? extends Ground> cls = ground.getClass();
-				Constructor<? extends Ground> constructor;
-				constructor = cls.getConstructor();
-				map.put(ground.getDisplayChar(), constructor);
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
+			if (ground.isStateless())
+				put(ground.getDisplayChar(), () -> ground);
+			else
+				put(ground.getDisplayChar(), constructorOf(ground.getClass()));
+		}
+	}
+
+	/**
+	 * Add or replace the way a type of Ground is created.
+	 *
+	 * @param displayChar character that represents this Ground in the UI
+	 * @param supplier    creates the Ground; may hand out the same instance every time if it is stateless
+	 */
+	public void add(char displayChar, Supplier<? extends Ground> supplier) {
+		put(displayChar, supplier);
+	}
+
+	private void put(char displayChar, Supplier<? extends Ground> supplier) {
+		Supplier<? extends Ground>[] page = pages[displayChar >> PAGE_BITS];
+		if (page == null) {
+			@SuppressWarnings("unchecked")
+			Supplier<? extends Ground>[] newPage = (Supplier<? extends Ground>[]) new Supplier<?>[PAGE_SIZE];
+			page = newPage;
+			pages[displayChar >> PAGE_BITS] = page;
 		}
+		page[displayChar & (PAGE_SIZE - 1)] = supplier;
 	}
 
 	/**
-	 * Given a character, returns a new instance of the Ground type represented by it.
+	 * Given a character, returns a new instance of the Ground type represented by it,
+	 * or the shared instance if the type is stateless.
 	 *
 	 * @param displayChar character that represents this Ground in the UI
 	 * @return an instance of a concrete subclass of Ground
+	 * @throws IllegalArgumentException if no Ground type is represented by displayChar
 	 */
 	@Override
 	public Ground newGround(char displayChar) {
+		return supplierFor(displayChar).get();
+	}
+
+	/**
+	 * Look the Ground type up once, for filling a region.
+	 *
+	 * @param displayChar character that represents this Ground in the UI
+	 * @return the Supplier that creates the Ground type
+	 * @throws IllegalArgumentException if no Ground type is represented by displayChar
+	 */
+	@Override
+	public Supplier<? extends Ground> supplierFor(char displayChar) {
+		Supplier<? extends Ground>[] page = pages[displayChar >> PAGE_BITS];
+		Supplier<? extends Ground> supplier = page == null ? null : page[displayChar & (PAGE_SIZE - 1)];
+		if (supplier == null)
+			throw new IllegalArgumentException("No type of Ground is represented by '" + displayChar + "'");
+		return supplier;
+	}
+
+	/**
+	 * Make a Supplier that calls the public no-argument constructor of a Ground class.
+	 * It is a generated lambda where that is allowed, and a method handle otherwise.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Supplier<? extends Ground> constructorOf(Class<? extends Ground> cls) {
+		MethodHandle constructor;
+		try {
+			constructor = MethodHandles.publicLookup().findConstructor(cls, MethodType.methodType(void.class));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalArgumentException(cls.getName() + " needs a public no-argument constructor", e);
+		}
+
 		try {
-			return map.get(displayChar).newInstance();
-		} catch (Exception e) {
-			e.printStackTrace();
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			return (Supplier<? extends Ground>) LambdaMetafactory.metafactory(lookup, "get",
+					MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+					constructor, MethodType.methodType(cls)).getTarget().invoke();
+		} catch (Throwable e) {
+			MethodHandle generic = constructor.asType(MethodType.methodType(Ground.class));
+			return () -> {
+				try {
+					return (Ground) generic.invokeExact();
+				} catch (RuntimeException | Error thrown) {
+					throw thrown;
+				} catch (Throwable thrown) {
+					throw new IllegalStateException(thrown);
+				}
+			};
 		}
-		return null;
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,173 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actors.Actor;
+
+import java.util.Arrays;
+
+/**
+ * How many steps it is from every cell of a GameMap to a target, for Actors of one kind.
+ * <p>
+ * The field is worked out with a breadth-first search out from the target, moving in the
+ * eight {@link Direction directions} onto the cells whose Ground lets the Actor in
+ * ({@link Ground#canActorEnter(Actor)}) and through no way that has been removed. The search
+ * only goes as far as it has to: each question about a cell carries it on until that cell is
+ * reached, or there is nowhere left to go. The followers of a target are usually near it, so
+ * most fields never cover more than a small part of the map. Once a cell has been reached,
+ * every cell nearer the target has too, so finding the next step for an Actor following the
+ * target is a look at its eight neighbours, and a whole herd costs one search instead of one
+ * each.
+ * <p>
+ * Get fields from {@link GameMap#flowFieldTo(Actor, Actor)}, which shares them between the
+ * followers of a target and works them out again once per turn of the World, or sooner if
+ * the target moves. Other Actors are left out of the search, as they will have moved by the
+ * time a follower gets there; a step onto a cell that is taken is skipped.
+ */
+public final class FlowField {
+	private final GameMap map;
+	private final int width;
+	private final int height;
+	/**
+	 * The steps from each cell to the target, indexed by y * width + x; -1 if it hasn't been
+	 * reached (yet)
+	 */
+	private final int[] distances;
+	/**
+	 * The cells the search has reached, in the order it reached them. Those from head on still
+	 * have their neighbours to be looked at.
+	 */
+	private int[] queue;
+	private int head;
+	private int tail;
+	/**
+	 * Where the target was, the Actor the Grounds are asked about, and on what tick of the
+	 * World's clock the search started
+	 */
+	private Location target;
+	private Actor mover;
+	private long tick;
+
+	/**
+	 * Constructor. The field leads nowhere until it is {@link #reset(Location, Actor, long)}.
+	 *
+	 * @param map the GameMap
+	 */
+	FlowField(GameMap map) {
+		this.map = map;
+		this.width = map.getXBounds().size();
+		this.height = map.getYBounds().size();
+		this.distances = new int[width * height];
+		Arrays.fill(distances, -1);
+		this.queue = new int[64];
+	}
+
+	/**
+	 * Start the field again for a target, keeping its arrays. Only the cells the last search
+	 * reached are cleared.
+	 *
+	 * @param target where the target is
+	 * @param mover  an Actor of the kind that will follow the field, to ask the Ground about
+	 * @param tick   the tick of the World's clock
+	 */
+	synchronized void reset(Location target, Actor mover, long tick) {
+		for (int i = 0; i < tail; i++) {
+			distances[queue[i]] = -1;
+		}
+		this.target = target;
+		this.mover = mover;
+		this.tick = tick;
+		int start = target.y() * width + target.x();
+		distances[start] = 0;
+		queue[0] = start;
+		head = 0;
+		tail = 1;
+	}
+
+	/**
+	 * Carry the search on until it reaches a cell or runs out of cells to go to.
+	 *
+	 * @param cell the cell, as y * width + x
+	 * @return the steps from the cell to the target, or -1 if there is no way
+	 */
+	private synchronized int settle(int cell) {
+		while (distances[cell] < 0 && head < tail) {
+			int from = queue[head++];
+			int x = from % width;
+			int y = from / width;
+			int distance = distances[from] + 1;
+			for (int i = 0; i < Direction.count(); i++) {
+				Direction direction = Direction.get(i);
+				int nx = x + direction.dx();
+				int ny = y + direction.dy();
+				if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+					continue;
+				int next = ny * width + nx;
+				if (distances[next] >= 0)
+					continue;
+				// A follower there would step back the opposite way
+				if (map.isClosed(nx, ny, direction.opposite()) || !map.groundAt(nx, ny).canActorEnter(mover))
+					continue;
+				distances[next] = distance;
+				if (tail == queue.length)
+					queue = Arrays.copyOf(queue, Math.min(queue.length * 2, distances.length));
+				queue[tail++] = next;
+			}
+		}
+		return distances[cell];
+	}
+
+	/**
+	 * @param location a Location
+	 * @return the number of steps from there to the target, or -1 if there is no way or the
+	 * Location is on another map
+	 */
+	public int distanceFrom(Location location) {
+		if (location.map() != map)
+			return -1;
+		return settle(location.y() * width + location.x());
+	}
+
+	/**
+	 * Find the step that takes an Actor closest to the target, among those it can take now.
+	 * Ties go to the first direction in the {@link Direction} table.
+	 *
+	 * @param actor the Actor following the field
+	 * @param here  where it is
+	 * @return the direction to step in, or null if no step brings it closer
+	 */
+	public Direction nextStep(Actor actor, Location here) {
+		int best = distanceFrom(here);
+		if (best <= 0)
+			return null;
+		// Every cell nearer the target than here was reached before here was, so the
+		// neighbours that matter have their distances already
+		Direction step = null;
+		for (int i = 0; i < Direction.count(); i++) {
+			Direction direction = Direction.get(i);
+			Location neighbour = here.neighbour(direction);
+			if (neighbour == null)
+				continue;
+			int distance = distances[neighbour.y() * width + neighbour.x()];
+			if (distance >= 0 && distance < best && neighbour.canActorEnter(actor)) {
+				best = distance;
+				step = direction;
+			}
+		}
+		return step;
+	}
+
+	/**
+	 * @return where the target was when the field was worked out
+	 */
+	public Location getTarget() {
+		return target;
+	}
+
+	/**
+	 * @param target where the target is now
+	 * @param tick   the tick of the World's clock now
+	 * @return true if the field still holds
+	 */
+	boolean isFresh(Location target, long tick) {
+		return this.target == target && this.tick == tick;
+	}
+}
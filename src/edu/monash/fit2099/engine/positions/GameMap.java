@@ -2,16 +2,22 @@ package edu.monash.fit2099.engine.positions;
 
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.ActorLocationsIterator;
+import edu.monash.fit2099.engine.actors.EntityStore;
 import edu.monash.fit2099.engine.actors.StatusEffect;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Class representing one map within the system.
@@ -22,15 +28,78 @@ import java.util.Objects;
  * when the player leaves a map.
  * <p>
  * It's important to put the GameMap in the World before using it.
+ * <p>
+ * A map can be created chunked, for very large maps. A chunked map doesn't create a Location
+ * (with its Ground and Items) for every cell up front. It keeps a ground type id per
+ * cell instead, shares one instance of each stateless Ground (see {@link Ground#isStateless()})
+ * between all of its cells, and only creates a cell's Location when {@link #at(int, int)} is first
+ * called for it, or when the cell gets a Ground that isn't shared. The map keeps a Location while
+ * something is on it -- an Actor, an Item, a Ground of its own, an extra or removed Exit -- or
+ * while it is of a subclass. One with nothing on it goes once nothing else holds it, and a new
+ * one is made if the cell is asked for again; as nothing could hold the old one by then,
+ * Locations can still be compared with == and used as keys.
  */
 public class GameMap {
 
-    protected NumberRange heights;
-    protected NumberRange widths;
+    protected IntRange heights;
+    protected IntRange widths;
     protected Location[][] map;
+    /**
+     * Who stands where, indexed by y * width + x. Kept in step by the World's ActorLocationsIterator.
+     */
+    protected Actor[] occupants;
+    /**
+     * The Locations whose Ground or Items have a tick of their own, indexed like the occupants
+     */
+    protected BitSet tickingCells;
+    /**
+     * True if the Locations themselves tick, in which case every Location is ticked
+     */
+    protected boolean ticksEveryCell;
+    protected int width;
+    /**
+     * The display characters of the last drawing, reused from one draw to the next
+     */
+    protected char[] frame;
     protected ActorLocationsIterator actorLocations;
+    protected TimingWheel timers;
     protected GroundFactory groundFactory;
     protected String name;
+    /**
+     * True if the terrain is kept in chunks and Locations are only created when needed
+     */
+    private final boolean chunked;
+    /**
+     * The terrain of a chunked map; null otherwise
+     */
+    private ChunkedTerrain terrain;
+    /**
+     * The flow fields the followers on this map share, by target and kind of follower
+     */
+    private transient Map<FlowFieldKey, FlowField> flowFields;
+    private transient long flowFieldsTick;
+    /**
+     * Fields of earlier ticks, whose arrays are used again for new fields, and those replaced
+     * on this tick, which may still be in use until it ends
+     */
+    private transient List<FlowField> spareFlowFields;
+    private transient List<FlowField> retiredFlowFields;
+    /**
+     * The graphs hierarchical path finding searches, by kind of Actor
+     */
+    private transient volatile Map<Class<?>, ClusterGraph> clusterGraphs;
+    /**
+     * Held while path finding works on this map's graphs
+     */
+    final transient Object pathLock = new Object();
+    /**
+     * Which cells have something with each capability that has been asked about; null until the first question
+     */
+    private transient volatile CapabilityIndex capabilityIndex;
+    /**
+     * The distances to the nearest Ground with each capability that has been asked about; null until the first question
+     */
+    private transient volatile Map<Enum<?>, GroundDistanceField> groundDistanceFields;
 
     /**
      * Constructor.
@@ -42,7 +111,22 @@ public class GameMap {
      * @param height        height of the GameMap, in characters
      */
     public GameMap(String name, GroundFactory groundFactory, char groundChar, int width, int height) {
+        this(name, groundFactory, groundChar, width, height, false);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param name          Name of the map, e.g. Raya Lucaria
+     * @param groundFactory Factory to create Ground objects
+     * @param groundChar    Symbol that will represent empty Ground in this map
+     * @param width         width of the GameMap, in characters
+     * @param height        height of the GameMap, in characters
+     * @param chunked       true to keep the terrain in chunks and only create Locations when needed
+     */
+    public GameMap(String name, GroundFactory groundFactory, char groundChar, int width, int height, boolean chunked) {
         this.name = name;
+        this.chunked = chunked;
         Objects.requireNonNull(groundFactory);
         if (groundChar <= 0 || width <= 0 || height <= 0)
             throw new IllegalArgumentException();
@@ -50,9 +134,9 @@ public class GameMap {
         this.groundFactory = groundFactory;
         initMap(width, height);
 
-        for (int x : widths) {
-            for (int y : heights) {
-                at(x, y).setGround(groundFactory.newGround(groundChar));
+        for (int x = widths.min(); x <= widths.max(); x++) {
+            for (int y = heights.min(); y <= heights.max(); y++) {
+                setGroundAt(x, y, groundChar);
             }
         }
     }
@@ -65,24 +149,76 @@ public class GameMap {
      * @param lines         List of Strings representing rows of the map
      */
     public GameMap(String name, GroundFactory groundFactory, List<String> lines) {
+        this(name, groundFactory, lines, false);
+    }
+
+    /**
+     * Constructor that creates a map from a sequence of ASCII strings.
+     *
+     * @param name          Name of the map, e.g. Limgrave
+     * @param groundFactory Factory to create Ground objects
+     * @param lines         List of Strings representing rows of the map
+     * @param chunked       true to keep the terrain in chunks and only create Locations when needed
+     */
+    public GameMap(String name, GroundFactory groundFactory, List<String> lines, boolean chunked) {
         Objects.requireNonNull(groundFactory);
         Objects.requireNonNull(lines);
 
         this.name = name;
+        this.chunked = chunked;
         this.groundFactory = groundFactory;
         createMapFromStrings(groundFactory, lines);
     }
 
+    /**
+     * Constructor for a GameMap read from a snapshot, which sets all of its fields afterwards.
+     */
+    private GameMap() {
+        this.chunked = false;
+    }
+
     /**
      * Constructor that reads a map from file.
      *
      * @param groundFactory Factory to create Ground objects
      * @param mapFile       Name of a file containing an ASCII representation of a
-     *                      level
+     *                      level, or a binary map file (see {@link MapFile})
      * @throws IOException when file I/O fails
      */
     public GameMap(String name, GroundFactory groundFactory, String mapFile) throws IOException {
-        this(name, groundFactory, Files.readAllLines(Paths.get(mapFile)));
+        this(name, groundFactory, mapFile, false);
+    }
+
+    /**
+     * Constructor that reads a map from file.
+     * <p>
+     * The file is memory-mapped and the map filled in row order as it is read, a run of the
+     * same Ground at a time.
+     *
+     * @param groundFactory Factory to create Ground objects
+     * @param mapFile       Name of a file containing an ASCII representation of a
+     *                      level, or a binary map file (see {@link MapFile})
+     * @param chunked       true to keep the terrain in chunks and only create Locations when needed
+     * @throws IOException when file I/O fails, or the file isn't a well-formed map
+     */
+    public GameMap(String name, GroundFactory groundFactory, String mapFile, boolean chunked) throws IOException {
+        Objects.requireNonNull(groundFactory);
+        Objects.requireNonNull(mapFile);
+
+        this.name = name;
+        this.chunked = chunked;
+        this.groundFactory = groundFactory;
+        MapFile.read(Paths.get(mapFile), new MapFile.Sink() {
+            @Override
+            public void start(int width, int height) {
+                initMap(width, height);
+            }
+
+            @Override
+            public void run(int x, int y, int length, char groundChar) {
+                setGroundRun(x, y, length, groundChar);
+            }
+        });
     }
 
     /**
@@ -96,14 +232,30 @@ public class GameMap {
         int height = lines.size();
         initMap(width, height);
 
-        for (int x : widths) {
-            for (int y : heights) {
-                char groundChar = lines.get(y).charAt(x);
-                at(x, y).setGround(groundFactory.newGround(groundChar));
+        // Row by row, so each line is read from start to end
+        for (int y = heights.min(); y <= heights.max(); y++) {
+            String line = lines.get(y);
+            for (int x = widths.min(); x <= widths.max(); x++) {
+                setGroundAt(x, y, line.charAt(x));
             }
         }
     }
 
+    /**
+     * Set the Ground of a run of cells in a row, as read from a map file.
+     *
+     * @param x          X coordinate of the first cell
+     * @param y          Y coordinate
+     * @param length     number of cells
+     * @param groundChar the character representing the Ground to set
+     */
+    private void setGroundRun(int x, int y, int length, char groundChar) {
+        if (length == 1)
+            setGroundAt(x, y, groundChar);
+        else
+            add(groundChar, new IntRange(x, length), new IntRange(y, 1));
+    }
+
     /**
      * Initialize the map.
      *
@@ -111,33 +263,34 @@ public class GameMap {
      * @param height height of the map, in characters
      */
     protected void initMap(int width, int height) {
-        widths = new NumberRange(0, width);
-        heights = new NumberRange(0, height);
+        widths = new IntRange(0, width);
+        heights = new IntRange(0, height);
+        this.width = width;
+        occupants = new Actor[width * height];
+        tickingCells = new BitSet(width * height);
+        ticksEveryCell = false;
+        if (chunked) {
+            // Locations come later, one at a time; all that's needed now is whether they tick.
+            map = null;
+            terrain = new ChunkedTerrain(width, height);
+            ticksEveryCell = TickingClasses.ticks(makeNewLocation(0, 0));
+            return;
+        }
+
         map = new Location[width][height]; // Note the ordering. 0, 0 is the top left.
         // First arg is across, second down
-        for (int x : widths) {
-            for (int y : heights) {
+        for (int x = widths.min(); x <= widths.max(); x++) {
+            for (int y = heights.min(); y <= heights.max(); y++) {
                 map[x][y] = makeNewLocation(x, y);
+                ticksEveryCell |= TickingClasses.ticks(map[x][y]);
             }
         }
-
-        for (int x : widths) {
-            for (int y : heights) {
-                Location here = this.at(x, y);
-                addExitFromHere(here, x, y - 1, "North", "8");
-                addExitFromHere(here, x + 1, y - 1, "North-East", "9");
-                addExitFromHere(here, x + 1, y, "East", "6");
-                addExitFromHere(here, x + 1, y + 1, "South-East", "3");
-                addExitFromHere(here, x, y + 1, "South", "2");
-                addExitFromHere(here, x - 1, y + 1, "South-West", "1");
-                addExitFromHere(here, x - 1, y, "West", "4");
-                addExitFromHere(here, x - 1, y - 1, "North-West", "7");
-            }
-        }
+        // No Exits to the neighbours: Locations find those through the Direction table.
     }
 
     /**
-     * Builder method for making Exits.
+     * Builder method for making Exits on top of the ways to the neighbours, which every
+     * Location has already (see {@link Location#neighbour(Direction)}).
      *
      * @param here   the current location
      * @param x      X coordinate
@@ -167,87 +320,269 @@ public class GameMap {
     /**
      * Display the current GameMap.
      * <p>
-     * Draws Actors, then locations. These need to be printed in rows because that's the way the
-     * console works.
+     * Draws Actors, then locations. The whole map is handed to the Display as one frame, so that
+     * it can be written in one go, or only where it changed since the last one.
      *
      * @param display Display that will draw the state of the game
      */
     public void draw(Display display) {
-        for (int y : heights) {
-            for (int x : widths) {
-                display.print(this.at(x, y));
+        int height = heights.size();
+        if (frame == null || frame.length != width * height)
+            frame = new char[width * height];
+        for (int y = heights.min(); y <= heights.max(); y++) {
+            for (int x = widths.min(); x <= widths.max(); x++) {
+                frame[y * width + x] = displayCharAt(x, y);
+            }
+        }
+        display.printFrame(frame, width, height);
+    }
+
+    /**
+     * A checksum of what the map looks like: the character drawn for each cell, in row order.
+     * Two maps that would be drawn the same have the same checksum.
+     *
+     * @return the checksum
+     */
+    long checksum() {
+        long checksum = 17;
+        for (int y = heights.min(); y <= heights.max(); y++) {
+            for (int x = widths.min(); x <= widths.max(); x++) {
+                checksum = checksum * 31 + displayCharAt(x, y);
             }
-            display.endLine();
         }
+        return checksum;
+    }
+
+    /**
+     * The character to draw for a cell, without creating its Location if it hasn't got one.
+     */
+    private char displayCharAt(int x, int y) {
+        if (!chunked)
+            return map[x][y].getDisplayChar();
+        Location location = terrain.location(x, y);
+        return location != null ? location.getDisplayChar() : terrain.displayChar(terrain.get(x, y));
+    }
+
+    /**
+     * The Ground of a cell, without creating its Location if it hasn't got one. On a chunked
+     * map, that is a Ground of the cell's type that stands for all the cells of that type.
+     */
+    Ground groundAt(int x, int y) {
+        if (!chunked)
+            return map[x][y].getGround();
+        Location location = terrain.location(x, y);
+        return location != null ? location.getGround() : terrain.sample(terrain.get(x, y));
+    }
+
+    /**
+     * Has the way from a cell to its neighbour in a direction been removed?
+     */
+    boolean isClosed(int x, int y, Direction direction) {
+        Location location = existingAt(x, y);
+        return location != null && location.isClosed(direction);
+    }
+
+    /**
+     * The Location of a cell if it has one; on a map that isn't chunked, every cell has.
+     */
+    Location existingAt(int x, int y) {
+        return chunked ? terrain.location(x, y) : map[x][y];
     }
 
     /**
      * Returns the Location at these coordinates.
+     * <p>
+     * On a chunked map, this creates the Location if the cell hasn't got one yet.
      *
      * @param x X coordinate
      * @param y Y coordinate
      * @return the Location at (x, y)
+     * @throws ArrayIndexOutOfBoundsException if (x, y) is not on the map
      */
     public Location at(int x, int y) {
-        return map[x][y];
+        if (!chunked)
+            return map[x][y];
+
+        Location location = terrain.location(x, y);
+        if (location != null)
+            return location;
+        if (!terrain.inBounds(x, y))
+            throw new ArrayIndexOutOfBoundsException("(" + x + ", " + y + ") is not on " + name);
+        // Any thread may get here; only the first Location stored for the cell is kept.
+        location = makeNewLocation(x, y);
+        location.initGround(terrain.sharedGround(terrain.get(x, y)));
+        return terrain.putIfAbsent(x, y, location);
+    }
+
+    /**
+     * Set the Ground of a cell to a new Ground of the type represented by groundChar, or on a
+     * chunked map to the shared Ground of that type if there is one.
+     *
+     * @param x          X coordinate
+     * @param y          Y coordinate
+     * @param groundChar the character representing the Ground to set
+     */
+    private void setGroundAt(int x, int y, char groundChar) {
+        if (!chunked) {
+            at(x, y).setGround(groundFactory.newGround(groundChar));
+            return;
+        }
+
+        short id = terrain.idFor(groundChar, groundFactory);
+        terrain.set(x, y, id);
+        Ground shared = terrain.sharedGround(id);
+        Location location = terrain.location(x, y);
+        if (shared == null)
+            at(x, y).setGround(groundFactory.newGround(groundChar));
+        else if (location != null)
+            location.setGround(shared);
+        else {
+            tickingCells.set(y * width + x, TickingClasses.ticks(shared));
+            groundChanged(x, y, shared);
+        }
     }
 
     /**
      * Set the Ground type in a rectangle
+     * <p>
+     * The Ground type is only looked up once. On a chunked map a stateless Ground is written
+     * as ground type ids, a whole chunk at a time where the rectangle covers it.
      *
      * @param groundChar the character representing the Ground to set
      * @param xs         the range of X coordinates
      * @param ys         the range of Y coordinates
      */
-    public void add(char groundChar, NumberRange xs, NumberRange ys) {
-        for (int x : xs) {
-            for (int y : ys) {
-                at(x, y).setGround(groundFactory.newGround(groundChar));
+    public void add(char groundChar, IntRange xs, IntRange ys) {
+        if (xs.size() == 0 || ys.size() == 0)
+            return;
+
+        if (!chunked) {
+            Supplier<? extends Ground> grounds = groundFactory.supplierFor(groundChar);
+            for (int x = xs.min(); x <= xs.max(); x++) {
+                for (int y = ys.min(); y <= ys.max(); y++) {
+                    at(x, y).setGround(grounds.get());
+                }
+            }
+            return;
+        }
+
+        short id = terrain.idFor(groundChar, groundFactory);
+        Ground shared = terrain.sharedGround(id);
+        if (shared == null || !widths.contains(xs.min()) || !widths.contains(xs.max())
+                || !heights.contains(ys.min()) || !heights.contains(ys.max())) {
+            // Every cell needs a Location of its own anyway, or at() is about to object to the bounds.
+            for (int x = xs.min(); x <= xs.max(); x++) {
+                for (int y = ys.min(); y <= ys.max(); y++) {
+                    setGroundAt(x, y, groundChar);
+                }
+            }
+            return;
+        }
+
+        terrain.fill(xs.min(), ys.min(), xs.max(), ys.max(), id);
+        groundsChanged();
+        boolean ticks = TickingClasses.ticks(shared);
+        for (int y = ys.min(); y <= ys.max(); y++) {
+            tickingCells.set(y * width + xs.min(), y * width + xs.max() + 1, ticks);
+            // The cells that already have a Location keep it; it may have Items that tick.
+            for (int x = xs.min(); x <= xs.max(); x++) {
+                Location location = terrain.location(x, y);
+                if (location != null)
+                    location.setGround(shared);
             }
         }
     }
 
+    /**
+     * Returns an enumerable IntRange representing the valid X values of the game map.
+     *
+     * @return the valid X indices
+     */
+    public IntRange getXBounds() {
+        return widths;
+    }
+
+    /**
+     * Returns an enumerable IntRange representing the valid Y values of the game map.
+     *
+     * @return the valid Y indices
+     */
+    public IntRange getYBounds() {
+        return heights;
+    }
+
     /**
      * Returns an enumerable NumberRange representing the valid X values of the game map.
      *
      * @return the valid X indices
+     * @deprecated use {@link #getXBounds()}
      */
+    @Deprecated
     public NumberRange getXRange() {
-        return widths;
+        return new NumberRange(widths.min(), widths.size());
     }
 
     /**
      * Returns an enumerable NumberRange representing the valid Y values of the game map.
      *
      * @return the valid Y indices
+     * @deprecated use {@link #getYBounds()}
      */
+    @Deprecated
     public NumberRange getYRange() {
-        return heights;
+        return new NumberRange(heights.min(), heights.size());
     }
 
     /**
      * Called once per turn, so that maps can experience the passage of time.
+     * <p>
+     * Only the Locations whose Ground or Items have a tick of their own are visited, in
+     * row-major order. If the map is made of a Location class that overrides
+     * {@link Location#tick()}, every Location is visited instead.
      */
     public void tick() {
         // Tick over all the items in inventories as well as the status effects held by the current actor.
-        for (Actor actor : actorLocations) {
-            if (this.contains(actor)) {
+        int length = actorLocations.passLength();
+        for (int i = 0; i < length; i++) {
+            Actor actor = actorLocations.inTurnOrder(i, length);
+            if (actor != null && this.contains(actor)) {
+                ChangeJournal.startUnit();
                 for (Item item : new ArrayList<Item>(actor.getItemInventory())) { // Copy the list in case the item wants to leave
-                    item.tick(actorLocations.locationOf(actor), actor);
+                    item.tick(locationOf(actor), actor);
                 }
                 for (StatusEffect statusEffect : new ArrayList<StatusEffect>(actor.getStatusEffects())) {
-                    statusEffect.tick(actorLocations.locationOf(actor), actor);
+                    statusEffect.tick(locationOf(actor), actor);
                 }
             }
         }
 
-        for (int y : heights) {
-            for (int x : widths) {
-                this.at(x, y).tick();
+        if (ticksEveryCell) {
+            for (int y = heights.min(); y <= heights.max(); y++) {
+                for (int x = widths.min(); x <= widths.max(); x++) {
+                    ChangeJournal.startUnit();
+                    this.at(x, y).tick();
+                }
             }
+            return;
+        }
+
+        // Same row-major order, but only the Locations that have something that ticks.
+        for (int cell = tickingCells.nextSetBit(0); cell >= 0; cell = tickingCells.nextSetBit(cell + 1)) {
+            ChangeJournal.startUnit();
+            this.at(cell % width, cell / width).tick();
         }
     }
 
+    /**
+     * Record whether a Location of this map has a Ground or Items that tick.
+     *
+     * @param location a Location on this map
+     * @param ticking  true if the Location needs to be ticked
+     */
+    void setTicking(Location location, boolean ticking) {
+        tickingCells.set(location.y() * width + location.x(), ticking);
+    }
+
     /**
      * Returns a reference to the Actor at the given location, if there is one.
      *
@@ -255,9 +590,127 @@ public class GameMap {
      * @return a reference to the Actor, or null if there isn't one
      */
     public Actor getActorAt(Location location) {
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null && journal.overrides(location))
+            return journal.actorAt(location);
         return actorLocations.getActorAt(location);
     }
 
+    /**
+     * Returns the clock of the World this map is in, for scheduling things a number of turns ahead.
+     *
+     * @return the World's TimingWheel, or null if the map hasn't been added to a World yet
+     */
+    public TimingWheel getTimers() {
+        return timers;
+    }
+
+    /**
+     * Returns the Actor standing on a Location of this map, ignoring any pending changes.
+     * <p>
+     * Engine-internal: this reads the occupancy grid that the World's {@link ActorLocationsIterator}
+     * keeps up to date. Game code should use {@link #getActorAt(Location)} or {@link Location#getActor()}.
+     *
+     * @param location a Location on this map
+     * @return the Actor there, or null if there isn't one
+     */
+    public Actor occupantAt(Location location) {
+        return occupants[location.y() * width + location.x()];
+    }
+
+    /**
+     * Visit the Actors standing on this map, row by row from the top left, ignoring any pending
+     * changes. Only the occupancy grid is read, so on a chunked map no Locations are created
+     * for the empty cells. The visitor must not add, move or remove Actors.
+     *
+     * @param visitor called with each Actor
+     */
+    public void forEachActor(Consumer<Actor> visitor) {
+        for (Actor actor : occupants) {
+            if (actor != null)
+                visitor.accept(actor);
+        }
+    }
+
+    /**
+     * Record who stands on a Location of this map.
+     * <p>
+     * Engine-internal: only the World's {@link ActorLocationsIterator} calls this, when it places,
+     * moves or removes an Actor. Calling it from anywhere else puts the grid out of step with the
+     * registry.
+     *
+     * @param location a Location on this map
+     * @param actor    the Actor now standing there, or null if it is now empty
+     */
+    public void setOccupant(Location location, Actor actor) {
+        occupants[location.y() * width + location.x()] = actor;
+        CapabilityIndex index = capabilityIndex;
+        if (index != null)
+            index.actorChanged(location.x(), location.y(), actor);
+        contentChanged(location);
+    }
+
+    /**
+     * On a chunked map, keep a Location while something is on it, and let it go once there
+     * isn't.
+     */
+    void contentChanged(Location location) {
+        if (chunked)
+            terrain.keep(location.x(), location.y(), location, !isPlain(location));
+    }
+
+    /**
+     * Is a Location of a chunked map just what {@link #at(int, int)} would make for its cell?
+     */
+    private boolean isPlain(Location location) {
+        return location.getClass() == Location.class && location.isBare()
+                && location.getGround() == terrain.sharedGround(terrain.get(location.x(), location.y()))
+                && occupants[location.y() * width + location.x()] == null;
+    }
+
+    /**
+     * Keep every Location that is in use until {@link #releaseLocations(List)}, so that a
+     * snapshot has all of them.
+     *
+     * @return the Locations to let go of afterwards
+     */
+    List<Location> keepAllLocations() {
+        return chunked ? terrain.keepAll() : Collections.emptyList();
+    }
+
+    /**
+     * Let go of the Locations {@link #keepAllLocations()} kept.
+     */
+    void releaseLocations(List<Location> locations) {
+        for (Location location : locations) {
+            contentChanged(location);
+        }
+    }
+
+    /**
+     * Called once the map has been loaded from a snapshot, which keeps every Location that was
+     * in use when it was taken.
+     */
+    void snapshotLoaded() {
+        if (chunked)
+            releaseLocations(terrain.snapshotLoaded());
+    }
+
+    /**
+     * Let the map know that the Actor standing on a Location has gained or lost a capability,
+     * or picked up or dropped an Item with one.
+     * <p>
+     * Engine-internal: the World's {@link ActorLocationsIterator} calls this when one of its
+     * Actors says its capabilities have changed.
+     *
+     * @param location a Location on this map
+     */
+    public void occupantCapabilitiesChanged(Location location) {
+        CapabilityIndex index = capabilityIndex;
+        if (index != null)
+            index.actorChanged(location.x(), location.y(), occupantAt(location));
+    }
+
     /**
      * Add a new Actor at the given Location.
      *
@@ -267,6 +720,13 @@ public class GameMap {
      */
     public void addActor(Actor actor, Location location) {
         Objects.requireNonNull(actor);
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null) {
+            if (locationOf(actor) != null || isAnActorAt(location))
+                throw new IllegalArgumentException();
+            journal.add(this, actor, location);
+            return;
+        }
         actorLocations.add(actor, location);
     }
 
@@ -277,6 +737,11 @@ public class GameMap {
      */
     public void removeActor(Actor actor) {
         Objects.requireNonNull(actor);
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null) {
+            journal.remove(this, actor, locationOf(actor));
+            return;
+        }
         actorLocations.remove(actor);
     }
 
@@ -289,6 +754,13 @@ public class GameMap {
      */
     public void moveActor(Actor actor, Location newLocation) {
         Objects.requireNonNull(actor);
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null) {
+            if (isAnActorAt(newLocation))
+                throw new IllegalArgumentException("Can't move to another actor");
+            journal.move(this, actor, locationOf(actor), newLocation);
+            return;
+        }
         actorLocations.move(actor, newLocation);
     }
 
@@ -299,6 +771,9 @@ public class GameMap {
      * @return the Location containing actor
      */
     public Location locationOf(Actor actor) {
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null && journal.overrides(actor))
+            return journal.locationOf(actor);
         return actorLocations.locationOf(actor);
     }
 
@@ -309,9 +784,268 @@ public class GameMap {
      * @return true if and only if an Actor is at the given Location.
      */
     public boolean isAnActorAt(Location location) {
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null && journal.overrides(location))
+            return journal.actorAt(location) != null;
         return actorLocations.isAnActorAt(location);
     }
 
+    /**
+     * Get a {@link FlowField} that leads to an Actor on this map, for an Actor following it.
+     * <p>
+     * Followers of the same class share a field, on the understanding that their Ground lets
+     * them all in or keeps them all out; the first one to ask stands for the others. A field is
+     * worked out at most once per tick of the World's clock, and again if the target moves.
+     * This can be called while turns are planned on several threads at once.
+     * <p>
+     * A field is only good for the tick it was got on: on a later tick its arrays are used
+     * again for another field, so the map doesn't make new ones every tick.
+     *
+     * @param target the Actor to follow
+     * @param mover  the Actor following it
+     * @return the field, or null if the target isn't on this map
+     */
+    public synchronized FlowField flowFieldTo(Actor target, Actor mover) {
+        Location there = contains(target) ? locationOf(target) : null;
+        if (there == null || there.map() != this)
+            return null;
+
+        long tick = timers == null ? 0 : timers.now();
+        if (flowFields == null) {
+            flowFields = new HashMap<>();
+            spareFlowFields = new ArrayList<>();
+            retiredFlowFields = new ArrayList<>();
+            flowFieldsTick = tick;
+        } else if (flowFieldsTick != tick) {
+            // Every field is stale on a new tick; keep them to be used again, and drop the
+            // targets that have gone
+            spareFlowFields.addAll(flowFields.values());
+            spareFlowFields.addAll(retiredFlowFields);
+            retiredFlowFields.clear();
+            flowFields.clear();
+            flowFieldsTick = tick;
+        }
+        FlowFieldKey key = new FlowFieldKey(target, mover.getClass());
+        FlowField field = flowFields.get(key);
+        if (field == null || !field.isFresh(there, tick)) {
+            if (field != null)
+                retiredFlowFields.add(field);
+            field = spareFlowFields.isEmpty() ? new FlowField(this) : spareFlowFields.remove(spareFlowFields.size() - 1);
+            field.reset(there, mover, tick);
+            flowFields.put(key, field);
+        }
+        return field;
+    }
+
+    private record FlowFieldKey(Actor target, Class<?> moverType) {
+    }
+
+    /**
+     * Find a way for an Actor on this map to a Location, which may be far away or on another
+     * map that a link such as a teleporter leads to (see {@link Ground#getLinks(Location)}).
+     * <p>
+     * The search is hierarchical: it goes from cluster to cluster of cells over a graph that is
+     * kept between searches, and only the next part of the route is worked out cell by cell,
+     * when the Actor sets off on it. The graph is shared by Actors of the same class, on the
+     * understanding that their Ground lets them all in or keeps them all out. The route is
+     * close to the shortest, but not always the very shortest. This can be called while turns
+     * are planned on several threads at once.
+     *
+     * @param mover       the Actor that will take the route
+     * @param destination where it should end up
+     * @return the route, or null if the Actor isn't on this map or there is no way
+     */
+    public Route routeTo(Actor mover, Location destination) {
+        Location here = locationOf(mover);
+        if (here == null || here.map() != this)
+            return null;
+        return ClusterGraph.findRoute(mover, here, destination);
+    }
+
+    /**
+     * The path finding graph for Actors of the kind of an Actor.
+     */
+    ClusterGraph clusterGraph(Actor mover) {
+        synchronized (pathLock) {
+            if (clusterGraphs == null)
+                clusterGraphs = new HashMap<>();
+            return clusterGraphs.computeIfAbsent(mover.getClass(), type -> new ClusterGraph(this, mover));
+        }
+    }
+
+    /**
+     * Let path finding know that something about a Location that affects where Actors can go
+     * has changed, e.g. its Ground. Only the clusters around the Location are surveyed again.
+     * {@link Location#setGround(Ground)} and {@link Location#removeExit(Exit)} call this; call it
+     * after other changes, e.g. to where a teleporter leads.
+     *
+     * @param location the Location
+     */
+    public void terrainChanged(Location location) {
+        // Nothing to tell before the first search, e.g. while the map is being built
+        if (clusterGraphs == null)
+            return;
+        synchronized (pathLock) {
+            for (ClusterGraph graph : clusterGraphs.values()) {
+                graph.cellChanged(location.x(), location.y());
+            }
+        }
+    }
+
+    /**
+     * Is there a Ground, an Actor or an Item with a capability on a Location within some
+     * distance of another, counting the Location itself?
+     * <p>
+     * The distance is the number of steps in the eight {@link Direction directions}, ignoring
+     * what is in the way, so a radius of 1 covers the Location and its neighbours, including
+     * any whose way has been removed; links to other maps are not followed. The map keeps a
+     * bit per cell for each capability it is asked about, so this looks at a few words of
+     * bits per row rather than at every Ground, Actor and Item. The Actor of a Location is the
+     * one {@link #getActorAt(Location)} would give.
+     *
+     * @param centre     a Location on this map
+     * @param radius     how many steps away to look
+     * @param capability the capability to look for
+     * @return true if something within radius of centre has the capability
+     */
+    public boolean hasCapabilityWithin(Location centre, int radius, Enum<?> capability) {
+        return hasCapabilityNear(centre, radius, capability, false);
+    }
+
+    /**
+     * Is there a Ground, an Actor or an Item with a capability on a Location within some
+     * distance of another, not counting the Location itself? With a radius of 1, this asks
+     * about the neighbours. See {@link #hasCapabilityWithin(Location, int, Enum)}.
+     *
+     * @param centre     a Location on this map
+     * @param radius     how many steps away to look
+     * @param capability the capability to look for
+     * @return true if something within radius of centre, other than on centre, has the capability
+     */
+    public boolean hasCapabilityAround(Location centre, int radius, Enum<?> capability) {
+        return hasCapabilityNear(centre, radius, capability, true);
+    }
+
+    private boolean hasCapabilityNear(Location centre, int radius, Enum<?> capability, boolean skipCentre) {
+        Objects.requireNonNull(capability);
+        int x0 = Math.max(widths.min(), centre.x() - radius);
+        int x1 = Math.min(widths.max(), centre.x() + radius);
+        int y0 = Math.max(heights.min(), centre.y() - radius);
+        int y1 = Math.min(heights.max(), centre.y() + radius);
+        int skipX = skipCentre ? centre.x() : -1;
+        int skipY = skipCentre ? centre.y() : -1;
+
+        // The bits only know who has arrived; Actors still on their way are looked at one by one.
+        ChangeJournal journal = ChangeJournal.current();
+        boolean pending = journal != null && journal.hasPendingOccupants();
+        if (capabilityIndex().anyWithin(capability, x0, y0, x1, y1, skipX, skipY, !pending))
+            return true;
+        if (!pending)
+            return false;
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                Location location = existingAt(x, y);
+                if (location == null || x == skipX && y == skipY)
+                    continue;
+                Actor actor = getActorAt(location);
+                if (actor != null && actor.hasCapability(capability))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized CapabilityIndex capabilityIndex() {
+        if (capabilityIndex == null)
+            capabilityIndex = new CapabilityIndex(this);
+        return capabilityIndex;
+    }
+
+    /**
+     * How many steps it is from a Location to the nearest Ground with a capability, counting
+     * steps in the eight {@link Direction directions} and ignoring what is in the way, i.e. the
+     * larger of the differences in x and y. Removed exits and links to other maps make no
+     * difference.
+     * <p>
+     * The map works out the distances from every cell the first time it is asked about a
+     * capability, and keeps them up to date as Grounds are set, so a rule like "is there
+     * cursed ground within two steps" is one array lookup whatever the distance. Only the
+     * Grounds count; use {@link #hasCapabilityWithin(Location, int, Enum)} to take Actors and
+     * Items into account too.
+     *
+     * @param location   a Location on this map
+     * @param capability the capability to look for
+     * @return the number of steps, 0 if the Ground of location has the capability, or -1 if no
+     * Ground on this map has it
+     */
+    public synchronized int groundDistance(Location location, Enum<?> capability) {
+        Objects.requireNonNull(capability);
+        if (groundDistanceFields == null)
+            groundDistanceFields = new HashMap<>();
+        GroundDistanceField field = groundDistanceFields.computeIfAbsent(capability, c -> new GroundDistanceField(this, c));
+        return field.distanceAt(location.x(), location.y());
+    }
+
+    /**
+     * Let the terrain ids, the capability index and the ground distances know that the Ground of a Location has been replaced.
+     */
+    void groundChanged(Location location) {
+        if (chunked) {
+            terrain.set(location.x(), location.y(), terrain.idOf(location.getGround()));
+            contentChanged(location);
+        }
+        groundChanged(location.x(), location.y(), location.getGround());
+    }
+
+    private void groundChanged(int x, int y, Ground ground) {
+        CapabilityIndex index = capabilityIndex;
+        if (index != null)
+            index.groundChanged(x, y, ground);
+        if (groundDistanceFields != null) {
+            synchronized (this) {
+                for (GroundDistanceField field : groundDistanceFields.values()) {
+                    field.groundChanged(x, y, ground);
+                }
+            }
+        }
+    }
+
+    /**
+     * The Grounds of more cells have changed than are worth going through one at a time.
+     */
+    private void groundsChanged() {
+        CapabilityIndex index = capabilityIndex;
+        if (index != null)
+            index.groundsChanged();
+        if (groundDistanceFields != null) {
+            synchronized (this) {
+                for (GroundDistanceField field : groundDistanceFields.values()) {
+                    field.groundsChanged();
+                }
+            }
+        }
+    }
+
+    /**
+     * Let the capability index know that the Items of a Location, or their capabilities, have changed.
+     */
+    void itemsChanged(Location location) {
+        contentChanged(location);
+        CapabilityIndex index = capabilityIndex;
+        if (index != null)
+            index.itemsChanged(location.x(), location.y(), location.getItems());
+    }
+
+    /**
+     * The store the Actors of the World have rows in, if it keeps one. The rows of Actors on
+     * other maps are in it too; filter them out by {@link EntityStore#map(int)}.
+     *
+     * @return the store, or null if there isn't one
+     */
+    public EntityStore getEntityStore() {
+        return actorLocations == null ? null : actorLocations.getEntityStore();
+    }
+
     /**
      * Is the given Actor on this GameMap?
      *
@@ -319,7 +1053,8 @@ public class GameMap {
      * @return true if the Actor is on this GameMap
      */
     public boolean contains(Actor actor) {
-        return actorLocations.contains(actor) && actorLocations.locationOf(actor).map() == this;
+        Location location = locationOf(actor);
+        return location != null && location.map() == this;
     }
 
     /**
@@ -5,6 +5,10 @@ import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.displays.Printable;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Class representing terrain type
  */
@@ -12,6 +16,16 @@ public abstract class Ground extends GameEntity implements Printable {
 
     private char displayChar;
     private String name;
+    /**
+     * Counts the changes to the capabilities of watched Grounds, for the maps that keep
+     * something worked out from where Grounds with a capability are
+     */
+    static final AtomicInteger CAPABILITY_CHANGES = new AtomicInteger();
+    /**
+     * True once a map has worked something out from this Ground's capabilities, e.g. in its
+     * {@link CapabilityIndex}
+     */
+    transient boolean watched;
 
     /**
      * Constructor.
@@ -23,6 +37,12 @@ public abstract class Ground extends GameEntity implements Printable {
         this.name = name;
     }
 
+    @Override
+    protected void capabilitiesChanged() {
+        if (watched)
+            CAPABILITY_CHANGES.incrementAndGet();
+    }
+
     @Override
     public char getDisplayChar() {
         return displayChar;
@@ -62,6 +82,28 @@ public abstract class Ground extends GameEntity implements Printable {
     public void tick(Location location) {
     }
 
+    /**
+     * Override this for terrain that takes Actors somewhere other than a neighbouring Location
+     * in one go, e.g. a teleporter, so that path finding can plan routes through it.
+     * If the Locations change after the Ground has been placed, tell the map with
+     * {@link GameMap#terrainChanged(Location)}; {@link #placedOn(Location)} says where it is.
+     *
+     * @param location the Location of the Ground
+     * @return the Locations it leads to; none by default
+     */
+    public List<Location> getLinks(Location location) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Called when this Ground has been set on a Location. Override this to keep track of
+     * where it is, e.g. to tell the map when its links change.
+     *
+     * @param location the Location it has been set on
+     */
+    protected void placedOn(Location location) {
+    }
+
     /**
      * Override this to implement terrain that blocks thrown objects but not movement, or vice versa
      *
@@ -71,6 +113,18 @@ public abstract class Ground extends GameEntity implements Printable {
         return false;
     }
 
+    /**
+     * Override this to return true for terrain that has nothing of its own to keep track of:
+     * no fields, and capabilities that are set in the constructor and never change. One
+     * instance of a stateless Ground can then stand in for every cell of its type, e.g. in a
+     * FancyGroundFactory or a chunked GameMap.
+     *
+     * @return false
+     */
+    public boolean isStateless() {
+        return false;
+    }
+
     /**
      * The toString method of the ground class prints out its name, e.g. puddle
      *
@@ -0,0 +1,222 @@
+package edu.monash.fit2099.engine.positions;
+
+import java.util.Arrays;
+
+/**
+ * How many steps it is from every cell of a GameMap to the nearest Ground with a capability,
+ * counting steps in the eight {@link Direction directions} and ignoring what is in the way,
+ * i.e. the larger of the differences in x and y.
+ * <p>
+ * The field is worked out with one breadth-first search out from every cell with such a
+ * Ground, and after that kept up to date as Grounds are set. A Ground with the capability
+ * arriving spreads out from its cell only as far as it is the nearest; one leaving clears the
+ * cells that may have had it as their nearest and fills them in again from the cells around
+ * them. Grounds don't know where they are, so if one that has been placed gains or loses a
+ * capability the field is worked out again from scratch on the next question.
+ * <p>
+ * Get distances from {@link GameMap#groundDistance(Location, Enum)}, which keeps a field for
+ * each capability asked about.
+ */
+final class GroundDistanceField {
+	/**
+	 * The distance of a cell when there is no Ground with the capability on the map
+	 */
+	private static final int NONE = Integer.MAX_VALUE;
+
+	private final GameMap map;
+	private final Enum<?> capability;
+	private final int width;
+	private final int height;
+	/**
+	 * The steps from each cell to the nearest Ground with the capability, indexed by y * width + x
+	 */
+	private final int[] distances;
+	/**
+	 * Which cells a removal has cleared, by the number of the removal that cleared them
+	 */
+	private final int[] cleared;
+	private int removals = 0;
+	/**
+	 * The value of Ground.CAPABILITY_CHANGES when the field was last worked out from scratch
+	 */
+	private int groundChanges;
+	/**
+	 * True if the field has to be worked out from scratch anyway
+	 */
+	private boolean stale = true;
+	private int[] queue;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param map        the GameMap
+	 * @param capability the capability of the Grounds to measure to
+	 */
+	GroundDistanceField(GameMap map, Enum<?> capability) {
+		this.map = map;
+		this.capability = capability;
+		this.width = map.getXBounds().size();
+		this.height = map.getYBounds().size();
+		this.distances = new int[width * height];
+		this.cleared = new int[width * height];
+		this.queue = new int[64];
+	}
+
+	/**
+	 * @return the steps from a cell to the nearest Ground with the capability, or -1 if there
+	 * is none on the map
+	 */
+	int distanceAt(int x, int y) {
+		int changes = Ground.CAPABILITY_CHANGES.get();
+		if (stale || changes != groundChanges) {
+			stale = false;
+			groundChanges = changes;
+			survey();
+		}
+		int distance = distances[y * width + x];
+		return distance == NONE ? -1 : distance;
+	}
+
+	/**
+	 * A cell has a new Ground.
+	 */
+	void groundChanged(int x, int y, Ground ground) {
+		if (stale)
+			return;
+		ground.watched = true;
+		int cell = y * width + x;
+		boolean source = ground.hasCapability(capability);
+		if (source == (distances[cell] == 0))
+			return;
+		if (source) {
+			distances[cell] = 0;
+			int tail = 0;
+			queue[tail++] = cell;
+			spread(tail);
+		} else {
+			clearAround(cell);
+		}
+	}
+
+	/**
+	 * Grounds have changed on more cells than are worth going through one at a time.
+	 */
+	void groundsChanged() {
+		stale = true;
+	}
+
+	private void survey() {
+		Arrays.fill(distances, NONE);
+		int tail = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				Ground ground = map.groundAt(x, y);
+				ground.watched = true;
+				if (ground.hasCapability(capability)) {
+					int cell = y * width + x;
+					distances[cell] = 0;
+					tail = enqueue(tail, cell);
+				}
+			}
+		}
+		spread(tail);
+	}
+
+	/**
+	 * A Ground with the capability has left a cell. Every cell that is as far from it as its
+	 * distance says may have had it as the nearest; those are found by spreading out from it
+	 * through such cells, cleared, and filled in again from their neighbours that weren't.
+	 */
+	private void clearAround(int removed) {
+		int removal = ++removals;
+		int rx = removed % width;
+		int ry = removed / width;
+		int tail = 0;
+		cleared[removed] = removal;
+		queue[tail++] = removed;
+		for (int head = 0; head < tail; head++) {
+			int cell = queue[head];
+			int x = cell % width;
+			int y = cell / width;
+			for (int i = 0; i < Direction.count(); i++) {
+				Direction direction = Direction.get(i);
+				int nx = x + direction.dx();
+				int ny = y + direction.dy();
+				if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+					continue;
+				int next = ny * width + nx;
+				if (cleared[next] != removal && distances[next] != 0
+						&& distances[next] == Math.max(Math.abs(nx - rx), Math.abs(ny - ry))) {
+					cleared[next] = removal;
+					tail = enqueue(tail, next);
+				}
+			}
+		}
+
+		int count = tail;
+		for (int i = 0; i < count; i++) {
+			distances[queue[i]] = NONE;
+		}
+		// Start again from the cleared cells next to one that wasn't
+		int seeds = 0;
+		for (int i = 0; i < count; i++) {
+			int cell = queue[i];
+			int x = cell % width;
+			int y = cell / width;
+			int best = NONE;
+			for (int j = 0; j < Direction.count(); j++) {
+				Direction direction = Direction.get(j);
+				int nx = x + direction.dx();
+				int ny = y + direction.dy();
+				if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+					continue;
+				int next = ny * width + nx;
+				if (cleared[next] != removal && distances[next] != NONE)
+					best = Math.min(best, distances[next] + 1);
+			}
+			if (best != NONE) {
+				distances[cell] = best;
+				queue[seeds++] = cell;
+			}
+		}
+		spread(seeds);
+	}
+
+	/**
+	 * Carry the distances of the cells in the queue on to their neighbours, for as long as that
+	 * makes a neighbour nearer. The cells don't have to be in order of distance; a cell reached
+	 * too far at first is put right when a nearer way to it turns up.
+	 */
+	private void spread(int tail) {
+		for (int head = 0; head < tail; head++) {
+			int cell = queue[head];
+			int x = cell % width;
+			int y = cell / width;
+			int distance = distances[cell] + 1;
+			for (int i = 0; i < Direction.count(); i++) {
+				Direction direction = Direction.get(i);
+				int nx = x + direction.dx();
+				int ny = y + direction.dy();
+				if (nx < 0 || nx >= width || ny < 0 || ny >= height)
+					continue;
+				int next = ny * width + nx;
+				if (distance < distances[next]) {
+					distances[next] = distance;
+					tail = enqueue(tail, next);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Add a cell at the tail of the queue, growing it if need be.
+	 *
+	 * @return the new tail
+	 */
+	private int enqueue(int tail, int cell) {
+		if (tail == queue.length)
+			queue = Arrays.copyOf(queue, queue.length * 2);
+		queue[tail] = cell;
+		return tail + 1;
+	}
+}
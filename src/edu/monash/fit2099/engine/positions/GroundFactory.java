@@ -1,8 +1,20 @@
 package edu.monash.fit2099.engine.positions;
 
+import java.util.function.Supplier;
+
 /**
  * Interface for factory classes used by GameMap to create new map locations.
  */
 public interface GroundFactory {
 	Ground newGround(char displayChar);
+
+	/**
+	 * Look a Ground type up once, for code that fills a whole region with it.
+	 *
+	 * @param displayChar character that represents the Ground in the UI
+	 * @return something that creates (or, for a stateless Ground, hands out) a Ground of that type
+	 */
+	default Supplier<? extends Ground> supplierFor(char displayChar) {
+		return () -> newGround(displayChar);
+	}
 }
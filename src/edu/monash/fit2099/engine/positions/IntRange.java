@@ -0,0 +1,101 @@
+package edu.monash.fit2099.engine.positions;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A range of sequential ints, e.g. the X coordinates of a map.
+ * <p>
+ * Only the bounds are stored, so checking whether the range contains an int and finding the
+ * int at a given position take constant time. It can still be used in an enhanced for loop,
+ * but that boxes every value; code that loops over a range every turn is better off with a
+ * plain loop from {@link #min()} to {@link #max()}, which is empty for an empty range:
+ * <pre>
+ *     for (int x = xs.min(); x &lt;= xs.max(); x++)
+ * </pre>
+ */
+public class IntRange implements Iterable<Integer> {
+
+	private final int start;
+	private final int count;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param start the first int in the range
+	 * @param count how many ints the range holds
+	 * @throws IllegalArgumentException if count is negative
+	 */
+	public IntRange(int start, int count) {
+		if (count < 0)
+			throw new IllegalArgumentException("A range can't hold a negative number of ints");
+		this.start = start;
+		this.count = count;
+	}
+
+	/**
+	 * Return the smallest int in the range.
+	 * @return the smallest int in the range.
+	 */
+	public int min() {
+		return start;
+	}
+
+	/**
+	 * Return the largest int in the range.
+	 * @return the largest int in the range, or min() - 1 if the range is empty.
+	 */
+	public int max() {
+		return start + count - 1;
+	}
+
+	/**
+	 * @return the number of ints in the range
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Return the int at a given position in the range.
+	 *
+	 * @param index the position, counting from zero
+	 * @return min() + index
+	 * @throws IndexOutOfBoundsException if index is not a position in the range
+	 */
+	public int get(int index) {
+		if (index < 0 || index >= count)
+			throw new IndexOutOfBoundsException(index);
+		return start + index;
+	}
+
+	/**
+	 * Returns true if the range contains the given int.
+	 *
+	 * @param i the int to check for.
+	 * @return true if i lies between min and max, false otherwise.
+	 */
+	public boolean contains(int i) {
+		long offset = (long) i - start;
+		return offset >= 0 && offset < count;
+	}
+
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return new PrimitiveIterator.OfInt() {
+			private int next = start;
+
+			@Override
+			public boolean hasNext() {
+				return next - start < count;
+			}
+
+			@Override
+			public int nextInt() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return next++;
+			}
+		};
+	}
+}
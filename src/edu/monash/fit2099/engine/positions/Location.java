@@ -6,11 +6,16 @@ import edu.monash.fit2099.engine.displays.Printable;
 import edu.monash.fit2099.engine.items.Item;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 
 /**
  * Class representing a location in the game map.  This includes keeping track of exits,
  * character representation, terrain type, and other game data.
+ * <p>
+ * The way to each of the eight cells around a Location is worked out from the shared
+ * {@link Direction} table rather than kept as an Exit, so a Location only stores the Exits
+ * that were added to it on top of those, e.g. links to other maps.
  */
 public class Location implements Printable {
 
@@ -19,8 +24,10 @@ public class Location implements Printable {
     private int y;
 
     private List<Item> items = new ArrayList<>();
+    private int tickingItems = 0; // how many of the items have a tick of their own
     private Ground ground;
-    private List<Exit> exits = new ArrayList<>();
+    private List<Exit> exits; // only the extra Exits, e.g. to another map; created with the first
+    private byte closedDirections = 0; // neighbours that have been cut off with removeExit
 
     /**
      * Constructor.
@@ -82,7 +89,19 @@ public class Location implements Printable {
      */
     public void addItem(Item item) {
         Objects.requireNonNull(item);
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null && journal.defersLocations()) {
+            journal.addItem(this, item);
+            return;
+        }
         items.add(item);
+        item.setLocation(this);
+        if (ticks(item)) {
+            tickingItems++;
+            updateTicking();
+        }
+        if (map != null)
+            map.itemsChanged(this);
     }
 
     /**
@@ -92,7 +111,40 @@ public class Location implements Printable {
      */
     public void removeItem(Item item) {
         Objects.requireNonNull(item);
-        items.remove(item);
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null && journal.defersLocations()) {
+            journal.removeItem(this, item);
+            return;
+        }
+        int index = items.indexOf(item);
+        if (index < 0)
+            return;
+        items.remove(index);
+        if (item.getLocation() == this && !items.contains(item))
+            item.setLocation(null);
+        if (tickingItems > 0) {
+            countTickingItems();
+            updateTicking();
+        }
+        if (map != null)
+            map.itemsChanged(this);
+    }
+
+    /**
+     * Called by an Item lying here when what its {@link Item#ticksOnGround()} returns changes
+     * other than during its tick, e.g. when a timer it was waiting on runs out.
+     */
+    public void itemTickingChanged() {
+        countTickingItems();
+        updateTicking();
+    }
+
+    /**
+     * Called by an Item lying here when its capabilities change.
+     */
+    public void itemCapabilitiesChanged() {
+        if (map != null)
+            map.itemsChanged(this);
     }
 
     /**
@@ -110,7 +162,49 @@ public class Location implements Printable {
      * @param ground Ground type to set
      */
     public void setGround(Ground ground) {
+        ChangeJournal journal = ChangeJournal.current();
+        if (journal != null && journal.defersLocations()) {
+            journal.setGround(this, ground);
+            return;
+        }
         this.ground = ground;
+        updateTicking();
+        if (map != null) {
+            map.groundChanged(this);
+            map.terrainChanged(this);
+        }
+        if (ground != null)
+            ground.placedOn(this);
+    }
+
+    /**
+     * Give a newly made Location its Ground, without going through any ChangeJournal or
+     * telling the map, which already knows whether the Ground ticks.
+     *
+     * @param ground the Ground this Location starts out with
+     */
+    void initGround(Ground ground) {
+        this.ground = ground;
+    }
+
+    private static boolean ticks(Item item) {
+        return TickingClasses.ticks(item) && item.ticksOnGround();
+    }
+
+    private void countTickingItems() {
+        tickingItems = 0;
+        for (Item item : items) {
+            if (ticks(item))
+                tickingItems++;
+        }
+    }
+
+    /**
+     * Let the map know whether this Location has anything that ticks, so that GameMap.tick() can skip it if not.
+     */
+    private void updateTicking() {
+        if (map != null)
+            map.setTicking(this, tickingItems > 0 || TickingClasses.ticks(ground));
     }
 
     /**
@@ -119,9 +213,16 @@ public class Location implements Printable {
      */
     public void tick() {
         ground.tick(this);
+        if (items.isEmpty())
+            return;
         for (Item item : new ArrayList<>(items)) {
             item.tick(this);
         }
+        // Items may have gone to sleep on a timer.
+        if (tickingItems > 0) {
+            countTickingItems();
+            updateTicking();
+        }
     }
 
     /**
@@ -215,34 +316,136 @@ public class Location implements Printable {
     }
 
     /**
-     * Returns an unmodifiable list of exits.
+     * Returns the neighbouring Location in a direction.
+     *
+     * @param direction the direction to look in
+     * @return the Location next to this one in that direction, or null if that is off the map
+     * or the way there has been removed
+     */
+    public Location neighbour(Direction direction) {
+        if ((closedDirections & direction.bit()) != 0)
+            return null;
+        int nx = x + direction.dx();
+        int ny = y + direction.dy();
+        if (!map.getXBounds().contains(nx) || !map.getYBounds().contains(ny))
+            return null;
+        return map.at(nx, ny);
+    }
+
+    /**
+     * Is another Location one of this one's neighbours?
+     *
+     * @param other the other Location
+     * @return true if {@link #neighbour(Direction)} gives it in one of the directions
+     */
+    public boolean isNeighbour(Location other) {
+        for (int i = 0; i < Direction.count(); i++) {
+            if (neighbour(Direction.get(i)) == other)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param direction a direction
+     * @return true if the way to the neighbour in that direction has been removed
+     */
+    boolean isClosed(Direction direction) {
+        return (closedDirections & direction.bit()) != 0;
+    }
+
+    /**
+     * Visit the neighbouring Locations, in the order of the {@link Direction} table.
+     * Nothing is created along the way, so a lambda that doesn't capture anything makes this
+     * free of allocation.
+     *
+     * @param visitor called with each direction and the neighbour in that direction
+     */
+    public void forEachNeighbour(BiConsumer<Direction, Location> visitor) {
+        for (int i = 0; i < Direction.count(); i++) {
+            Direction direction = Direction.get(i);
+            Location neighbour = neighbour(direction);
+            if (neighbour != null)
+                visitor.accept(direction, neighbour);
+        }
+    }
+
+    /**
+     * Returns an unmodifiable list of exits: one to each neighbour, in the order of the
+     * {@link Direction} table, followed by those added with {@link #addExit(Exit)}.
+     * <p>
+     * The Exits to the neighbours are made fresh on each call. Code that only needs the
+     * neighbours should use {@link #neighbour(Direction)} or {@link #forEachNeighbour(BiConsumer)}.
      *
      * @return an unmodifiable list of exits
      */
     public List<Exit> getExits() {
-        return Collections.unmodifiableList(exits);
+        List<Exit> all = new ArrayList<>(Direction.count() + (exits == null ? 0 : exits.size()));
+        for (int i = 0; i < Direction.count(); i++) {
+            Direction direction = Direction.get(i);
+            Location neighbour = neighbour(direction);
+            if (neighbour != null)
+                all.add(new Exit(direction.getName(), neighbour, direction.getHotKey()));
+        }
+        if (exits != null)
+            all.addAll(exits);
+        return Collections.unmodifiableList(all);
     }
 
     /**
-     * Add an exit to this Location.
-     * <p>
-     * This method is used in GameMap to initialize the Location's exits.
+     * Returns an unmodifiable list of the exits added with {@link #addExit(Exit)}, i.e. all
+     * but the ways to the neighbours.
+     *
+     * @return an unmodifiable list of exits
+     */
+    public List<Exit> getExtraExits() {
+        return exits == null ? Collections.emptyList() : Collections.unmodifiableList(exits);
+    }
+
+    /**
+     * Add an exit to this Location, e.g. a link to another map.
+     * The ways to the neighbours don't need to be added.
      *
      * @param exit the exit to add
      */
     public void addExit(Exit exit) {
+        if (exits == null)
+            exits = new ArrayList<>(1);
         exits.add(exit);
+        if (map != null)
+            map.contentChanged(this);
     }
 
     /**
      * Remove an exit from this Location.
      * <p>
-     * This method is used in GameMap to initialize the Location's exits.
+     * An exit to a neighbour (e.g. one from {@link #getExits()}) cuts this Location off from
+     * that neighbour: it is skipped from then on.
      *
      * @param exit the exit to remove
      */
     public void removeExit(Exit exit) {
-        exits.remove(exit);
+        if (exits != null && exits.remove(exit)) {
+            if (map != null)
+                map.contentChanged(this);
+            return;
+        }
+        for (int i = 0; i < Direction.count(); i++) {
+            Direction direction = Direction.get(i);
+            if (exit.getDestination() == neighbour(direction) && direction.getName().equals(exit.getName())) {
+                closedDirections |= (byte) direction.bit();
+                map.contentChanged(this);
+                map.terrainChanged(this);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Has this Location no Items, no extra Exits and no removed ones?
+     */
+    boolean isBare() {
+        return items.isEmpty() && (exits == null || exits.isEmpty()) && closedDirections == 0;
     }
 
     /**
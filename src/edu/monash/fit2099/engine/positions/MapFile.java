@@ -0,0 +1,347 @@
+package edu.monash.fit2099.engine.positions;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads map files, and converts text map files to the binary format.
+ * <p>
+ * A text map file has a line of ground characters per row of the map, as in the Lists of
+ * Strings a GameMap can be made from. The map is as wide as the first line; any extra
+ * characters on later lines are ignored.
+ * <p>
+ * A binary map file holds the same grid as runs of ground types, in row order:
+ * <pre>
+ *     magic    the 4 bytes "FMAP"
+ *     version  1 byte, currently 1
+ *     width    int
+ *     height   int
+ *     legend   unsigned short count, then count chars: the ground characters, in id order
+ *     runs     until width * height cells are covered: the length of the run, then the
+ *              ground id, each an unsigned LEB128 varint. Runs carry on across row ends.
+ * </pre>
+ * Numbers are big-endian. Either kind of file is memory-mapped and read in one pass, so no
+ * copy of its lines is ever made.
+ */
+public final class MapFile {
+
+	private static final byte[] MAGIC = {'F', 'M', 'A', 'P'};
+	private static final int VERSION = 1;
+
+	/**
+	 * Where the cells of a map file go as they are read.
+	 */
+	interface Sink {
+		/**
+		 * Called once, before any cells.
+		 *
+		 * @param width  width of the map, in characters
+		 * @param height height of the map, in characters
+		 */
+		void start(int width, int height);
+
+		/**
+		 * Called for each run of cells in a row with the same ground, in row order.
+		 *
+		 * @param x          X coordinate of the first cell of the run
+		 * @param y          Y coordinate of the run
+		 * @param length     number of cells in the run
+		 * @param groundChar the character representing the Ground of the cells
+		 */
+		void run(int x, int y, int length, char groundChar);
+	}
+
+	private MapFile() {
+	}
+
+	/**
+	 * Read a text or binary map file, telling them apart by the magic number.
+	 *
+	 * @param file the map file
+	 * @param sink where the cells go
+	 * @throws IOException when file I/O fails, or the file isn't a well-formed map
+	 */
+	static void read(Path file, Sink sink) throws IOException {
+		ByteBuffer bytes = map(file);
+		if (isBinary(bytes))
+			readBinary(bytes, sink);
+		else
+			readText(bytes, sink);
+	}
+
+	/**
+	 * Convert a text map file to a binary one.
+	 *
+	 * @param textFile   the text map file to read
+	 * @param binaryFile the binary map file to write; replaced if it exists
+	 * @throws IOException when file I/O fails, or the text file isn't a well-formed map
+	 */
+	public static void convert(Path textFile, Path binaryFile) throws IOException {
+		ByteBuffer bytes = map(textFile);
+		if (isBinary(bytes))
+			throw new IOException(textFile + " is already a binary map file");
+
+		RunWriter writer = new RunWriter();
+		readText(bytes, writer);
+		try (OutputStream out = Files.newOutputStream(binaryFile)) {
+			writer.writeTo(out);
+		}
+	}
+
+	/**
+	 * Convert a text map file to a binary one from the command line.
+	 *
+	 * @param args the text map file, then the binary map file
+	 * @throws IOException when file I/O fails, or the text file isn't a well-formed map
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: MapFile <text map file> <binary map file>");
+			System.exit(2);
+		}
+		convert(Path.of(args[0]), Path.of(args[1]));
+	}
+
+	private static ByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static boolean isBinary(ByteBuffer bytes) {
+		if (bytes.remaining() < MAGIC.length)
+			return false;
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (bytes.get(i) != MAGIC[i])
+				return false;
+		}
+		return true;
+	}
+
+	private static void readText(ByteBuffer bytes, Sink sink) throws IOException {
+		// One pass to find the size of the map, and whether the file is plain ASCII
+		int limit = bytes.limit();
+		int width = -1;
+		int height = 0;
+		boolean ascii = true;
+		int lineStart = 0;
+		for (int i = 0; i < limit; i++) {
+			byte b = bytes.get(i);
+			if (b < 0)
+				ascii = false;
+			if (b == '\n') {
+				if (width < 0)
+					width = lineLength(bytes, lineStart, i);
+				height++;
+				lineStart = i + 1;
+			}
+		}
+		if (lineStart < limit) {
+			if (width < 0)
+				width = lineLength(bytes, lineStart, limit);
+			height++; // the last line has no line break
+		}
+		if (!ascii) {
+			// Widths are in characters, so a file that isn't plain ASCII is decoded first.
+			readText(StandardCharsets.UTF_8.newDecoder().decode(bytes), sink);
+			return;
+		}
+		if (width <= 0)
+			throw new IOException("A map file needs at least one character on its first line");
+
+		sink.start(width, height);
+		int position = 0;
+		for (int y = 0; y < height; y++) {
+			int x = 0;
+			while (x < width) {
+				char groundChar = charAt(bytes, position + x, limit, y);
+				int start = x;
+				while (x < width && charAt(bytes, position + x, limit, y) == groundChar)
+					x++;
+				sink.run(start, y, x - start, groundChar);
+			}
+			while (position < limit && bytes.get(position) != '\n')
+				position++;
+			position++;
+		}
+	}
+
+	/**
+	 * Read a text map that has already been decoded, for files that aren't plain ASCII.
+	 */
+	private static void readText(CharSequence chars, Sink sink) throws IOException {
+		List<int[]> lines = new ArrayList<>(); // start and end of each line
+		int lineStart = 0;
+		for (int i = 0; i <= chars.length(); i++) {
+			if (i == chars.length() ? lineStart < i : chars.charAt(i) == '\n') {
+				int end = i > lineStart && chars.charAt(i - 1) == '\r' ? i - 1 : i;
+				lines.add(new int[]{lineStart, end});
+				lineStart = i + 1;
+			}
+		}
+		if (lines.isEmpty() || lines.get(0)[1] == lines.get(0)[0])
+			throw new IOException("A map file needs at least one character on its first line");
+
+		int width = lines.get(0)[1] - lines.get(0)[0];
+		sink.start(width, lines.size());
+		for (int y = 0; y < lines.size(); y++) {
+			int start = lines.get(y)[0];
+			if (lines.get(y)[1] - start < width)
+				throw new IOException("Line " + (y + 1) + " of the map is shorter than the first");
+			int x = 0;
+			while (x < width) {
+				char groundChar = chars.charAt(start + x);
+				int runStart = x;
+				while (x < width && chars.charAt(start + x) == groundChar)
+					x++;
+				sink.run(runStart, y, x - runStart, groundChar);
+			}
+		}
+	}
+
+	private static int lineLength(ByteBuffer bytes, int start, int end) {
+		return end > start && bytes.get(end - 1) == '\r' ? end - 1 - start : end - start;
+	}
+
+	private static char charAt(ByteBuffer bytes, int index, int limit, int y) throws IOException {
+		byte b = index < limit ? bytes.get(index) : (byte) '\n';
+		if (b == '\n' || b == '\r')
+			throw new IOException("Line " + (y + 1) + " of the map is shorter than the first");
+		return (char) b;
+	}
+
+	private static void readBinary(ByteBuffer bytes, Sink sink) throws IOException {
+		try {
+			bytes.position(MAGIC.length);
+			int version = bytes.get() & 0xff;
+			if (version != VERSION)
+				throw new IOException("Unknown binary map file version " + version);
+			int width = bytes.getInt();
+			int height = bytes.getInt();
+			if (width <= 0 || height <= 0)
+				throw new IOException("Bad map size " + width + " x " + height);
+			char[] legend = new char[bytes.getShort() & 0xffff];
+			for (int i = 0; i < legend.length; i++) {
+				legend[i] = bytes.getChar();
+			}
+
+			sink.start(width, height);
+			int x = 0;
+			int y = 0;
+			while (y < height) {
+				int length = readVarint(bytes);
+				int id = readVarint(bytes);
+				if (length <= 0 || id < 0 || id >= legend.length)
+					throw new IOException("Bad run in binary map file");
+				while (length > 0) {
+					if (y >= height)
+						throw new IOException("Runs in binary map file go past the end of the map");
+					int inRow = Math.min(length, width - x);
+					sink.run(x, y, inRow, legend[id]);
+					length -= inRow;
+					x += inRow;
+					if (x == width) {
+						x = 0;
+						y++;
+					}
+				}
+			}
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Binary map file ends too soon", e);
+		}
+	}
+
+	private static int readVarint(ByteBuffer bytes) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = bytes.get();
+			value |= (b & 0x7f) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IOException("Bad number in binary map file");
+	}
+
+	private static void writeVarint(DataOutputStream out, int value) throws IOException {
+		while ((value & ~0x7f) != 0) {
+			out.writeByte((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Collects the runs of a text map, joining them across row ends, for writing as a binary map.
+	 */
+	private static class RunWriter implements Sink {
+		private final Map<Character, Integer> ids = new HashMap<>();
+		private final StringBuilder legend = new StringBuilder();
+		private final ByteArrayOutputStream runs = new ByteArrayOutputStream();
+		private final DataOutputStream runData = new DataOutputStream(runs);
+		private int width;
+		private int height;
+		private int pendingId = -1;
+		private int pendingLength = 0;
+
+		@Override
+		public void start(int width, int height) {
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public void run(int x, int y, int length, char groundChar) {
+			int id = ids.computeIfAbsent(groundChar, c -> {
+				legend.append(c);
+				return legend.length() - 1;
+			});
+			if (id == pendingId) {
+				pendingLength += length;
+				return;
+			}
+			endRun();
+			pendingId = id;
+			pendingLength = length;
+		}
+
+		private void endRun() {
+			if (pendingLength == 0)
+				return;
+			try {
+				writeVarint(runData, pendingLength);
+				writeVarint(runData, pendingId);
+			} catch (IOException e) {
+				throw new IllegalStateException(e); // writing to memory doesn't fail
+			}
+		}
+
+		void writeTo(OutputStream file) throws IOException {
+			endRun();
+			if (legend.length() > 0xffff)
+				throw new IOException("Too many ground types for a binary map file");
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file));
+			out.write(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeShort(legend.length());
+			out.writeChars(legend.toString());
+			runs.writeTo(out);
+			out.flush();
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package edu.monash.fit2099.engine.positions;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The game's source of randomness: a splittable stream of random numbers, and a way for
+ * game code to find the stream it should draw from.
+ * <p>
+ * The World holds a root stream, seeded once, and splits a stream off it for every GameMap
+ * and every Actor the first time they need one. While a map ticks or an Actor takes its turn,
+ * that stream is {@link #current() the current one} on the thread doing the work, so
+ * whatever the game draws there comes from a sequence of its own. The numbers an Actor gets
+ * therefore don't depend on which thread planned its turn or on what other Actors drew, and a
+ * World given the same seed and the same input plays out the same way.
+ * <p>
+ * Game code should draw from {@code RandomStream.current()} rather than creating a
+ * {@code java.util.Random}: it is a thread-local lookup, and none of the draws allocate.
+ * Code that runs outside of the World's turns gets an unseeded stream of its thread's own.
+ * <p>
+ * The streams are the SplitMix64 generator that {@link java.util.SplittableRandom} uses,
+ * written out here so that they are plain objects that go into snapshots like any other.
+ * A stream must only be used by one thread at a time.
+ */
+public final class RandomStream implements RandomGenerator {
+
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The stream in use on each thread
+	 */
+	private static final ThreadLocal<RandomStream> CURRENT =
+			ThreadLocal.withInitial(() -> new RandomStream(System.nanoTime() ^ Thread.currentThread().threadId() * GOLDEN_GAMMA));
+
+	private long seed;
+	private final long gamma;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param seed where the stream starts; the same seed always gives the same numbers
+	 */
+	public RandomStream(long seed) {
+		this(seed, GOLDEN_GAMMA);
+	}
+
+	private RandomStream(long seed, long gamma) {
+		this.seed = seed;
+		this.gamma = gamma;
+	}
+
+	/**
+	 * @return the stream game code running on this thread should draw from
+	 */
+	public static RandomStream current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Make a stream the current one on this thread, until it is handed back.
+	 *
+	 * @param stream the stream to draw from
+	 * @return the stream that was current before, to pass to {@link #restore(RandomStream)}
+	 */
+	static RandomStream enter(RandomStream stream) {
+		RandomStream previous = CURRENT.get();
+		CURRENT.set(stream);
+		return previous;
+	}
+
+	/**
+	 * Make a stream current on this thread again, after {@link #enter(RandomStream)}.
+	 *
+	 * @param previous the stream that enter() returned
+	 */
+	static void restore(RandomStream previous) {
+		CURRENT.set(previous);
+	}
+
+	/**
+	 * Create a new stream whose numbers are independent of this one's. Advances this stream.
+	 *
+	 * @return the new stream
+	 */
+	public RandomStream split() {
+		return new RandomStream(mix64(nextSeed()), mixGamma(nextSeed()));
+	}
+
+	@Override
+	public long nextLong() {
+		return mix64(nextSeed());
+	}
+
+	@Override
+	public int nextInt() {
+		return mix32(nextSeed());
+	}
+
+	private long nextSeed() {
+		return seed += gamma;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private static int mix32(long z) {
+		z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+		return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+	}
+
+	private static long mixGamma(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		z = (z ^ (z >>> 33)) | 1L;
+		int n = Long.bitCount(z ^ (z >>> 1));
+		return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+	}
+}
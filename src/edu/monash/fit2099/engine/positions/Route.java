@@ -0,0 +1,125 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actors.Actor;
+
+/**
+ * A way from one Location to another, possibly on another map, found by hierarchical path
+ * finding (see {@link GameMap#routeTo(Actor, Location)}).
+ * <p>
+ * A route is a list of waypoints a few clusters of cells apart. The cells between one waypoint
+ * and the next are only worked out when the Actor sets off towards it, so a long route costs
+ * little until it is walked, and what it finds reflects the terrain at the time. Some
+ * waypoints are reached through a link rather than on foot, e.g. through a teleporter: at
+ * those, {@link #linkFrom(Location)} says where to go, and the Actor has to take the link the
+ * way the game lets it.
+ * <p>
+ * A route belongs to one Actor.
+ */
+public final class Route {
+	private final Location[] waypoints;
+	/**
+	 * Is each waypoint reached through a link from the one before it?
+	 */
+	private final boolean[] viaLink;
+	/**
+	 * The waypoint being walked towards
+	 */
+	private int next = 1;
+	/**
+	 * The cells from the last waypoint, or from where the Actor was, to the next; null until needed
+	 */
+	private int[] steps;
+	private int stepIndex;
+	private boolean lost;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param waypoints the waypoints, from the start to the end
+	 * @param viaLink   for each waypoint, whether it is reached through a link
+	 */
+	Route(Location[] waypoints, boolean[] viaLink) {
+		this.waypoints = waypoints;
+		this.viaLink = viaLink;
+	}
+
+	/**
+	 * @return where the route ends
+	 */
+	public Location getDestination() {
+		return waypoints[waypoints.length - 1];
+	}
+
+	/**
+	 * @return true if the route could not be followed from where the Actor was, e.g. because it
+	 * was taken off it or the terrain changed; a new route should be found
+	 */
+	public boolean isLost() {
+		return lost;
+	}
+
+	/**
+	 * If the route goes on through a link from here, where it leads.
+	 *
+	 * @param here where the Actor is
+	 * @return the Location the link leads to, or null if the route goes on on foot
+	 */
+	public Location linkFrom(Location here) {
+		passWaypoints(here);
+		if (next < waypoints.length && viaLink[next] && waypoints[next - 1] == here)
+			return waypoints[next];
+		return null;
+	}
+
+	/**
+	 * The next step along the route. A step onto a cell that another Actor is on is not taken.
+	 *
+	 * @param actor the Actor following the route
+	 * @param here  where it is
+	 * @return the direction to step in, or null if there is no step to take now: the route is
+	 * at its end, goes on through a link, is blocked for the moment, or {@link #isLost() lost}
+	 */
+	public Direction nextStep(Actor actor, Location here) {
+		synchronized (here.map().pathLock) {
+			passWaypoints(here);
+			if (next >= waypoints.length || viaLink[next] && waypoints[next - 1] == here)
+				return null;
+
+			Location target = waypoints[next];
+			if (target.map() != here.map()) {
+				lost = true;
+				return null;
+			}
+			ClusterGraph graph = here.map().clusterGraph(actor);
+			int cell = graph.cellOf(here);
+			if (steps != null && stepIndex + 1 < steps.length && steps[stepIndex + 1] == cell)
+				stepIndex++; // the last step was taken
+			if (steps == null || steps[stepIndex] != cell) {
+				int[] bounds = graph.boundsOf(cell, graph.cellOf(target));
+				steps = graph.walkBetween(cell, graph.cellOf(target), bounds[0], bounds[1], bounds[2], bounds[3]);
+				stepIndex = 0;
+				if (steps == null) {
+					lost = true;
+					return null;
+				}
+			}
+
+			Location step = graph.locationOf(steps[stepIndex + 1]);
+			if (!step.canActorEnter(actor))
+				return null;
+			for (int i = 0; i < Direction.count(); i++) {
+				Direction direction = Direction.get(i);
+				if (here.x() + direction.dx() == step.x() && here.y() + direction.dy() == step.y())
+					return direction;
+			}
+			return null;
+		}
+	}
+
+	private void passWaypoints(Location here) {
+		while (next < waypoints.length && waypoints[next] == here) {
+			next++;
+			steps = null;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package edu.monash.fit2099.engine.positions;
+
+/**
+ * Throughput figures collected while a World is driven by {@link World#runFor(int, long)}.
+ *
+ * Each game turn is split into three phases: ticking the maps, drawing the player's map
+ * and processing the Actors' turns. The time spent in each phase is accumulated separately
+ * so that regressions in one of them are not hidden by the others.
+ */
+public class SimulationReport {
+
+	private long ticks;
+	private long actorTurns;
+	private long elapsedNanos;
+	private long mapTickNanos;
+	private long drawNanos;
+	private long actorTurnNanos;
+
+	/**
+	 * Record a completed game turn.
+	 *
+	 * @param mapTick   nanoseconds spent ticking the maps
+	 * @param draw      nanoseconds spent drawing the player's map
+	 * @param actorTurn nanoseconds spent processing the Actors' turns
+	 * @param turns     number of Actor turns that were processed
+	 */
+	void recordTick(long mapTick, long draw, long actorTurn, int turns) {
+		ticks++;
+		actorTurns += turns;
+		mapTickNanos += mapTick;
+		drawNanos += draw;
+		actorTurnNanos += actorTurn;
+	}
+
+	/**
+	 * Record the wall-clock time of the whole run.
+	 *
+	 * @param nanos nanoseconds between the start and the end of the run
+	 */
+	void recordElapsed(long nanos) {
+		elapsedNanos = nanos;
+	}
+
+	/**
+	 * @return the number of game turns that were completed
+	 */
+	public long getTicks() {
+		return ticks;
+	}
+
+	/**
+	 * @return the number of Actor turns that were processed
+	 */
+	public long getActorTurns() {
+		return actorTurns;
+	}
+
+	/**
+	 * @return the wall-clock duration of the run, in nanoseconds
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * @return the time spent in GameMap.tick() over the whole run, in nanoseconds
+	 */
+	public long getMapTickNanos() {
+		return mapTickNanos;
+	}
+
+	/**
+	 * @return the time spent drawing the player's map over the whole run, in nanoseconds
+	 */
+	public long getDrawNanos() {
+		return drawNanos;
+	}
+
+	/**
+	 * @return the time spent processing Actor turns over the whole run, in nanoseconds
+	 */
+	public long getActorTurnNanos() {
+		return actorTurnNanos;
+	}
+
+	/**
+	 * @return the average number of game turns completed per second
+	 */
+	public double ticksPerSecond() {
+		return perSecond(ticks);
+	}
+
+	/**
+	 * @return the average number of Actor turns processed per second
+	 */
+	public double actorTurnsPerSecond() {
+		return perSecond(actorTurns);
+	}
+
+	private double perSecond(long count) {
+		if (elapsedNanos == 0)
+			return 0;
+		return count * 1_000_000_000.0 / elapsedNanos;
+	}
+
+	private double averageMillis(long nanos) {
+		if (ticks == 0)
+			return 0;
+		return nanos / 1_000_000.0 / ticks;
+	}
+
+	/**
+	 * A multi-line summary of the run, suitable for printing to a console.
+	 *
+	 * @return the summary
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d ticks, %d actor turns in %.3f s%n", ticks, actorTurns, elapsedNanos / 1_000_000_000.0)
+				+ String.format("%.1f ticks/s, %.1f actor turns/s%n", ticksPerSecond(), actorTurnsPerSecond())
+				+ String.format("per tick: map tick %.3f ms, draw %.3f ms, actor turns %.3f ms",
+						averageMillis(mapTickNanos), averageMillis(drawNanos), averageMillis(actorTurnNanos));
+	}
+}
@@ -0,0 +1,67 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.items.Item;
+
+/**
+ * Tells which Ground, Item and Location classes do anything when they tick, i.e. override
+ * the do-nothing tick method they inherit from the engine. The answer is worked out once
+ * per class and cached.
+ */
+class TickingClasses {
+
+	private static final ClassValue<Boolean> GROUNDS = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return overrides(type, Ground.class, "tick", Location.class);
+		}
+	};
+
+	private static final ClassValue<Boolean> ITEMS = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return overrides(type, Item.class, "tick", Location.class);
+		}
+	};
+
+	private static final ClassValue<Boolean> LOCATIONS = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			return overrides(type, Location.class, "tick");
+		}
+	};
+
+	private TickingClasses() {
+	}
+
+	/**
+	 * @param ground a Ground, or null
+	 * @return true if ground has a tick of its own
+	 */
+	static boolean ticks(Ground ground) {
+		return ground != null && GROUNDS.get(ground.getClass());
+	}
+
+	/**
+	 * @param item an Item
+	 * @return true if item has a tick of its own for when it lies on the ground
+	 */
+	static boolean ticks(Item item) {
+		return ITEMS.get(item.getClass());
+	}
+
+	/**
+	 * @param location a Location
+	 * @return true if location has a tick of its own, so it must be ticked whatever lies on it
+	 */
+	static boolean ticks(Location location) {
+		return LOCATIONS.get(location.getClass());
+	}
+
+	private static boolean overrides(Class<?> type, Class<?> base, String name, Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes).getDeclaringClass() != base;
+		} catch (NoSuchMethodException e) {
+			return true; // can't tell, so don't skip it
+		}
+	}
+}
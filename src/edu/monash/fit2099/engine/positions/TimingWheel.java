@@ -0,0 +1,317 @@
+package edu.monash.fit2099.engine.positions;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The World's clock, and a service for running something at a given world tick.
+ * <p>
+ * Timers are kept in a hierarchical timing wheel: four levels of 64 slots, where a slot on
+ * level n covers 64^n ticks. A timer goes into the slot of the lowest level whose range
+ * reaches its due tick, and is moved down a level each time the wheel comes round to its
+ * slot. Scheduling and cancelling take constant time, and advancing the clock only costs
+ * something for the timers that are due (plus the occasional move down a level), so
+ * thousands of dormant timers cost nothing from one tick to the next. Timers due more than
+ * 64^4 ticks ahead wait in an overflow list until they come within range.
+ * <p>
+ * The World advances the clock at the start of every turn, before the maps are ticked,
+ * and due timers run on the World's thread. Timers can be scheduled and cancelled from
+ * any thread. A timer scheduled while a {@link ChangeJournal} is open on the thread, e.g.
+ * by a map ticked alongside others, is held back until the journal is committed, so timers
+ * due on the same tick run in the order the journals were committed in rather than the
+ * order the threads got to the wheel.
+ */
+public class TimingWheel {
+
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+
+	/**
+	 * Heads of the doubly-linked lists of timers, by level and slot
+	 */
+	private final Timer[][] wheels = new Timer[LEVELS][SLOTS];
+	/**
+	 * Timers due too far ahead for the top level
+	 */
+	private final List<Timer> overflow = new ArrayList<>();
+	private long now = 0;
+	private int pending = 0;
+	private long scheduled = 0; // sequence number of the last timer (re)scheduled, for ordering due timers
+
+	/**
+	 * @return the current world tick; zero before the first turn
+	 */
+	public synchronized long now() {
+		return now;
+	}
+
+	/**
+	 * @return the number of timers waiting to run
+	 */
+	public synchronized int pending() {
+		return pending;
+	}
+
+	/**
+	 * Run a task a number of ticks from now.
+	 *
+	 * @param delay the number of ticks to wait; anything below 1 means the next tick
+	 * @param task  what to run
+	 * @return a Timer that can be used to cancel or reschedule the task
+	 */
+	public synchronized Timer schedule(long delay, Task task) {
+		Timer timer = new Timer(this, task);
+		timer.due = now + Math.max(delay, 1);
+		place(timer);
+		return timer;
+	}
+
+	/**
+	 * Run a task at a given world tick.
+	 *
+	 * @param tick the tick to run the task at; a tick that has already started means the next tick
+	 * @param task what to run
+	 * @return a Timer that can be used to cancel or reschedule the task
+	 */
+	public synchronized Timer scheduleAt(long tick, Task task) {
+		return schedule(tick - now, task);
+	}
+
+	/**
+	 * Move the clock on by one tick and run the timers that are due, in the order they were scheduled.
+	 * Timers scheduled by those tasks run on a later tick.
+	 */
+	public void advance() {
+		List<Timer> due = new ArrayList<>();
+		synchronized (this) {
+			now++;
+			// Every level whose lower neighbour has just come round gives up a slot, top one first,
+			// so that timers moving down more than one level land in slots that are still to come.
+			int top = 0;
+			while (top < LEVELS - 1 && ((now >>> (SLOT_BITS * top)) & SLOT_MASK) == 0)
+				top++;
+			if (top == LEVELS - 1)
+				cascadeOverflow();
+			for (int level = top; level > 0; level--) {
+				cascade(level);
+			}
+			int slot = (int) (now & SLOT_MASK);
+			Timer timer = wheels[0][slot];
+			wheels[0][slot] = null;
+			while (timer != null) {
+				Timer next = timer.next;
+				timer.next = null;
+				timer.previous = null;
+				timer.wheel = null;
+				pending--;
+				due.add(timer);
+				timer = next;
+			}
+		}
+		due.sort(Comparator.comparingLong(timer -> timer.sequence));
+
+		// Run the tasks outside the lock, so they can schedule and cancel freely.
+		for (Timer timer : due) {
+			timer.task.run();
+		}
+	}
+
+	/**
+	 * Move the timers in the current slot of a level down to the levels below.
+	 *
+	 * @param level the level to empty a slot of
+	 */
+	private void cascade(int level) {
+		int slot = (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK);
+		Timer timer = wheels[level][slot];
+		wheels[level][slot] = null;
+		while (timer != null) {
+			Timer next = timer.next;
+			timer.next = null;
+			timer.previous = null;
+			pending--;
+			insert(timer);
+			timer = next;
+		}
+	}
+
+	private void cascadeOverflow() {
+		List<Timer> waiting = new ArrayList<>(overflow);
+		overflow.clear();
+		pending -= waiting.size();
+		for (Timer timer : waiting) {
+			insert(timer);
+		}
+	}
+
+	/**
+	 * Put a timer that has just been given its due tick into the wheel, or hold it back in
+	 * the journal open on the calling thread.
+	 *
+	 * @param timer a timer that isn't in the wheel
+	 */
+	private void place(Timer timer) {
+		ChangeJournal journal = ChangeJournal.current();
+		if (journal != null) {
+			timer.held = true;
+			journal.schedule(timer);
+		} else {
+			timer.sequence = ++scheduled;
+			insert(timer);
+		}
+	}
+
+	/**
+	 * Put a timer in the slot that matches its due tick.
+	 *
+	 * @param timer a timer that isn't in the wheel
+	 */
+	private void insert(Timer timer) {
+		timer.wheel = this;
+		pending++;
+		long delta = timer.due - now;
+		for (int level = 0; level < LEVELS; level++) {
+			if (delta < 1L << (SLOT_BITS * (level + 1))) {
+				int slot = (int) ((timer.due >>> (SLOT_BITS * level)) & SLOT_MASK);
+				timer.level = level;
+				timer.slot = slot;
+				timer.next = wheels[level][slot];
+				if (timer.next != null)
+					timer.next.previous = timer;
+				wheels[level][slot] = timer;
+				return;
+			}
+		}
+		timer.level = LEVELS;
+		overflow.add(timer);
+	}
+
+	/**
+	 * Take a timer out of the wheel.
+	 *
+	 * @param timer a timer that is in the wheel
+	 */
+	private void unlink(Timer timer) {
+		if (timer.level == LEVELS) {
+			overflow.remove(timer);
+		} else {
+			if (timer.previous != null)
+				timer.previous.next = timer.next;
+			else
+				wheels[timer.level][timer.slot] = timer.next;
+			if (timer.next != null)
+				timer.next.previous = timer.previous;
+		}
+		timer.next = null;
+		timer.previous = null;
+		timer.wheel = null;
+		pending--;
+	}
+
+	/**
+	 * Something to run at a world tick. It is Serializable, so that a method reference or
+	 * lambda passed as a Task can go into a snapshot of the World with its timer.
+	 */
+	@FunctionalInterface
+	public interface Task extends Runnable, Serializable {
+	}
+
+	/**
+	 * A task waiting in a TimingWheel.
+	 */
+	public static class Timer {
+		private final TimingWheel owner;
+		private final Task task;
+		private TimingWheel wheel; // null once the timer has run or been cancelled
+		private boolean held; // waiting in a ChangeJournal to go into the wheel
+		private long due;
+		private long sequence;
+		private int level;
+		private int slot;
+		private Timer next;
+		private Timer previous;
+
+		private Timer(TimingWheel owner, Task task) {
+			this.owner = owner;
+			this.task = task;
+		}
+
+		/**
+		 * @return true if the task is still waiting to run
+		 */
+		public boolean isPending() {
+			synchronized (owner) {
+				return wheel != null || held;
+			}
+		}
+
+		/**
+		 * @return the tick the task runs (or ran, or would have run) at
+		 */
+		public long dueTick() {
+			synchronized (owner) {
+				return due;
+			}
+		}
+
+		/**
+		 * @return the number of ticks until the task runs, or zero if it isn't pending
+		 */
+		public long remaining() {
+			synchronized (owner) {
+				return wheel == null && !held ? 0 : due - owner.now;
+			}
+		}
+
+		/**
+		 * Stop the task from running.
+		 *
+		 * @return true if the task was pending, false if it had already run or been cancelled
+		 */
+		public boolean cancel() {
+			synchronized (owner) {
+				if (held) {
+					held = false;
+					return true;
+				}
+				if (wheel == null)
+					return false;
+				owner.unlink(this);
+				return true;
+			}
+		}
+
+		/**
+		 * Run the task a number of ticks from now instead, whether or not it is still pending.
+		 *
+		 * @param delay the number of ticks to wait; anything below 1 means the next tick
+		 */
+		public void reschedule(long delay) {
+			synchronized (owner) {
+				if (wheel != null)
+					owner.unlink(this);
+				due = owner.now + Math.max(delay, 1);
+				if (!held)
+					owner.place(this);
+			}
+		}
+
+		/**
+		 * Put a held back timer into the wheel, unless it has been cancelled since.
+		 * Called when the journal that held it is committed.
+		 */
+		void release() {
+			synchronized (owner) {
+				if (!held)
+					return;
+				held = false;
+				sequence = ++owner.scheduled;
+				owner.insert(this);
+			}
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.displays.Printable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A Display that keeps what an Actor writes while its turn is planned, so that it can be
+ * shown in turn order once the turn is committed.
+ */
+class TurnOutput extends Display {
+
+	private final List<Consumer<Display>> output = new ArrayList<>();
+
+	@Override
+	public void print(Printable printable) {
+		char displayChar = printable.getDisplayChar();
+		output.add(display -> display.print(() -> displayChar));
+	}
+
+	@Override
+	public void print(String s) {
+		output.add(display -> display.print(s));
+	}
+
+	@Override
+	public void println(String s) {
+		output.add(display -> display.println(s));
+	}
+
+	@Override
+	public void endLine() {
+		output.add(Display::endLine);
+	}
+
+	@Override
+	public void printFrame(char[] frame, int width, int height) {
+		char[] copy = frame.clone();
+		output.add(display -> display.printFrame(copy, width, height));
+	}
+
+	/**
+	 * Turns are planned away from the keyboard. The World doesn't plan the turns of Actors that
+	 * {@link edu.monash.fit2099.engine.actors.Actor#readsInput() read input} concurrently, so
+	 * this is only reached by one that reads it without saying so.
+	 *
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public char readChar() {
+		throw new UnsupportedOperationException("An Actor can't read the keyboard while its turn is planned");
+	}
+
+	/**
+	 * Write everything that was kept, in the order it was written.
+	 *
+	 * @param display where to write it
+	 */
+	void replay(Display display) {
+		for (Consumer<Display> line : output) {
+			line.accept(display);
+		}
+		output.clear();
+	}
+}
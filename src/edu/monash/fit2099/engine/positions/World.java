@@ -5,13 +5,35 @@ import edu.monash.fit2099.engine.actions.DoNothingAction;
 import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.actors.ActorLocationsIterator;
+import edu.monash.fit2099.engine.actors.EntityStore;
+import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
+import edu.monash.fit2099.engine.journal.JournalReader;
+import edu.monash.fit2099.engine.journal.JournalWriter;
+import edu.monash.fit2099.engine.snapshots.SnapshotReader;
+import edu.monash.fit2099.engine.snapshots.SnapshotWriter;
 
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Za Warudo! - DIO
@@ -25,6 +47,24 @@ public class World {
 	protected ActorLocationsIterator actorLocations = new ActorLocationsIterator();
 	protected Actor player; // We only draw the particular map this actor is on.
 	protected Map<Actor, Action> lastActionMap = new HashMap<Actor, Action>();
+	protected TimingWheel timers = new TimingWheel(); // the world clock
+	protected ExecutorService mapTickExecutor; // null means the maps are ticked one after the other
+	protected ExecutorService turnPlanningExecutor; // null means each turn is played out before the next one starts
+	protected JournalWriter journal; // null means the session isn't recorded
+	protected long seed; // where the World's randomness starts
+	protected RandomStream random; // the root stream, which the other streams are split from
+	protected Map<Object, RandomStream> streams = new IdentityHashMap<>(); // the streams of the GameMaps and Actors
+
+	/**
+	 * Number of turns planned by one task, so thousands of small turns don't become thousands of tasks
+	 */
+	private static final int PLANNING_BATCH_SIZE = 64;
+	/**
+	 * The Actors of the turn being planned, in turn order, and their planned turns; kept from
+	 * one turn to the next, and cleared after each, so planning doesn't allocate them every turn
+	 */
+	private Actor[] turnOrder = new Actor[0];
+	private PlannedTurn[] plans = new PlannedTurn[0];
 
 	/**
 	 * Constructor.
@@ -34,6 +74,32 @@ public class World {
 	public World(Display display) {
 		Objects.requireNonNull(display);
 		this.display = display;
+		this.seed = RandomStream.current().nextLong();
+		this.random = new RandomStream(seed);
+	}
+
+	/**
+	 * Returns the seed the World's randomness starts from. Unless it is set, each World
+	 * gets a seed of its own.
+	 *
+	 * @return the seed
+	 * @see RandomStream
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Start the World's randomness from a seed, so that the same game given the same input
+	 * plays out the same way. Call this before the first turn.
+	 *
+	 * @param seed the seed
+	 * @see RandomStream
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+		this.random = new RandomStream(seed);
+		streams.clear();
 	}
 
 	/**
@@ -44,6 +110,154 @@ public class World {
 		Objects.requireNonNull(gameMap);
 		gameMaps.add(gameMap);
 		gameMap.actorLocations = actorLocations;
+		gameMap.timers = timers;
+	}
+
+	/**
+	 * Returns the World's clock, which counts the turns and runs timers.
+	 *
+	 * @return the TimingWheel of this World
+	 */
+	public TimingWheel getTimers() {
+		return timers;
+	}
+
+	/**
+	 * Tick the GameMaps concurrently on the given executor, e.g. a ForkJoinPool or
+	 * {@code Executors.newVirtualThreadPerTaskExecutor()}.
+	 *
+	 * Each map is ticked with its Actor placements, moves and removals held back in a
+	 * journal of its own. Once every map has finished, the journals are applied in the
+	 * order the maps were added to the World, so the outcome doesn't depend on thread
+	 * scheduling. While ticking, a map sees its own pending changes but not those of other
+	 * maps. Ground and Item ticks must not reach into other maps for anything but Actor
+	 * placement.
+	 *
+	 * @param executor the executor to tick the maps on, or null to tick them one after the other
+	 */
+	public void setMapTickExecutor(ExecutorService executor) {
+		this.mapTickExecutor = executor;
+	}
+
+	/**
+	 * Play the Actors' turns in two phases, planning them concurrently on the given executor.
+	 *
+	 * In the first phase, every Actor that {@link Actor#canPlanTurnConcurrently() allows it}
+	 * chooses its Action at the same time as the others, against the state of the world after
+	 * the maps were ticked. Whatever it changes while doing so (placing, moving or removing
+	 * Actors, dropping Items, changing Ground) is held back in a journal of its own, and what it
+	 * prints is kept aside. In the second phase, the turns are committed one by one in the usual
+	 * turn order: the journal is applied, the output is printed and the Action is executed.
+	 * An Action that was overtaken by an earlier turn (e.g. two Actors moving to the same
+	 * Location) fails {@link Action#canExecute(Actor, GameMap)} and becomes a DoNothingAction,
+	 * and so does one whose journal clashed with an earlier turn. A turn like that is taken back
+	 * as a whole: none of its held back changes are kept, its output isn't printed, and the
+	 * attributes and capabilities the Actor changed on itself are put back (see
+	 * {@link Actor#saveState()}). The outcome therefore doesn't depend on thread scheduling. The player, and any other Actor that doesn't allow it, has its
+	 * turn played out the usual way when it comes up in the second phase.
+	 *
+	 * @param executor the executor to plan turns on, or null to play each turn out before the next one
+	 */
+	public void setTurnPlanningExecutor(ExecutorService executor) {
+		this.turnPlanningExecutor = executor;
+	}
+
+	/**
+	 * Keep the Actors in an {@link EntityStore}, a row each, so that game systems can sweep over
+	 * them (see {@link GameMap#getEntityStore()}). The Actors already placed get rows straight away.
+	 *
+	 * @param entities the store, or null to stop keeping one
+	 */
+	public void setEntityStore(EntityStore entities) {
+		actorLocations.setEntityStore(entities);
+	}
+
+	/**
+	 * Record the session in a journal as it is played: the player's menu selections, and the
+	 * end of every turn with a checksum of the World if the journal carries them.
+	 * The journal can be played again with {@link #replay(JournalReader)}.
+	 * <p>
+	 * The journal must have been started with the way this World plans turns, i.e.
+	 * concurrently if it has a {@link #setTurnPlanningExecutor(ExecutorService) turn planning
+	 * executor} when it runs.
+	 *
+	 * @param journal the journal to record in, or null to stop recording
+	 */
+	public void setJournal(JournalWriter journal) {
+		this.journal = journal;
+		display.setJournal(journal);
+	}
+
+	/**
+	 * Play a recorded session again at full speed, for as many turns as it was played.
+	 * <p>
+	 * This World must have been set up the way the recorded one was, and must be displaying
+	 * on a {@link edu.monash.fit2099.engine.journal.ReplayDisplay} of the same journal, so that
+	 * the player makes the same choices. It must plan turns the way the recorded one did, i.e.
+	 * have a {@link #setTurnPlanningExecutor(ExecutorService) turn planning executor} if and
+	 * only if the recorded one had. If the journal carries checksums, the World is checked
+	 * against them at the end of every turn.
+	 *
+	 * @param journal the recorded session
+	 * @return the throughput figures of the replay
+	 * @throws IllegalStateException if this World doesn't plan turns the way the recorded one
+	 *                               did, or the replay stops following the recorded session
+	 */
+	public SimulationReport replay(JournalReader journal) {
+		checkPlanning(journal.plansTurnsConcurrently());
+		SimulationReport report = new SimulationReport();
+		initialiseLastActions();
+
+		long start = System.nanoTime();
+		for (int turn = 0; turn < journal.turns(); turn++) {
+			if (!stillRunning())
+				throw new IllegalStateException("The replay ended after " + turn + " of "
+						+ journal.turns() + " recorded turns");
+			processTick(report);
+			if (journal.hasChecksums() && checksum() != journal.checksum(turn))
+				throw new IllegalStateException("The replay diverged from the journal on turn " + (turn + 1));
+		}
+		report.recordElapsed(System.nanoTime() - start);
+		return report;
+	}
+
+	/**
+	 * Make sure a journal's way of planning turns is this World's.
+	 *
+	 * @param concurrent true if the journal's turns are planned concurrently
+	 * @throws IllegalStateException if they aren't planned the way this World plans them
+	 */
+	private void checkPlanning(boolean concurrent) {
+		if (concurrent != (turnPlanningExecutor != null))
+			throw new IllegalStateException("The journal's turns are planned "
+					+ (concurrent ? "concurrently" : "one after the other") + ", but this World's aren't");
+	}
+
+	/**
+	 * A checksum of the state of the game that shows on the maps and in the Actors: what
+	 * each map looks like, and where each Actor is and how healthy it is, in turn order.
+	 * Two runs of the same session have the same checksum after the same turn.
+	 *
+	 * @return the checksum
+	 */
+	public long checksum() {
+		long checksum = 17;
+		for (GameMap gameMap : gameMaps) {
+			checksum = checksum * 31 + gameMap.checksum();
+		}
+		int length = actorLocations.passLength();
+		for (int i = 0; i < length; i++) {
+			Actor actor = actorLocations.inTurnOrder(i, length);
+			if (actor == null)
+				continue;
+			Location location = actorLocations.locationOf(actor);
+			checksum = checksum * 31 + actor.getDisplayChar();
+			checksum = checksum * 31 + gameMaps.indexOf(location.map());
+			checksum = checksum * 31 + location.x();
+			checksum = checksum * 31 + location.y();
+			checksum = checksum * 31 + Objects.hashCode(actor.getAttribute(BaseActorAttributes.HEALTH));
+		}
+		return checksum;
 	}
 
 	/**
@@ -58,6 +272,113 @@ public class World {
 		actorLocations.setPlayer(player);
 	}
 
+	/**
+	 * Write the state of the game to a snapshot: the maps and everything on them, the Actors
+	 * in the order they take their turns, their last Actions, the clock with its timers, and
+	 * the World's randomness: its seed and how far along it is.
+	 * Everything reachable from those goes in, however the game has extended the engine.
+	 * <p>
+	 * The Display and the maps' GroundFactories belong to the running program, so they are
+	 * not written; {@link #loadSnapshot(ReadableByteChannel)} uses its own World's. Static
+	 * fields aren't written either. Call this between turns.
+	 * <p>
+	 * Nothing in the engine's run loop saves or loads snapshots; they are there for the
+	 * program that drives the World to use, e.g. to keep a long run and pick it up later.
+	 *
+	 * @param channel where the snapshot goes
+	 * @throws IOException when writing fails, or the game holds something that can't go into
+	 *                     a snapshot, e.g. a lambda that isn't Serializable
+	 * @see SnapshotWriter
+	 */
+	public void saveSnapshot(WritableByteChannel channel) throws IOException {
+		// A chunked map only keeps the Locations with something on them; the snapshot needs
+		// the others that are still in use too, since the game may hold them.
+		List<List<Location>> kept = new ArrayList<>();
+		for (GameMap gameMap : gameMaps) {
+			kept.add(gameMap.keepAllLocations());
+		}
+		try {
+			new SnapshotWriter(channel, snapshotExternals())
+					.write(new Object[]{gameMaps, actorLocations, player, lastActionMap, timers, seed, random, streams});
+		} finally {
+			for (int i = 0; i < gameMaps.size(); i++) {
+				gameMaps.get(i).releaseLocations(kept.get(i));
+			}
+		}
+	}
+
+	/**
+	 * Write the state of the game to a snapshot file. The file is only replaced once the
+	 * snapshot has been written in full.
+	 *
+	 * @param file where the snapshot goes
+	 * @throws IOException when writing fails, or the game holds something that can't go into a snapshot
+	 */
+	public void saveSnapshot(Path file) throws IOException {
+		Path partial = file.resolveSibling(file.getFileName() + ".partial");
+		try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			saveSnapshot(channel);
+		}
+		Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Replace the state of the game with a snapshot's.
+	 * <p>
+	 * This World must have been set up the way the one that took the snapshot was, with its
+	 * GameMaps added in the same order, since their GroundFactories are used for the
+	 * snapshot's maps. Everything else -- the maps themselves, the Actors, the clock -- comes
+	 * from the snapshot, so references to the old ones held outside the World go stale.
+	 *
+	 * @param channel where the snapshot comes from
+	 * @throws IOException when reading fails, or the snapshot doesn't fit this game
+	 * @see SnapshotReader
+	 */
+	@SuppressWarnings("unchecked")
+	public void loadSnapshot(ReadableByteChannel channel) throws IOException {
+		Object root = new SnapshotReader(channel, snapshotExternals()).read();
+		if (!(root instanceof Object[] state) || state.length != 8)
+			throw new StreamCorruptedException("Not a snapshot of a World");
+		gameMaps = (ArrayList<GameMap>) state[0];
+		actorLocations = (ActorLocationsIterator) state[1];
+		player = (Actor) state[2];
+		lastActionMap = (Map<Actor, Action>) state[3];
+		timers = (TimingWheel) state[4];
+		seed = (Long) state[5];
+		random = (RandomStream) state[6];
+		streams = (Map<Object, RandomStream>) state[7];
+		for (GameMap gameMap : gameMaps) {
+			gameMap.snapshotLoaded();
+		}
+	}
+
+	/**
+	 * Replace the state of the game with that in a snapshot file.
+	 *
+	 * @param file where the snapshot comes from
+	 * @throws IOException when reading fails, or the snapshot doesn't fit this game
+	 */
+	public void loadSnapshot(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			loadSnapshot(channel);
+		}
+	}
+
+	/**
+	 * The objects that snapshots refer to rather than hold, in an order that is the same from
+	 * one run of the game to the next.
+	 */
+	private List<Object> snapshotExternals() {
+		List<Object> externals = new ArrayList<>();
+		externals.add(display);
+		externals.add(Display.getInstance());
+		for (GameMap gameMap : gameMaps) {
+			externals.add(gameMap.groundFactory);
+		}
+		return externals;
+	}
+
 	/**
 	 * Run the game.
 	 *
@@ -73,29 +394,333 @@ public class World {
 	public void run() {
 		if (player == null)
 			throw new IllegalStateException();
+		if (journal != null)
+			checkPlanning(journal.plansTurnsConcurrently());
 
-		// initialize the last action map to nothing actions;
-		for (Actor actor : actorLocations) {
-			lastActionMap.put(actor, new DoNothingAction());
-		}
+		initialiseLastActions();
 
 		// This loop is basically the whole game
 		while (stillRunning()) {
-			GameMap playersMap = actorLocations.locationOf(player).map();
-			// Tick over all the maps. For the map stuff.
-			for (GameMap gameMap : gameMaps) {
-				gameMap.tick();
+			processTick(null);
+		}
+		display.println(endGameMessage());
+		display.flush();
+	}
+
+	/**
+	 * Run the game for a fixed number of turns or a wall-clock budget, whichever runs out first.
+	 *
+	 * This is meant for batch and soak runs with no terminal attached, e.g. with a
+	 * {@link edu.monash.fit2099.engine.displays.HeadlessDisplay}. Unlike {@link #run()}, the
+	 * player is optional: without one the map is never drawn and the run only stops when
+	 * the budget is used up. With one, the run also stops when the player leaves the game.
+	 *
+	 * @param maxTicks  the maximum number of game turns to run
+	 * @param maxMillis the wall-clock budget in milliseconds, or zero for no limit
+	 * @return the throughput figures of the run
+	 */
+	public SimulationReport runFor(int maxTicks, long maxMillis) {
+		if (journal != null)
+			checkPlanning(journal.plansTurnsConcurrently());
+		SimulationReport report = new SimulationReport();
+		initialiseLastActions();
+
+		long start = System.nanoTime();
+		long deadline = start + maxMillis * 1_000_000L;
+		int ticks = 0;
+		while (ticks < maxTicks && stillRunning()) {
+			if (maxMillis > 0 && System.nanoTime() - deadline >= 0)
+				break;
+			processTick(report);
+			ticks++;
+		}
+		report.recordElapsed(System.nanoTime() - start);
+		return report;
+	}
+
+	/**
+	 * Give every Actor that doesn't have a last Action yet a DoNothingAction to start with.
+	 */
+	private void initialiseLastActions() {
+		for (Actor actor : actorLocations) {
+			lastActionMap.putIfAbsent(actor, new DoNothingAction());
+		}
+	}
+
+	/**
+	 * Play one game turn: tick over all the maps, draw the player's map and give
+	 * every Actor its turn.
+	 *
+	 * @param report where to record the time spent in each phase, or null to skip timing
+	 */
+	protected void processTick(SimulationReport report) {
+		RandomStream previous = RandomStream.enter(random);
+		try {
+			playTick(report);
+		} finally {
+			RandomStream.restore(previous);
+		}
+	}
+
+	/**
+	 * Play one game turn, drawing from the World's own stream of random numbers where
+	 * nothing else has a stream of its own.
+	 *
+	 * @param report where to record the time spent in each phase, or null to skip timing
+	 */
+	private void playTick(SimulationReport report) {
+		long phaseStart = System.nanoTime();
+
+		// Between passes over the Actors, so this is the safe point to sweep out the ones that left.
+		actorLocations.compact();
+		if (streams.size() > 2 * (actorLocations.size() + gameMaps.size()) + 16)
+			streams.keySet().removeIf(owner -> owner instanceof Actor actor && !actorLocations.contains(actor));
+
+		// Start the turn on the clock, running whatever timers are due.
+		timers.advance();
+
+		// Tick over all the maps. For the map stuff.
+		tickMaps();
+		long mapsTicked = System.nanoTime();
+
+		if (player != null && actorLocations.contains(player)) {
+			actorLocations.locationOf(player).map().draw(display);
+		}
+		long drawn = System.nanoTime();
+
+		// Process all the actors.
+		int turns = turnPlanningExecutor == null ? processActorTurns() : processPlannedTurns();
+
+		// Send the turn's output on its way in one go.
+		display.flush();
+
+		if (journal != null)
+			endJournalTurn();
+
+		if (report != null)
+			report.recordTick(mapsTicked - phaseStart, drawn - mapsTicked, System.nanoTime() - drawn, turns);
+	}
+
+	/**
+	 * Record the end of the turn that was just played in the journal.
+	 */
+	private void endJournalTurn() {
+		try {
+			journal.endTurn(journal.hasChecksums() ? checksum() : 0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Give every Actor its turn, one after the other.
+	 *
+	 * @return the number of turns that were played
+	 */
+	protected int processActorTurns() {
+		int turns = 0;
+		int length = actorLocations.passLength();
+		for (int i = 0; i < length; i++) {
+			Actor actor = actorLocations.inTurnOrder(i, length);
+			if (actor != null && stillRunning()) {
+				processActorTurn(actor);
+				turns++;
 			}
+		}
+		return turns;
+	}
 
-			playersMap.draw(display);
+	/**
+	 * Give every Actor its turn, planning the turns of those that allow it concurrently first.
+	 *
+	 * @return the number of turns that were played
+	 * @see #setTurnPlanningExecutor(ExecutorService)
+	 */
+	protected int processPlannedTurns() {
+		int length = actorLocations.passLength();
+		if (turnOrder.length < length) {
+			turnOrder = new Actor[Math.max(length, turnOrder.length * 2)];
+			plans = new PlannedTurn[turnOrder.length];
+		}
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			Actor actor = actorLocations.inTurnOrder(i, length);
+			if (actor != null) {
+				turnOrder[count++] = actor;
+				streamFor(actor); // split off here, in turn order, rather than on the planning threads
+			}
+		}
+		Actor[] actors = turnOrder;
+		PlannedTurn[] plans = this.plans;
+		try {
+			planTurns(actors, plans, count);
 
-			// Process all the actors.
-			for (Actor actor : actorLocations) {
-				if (stillRunning())
+			int turns = 0;
+			for (int i = 0; i < count; i++) {
+				Actor actor = actors[i];
+				// Same rules as the iterator: Actors removed by an earlier turn don't get one.
+				if (!stillRunning() || !actorLocations.contains(actor))
+					continue;
+				if (plans[i] == null)
 					processActorTurn(actor);
+				else
+					commitPlannedTurn(actor, plans[i]);
+				turns++;
 			}
+			return turns;
+		} finally {
+			Arrays.fill(actors, 0, count, null);
+			Arrays.fill(plans, 0, count, null);
+		}
+	}
+
+	/**
+	 * Plan the turns of the Actors that allow it, in batches on the turn planning executor.
+	 *
+	 * @param actors the Actors, in turn order
+	 * @param plans  where to put the planned turns, at the same positions as the Actors; null is
+	 *               left for turns that weren't planned
+	 * @param count  the number of Actors
+	 */
+	private void planTurns(Actor[] actors, PlannedTurn[] plans, int count) {
+		for (int i = 0; i < count; i++) {
+			Actor actor = actors[i];
+			if (actor != player && actor.canPlanTurnConcurrently() && actor.readsInput())
+				throw new IllegalStateException(actor + " reads input, so its turn can't be planned concurrently");
+		}
+		List<Future<?>> batches = new ArrayList<>();
+		for (int start = 0; start < count; start += PLANNING_BATCH_SIZE) {
+			int from = start;
+			int to = Math.min(start + PLANNING_BATCH_SIZE, count);
+			batches.add(turnPlanningExecutor.submit(() -> {
+				for (int i = from; i < to; i++) {
+					Actor actor = actors[i];
+					if (actor != player && actor.canPlanTurnConcurrently())
+						plans[i] = planTurn(actor);
+				}
+			}));
+		}
+		for (Future<?> batch : batches) {
+			await(batch);
+		}
+	}
+
+	/**
+	 * Choose an Actor's Action with its changes held back.
+	 *
+	 * @param actor the Actor whose turn it is
+	 * @return the planned turn
+	 */
+	private PlannedTurn planTurn(Actor actor) {
+		Location here = actorLocations.locationOf(actor);
+		PlannedTurn plan = new PlannedTurn(here.map(), actor.saveState());
+		RandomStream previous = RandomStream.enter(streams.get(actor));
+		Display previousDisplay = Display.enter(plan.output);
+		try {
+			plan.journal.record(() -> {
+				ActionList actions = allowableActions(actor, here);
+				plan.action = actor.playTurn(actions, lastActionMap.get(actor), plan.map, plan.output);
+			});
+		} finally {
+			Display.restore(previousDisplay);
+			RandomStream.restore(previous);
+		}
+		return plan;
+	}
+
+	/**
+	 * Apply a planned turn: its held back changes, its output and then its Action.
+	 *
+	 * @param actor the Actor whose turn it is
+	 * @param plan  the turn that was planned for it
+	 */
+	private void commitPlannedTurn(Actor actor, PlannedTurn plan) {
+		boolean clean = plan.journal.commit();
+		if (clean)
+			plan.output.replay(display);
+		else
+			actor.restoreState(plan.saved);
+
+		Action action = plan.action;
+		if (!clean || !action.canExecute(actor, plan.map))
+			action = new DoNothingAction();
+		lastActionMap.put(actor, action);
+
+		RandomStream previous = RandomStream.enter(streamFor(actor));
+		try {
+			String result = action.execute(actor, plan.map);
+			display.println(result);
+		} finally {
+			RandomStream.restore(previous);
+		}
+	}
+
+	/**
+	 * Tick over all the maps, concurrently if a map tick executor has been set.
+	 */
+	protected void tickMaps() {
+		if (mapTickExecutor == null || gameMaps.size() < 2) {
+			for (GameMap gameMap : gameMaps) {
+				RandomStream previous = RandomStream.enter(streamFor(gameMap));
+				try {
+					gameMap.tick();
+				} finally {
+					RandomStream.restore(previous);
+				}
+			}
+			return;
+		}
+
+		List<ChangeJournal> journals = new ArrayList<>();
+		List<TurnOutput> outputs = new ArrayList<>();
+		List<Future<?>> ticks = new ArrayList<>();
+		for (GameMap gameMap : gameMaps) {
+			ChangeJournal journal = new ChangeJournal();
+			journals.add(journal);
+			TurnOutput output = new TurnOutput();
+			outputs.add(output);
+			RandomStream stream = streamFor(gameMap);
+			ticks.add(mapTickExecutor.submit(() -> {
+				RandomStream previous = RandomStream.enter(stream);
+				Display previousDisplay = Display.enter(output);
+				try {
+					journal.record(gameMap::tick);
+				} finally {
+					Display.restore(previousDisplay);
+					RandomStream.restore(previous);
+				}
+			}));
+		}
+		for (Future<?> tick : ticks) {
+			await(tick);
+		}
+
+		// Deterministic merge: always in the order the maps were added.
+		for (int i = 0; i < journals.size(); i++) {
+			journals.get(i).commit();
+			outputs.get(i).replay(Display.getInstance());
+		}
+	}
+
+	/**
+	 * Wait for a map tick or a batch of planned turns to finish, passing on anything it threw.
+	 *
+	 * @param task the pending task
+	 */
+	private void await(Future<?> task) {
+		try {
+			task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the game turn to finish", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			if (cause instanceof Error)
+				throw (Error) cause;
+			throw new IllegalStateException(cause);
 		}
-		display.println(endGameMessage());
 	}
 
 	/**
@@ -116,6 +741,47 @@ public class World {
 		Location here = actorLocations.locationOf(actor);
 		GameMap map = here.map();
 
+		RandomStream previous = RandomStream.enter(streamFor(actor));
+		try {
+			ActionList actions = allowableActions(actor, here);
+			Action action = actor.playTurn(actions, lastActionMap.get(actor), map, display);
+			lastActionMap.put(actor, action);
+
+			String result = action.execute(actor, map);
+			display.println(result);
+		} finally {
+			RandomStream.restore(previous);
+		}
+	}
+
+	/**
+	 * Returns the stream of random numbers of a GameMap or an Actor, splitting it off the
+	 * World's stream the first time. Only call this on the World's thread, so streams are
+	 * split off in the same order from one run to the next.
+	 *
+	 * @param owner the GameMap or Actor
+	 * @return its stream
+	 */
+	private RandomStream streamFor(Object owner) {
+		RandomStream stream = streams.get(owner);
+		if (stream == null) {
+			stream = random.split();
+			streams.put(owner, stream);
+		}
+		return stream;
+	}
+
+	/**
+	 * Collect the Actions an Actor can choose from on its turn.
+	 *
+	 * @param actor the Actor whose turn it is
+	 * @param here  where the Actor is
+	 * @return the Actions on offer, always including a DoNothingAction
+	 * @see #processActorTurn(Actor)
+	 */
+	protected ActionList allowableActions(Actor actor, Location here) {
+		GameMap map = here.map();
+
 		ActionList actions = new ActionList();
 		for (Item item : actor.getItemInventory()) {
 			// for each item that can perform an action to its owner
@@ -127,20 +793,14 @@ public class World {
 		// Game rule. Allows the actor to interact with current ground
 		actions.add(here.getGround().allowableActions(actor, here, ""));
 
-		for (Exit exit : here.getExits()) {
-			Location destination = exit.getDestination();
-
-			if (actorLocations.isAnActorAt(destination)) {
-				Actor otherActor = actorLocations.getActorAt(destination);
-				actions.add(otherActor.allowableActions(actor, exit.getName(), map));
-				// for each item that allows the current actor perform an action to another actor
-				for (Item item : actor.getItemInventory()) {
-					actions.add(item.allowableActions(otherActor, destination));
-				}
-			} else {
-				actions.add(destination.getGround().allowableActions(actor, destination, exit.getName()));
-			}
-			actions.add(destination.getMoveAction(actor, exit.getName(), exit.getHotKey()));
+		for (int i = 0; i < Direction.count(); i++) {
+			Direction direction = Direction.get(i);
+			Location destination = here.neighbour(direction);
+			if (destination != null)
+				addActionsTowards(actions, actor, map, destination, direction.getName(), direction.getHotKey());
+		}
+		for (Exit exit : here.getExtraExits()) {
+			addActionsTowards(actions, actor, map, exit.getDestination(), exit.getName(), exit.getHotKey());
 		}
 
 		for (Item item : here.getItems()) {
@@ -150,23 +810,37 @@ public class World {
 			actions.add(item.getPickUpAction(actor));
 		}
 		actions.add(new DoNothingAction());
+		return actions;
+	}
 
-		Action action = actor.playTurn(actions, lastActionMap.get(actor), map, display);
-		lastActionMap.put(actor, action);
-		
-		String result = action.execute(actor, map);
-		display.println(result);
+	/**
+	 * Add the Actions for one way out of the Actor's Location: whatever the Actor or Ground
+	 * there allows, and the move itself.
+	 */
+	private void addActionsTowards(ActionList actions, Actor actor, GameMap map, Location destination, String direction, String hotKey) {
+		if (actorLocations.isAnActorAt(destination)) {
+			Actor otherActor = actorLocations.getActorAt(destination);
+			actions.add(otherActor.allowableActions(actor, direction, map));
+			// for each item that allows the current actor perform an action to another actor
+			for (Item item : actor.getItemInventory()) {
+				actions.add(item.allowableActions(otherActor, destination));
+			}
+		} else {
+			actions.add(destination.getGround().allowableActions(actor, destination, direction));
+		}
+		actions.add(destination.getMoveAction(actor, direction, hotKey));
 	}
 
 	/**
 	 * Returns true if the game is still running.
 	 *
 	 * The game is considered to still be running if the player is still around.
+	 * A World without a player (only possible through {@link #runFor(int, long)}) keeps running.
 	 *
-	 * @return true if the player is still on the map.
+	 * @return true if the player is still on the map, or if there is no player.
 	 */
 	protected boolean stillRunning() {
-		return actorLocations.contains(player);
+		return player == null || actorLocations.contains(player);
 	}
 
 	/**
@@ -177,4 +851,20 @@ public class World {
 	protected String endGameMessage() {
 		return "Game Over";
 	}
+
+	/**
+	 * A turn chosen in the planning phase, waiting to be committed.
+	 */
+	private static class PlannedTurn {
+		private final GameMap map;
+		private final ChangeJournal journal = new ChangeJournal(true);
+		private final TurnOutput output = new TurnOutput();
+		private final Actor.SavedState saved;
+		private Action action;
+
+		PlannedTurn(GameMap map, Actor.SavedState saved) {
+			this.map = map;
+			this.saved = saved;
+		}
+	}
 }
@@ -0,0 +1,308 @@
+package edu.monash.fit2099.engine.snapshots;
+
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * How the objects of one class go into a snapshot.
+ * <p>
+ * Classes of the game and the engine are written field by field, whatever their fields are.
+ * The JDK's own classes can't be taken apart like that, so the common ones -- Strings, boxed
+ * primitives, arrays, collections, atomics and BitSets -- are written by what they contain,
+ * other Serializable ones with Java serialization, and the rest can't go into a snapshot.
+ * Lambdas can if their functional interface is Serializable.
+ */
+final class SnapshotClass {
+
+	/**
+	 * Kinds of class, as written in a snapshot
+	 */
+	static final byte PLAIN = 0;
+	static final byte ENUM = 1;
+	static final byte STRING = 2;
+	static final byte BOXED = 3;
+	static final byte PRIMITIVE_ARRAY = 4;
+	static final byte OBJECT_ARRAY = 5;
+	static final byte COLLECTION = 6;
+	static final byte MAP = 7;
+	static final byte LIST_VIEW = 8;
+	static final byte SET_VIEW = 9;
+	static final byte MAP_VIEW = 10;
+	static final byte FIXED_LIST = 11;
+	static final byte ATOMIC_REFERENCE_ARRAY = 12;
+	static final byte ATOMIC = 13;
+	static final byte BITSET = 14;
+	static final byte CLASS = 15;
+	static final byte LAMBDA = 16;
+	static final byte SERIALIZED = 17;
+
+	/**
+	 * Mutable JDK collections that are rebuilt with their public no-argument constructor
+	 */
+	private static final Set<Class<?>> REBUILT = Set.of(
+			ArrayList.class, LinkedList.class, ArrayDeque.class, CopyOnWriteArrayList.class,
+			ConcurrentLinkedQueue.class, PriorityQueue.class,
+			HashSet.class, LinkedHashSet.class, TreeSet.class,
+			HashMap.class, LinkedHashMap.class, TreeMap.class, IdentityHashMap.class,
+			ConcurrentHashMap.class);
+
+	private static final Set<Class<?>> BOXES = Set.of(
+			Boolean.class, Byte.class, Short.class, Character.class,
+			Integer.class, Long.class, Float.class, Double.class);
+
+	/**
+	 * Factories for classes whose objects can't be made by a constructor as described at
+	 * {@link #allocate()}
+	 */
+	private static final Map<Class<?>, Supplier<?>> FACTORIES = new ConcurrentHashMap<>();
+
+	private static final ClassValue<SnapshotClass> CACHE = new ClassValue<>() {
+		@Override
+		protected SnapshotClass computeValue(Class<?> type) {
+			return new SnapshotClass(type);
+		}
+	};
+
+	final Class<?> type;
+	final byte kind;
+	/**
+	 * For PLAIN: the fields that are written, superclass fields first
+	 */
+	final Field[] fields;
+	/**
+	 * For PLAIN: the type code of each field, as in a JVM descriptor ('I', 'Z', ... or 'L')
+	 */
+	final char[] codes;
+	/**
+	 * Why objects of this class can't go into a snapshot, or null if they can
+	 */
+	final String problem;
+
+	private volatile Constructor<?> allocator;
+	private Object[] allocatorArguments; // written before allocator
+	private Method writeReplace;
+
+	private SnapshotClass(Class<?> type) {
+		this.type = type;
+		String problem = null;
+		byte kind = PLAIN;
+		if (type.isEnum()) {
+			kind = ENUM;
+		} else if (type == String.class) {
+			kind = STRING;
+		} else if (BOXES.contains(type)) {
+			kind = BOXED;
+		} else if (type.isArray()) {
+			kind = type.getComponentType().isPrimitive() ? PRIMITIVE_ARRAY : OBJECT_ARRAY;
+		} else if (type == Class.class) {
+			kind = CLASS;
+		} else if (type.isHidden() && type.getName().contains("$$Lambda")) {
+			kind = LAMBDA;
+			if (!Serializable.class.isAssignableFrom(type))
+				problem = "a lambda whose functional interface isn't Serializable";
+		} else if (type == AtomicReferenceArray.class) {
+			kind = ATOMIC_REFERENCE_ARRAY;
+		} else if (type == AtomicInteger.class || type == AtomicLong.class || type == AtomicBoolean.class) {
+			kind = ATOMIC;
+		} else if (type == BitSet.class) {
+			kind = BITSET;
+		} else if (isJdk(type)) {
+			if (EnumSet.class.isAssignableFrom(type))
+				kind = SERIALIZED; // it only holds enum constants
+			else if (type == EnumMap.class)
+				problem = "an EnumMap, which can't be rebuilt when it is empty";
+			else if (REBUILT.contains(type))
+				kind = Map.class.isAssignableFrom(type) ? MAP : COLLECTION;
+			else if (type.getName().equals("java.util.Arrays$ArrayList"))
+				kind = FIXED_LIST;
+			else if (List.class.isAssignableFrom(type))
+				kind = LIST_VIEW;
+			else if (Set.class.isAssignableFrom(type))
+				kind = SET_VIEW;
+			else if (Map.class.isAssignableFrom(type))
+				kind = MAP_VIEW;
+			else if (Collection.class.isAssignableFrom(type))
+				kind = LIST_VIEW;
+			else if (Serializable.class.isAssignableFrom(type))
+				kind = SERIALIZED;
+			else
+				problem = "a JDK class that isn't Serializable";
+		} else {
+			for (Class<?> c = type.getSuperclass(); c != null && c != Object.class; c = c.getSuperclass()) {
+				if (isJdk(c) && !c.isEnum()) {
+					problem = "a subclass of " + c.getName();
+					break;
+				}
+			}
+		}
+		this.kind = kind;
+		this.problem = problem;
+
+		List<Field> fields = new ArrayList<>();
+		if (kind == PLAIN && problem == null)
+			collectFields(type, fields);
+		this.fields = fields.toArray(new Field[0]);
+		this.codes = new char[this.fields.length];
+		for (int i = 0; i < codes.length; i++) {
+			codes[i] = codeOf(this.fields[i].getType());
+		}
+	}
+
+	/**
+	 * @param type a class
+	 * @return how objects of that class go into a snapshot
+	 */
+	static SnapshotClass of(Class<?> type) {
+		return CACHE.get(type);
+	}
+
+	/**
+	 * @param object an object on its way into a snapshot
+	 * @return how it goes in; enum constants with a body of their own go in as their enum
+	 * @throws NotSerializableException if it can't
+	 */
+	static SnapshotClass forWriting(Object object) throws NotSerializableException {
+		Class<?> type = object instanceof Enum<?> e ? e.getDeclaringClass() : object.getClass();
+		SnapshotClass snapshotClass = of(type);
+		if (snapshotClass.problem != null)
+			throw new NotSerializableException(type.getName() + " is " + snapshotClass.problem);
+		if ((object instanceof SortedSet<?> s && s.comparator() != null)
+				|| (object instanceof SortedMap<?, ?> m && m.comparator() != null)
+				|| (object instanceof PriorityQueue<?> q && q.comparator() != null))
+			throw new NotSerializableException(type.getName() + " with a Comparator");
+		return snapshotClass;
+	}
+
+	/**
+	 * Use a factory to create the objects of a class when they are read from a snapshot.
+	 *
+	 * @param type    the class
+	 * @param factory makes an object of exactly that class
+	 */
+	static void registerFactory(Class<?> type, Supplier<?> factory) {
+		FACTORIES.put(type, factory);
+	}
+
+	/**
+	 * Create an object of a PLAIN class, for its fields to be set from a snapshot.
+	 * <p>
+	 * The object comes from the factory registered for the class if there is one. Otherwise
+	 * it is made with the class's constructor that takes no arguments or, failing that, the one
+	 * that takes the fewest, given zeros, falses and nulls. Whatever the constructor does, every
+	 * field is set from the snapshot straight afterwards.
+	 *
+	 * @return the new object
+	 */
+	Object allocate() throws ReflectiveOperationException {
+		Supplier<?> factory = FACTORIES.get(type);
+		if (factory != null)
+			return factory.get();
+		if (allocator == null) {
+			Constructor<?> shortest = null;
+			for (Constructor<?> constructor : type.getDeclaredConstructors()) {
+				if (shortest == null || constructor.getParameterCount() < shortest.getParameterCount())
+					shortest = constructor;
+			}
+			if (shortest == null)
+				throw new NoSuchMethodException(type.getName() + " has no constructor");
+			Class<?>[] parameters = shortest.getParameterTypes();
+			Object[] arguments = new Object[parameters.length];
+			for (int i = 0; i < parameters.length; i++) {
+				if (parameters[i].isPrimitive())
+					arguments[i] = Array.get(Array.newInstance(parameters[i], 1), 0);
+			}
+			shortest.setAccessible(true);
+			allocatorArguments = arguments;
+			allocator = shortest;
+		}
+		return allocator.newInstance(allocatorArguments);
+	}
+
+	/**
+	 * @return the method of a Serializable lambda that turns it into a SerializedLambda
+	 */
+	Method writeReplace() throws NoSuchMethodException {
+		if (writeReplace == null) {
+			Method method = type.getDeclaredMethod("writeReplace");
+			method.setAccessible(true);
+			writeReplace = method;
+		}
+		return writeReplace;
+	}
+
+	/**
+	 * @param field a field of a PLAIN class
+	 * @return the name it is known by in a snapshot, which tells apart fields of the same name
+	 * in a class and its superclass
+	 */
+	static String keyOf(Field field) {
+		return field.getDeclaringClass().getName() + '.' + field.getName();
+	}
+
+	/**
+	 * @param type the type of a field
+	 * @return its type code: the JVM descriptor of a primitive type, or 'L' for a reference
+	 */
+	static char codeOf(Class<?> type) {
+		if (type == int.class) return 'I';
+		if (type == long.class) return 'J';
+		if (type == boolean.class) return 'Z';
+		if (type == byte.class) return 'B';
+		if (type == short.class) return 'S';
+		if (type == char.class) return 'C';
+		if (type == float.class) return 'F';
+		if (type == double.class) return 'D';
+		return 'L';
+	}
+
+	private static void collectFields(Class<?> type, List<Field> fields) {
+		if (type == null || type == Object.class || type == Enum.class)
+			return;
+		collectFields(type.getSuperclass(), fields);
+		for (Field field : type.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+				continue;
+			field.setAccessible(true);
+			fields.add(field);
+		}
+	}
+
+	private static boolean isJdk(Class<?> type) {
+		String name = type.getName();
+		return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+	}
+}
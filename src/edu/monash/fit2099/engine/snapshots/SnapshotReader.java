@@ -0,0 +1,601 @@
+package edu.monash.fit2099.engine.snapshots;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter} back into a graph of objects.
+ * <p>
+ * Objects of the game's and the engine's classes are created with one of their constructors,
+ * and then their fields set to what they were. The constructor used is the one that takes no
+ * arguments or, if there isn't one, the one that takes the fewest, given zeros, falses and
+ * nulls; a class whose constructors can't cope with that needs a factory, registered with
+ * {@link #registerFactory(Class, Supplier)}. A field that has been added to a
+ * class since the snapshot was taken is left zero or null; one that has gone is skipped.
+ * Collections are filled once every object has been read, in the order they were written,
+ * so hash codes that depend on fields are right by then and insertion-ordered collections
+ * keep their order.
+ */
+public class SnapshotReader {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final ReadableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+	private final List<?> externals;
+	private final List<Object> handles = new ArrayList<>();
+	private final List<StreamClass> classes = new ArrayList<>();
+	private final Map<Class<?>, Method> lambdaFactories = new HashMap<>();
+	/**
+	 * Objects that have been created but whose contents are still to be read, with their class
+	 */
+	private final ArrayDeque<Object> pending = new ArrayDeque<>();
+	private final ArrayDeque<StreamClass> pendingClasses = new ArrayDeque<>();
+	/**
+	 * Collections to fill once everything has been read: the collection, then its contents
+	 */
+	private final List<Object> fills = new ArrayList<>();
+
+	/**
+	 * A class as described in the snapshot, matched up with the class of that name here.
+	 */
+	private static class StreamClass {
+		byte kind;
+		Class<?> type;
+		SnapshotClass local;
+		/**
+		 * For PLAIN: the local field for each field in the snapshot, or null to skip it
+		 */
+		Field[] fields;
+		char[] codes;
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param channel   where the snapshot comes from
+	 * @param externals the objects to use for the externals the snapshot was written with, in the same places
+	 */
+	public SnapshotReader(ReadableByteChannel channel, List<?> externals) {
+		this.channel = channel;
+		this.externals = externals;
+	}
+
+	/**
+	 * Use a factory to create the objects of a class when they are read from a snapshot,
+	 * instead of one of its constructors. The factory's object may be anything of that class:
+	 * its fields are all set from the snapshot afterwards.
+	 *
+	 * @param type    the class
+	 * @param factory makes a new object of exactly that class
+	 * @param <T>     the class
+	 */
+	public static <T> void registerFactory(Class<T> type, Supplier<? extends T> factory) {
+		SnapshotClass.registerFactory(type, factory);
+	}
+
+	/**
+	 * Read a snapshot.
+	 *
+	 * @return the root object of the snapshot
+	 * @throws IOException when reading from the channel fails, or it doesn't hold a snapshot
+	 *                     that fits the classes here
+	 */
+	public Object read() throws IOException {
+		need(SnapshotWriter.MAGIC.length + 1);
+		for (byte b : SnapshotWriter.MAGIC) {
+			if (buffer.get() != b)
+				throw new StreamCorruptedException("Not a snapshot");
+		}
+		int version = buffer.get() & 0xff;
+		if (version != SnapshotWriter.VERSION)
+			throw new StreamCorruptedException("Unknown snapshot version " + version);
+
+		Object root = readReference();
+		while (!pending.isEmpty()) {
+			readContents(pending.poll(), pendingClasses.poll());
+		}
+		need(1);
+		if (buffer.get() != SnapshotWriter.END)
+			throw new StreamCorruptedException("Snapshot doesn't end where it should");
+		fill();
+		return root;
+	}
+
+	private Object readReference() throws IOException {
+		need(1);
+		byte tag = buffer.get();
+		switch (tag) {
+			case SnapshotWriter.NULL:
+				return null;
+			case SnapshotWriter.REFERENCE:
+				return handles.get(checkIndex(readVarint(), handles.size()));
+			case SnapshotWriter.EXTERNAL:
+				return externals.get(checkIndex(readVarint(), externals.size()));
+			case SnapshotWriter.NEW:
+				break;
+			default:
+				throw new StreamCorruptedException("Bad tag " + tag);
+		}
+
+		StreamClass streamClass = readClass();
+		int handle = handles.size();
+		handles.add(null);
+		Object object = switch (streamClass.kind) {
+			case SnapshotClass.PLAIN -> later(allocate(streamClass), streamClass);
+			case SnapshotClass.ENUM -> streamClass.type.getEnumConstants()[readVarint()];
+			case SnapshotClass.STRING -> readString();
+			case SnapshotClass.BOXED -> readBoxed(streamClass.type);
+			case SnapshotClass.PRIMITIVE_ARRAY -> readPrimitiveArray(streamClass.type.getComponentType());
+			case SnapshotClass.OBJECT_ARRAY -> later(Array.newInstance(streamClass.type.getComponentType(), readVarint()), streamClass);
+			case SnapshotClass.COLLECTION -> fillLater(newCollection(streamClass.type), readVarint(), streamClass);
+			case SnapshotClass.MAP -> fillLater(newCollection(streamClass.type), 2 * readVarint(), streamClass);
+			case SnapshotClass.LIST_VIEW -> fillLater(new ArrayList<>(), readVarint(), streamClass);
+			case SnapshotClass.SET_VIEW -> fillLater(new LinkedHashSet<>(), readVarint(), streamClass);
+			case SnapshotClass.MAP_VIEW -> fillLater(new LinkedHashMap<>(), 2 * readVarint(), streamClass);
+			case SnapshotClass.FIXED_LIST -> Arrays.asList((Object[]) later(new Object[readVarint()], streamClass));
+			case SnapshotClass.ATOMIC_REFERENCE_ARRAY -> later(new AtomicReferenceArray<>(readVarint()), streamClass);
+			case SnapshotClass.ATOMIC -> readAtomic(streamClass.type);
+			case SnapshotClass.BITSET -> BitSet.valueOf(readLongs());
+			case SnapshotClass.CLASS -> classNamed(readString());
+			case SnapshotClass.LAMBDA -> readLambda(handle);
+			case SnapshotClass.SERIALIZED -> readSerialized();
+			default -> throw new StreamCorruptedException("Unknown kind " + streamClass.kind);
+		};
+		handles.set(handle, object);
+		// Views of collections are handed out read-only; what they contain goes into the copy behind them.
+		return switch (streamClass.kind) {
+			case SnapshotClass.LIST_VIEW -> replace(handle, Collections.unmodifiableList((List<?>) object));
+			case SnapshotClass.SET_VIEW -> replace(handle, Collections.unmodifiableSet((LinkedHashSet<?>) object));
+			case SnapshotClass.MAP_VIEW -> replace(handle, Collections.unmodifiableMap((Map<?, ?>) object));
+			default -> object;
+		};
+	}
+
+	private Object replace(int handle, Object view) {
+		handles.set(handle, view);
+		return view;
+	}
+
+	/**
+	 * Queue an object to have its contents read.
+	 */
+	private Object later(Object object, StreamClass streamClass) {
+		pending.add(object);
+		pendingClasses.add(streamClass);
+		return object;
+	}
+
+	/**
+	 * Queue a collection to have its contents read into an array, and put in at the end.
+	 *
+	 * @param length the number of elements, or twice the number of entries of a Map
+	 */
+	private Object fillLater(Object collection, int length, StreamClass streamClass) {
+		Object[] contents = new Object[length];
+		fills.add(collection);
+		fills.add(contents);
+		later(contents, streamClass);
+		return collection;
+	}
+
+	private StreamClass readClass() throws IOException {
+		int id = readVarint();
+		if (id < classes.size())
+			return classes.get(id);
+		if (id != classes.size())
+			throw new StreamCorruptedException("Bad class number " + id);
+
+		StreamClass streamClass = new StreamClass();
+		need(1);
+		streamClass.kind = buffer.get();
+		String name = readString();
+		if (needsClass(streamClass.kind)) {
+			streamClass.type = classNamed(name);
+			streamClass.local = SnapshotClass.of(streamClass.type);
+			if (streamClass.local.kind != streamClass.kind)
+				throw new InvalidClassException(name, "has changed kind since the snapshot was taken");
+		}
+		if (streamClass.kind == SnapshotClass.PLAIN) {
+			Map<String, Integer> localFields = new HashMap<>();
+			for (int i = 0; i < streamClass.local.fields.length; i++) {
+				localFields.put(SnapshotClass.keyOf(streamClass.local.fields[i]), i);
+			}
+			int count = readVarint();
+			streamClass.fields = new Field[count];
+			streamClass.codes = new char[count];
+			for (int i = 0; i < count; i++) {
+				String key = readString();
+				need(1);
+				streamClass.codes[i] = (char) buffer.get();
+				Integer local = localFields.get(key);
+				if (local == null)
+					continue;
+				if (streamClass.local.codes[local] != streamClass.codes[i])
+					throw new InvalidClassException(name, key + " has changed type since the snapshot was taken");
+				streamClass.fields[i] = streamClass.local.fields[local];
+			}
+		}
+		classes.add(streamClass);
+		return streamClass;
+	}
+
+	private void readContents(Object object, StreamClass streamClass) throws IOException {
+		switch (streamClass.kind) {
+			case SnapshotClass.PLAIN -> readFields(streamClass, object);
+			case SnapshotClass.ATOMIC_REFERENCE_ARRAY -> {
+				@SuppressWarnings("unchecked")
+				AtomicReferenceArray<Object> array = (AtomicReferenceArray<Object>) object;
+				for (int i = 0; i < array.length(); i++) {
+					array.set(i, readReference());
+				}
+			}
+			default -> {
+				// An array, or what goes into a collection at the end: elements, or keys and values
+				Object[] array = (Object[]) object;
+				int i = 0;
+				while (i < array.length) {
+					need(1);
+					if (buffer.get(buffer.position()) != SnapshotWriter.NULLS) {
+						array[i++] = readReference();
+						continue;
+					}
+					buffer.get();
+					int nulls = readVarint();
+					if (nulls > array.length - i)
+						throw new StreamCorruptedException("Run of nulls goes past the end of an array");
+					i += nulls; // already null
+				}
+			}
+		}
+	}
+
+	private void readFields(StreamClass streamClass, Object object) throws IOException {
+		try {
+			for (int i = 0; i < streamClass.codes.length; i++) {
+				Field field = streamClass.fields[i];
+				switch (streamClass.codes[i]) {
+					case 'I' -> {
+						int value = (int) unzigzag(readVarlong());
+						if (field != null) field.setInt(object, value);
+					}
+					case 'J' -> {
+						long value = unzigzag(readVarlong());
+						if (field != null) field.setLong(object, value);
+					}
+					case 'Z' -> {
+						need(1);
+						boolean value = buffer.get() != 0;
+						if (field != null) field.setBoolean(object, value);
+					}
+					case 'B' -> {
+						need(1);
+						byte value = buffer.get();
+						if (field != null) field.setByte(object, value);
+					}
+					case 'S' -> {
+						need(2);
+						short value = buffer.getShort();
+						if (field != null) field.setShort(object, value);
+					}
+					case 'C' -> {
+						need(2);
+						char value = buffer.getChar();
+						if (field != null) field.setChar(object, value);
+					}
+					case 'F' -> {
+						need(4);
+						float value = buffer.getFloat();
+						if (field != null) field.setFloat(object, value);
+					}
+					case 'D' -> {
+						need(8);
+						double value = buffer.getDouble();
+						if (field != null) field.setDouble(object, value);
+					}
+					default -> {
+						Object value = readReference();
+						if (field != null) field.set(object, value);
+					}
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e); // the fields were made accessible
+		} catch (IllegalArgumentException e) {
+			InvalidClassException problem = new InvalidClassException(streamClass.type.getName(), "a field no longer fits its value");
+			problem.initCause(e);
+			throw problem;
+		}
+	}
+
+	/**
+	 * Put the contents of every collection in, in the order they were written.
+	 */
+	@SuppressWarnings("unchecked")
+	private void fill() {
+		for (int i = 0; i < fills.size(); i += 2) {
+			Object collection = fills.get(i);
+			Object[] contents = (Object[]) fills.get(i + 1);
+			if (collection instanceof Map<?, ?> map) {
+				Map<Object, Object> target = (Map<Object, Object>) map;
+				for (int j = 0; j < contents.length; j += 2) {
+					target.put(contents[j], contents[j + 1]);
+				}
+			} else {
+				Collections.addAll((Collection<Object>) collection, contents);
+			}
+		}
+		fills.clear();
+	}
+
+	private Object allocate(StreamClass streamClass) throws IOException {
+		try {
+			return streamClass.local.allocate();
+		} catch (ReflectiveOperationException e) {
+			InvalidClassException problem = new InvalidClassException(streamClass.type.getName(), "can't be created");
+			problem.initCause(e);
+			throw problem;
+		}
+	}
+
+	private Object newCollection(Class<?> type) throws IOException {
+		try {
+			return type.getConstructor().newInstance();
+		} catch (ReflectiveOperationException e) {
+			InvalidClassException problem = new InvalidClassException(type.getName(), "can't be created");
+			problem.initCause(e);
+			throw problem;
+		}
+	}
+
+	private Object readBoxed(Class<?> type) throws IOException {
+		if (type == Integer.class) return (int) unzigzag(readVarlong());
+		if (type == Long.class) return unzigzag(readVarlong());
+		need(8);
+		if (type == Boolean.class) return buffer.get() != 0;
+		if (type == Byte.class) return buffer.get();
+		if (type == Short.class) return buffer.getShort();
+		if (type == Character.class) return buffer.getChar();
+		if (type == Float.class) return buffer.getFloat();
+		return buffer.getDouble();
+	}
+
+	private Object readAtomic(Class<?> type) throws IOException {
+		if (type == AtomicInteger.class) return new AtomicInteger((int) unzigzag(readVarlong()));
+		if (type == AtomicLong.class) return new AtomicLong(unzigzag(readVarlong()));
+		need(1);
+		return new AtomicBoolean(buffer.get() != 0);
+	}
+
+	private Object readPrimitiveArray(Class<?> component) throws IOException {
+		int length = readVarint();
+		if (component == byte.class) {
+			byte[] bytes = new byte[length];
+			for (int done = 0; done < length; ) {
+				need(1);
+				int chunk = Math.min(length - done, buffer.remaining());
+				buffer.get(bytes, done, chunk);
+				done += chunk;
+			}
+			return bytes;
+		}
+		if (component == boolean.class) {
+			boolean[] booleans = new boolean[length];
+			for (int i = 0; i < length; i++) {
+				need(1);
+				booleans[i] = buffer.get() != 0;
+			}
+			return booleans;
+		}
+		if (component == char.class) {
+			char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				need(2);
+				chars[i] = buffer.getChar();
+			}
+			return chars;
+		}
+		if (component == short.class) {
+			short[] shorts = new short[length];
+			for (int i = 0; i < length; i++) {
+				need(2);
+				shorts[i] = buffer.getShort();
+			}
+			return shorts;
+		}
+		if (component == int.class) {
+			int[] ints = new int[length];
+			for (int i = 0; i < length; i++) {
+				ints[i] = (int) unzigzag(readVarlong());
+			}
+			return ints;
+		}
+		if (component == long.class) {
+			long[] longs = new long[length];
+			for (int i = 0; i < length; i++) {
+				need(8);
+				longs[i] = buffer.getLong();
+			}
+			return longs;
+		}
+		if (component == float.class) {
+			float[] floats = new float[length];
+			for (int i = 0; i < length; i++) {
+				need(4);
+				floats[i] = buffer.getFloat();
+			}
+			return floats;
+		}
+		double[] doubles = new double[length];
+		for (int i = 0; i < length; i++) {
+			need(8);
+			doubles[i] = buffer.getDouble();
+		}
+		return doubles;
+	}
+
+	private long[] readLongs() throws IOException {
+		long[] longs = new long[readVarint()];
+		for (int i = 0; i < longs.length; i++) {
+			need(8);
+			longs[i] = buffer.getLong();
+		}
+		return longs;
+	}
+
+	private Object readLambda(int handle) throws IOException {
+		String capturingClass = (String) readReference();
+		String functionalInterfaceClass = (String) readReference();
+		String functionalInterfaceMethodName = (String) readReference();
+		String functionalInterfaceMethodSignature = (String) readReference();
+		int implMethodKind = readVarint();
+		String implClass = (String) readReference();
+		String implMethodName = (String) readReference();
+		String implMethodSignature = (String) readReference();
+		String instantiatedMethodType = (String) readReference();
+		Object[] capturedArgs = new Object[readVarint()];
+		for (int i = 0; i < capturedArgs.length; i++) {
+			capturedArgs[i] = readReference();
+		}
+
+		Class<?> capturer = classNamed(capturingClass.replace('/', '.'));
+		SerializedLambda form = new SerializedLambda(capturer, functionalInterfaceClass,
+				functionalInterfaceMethodName, functionalInterfaceMethodSignature, implMethodKind, implClass,
+				implMethodName, implMethodSignature, instantiatedMethodType, capturedArgs);
+		try {
+			Method factory = lambdaFactories.get(capturer);
+			if (factory == null) {
+				// Every class with Serializable lambdas has this, to recreate them from their SerializedLambda
+				factory = capturer.getDeclaredMethod("$deserializeLambda$", SerializedLambda.class);
+				factory.setAccessible(true);
+				lambdaFactories.put(capturer, factory);
+			}
+			return factory.invoke(null, form);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			InvalidClassException problem = new InvalidClassException(capturer.getName(),
+					"can't recreate a lambda for " + implMethodName + " (object " + handle + ")");
+			problem.initCause(e);
+			throw problem;
+		}
+	}
+
+	private Object readSerialized() throws IOException {
+		byte[] bytes = (byte[]) readPrimitiveArray(byte.class);
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		} catch (ClassNotFoundException e) {
+			InvalidClassException problem = new InvalidClassException(e.getMessage(), "not found");
+			problem.initCause(e);
+			throw problem;
+		}
+	}
+
+	private String readString() throws IOException {
+		int length = readVarint();
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = (char) readVarint();
+		}
+		return new String(chars);
+	}
+
+	private static Class<?> classNamed(String name) throws IOException {
+		switch (name) {
+			case "int": return int.class;
+			case "long": return long.class;
+			case "boolean": return boolean.class;
+			case "byte": return byte.class;
+			case "short": return short.class;
+			case "char": return char.class;
+			case "float": return float.class;
+			case "double": return double.class;
+			case "void": return void.class;
+		}
+		try {
+			return Class.forName(name, false, SnapshotReader.class.getClassLoader());
+		} catch (ClassNotFoundException e) {
+			InvalidClassException problem = new InvalidClassException(name, "not found");
+			problem.initCause(e);
+			throw problem;
+		}
+	}
+
+	/**
+	 * @return true if objects of a kind can only be recreated with the class they had
+	 */
+	private static boolean needsClass(byte kind) {
+		return switch (kind) {
+			case SnapshotClass.PLAIN, SnapshotClass.ENUM, SnapshotClass.BOXED, SnapshotClass.PRIMITIVE_ARRAY,
+					SnapshotClass.OBJECT_ARRAY, SnapshotClass.COLLECTION, SnapshotClass.MAP, SnapshotClass.ATOMIC -> true;
+			default -> false;
+		};
+	}
+
+	private static int checkIndex(int index, int size) throws StreamCorruptedException {
+		if (index < 0 || index >= size)
+			throw new StreamCorruptedException("Reference to object " + index + " of " + size);
+		return index;
+	}
+
+	private int readVarint() throws IOException {
+		return (int) readVarlong();
+	}
+
+	private long readVarlong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			need(1);
+			byte b = buffer.get();
+			value |= (long) (b & 0x7f) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new StreamCorruptedException("Bad number in snapshot");
+	}
+
+	private static long unzigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Make sure a number of bytes are in the buffer, reading more from the channel if need be.
+	 */
+	private void need(int bytes) throws IOException {
+		if (buffer.remaining() >= bytes)
+			return;
+		buffer.compact();
+		while (buffer.position() < bytes) {
+			if (channel.read(buffer) < 0) {
+				buffer.flip();
+				throw new EOFException("Snapshot ends too soon");
+			}
+		}
+		buffer.flip();
+	}
+}
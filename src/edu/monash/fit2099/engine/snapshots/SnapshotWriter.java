@@ -0,0 +1,400 @@
+package edu.monash.fit2099.engine.snapshots;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Writes a graph of objects to a channel as a snapshot that {@link SnapshotReader} can restore.
+ * <p>
+ * A snapshot is a header followed by the objects reachable from a root, breadth first. Each
+ * object is written once and referred to by number from then on, so shared objects stay
+ * shared and cycles are no trouble. Each class is described once and referred to by number
+ * from then on too, so a map full of the same few Ground types costs a few bytes per cell.
+ * Objects that belong to the running program rather than to the game -- the Display, the
+ * GroundFactory of a map -- are passed in as externals and written as their position in
+ * that list, to be swapped for their counterparts when the snapshot is read.
+ * <p>
+ * Output goes through a buffer that is written to the channel whenever it fills, so a
+ * snapshot of any size is streamed out without being held in memory. A snapshot must be
+ * taken while nothing is changing the objects in it, e.g. between turns.
+ */
+public class SnapshotWriter {
+
+	static final byte[] MAGIC = {'F', 'S', 'N', 'P'};
+	static final int VERSION = 1;
+
+	static final byte NULL = 0;
+	static final byte REFERENCE = 1;
+	static final byte EXTERNAL = 2;
+	static final byte NEW = 3;
+	static final byte END = 4;
+	/**
+	 * A run of nulls in an array, e.g. the empty cells of a map
+	 */
+	static final byte NULLS = 5;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final WritableByteChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+	private final IdentityHashMap<Object, Integer> externals = new IdentityHashMap<>();
+	private final IdentityHashMap<Object, Integer> handles = new IdentityHashMap<>();
+	private final IdentityHashMap<SnapshotClass, Integer> classIds = new IdentityHashMap<>();
+	/**
+	 * Objects that have been given a number but whose contents are still to be written
+	 */
+	private final ArrayDeque<Object> pending = new ArrayDeque<>();
+
+	/**
+	 * Constructor.
+	 *
+	 * @param channel   where the snapshot goes
+	 * @param externals objects to write as their position in this list instead of taking them apart;
+	 *                  the reader must be given a list with their counterparts in the same places
+	 */
+	public SnapshotWriter(WritableByteChannel channel, List<?> externals) {
+		this.channel = channel;
+		for (int i = 0; i < externals.size(); i++) {
+			if (externals.get(i) != null)
+				this.externals.putIfAbsent(externals.get(i), i);
+		}
+	}
+
+	/**
+	 * Write a snapshot of everything reachable from root.
+	 *
+	 * @param root the object to snapshot
+	 * @throws IOException              when writing to the channel fails
+	 * @throws NotSerializableException if something reachable can't go into a snapshot, e.g. a
+	 *                                  lambda that isn't Serializable; the channel then holds part of a snapshot
+	 */
+	public void write(Object root) throws IOException {
+		ensure(MAGIC.length + 1);
+		buffer.put(MAGIC);
+		buffer.put((byte) VERSION);
+		writeReference(root);
+		while (!pending.isEmpty()) {
+			writeContents(pending.poll());
+		}
+		ensure(1);
+		buffer.put(END);
+		flush();
+	}
+
+	private void writeReference(Object object) throws IOException {
+		ensure(1);
+		if (object == null) {
+			buffer.put(NULL);
+			return;
+		}
+		Integer handle = handles.get(object);
+		if (handle != null) {
+			buffer.put(REFERENCE);
+			writeVarint(handle);
+			return;
+		}
+		Integer external = externals.get(object);
+		if (external != null) {
+			buffer.put(EXTERNAL);
+			writeVarint(external);
+			return;
+		}
+
+		SnapshotClass snapshotClass = SnapshotClass.forWriting(object);
+		handles.put(object, handles.size());
+		buffer.put(NEW);
+		writeClass(snapshotClass);
+		switch (snapshotClass.kind) {
+			case SnapshotClass.PLAIN -> pending.add(object);
+			case SnapshotClass.ENUM -> writeVarint(((Enum<?>) object).ordinal());
+			case SnapshotClass.STRING -> writeString((String) object);
+			case SnapshotClass.BOXED -> writeBoxed(object);
+			case SnapshotClass.PRIMITIVE_ARRAY -> writePrimitiveArray(object);
+			case SnapshotClass.OBJECT_ARRAY -> {
+				writeVarint(Array.getLength(object));
+				pending.add(object);
+			}
+			case SnapshotClass.COLLECTION, SnapshotClass.LIST_VIEW, SnapshotClass.SET_VIEW, SnapshotClass.FIXED_LIST -> {
+				writeVarint(((Collection<?>) object).size());
+				pending.add(object);
+			}
+			case SnapshotClass.MAP, SnapshotClass.MAP_VIEW -> {
+				writeVarint(((Map<?, ?>) object).size());
+				pending.add(object);
+			}
+			case SnapshotClass.ATOMIC_REFERENCE_ARRAY -> {
+				writeVarint(((AtomicReferenceArray<?>) object).length());
+				pending.add(object);
+			}
+			case SnapshotClass.ATOMIC -> writeAtomic(object);
+			case SnapshotClass.BITSET -> writeLongs(((BitSet) object).toLongArray());
+			case SnapshotClass.CLASS -> writeString(((Class<?>) object).getName());
+			case SnapshotClass.LAMBDA -> writeLambda(snapshotClass, object);
+			case SnapshotClass.SERIALIZED -> writeSerialized(object);
+			default -> throw new IllegalStateException("Unknown kind " + snapshotClass.kind);
+		}
+	}
+
+	/**
+	 * Write the number of a class, and describe the class the first time it comes up.
+	 */
+	private void writeClass(SnapshotClass snapshotClass) throws IOException {
+		Integer id = classIds.get(snapshotClass);
+		if (id != null) {
+			writeVarint(id);
+			return;
+		}
+		writeVarint(classIds.size());
+		classIds.put(snapshotClass, classIds.size());
+		ensure(1);
+		buffer.put(snapshotClass.kind);
+		writeString(snapshotClass.type.getName());
+		if (snapshotClass.kind == SnapshotClass.PLAIN) {
+			writeVarint(snapshotClass.fields.length);
+			for (int i = 0; i < snapshotClass.fields.length; i++) {
+				writeString(SnapshotClass.keyOf(snapshotClass.fields[i]));
+				ensure(1);
+				buffer.put((byte) snapshotClass.codes[i]);
+			}
+		}
+	}
+
+	private void writeContents(Object object) throws IOException {
+		SnapshotClass snapshotClass = SnapshotClass.of(object.getClass());
+		switch (snapshotClass.kind) {
+			case SnapshotClass.PLAIN -> writeFields(snapshotClass, object);
+			case SnapshotClass.OBJECT_ARRAY -> writeElements((Object[]) object);
+			case SnapshotClass.MAP, SnapshotClass.MAP_VIEW -> {
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+					writeReference(entry.getKey());
+					writeReference(entry.getValue());
+				}
+			}
+			case SnapshotClass.ATOMIC_REFERENCE_ARRAY -> {
+				AtomicReferenceArray<?> array = (AtomicReferenceArray<?>) object;
+				for (int i = 0; i < array.length(); i++) {
+					writeReference(array.get(i));
+				}
+			}
+			default -> {
+				for (Object element : (Collection<?>) object) {
+					writeReference(element);
+				}
+			}
+		}
+	}
+
+	private void writeElements(Object[] array) throws IOException {
+		int i = 0;
+		while (i < array.length) {
+			if (array[i] != null || i + 1 == array.length || array[i + 1] != null) {
+				writeReference(array[i++]);
+				continue;
+			}
+			int start = i;
+			while (i < array.length && array[i] == null)
+				i++;
+			ensure(1);
+			buffer.put(NULLS);
+			writeVarint(i - start);
+		}
+	}
+
+	private void writeFields(SnapshotClass snapshotClass, Object object) throws IOException {
+		Field[] fields = snapshotClass.fields;
+		try {
+			for (int i = 0; i < fields.length; i++) {
+				Field field = fields[i];
+				ensure(10);
+				switch (snapshotClass.codes[i]) {
+					case 'I' -> writeVarlong(zigzag(field.getInt(object)));
+					case 'J' -> writeVarlong(zigzag(field.getLong(object)));
+					case 'Z' -> buffer.put((byte) (field.getBoolean(object) ? 1 : 0));
+					case 'B' -> buffer.put(field.getByte(object));
+					case 'S' -> buffer.putShort(field.getShort(object));
+					case 'C' -> buffer.putChar(field.getChar(object));
+					case 'F' -> buffer.putFloat(field.getFloat(object));
+					case 'D' -> buffer.putDouble(field.getDouble(object));
+					default -> writeReference(field.get(object));
+				}
+			}
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e); // the fields were made accessible
+		}
+	}
+
+	private void writeBoxed(Object object) throws IOException {
+		ensure(10);
+		if (object instanceof Integer i) writeVarlong(zigzag(i));
+		else if (object instanceof Long l) writeVarlong(zigzag(l));
+		else if (object instanceof Boolean b) buffer.put((byte) (b ? 1 : 0));
+		else if (object instanceof Byte b) buffer.put(b);
+		else if (object instanceof Short s) buffer.putShort(s);
+		else if (object instanceof Character c) buffer.putChar(c);
+		else if (object instanceof Float f) buffer.putFloat(f);
+		else buffer.putDouble((Double) object);
+	}
+
+	private void writeAtomic(Object object) throws IOException {
+		ensure(10);
+		if (object instanceof AtomicInteger i) writeVarlong(zigzag(i.get()));
+		else if (object instanceof AtomicLong l) writeVarlong(zigzag(l.get()));
+		else buffer.put((byte) (((AtomicBoolean) object).get() ? 1 : 0));
+	}
+
+	private void writePrimitiveArray(Object array) throws IOException {
+		int length = Array.getLength(array);
+		writeVarint(length);
+		if (array instanceof byte[] bytes) {
+			for (int done = 0; done < length; ) {
+				ensure(1);
+				int chunk = Math.min(length - done, buffer.remaining());
+				buffer.put(bytes, done, chunk);
+				done += chunk;
+			}
+		} else if (array instanceof boolean[] booleans) {
+			for (boolean b : booleans) {
+				ensure(1);
+				buffer.put((byte) (b ? 1 : 0));
+			}
+		} else if (array instanceof char[] chars) {
+			for (char c : chars) {
+				ensure(2);
+				buffer.putChar(c);
+			}
+		} else if (array instanceof short[] shorts) {
+			for (short s : shorts) {
+				ensure(2);
+				buffer.putShort(s);
+			}
+		} else if (array instanceof int[] ints) {
+			for (int i : ints) {
+				ensure(10);
+				writeVarlong(zigzag(i));
+			}
+		} else if (array instanceof long[] longs) {
+			for (long l : longs) {
+				ensure(8);
+				buffer.putLong(l);
+			}
+		} else if (array instanceof float[] floats) {
+			for (float f : floats) {
+				ensure(4);
+				buffer.putFloat(f);
+			}
+		} else {
+			for (double d : (double[]) array) {
+				ensure(8);
+				buffer.putDouble(d);
+			}
+		}
+	}
+
+	private void writeLongs(long[] longs) throws IOException {
+		writeVarint(longs.length);
+		for (long l : longs) {
+			ensure(8);
+			buffer.putLong(l);
+		}
+	}
+
+	private void writeLambda(SnapshotClass snapshotClass, Object lambda) throws IOException {
+		SerializedLambda form;
+		try {
+			form = (SerializedLambda) snapshotClass.writeReplace().invoke(lambda);
+		} catch (ReflectiveOperationException e) {
+			NotSerializableException problem = new NotSerializableException(lambda.getClass().getName());
+			problem.initCause(e);
+			throw problem;
+		}
+		writeReference(form.getCapturingClass());
+		writeReference(form.getFunctionalInterfaceClass());
+		writeReference(form.getFunctionalInterfaceMethodName());
+		writeReference(form.getFunctionalInterfaceMethodSignature());
+		writeVarint(form.getImplMethodKind());
+		writeReference(form.getImplClass());
+		writeReference(form.getImplMethodName());
+		writeReference(form.getImplMethodSignature());
+		writeReference(form.getInstantiatedMethodType());
+		writeVarint(form.getCapturedArgCount());
+		for (int i = 0; i < form.getCapturedArgCount(); i++) {
+			writeReference(form.getCapturedArg(i));
+		}
+	}
+
+	private void writeSerialized(Object object) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		writePrimitiveArray(bytes.toByteArray());
+	}
+
+	/**
+	 * Strings are written as their length and then each char as a varint, so ASCII takes a byte a char.
+	 */
+	private void writeString(String string) throws IOException {
+		writeVarint(string.length());
+		for (int i = 0; i < string.length(); i++) {
+			ensure(3);
+			writeVarint(string.charAt(i));
+		}
+	}
+
+	private void writeVarint(int value) throws IOException {
+		ensure(5);
+		while ((value & ~0x7f) != 0) {
+			buffer.put((byte) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	/**
+	 * Only call with room for 10 bytes in the buffer.
+	 */
+	private void writeVarlong(long value) {
+		while ((value & ~0x7fL) != 0) {
+			buffer.put((byte) ((value & 0x7f) | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+
+	private static long zigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Make room for a number of bytes in the buffer, writing it out if need be.
+	 */
+	private void ensure(int bytes) throws IOException {
+		if (buffer.remaining() < bytes)
+			flush();
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
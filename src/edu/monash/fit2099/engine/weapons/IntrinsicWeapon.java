@@ -2,8 +2,7 @@ package edu.monash.fit2099.engine.weapons;
 
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.positions.GameMap;
-
-import java.util.Random;
+import edu.monash.fit2099.engine.positions.RandomStream;
 
 /**
  * Class that represents a weapon for an unarmed Actor (e.g. fists, claws, etc.)
@@ -56,8 +55,7 @@ public abstract class IntrinsicWeapon implements Weapon {
      */
     @Override
     public String attack(Actor attacker, Actor target, GameMap map) {
-        Random rand = new Random();
-        if (!(rand.nextInt(100) < this.hitRate)) {
+        if (!(RandomStream.current().nextInt(100) < this.hitRate)) {
             return attacker + " misses " + target + ".";
         }
 
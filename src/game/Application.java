@@ -1,9 +1,13 @@
 package game;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 
+import edu.monash.fit2099.engine.displays.BufferedDisplay;
 import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.journal.JournalWriter;
 import edu.monash.fit2099.engine.positions.FancyGroundFactory;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
@@ -31,15 +35,53 @@ import game.weapons.Katana;
 
 /**
  * The main class to setup and run the game.
+ * <p>
+ * Usage: {@code java game.Application [journal]}. Given a journal file, the session is
+ * recorded in it, with a checksum for every turn, so it can be played again with {@link Replay}.
  *
  * @author Adrian Kristanto
  * Modified by Hassaan Usmani
  */
 public class Application {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        BufferedDisplay display = new BufferedDisplay(true);
+        Display.setInstance(display);
 
-        World world = new World(new Display());
+        // BEHOLD, ELDEN THING!
+        for (String line : FancyMessage.TITLE.split("\n")) {
+            display.println(line);
+            display.flush();
+            try {
+                Thread.sleep(200);
+            } catch (Exception exception) {
+                exception.printStackTrace();
+            }
+        }
+
+        World world = createWorld(display);
+        JournalWriter journal = null;
+        if (args.length > 0) {
+            journal = new JournalWriter(Path.of(args[0]), world.getSeed(), false, true);
+            world.setJournal(journal);
+        }
+
+        world.run();
+        display.close();
+        if (journal != null)
+            journal.close();
+    }
+
+    /**
+     * Builds the game world: both maps, their actors and items, the teleporters,
+     * the player and the day/night system.
+     *
+     * @param display the Display the world will use for all of its I/O
+     * @return a World that is ready to run
+     */
+    public static World createWorld(Display display) {
+
+        World world = new World(display);
 
         FancyGroundFactory groundFactory = new FancyGroundFactory(new Blight(),
                 new Wall(), new Floor(), new Soil());
@@ -101,16 +143,6 @@ public class Application {
 
         setupTeleporters(gameMap, limveld);
 
-        // BEHOLD, ELDEN THING!
-        for (String line : FancyMessage.TITLE.split("\n")) {
-            new Display().println(line);
-            try {
-                Thread.sleep(200);
-            } catch (Exception exception) {
-                exception.printStackTrace();
-            }
-        }
-
         Player player = new Player("Farmer", '@', 100);
         world.addPlayer(player, gameMap.at(23, 10));
 
@@ -130,7 +162,7 @@ public class Application {
         TimeManager limTimeManager = new TimeManager(limveld, player);
         limveld.addActor(new TimeController(limTimeManager), limveld.at(0, 12));
 
-        world.run();
+        return world;
     }
 
     /**
@@ -152,13 +184,13 @@ public class Application {
         // Valley -> Limveld teleporter
         Location valleyTeleporterLoc = valley.at(24, 10);
         TeleportationCircle valleyTeleporter = new TeleportationCircle();
-        valleyTeleporterLoc.setGround(valleyTeleporter);
         valleyTeleporter.addDestination(limveld.at(0, 0));
+        valleyTeleporterLoc.setGround(valleyTeleporter);
 
         // Limveld -> Valley teleporter
         Location limveldTeleporterLoc = limveld.at(0, 0);
         TeleportationCircle limveldTeleporter = new TeleportationCircle();
-        limveldTeleporterLoc.setGround(limveldTeleporter);
         limveldTeleporter.addDestination(valley.at(24, 10));
+        limveldTeleporterLoc.setGround(limveldTeleporter);
     }
 }
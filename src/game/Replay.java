@@ -0,0 +1,56 @@
+package game;
+
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.journal.JournalReader;
+import edu.monash.fit2099.engine.journal.ReplayDisplay;
+import edu.monash.fit2099.engine.positions.SimulationReport;
+import edu.monash.fit2099.engine.positions.World;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Plays a session recorded by {@link Application} or {@link Simulation} again, headless and
+ * at full speed, and prints throughput figures.
+ *
+ * The world is the same one {@link Application} builds, and the Farmer makes the choices
+ * that were recorded. If the journal carries checksums, the replay stops with an error on the
+ * first turn that doesn't match the recorded session.
+ * <p>
+ * Usage: {@code java game.Replay <journal> [threads]}
+ * <ul>
+ * <li>journal: the recorded session</li>
+ * <li>threads: as for {@link Simulation}; it must be 0 if the session was played on the
+ * main thread, and more than 0 if it wasn't (default 0, or the number of processors if the
+ * journal says the turns were planned concurrently)</li>
+ * </ul>
+ */
+public class Replay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: Replay <journal> [threads]");
+            System.exit(2);
+        }
+
+        JournalReader journal = new JournalReader(Path.of(args[0]));
+        ReplayDisplay display = new ReplayDisplay(journal);
+        Display.setInstance(display);
+        World world = Application.createWorld(display);
+        world.setSeed(journal.seed());
+        int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : journal.plansTurnsConcurrently() ? Runtime.getRuntime().availableProcessors() : 0;
+        ForkJoinPool pool = null;
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            world.setMapTickExecutor(pool);
+            world.setTurnPlanningExecutor(pool);
+        }
+        SimulationReport report = world.replay(journal);
+        if (pool != null)
+            pool.shutdown();
+
+        System.out.println(report);
+    }
+}
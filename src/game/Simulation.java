@@ -0,0 +1,71 @@
+package game;
+
+import edu.monash.fit2099.engine.actors.EntityStore;
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.displays.HeadlessDisplay;
+import edu.monash.fit2099.engine.journal.JournalWriter;
+import edu.monash.fit2099.engine.positions.SimulationReport;
+import edu.monash.fit2099.engine.positions.World;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the game headless for a fixed number of turns and prints throughput figures.
+ *
+ * The world is the same one {@link Application} builds, but nothing is drawn and the
+ * Farmer is driven by a key script instead of the keyboard.
+ * <p>
+ * Usage: {@code java game.Simulation [ticks] [seconds] [keys] [threads] [journal] [entities]}
+ * <ul>
+ * <li>ticks: the maximum number of turns to run (default 1000)</li>
+ * <li>seconds: the wall-clock budget, 0 for none (default 0)</li>
+ * <li>keys: the menu keys the Farmer presses, in a loop (default "8462a")</li>
+ * <li>threads: the number of threads that tick the maps and plan the NPCs' turns, 0 to
+ * play everything on the main thread (default 0)</li>
+ * <li>journal: a file to record the run in, with a checksum for every turn, for
+ * {@link Replay}; an empty name, e.g. {@code ""}, records nothing, so that entities can be
+ * given without a journal (default none)</li>
+ * <li>entities: true to keep the actors in an entity store, so that the time phases sweep it
+ * instead of every location (default false)</li>
+ * </ul>
+ */
+public class Simulation {
+
+    private static final int DEFAULT_TICKS = 1000;
+    private static final String DEFAULT_SCRIPT = "8462a";
+
+    public static void main(String[] args) throws IOException {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TICKS;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 0;
+        String script = args.length > 2 ? args[2] : DEFAULT_SCRIPT;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        Path journalFile = args.length > 4 && !args[4].isEmpty() ? Path.of(args[4]) : null;
+        boolean entities = args.length > 5 && Boolean.parseBoolean(args[5]);
+
+        HeadlessDisplay display = new HeadlessDisplay(script);
+        Display.setInstance(display);
+        World world = Application.createWorld(display);
+        if (entities)
+            world.setEntityStore(new EntityStore());
+        JournalWriter journal = null;
+        if (journalFile != null) {
+            journal = new JournalWriter(journalFile, world.getSeed(), threads > 0, true);
+            world.setJournal(journal);
+        }
+        ForkJoinPool pool = null;
+        if (threads > 0) {
+            pool = new ForkJoinPool(threads);
+            world.setMapTickExecutor(pool);
+            world.setTurnPlanningExecutor(pool);
+        }
+        SimulationReport report = world.runFor(ticks, seconds * 1000);
+        if (pool != null)
+            pool.shutdown();
+        if (journal != null)
+            journal.close();
+
+        System.out.println(report);
+    }
+}
@@ -70,6 +70,19 @@ public class AttackAction extends Action {
         return result;
     }
 
+    /**
+     * The target must still be on the map and the attacker must still have something to attack with;
+     * an earlier turn may have finished the target off or taken the attacker's intrinsic weapon away.
+     *
+     * @param actor The actor performing the action.
+     * @param map The map the actor is on.
+     * @return true if the attack can still go ahead
+     */
+    @Override
+    public boolean canExecute(Actor actor, GameMap map) {
+        return map.contains(target) && (weapon != null || actor.getIntrinsicWeapon() != null);
+    }
+
     @Override
     public String menuDescription(Actor actor) {
         return actor + " attacks " + target + " at " + direction + " with " + (weapon != null ? weapon : "Intrinsic Weapon");
@@ -3,10 +3,10 @@ package game.actions;
 import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.positions.GameMap;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import game.attributes.Status;
 import game.interfaces.MonologueSource;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Represents an action where an actor listens to another actor's monologue.
@@ -46,7 +46,7 @@ public class ListenAction extends Action {
 
             List<String> monologues = speaker.getMonologues(actor, map);
             if (!monologues.isEmpty()) {
-                return target + " says: \"" + monologues.get(new Random().nextInt(monologues.size())) + "\"";
+                return target + " says: \"" + monologues.get(RandomStream.current().nextInt(monologues.size())) + "\"";
             }
         }
         
@@ -39,6 +39,18 @@ public class TeleportAction extends Action {
         return actor + " teleports to " + destination.map();
     }
 
+    /**
+     * Teleporting is only possible while nobody is standing on the destination.
+     *
+     * @param actor The actor performing the action
+     * @param map The current game map
+     * @return true if the destination is free
+     */
+    @Override
+    public boolean canExecute(Actor actor, GameMap map) {
+        return !destination.containsAnActor();
+    }
+
     /**
      * Provides menu description for teleportation.
      *
@@ -51,6 +51,18 @@ public abstract class NPC extends Actor {
         return this.behaviours.get(index);
     }
 
+    /**
+     * NPCs only pick an Action from their behaviours and change themselves while doing so,
+     * so their turns can be planned alongside each other. What they print, including through
+     * Display.getInstance(), is held back and shown in turn order.
+     *
+     * @return true
+     */
+    @Override
+    public boolean canPlanTurnConcurrently() {
+        return true;
+    }
+
     /**
      * Returns a string representation of the NPC.
      * This includes the NPC's name, current health, and remaining rot countdown.
@@ -61,8 +73,8 @@ public abstract class NPC extends Actor {
     public String toString() {
 
         return name + " (" +
-                this.getAttribute(BaseActorAttributes.HEALTH) + "/" +
-                this.getAttributeMaximum(BaseActorAttributes.HEALTH) +
+                this.getIntAttribute(BaseActorAttributes.HEALTH) + "/" +
+                this.getIntAttributeMaximum(BaseActorAttributes.HEALTH) +
                 " HP, " +
                 this.getAttribute(RotCapability.ROT_COUNTDOWN) + "/" +
                 this.getAttributeMaximum(RotCapability.ROT_COUNTDOWN) +
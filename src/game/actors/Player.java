@@ -33,8 +33,6 @@ public class Player extends Actor implements ActionHistoryProvider {
 
     /** The Player’s rune wallet */
     private List<String> actionHistory = new ArrayList<>();
-    private final BaseActorAttribute healthAttribute;
-    private final BaseActorAttribute staminaAttribute;
 
     /**
      * Constructor to create a Player instance.
@@ -49,11 +47,9 @@ public class Player extends Actor implements ActionHistoryProvider {
         this.addCapability(Status.FARMER);
         this.addCapability(Status.FOLLOWABLE);
 
-        this.healthAttribute = new BaseActorAttribute(hitPoints);
-        addAttribute(BaseActorAttributes.HEALTH, healthAttribute);
+        addAttribute(BaseActorAttributes.HEALTH, new BaseActorAttribute(hitPoints));
 
-        this.staminaAttribute = new BaseActorAttribute(MAX_STAMINA);
-        addAttribute(BaseActorAttributes.STAMINA, staminaAttribute);
+        addAttribute(BaseActorAttributes.STAMINA, new BaseActorAttribute(MAX_STAMINA));
 
         this.setIntrinsicWeapon(new BareFist());
 
@@ -78,7 +74,7 @@ public class Player extends Actor implements ActionHistoryProvider {
     public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
         // Check if the Player is conscious
         if (!this.isConscious()) {
-            new Display().println(unconscious(map));
+            display.println(unconscious(map));
             return new DoNothingAction();
         }
         // Handle multi-turn actions
@@ -91,6 +87,16 @@ public class Player extends Actor implements ActionHistoryProvider {
         return chosen;
     }
 
+    /**
+     * The player chooses each action from a menu.
+     *
+     * @return true
+     */
+    @Override
+    public boolean readsInput() {
+        return true;
+    }
+
     /**
      * Handles the sequence when the player becomes unconscious (dies).
      *
@@ -100,7 +106,7 @@ public class Player extends Actor implements ActionHistoryProvider {
      */
     @Override
     public String unconscious(Actor actor, GameMap map) {
-        new Display().println(FancyMessage.YOU_DIED);
+        Display.getInstance().println(FancyMessage.YOU_DIED);
         return super.unconscious(actor, map);
     }
 
@@ -112,10 +118,10 @@ public class Player extends Actor implements ActionHistoryProvider {
     @Override
     public String toString() {
         return name + " (" +
-                this.getAttribute(BaseActorAttributes.HEALTH) + "/" +
-                this.getAttributeMaximum(BaseActorAttributes.HEALTH) + " HP, " +
-                this.getAttribute(BaseActorAttributes.STAMINA) + "/" +
-                this.getAttributeMaximum(BaseActorAttributes.STAMINA) + " Stamina, " +
+                this.getIntAttribute(BaseActorAttributes.HEALTH) + "/" +
+                this.getIntAttributeMaximum(BaseActorAttributes.HEALTH) + " HP, " +
+                this.getIntAttribute(BaseActorAttributes.STAMINA) + "/" +
+                this.getIntAttributeMaximum(BaseActorAttributes.STAMINA) + " Stamina, " +
                 "Runes: " + this.getBalance() +
                 ")";
     }
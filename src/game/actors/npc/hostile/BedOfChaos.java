@@ -7,10 +7,11 @@ import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import edu.monash.fit2099.engine.weapons.Weapon;
 import game.actions.AttackAction;
 import game.actors.NPC;
@@ -23,7 +24,6 @@ import game.weapons.Leaf;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * The Bed of Chaos boss is a stationary tree-like enemy.
@@ -34,7 +34,6 @@ import java.util.Random;
 public class BedOfChaos extends NPC {
 
     private static final int BASE_DAMAGE = 25;
-    private final Random rng = new Random();
     private final List<PlantPart> parts = new ArrayList<>();
 
     /**
@@ -110,22 +109,24 @@ public class BedOfChaos extends NPC {
 
         updateTotalDamage();
 
-        for (Exit exit : map.locationOf(this).getExits()) {
-            Location neighborLoc = exit.getDestination();
-            if (neighborLoc.getActor() != null &&
+        Location here = map.locationOf(this);
+        for (int i = 0; i < Direction.count(); i++) {
+            Direction direction = Direction.get(i);
+            Location neighborLoc = here.neighbour(direction);
+            if (neighborLoc != null && neighborLoc.getActor() != null &&
                     neighborLoc.getActor().hasCapability(Status.HOSTILE_TO_ENEMY)) {
-                return new AttackAction(neighborLoc.getActor(), exit.getName());
+                return new AttackAction(neighborLoc.getActor(), direction.getName());
             }
         }
 
-        int currentHP = this.getAttribute(BaseActorAttributes.HEALTH);
+        int currentHP = this.getIntAttribute(BaseActorAttributes.HEALTH);
         int maxHP     = this.getAttributeMaximum(BaseActorAttributes.HEALTH);
         display.println("Bed of Chaos (" + currentHP + "/" + maxHP + ") is growing...");
         List<PlantPart> snapshot = new ArrayList<>(parts);
         boolean anyLeafHealed = false;
 
         PlantPart newPart;
-        if (rng.nextBoolean()) {
+        if (RandomStream.current().nextBoolean()) {
             newPart = new Branch();
             parts.add(newPart);
             display.println("it grows a Branch...");
@@ -141,16 +142,16 @@ public class BedOfChaos extends NPC {
 
         // Apply growth effects of existing parts
         for (PlantPart part : snapshot) {
-            int hpBefore = this.getAttribute(BaseActorAttributes.HEALTH);
+            int hpBefore = this.getIntAttribute(BaseActorAttributes.HEALTH);
             part.grow(this, display);
-            int hpAfter = this.getAttribute(BaseActorAttributes.HEALTH);
+            int hpAfter = this.getIntAttribute(BaseActorAttributes.HEALTH);
             if (hpAfter > hpBefore) {
                 anyLeafHealed = true;
             }
         }
 
         if (anyLeafHealed) {
-            int newHP  = this.getAttribute(BaseActorAttributes.HEALTH);
+            int newHP  = this.getIntAttribute(BaseActorAttributes.HEALTH);
             int newMax = this.getAttributeMaximum(BaseActorAttributes.HEALTH);
             display.println("Bed of Chaos (" + newHP + "/" + newMax + ") is healed");
         }
@@ -164,7 +165,7 @@ public class BedOfChaos extends NPC {
      * @param amount the maximum healing amount
      */
     public void heal(int amount) {
-        int currentHP = this.getAttribute(BaseActorAttributes.HEALTH);
+        int currentHP = this.getIntAttribute(BaseActorAttributes.HEALTH);
         int maxHP     = this.getAttributeMaximum(BaseActorAttributes.HEALTH);
         int toHeal    = Math.min(amount, maxHP - currentHP);
         if (toHeal > 0) {
@@ -181,7 +182,7 @@ public class BedOfChaos extends NPC {
      */
     @Override
     public String toString() {
-        int currentHP = this.getAttribute(BaseActorAttributes.HEALTH);
+        int currentHP = this.getIntAttribute(BaseActorAttributes.HEALTH);
         int maxHP     = this.getAttributeMaximum(BaseActorAttributes.HEALTH);
         return name + " (" + currentHP + "/" + maxHP + " HP)";
     }
@@ -7,7 +7,7 @@ import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.weapons.Weapon;
@@ -66,7 +66,7 @@ public class Guts extends NPC implements MonologueSource {
         List<String> monologues = new ArrayList<>();
 
         // Check if the listener has health above 50
-        if (listener.getAttribute(BaseActorAttributes.HEALTH) <= 50) {
+        if (listener.getIntAttribute(BaseActorAttributes.HEALTH) <= 50) {
             monologues.add("WEAK! TOO WEAK TO FIGHT ME!");
         }
         
@@ -93,18 +93,20 @@ public class Guts extends NPC implements MonologueSource {
     public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
         
         // Check if Guts is in a location with exits
-        for (Exit exit : map.locationOf(this).getExits()) {
+        Location here = map.locationOf(this);
+        for (int i = 0; i < Direction.count(); i++) {
 
-            Location dest = exit.getDestination();
+            Direction direction = Direction.get(i);
+            Location dest = here.neighbour(direction);
 
-            if (dest.containsAnActor()) {
+            if (dest != null && dest.containsAnActor()) {
 
                 Actor a = dest.getActor();
 
-                if (a.getAttribute(BaseActorAttributes.HEALTH) > 50) {
+                if (a.getIntAttribute(BaseActorAttributes.HEALTH) > 50) {
                     BareFist fists = new BareFist();
                     fists.updateDamage(this.hasCapability(Status.NIGHT_DAMAGE_MULTIPLIER));
-                    return new AttackAction(a, exit.getName(), fists);
+                    return new AttackAction(a, direction.getName(), fists);
                 }
             }
         }
@@ -127,8 +129,7 @@ public class Guts extends NPC implements MonologueSource {
         ActionList actions = new ActionList();
 
         if (map.locationOf(this) != null && map.locationOf(otherActor) != null &&
-                map.locationOf(this).getExits().stream()
-                        .anyMatch(e -> e.getDestination().equals(map.locationOf(otherActor)))) {
+                map.locationOf(this).isNeighbour(map.locationOf(otherActor))) {
 
             actions.add(new ListenAction(this, this));
         }
@@ -161,6 +162,6 @@ public class Guts extends NPC implements MonologueSource {
      */
     @Override
     public String toString() {
-        return name + " (" + getAttribute(BaseActorAttributes.HEALTH) + "/" + getAttributeMaximum(BaseActorAttributes.HEALTH) + " HP)";
+        return name + " (" + getIntAttribute(BaseActorAttributes.HEALTH) + "/" + getIntAttributeMaximum(BaseActorAttributes.HEALTH) + " HP)";
     }
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.actions.DoNothingAction;
 import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
+import edu.monash.fit2099.engine.actors.attributes.BaseActorAttribute;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
@@ -13,6 +15,7 @@ import edu.monash.fit2099.engine.weapons.Weapon;
 import game.actions.AttackAction;
 import game.actions.ConsumeAction;
 import game.actors.NPC;
+import game.attributes.EggCapability;
 import game.attributes.ItemCapability;
 import game.attributes.Status;
 import game.behaviours.BehaviourStrategy;
@@ -31,7 +34,6 @@ import game.items.EggItem;
  * Modified by: Hassaan Usmani
  */
 public class GoldenBeetle extends NPC implements Consumable {
-    private int eggCounter = 0;
 
     public GoldenBeetle() {
         this(new PrioritySelectionStrategy());
@@ -44,6 +46,9 @@ public class GoldenBeetle extends NPC implements Consumable {
     public GoldenBeetle(BehaviourStrategy selectionStrategy) {
         super("Golden Beetle", 'b', 25, selectionStrategy);
         this.addCapability(Status.IMMUNE_TO_ROT);
+        // Count the turns towards the next egg, up to the 5 it takes to lay one
+        this.addAttribute(EggCapability.EGG_COUNTER, new BaseActorAttribute(5));
+        this.modifyAttribute(EggCapability.EGG_COUNTER, ActorAttributeOperations.UPDATE, 0);
         this.addBehaviour(new FollowBehaviour());
         this.addBehaviour(new WanderBehaviour());
     }
@@ -98,9 +103,9 @@ public class GoldenBeetle extends NPC implements Consumable {
     @Override
     public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
         // Priority 1: Egg laying
-        eggCounter++;
+        this.addIntAttribute(EggCapability.EGG_COUNTER, 1);
 
-        if (eggCounter >= 5) {
+        if (this.getIntAttribute(EggCapability.EGG_COUNTER) >= 5) {
 
             Location currentLoc = map.locationOf(this);
 
@@ -115,7 +120,7 @@ public class GoldenBeetle extends NPC implements Consumable {
                         20
                 ));
 
-                eggCounter = 0;
+                this.modifyAttribute(EggCapability.EGG_COUNTER, ActorAttributeOperations.UPDATE, 0);
                 // When egg laying is done, other actions for this Golden Beetle will be skipped
                 return new DoNothingAction();
             }
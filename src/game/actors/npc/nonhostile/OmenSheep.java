@@ -4,18 +4,20 @@ import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.actions.DoNothingAction;
 import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.actors.attributes.CountdownAttribute;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttribute;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.weapons.Weapon;
 import game.actions.AttackAction;
 import game.actions.CureCreatureAction;
 import game.actors.NPC;
+import game.attributes.EggCapability;
 import game.attributes.ItemCapability;
 import game.attributes.RotCapability;
 import game.attributes.Status;
@@ -44,7 +46,7 @@ import game.items.EggItem;
  * Modified by: Tadiwa Kennedy Vambe, Ibrahim, Muhammad Fahim, Faraz Rasool
  */
 public class OmenSheep extends NPC implements CurableCreature {
-    private int eggCounter = 0;
+    private final CountdownAttribute rotCountdown = new CountdownAttribute(15);
 
     public OmenSheep() {
         this(new PrioritySelectionStrategy());
@@ -59,7 +61,10 @@ public class OmenSheep extends NPC implements CurableCreature {
     public OmenSheep(BehaviourStrategy selectionStrategy) {
         super("Omen Sheep", 'm', 75, selectionStrategy);
         // Set the rot countdown attribute to 15 turns
-        this.addAttribute(RotCapability.ROT_COUNTDOWN, new BaseActorAttribute(15));
+        this.addAttribute(RotCapability.ROT_COUNTDOWN, rotCountdown);
+        // Count the turns towards the next egg, up to the 7 it takes to lay one
+        this.addAttribute(EggCapability.EGG_COUNTER, new BaseActorAttribute(7));
+        this.modifyAttribute(EggCapability.EGG_COUNTER, ActorAttributeOperations.UPDATE, 0);
         this.addBehaviour(new WanderBehaviour());
         this.addCapability(Status.BECOMES_HOSTILE);
     }
@@ -79,32 +84,21 @@ public class OmenSheep extends NPC implements CurableCreature {
     @Override
     public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
 
-        // Get the current rot countdown
-        Integer turns = getAttribute(RotCapability.ROT_COUNTDOWN);
+        // The rot countdown runs on the world clock from the first turn on
+        rotCountdown.start(map.getTimers());
 
-        // Check if the rot countdown attribute is present
-        if (turns != null) {
+        // If the countdown reaches 0, the Omen Sheep becomes unconscious
+        if (getIntAttribute(RotCapability.ROT_COUNTDOWN) <= 0) {
 
-            // Decrease the rot countdown by 1
-            modifyAttribute(
-                    RotCapability.ROT_COUNTDOWN,
-                    ActorAttributeOperations.DECREASE,
-                    1
-            );
-
-            // If the countdown reaches 0, the Spirit Goat becomes unconscious
-            if (getAttribute(RotCapability.ROT_COUNTDOWN) <= 0) {
-
-                // Print the unconscious message and return a DoNothingAction
-                new Display().println(this.unconscious(map));
-                return new DoNothingAction();
-            }
+            // Print the unconscious message and return a DoNothingAction
+            display.println(this.unconscious(map));
+            return new DoNothingAction();
         }
 
         //logic for laying egg
-        eggCounter++;
+        this.addIntAttribute(EggCapability.EGG_COUNTER, 1);
 
-        if (eggCounter >= 7) {
+        if (this.getIntAttribute(EggCapability.EGG_COUNTER) >= 7) {
 
             Location currentLoc = map.locationOf(this);
 
@@ -120,15 +114,17 @@ public class OmenSheep extends NPC implements CurableCreature {
                         10)
                 );
 
-                eggCounter = 0;
+                this.modifyAttribute(EggCapability.EGG_COUNTER, ActorAttributeOperations.UPDATE, 0);
             }
         }
 
         if (this.hasCapability(Status.HOSTILE_TO_FARMER)) {
-            for (Exit exit : map.locationOf(this).getExits()) {
-                Location dest = exit.getDestination();
-                if (dest.containsAnActor() && dest.getActor().hasCapability(Status.FARMER)) {
-                    return new AttackAction(dest.getActor(), exit.getName());
+            Location here = map.locationOf(this);
+            for (int i = 0; i < Direction.count(); i++) {
+                Direction direction = Direction.get(i);
+                Location dest = here.neighbour(direction);
+                if (dest != null && dest.containsAnActor() && dest.getActor().hasCapability(Status.FARMER)) {
+                    return new AttackAction(dest.getActor(), direction.getName());
                 }
             }
         }
@@ -209,13 +205,7 @@ public class OmenSheep extends NPC implements CurableCreature {
         Location here = map.locationOf(this);
 
         // Look through all adjacent tiles
-        for (Exit exit: here.getExits()) {
-
-            // Get the location of the exit
-            Location adj = exit.getDestination();
-            // Set the exit location contains an infested ground
-            adj.setGround(new InheritreeGround());
-        }
+        here.forEachNeighbour((direction, adj) -> adj.setGround(new InheritreeGround()));
 
         return farmer + " sprouts Inheritrees around the sheep.";
     }
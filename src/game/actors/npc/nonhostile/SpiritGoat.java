@@ -5,10 +5,10 @@ import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.actions.DoNothingAction;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
-import edu.monash.fit2099.engine.actors.attributes.BaseActorAttribute;
+import edu.monash.fit2099.engine.actors.attributes.CountdownAttribute;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.weapons.Weapon;
@@ -42,6 +42,8 @@ import game.util.EntityUtils;
  * Modified by Muhammad Fahim Mohamed Sirajudeen, Tadiwa Kennedy Vambe, Faraz Rasool
  */
 public class SpiritGoat extends NPC implements CurableCreature {
+    private final CountdownAttribute rotCountdown = new CountdownAttribute(10);
+
     public SpiritGoat() {
         this(new PrioritySelectionStrategy());
     }
@@ -55,7 +57,7 @@ public class SpiritGoat extends NPC implements CurableCreature {
     public SpiritGoat(BehaviourStrategy selectionStrategy) {
         super("Spirit Goat", 'y', 50, selectionStrategy);
         // Set the rot countdown attribute to 10 turns
-        addAttribute(RotCapability.ROT_COUNTDOWN, new BaseActorAttribute(10));
+        addAttribute(RotCapability.ROT_COUNTDOWN, rotCountdown);
         this.addBehaviour(new WanderBehaviour());
         this.addCapability(Status.BECOMES_HOSTILE);
     }
@@ -74,26 +76,15 @@ public class SpiritGoat extends NPC implements CurableCreature {
     @Override
     public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
 
-        // Get the current rot countdown
-        Integer turns = getAttribute(RotCapability.ROT_COUNTDOWN);
-
-        // Check if the rot countdown attribute is present
-        if (turns != null) {
+        // The rot countdown runs on the world clock from the first turn on
+        rotCountdown.start(map.getTimers());
 
-            // Decrease the rot countdown by 1
-            modifyAttribute(
-                    RotCapability.ROT_COUNTDOWN,
-                    ActorAttributeOperations.DECREASE,
-                    1
-            );
+        // If the countdown reaches 0, the Spirit Goat becomes unconscious
+        if (getIntAttribute(RotCapability.ROT_COUNTDOWN) <= 0) {
 
-            // If the countdown reaches 0, the Spirit Goat becomes unconscious
-            if (getAttribute(RotCapability.ROT_COUNTDOWN) <= 0) {
-
-                // Print the unconscious message and return a DoNothingAction
-                new Display().println(this.unconscious(map));
-                return new DoNothingAction();
-            }
+            // Print the unconscious message and return a DoNothingAction
+            display.println(this.unconscious(map));
+            return new DoNothingAction();
         }
         // Reproduction logic
         Location currentLocation = map.locationOf(this);
@@ -110,10 +101,12 @@ public class SpiritGoat extends NPC implements CurableCreature {
         }
 
         if (this.hasCapability(Status.HOSTILE_TO_FARMER)) {
-            for (Exit exit : map.locationOf(this).getExits()) {
-                Location dest = exit.getDestination();
-                if (dest.containsAnActor() && dest.getActor().hasCapability(Status.FARMER)) {
-                    return new AttackAction(dest.getActor(), exit.getName());
+            Location here = map.locationOf(this);
+            for (int i = 0; i < Direction.count(); i++) {
+                Direction direction = Direction.get(i);
+                Location dest = here.neighbour(direction);
+                if (dest != null && dest.containsAnActor() && dest.getActor().hasCapability(Status.FARMER)) {
+                    return new AttackAction(dest.getActor(), direction.getName());
                 }
             }
         }
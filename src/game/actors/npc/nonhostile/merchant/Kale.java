@@ -8,7 +8,6 @@ import edu.monash.fit2099.engine.actors.Behaviour;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.displays.Display;
 import edu.monash.fit2099.engine.items.Item;
-import edu.monash.fit2099.engine.positions.Exit;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.weapons.Weapon;
@@ -19,7 +18,6 @@ import game.attributes.ItemCapability;
 import game.attributes.Status;
 import game.behaviours.WanderBehaviour;
 import game.interfaces.MonologueSource;
-import game.util.EntityUtils;
 import game.weapons.Broadsword;
 import game.weapons.DragonslayerGreatsword;
 import java.util.ArrayList;
@@ -43,6 +41,11 @@ import java.util.List;
  */
 public class Kale extends NPC implements MonologueSource, Merchant {
 
+    /**
+     * How many steps away cursed ground still makes Kale uneasy.
+     */
+    private static final int CURSED_RANGE = 2;
+
     /**
      * Constructor for Merchant Kale.
      * Initializes the merchant with a name, display character, and hit points.
@@ -74,21 +77,15 @@ public class Kale extends NPC implements MonologueSource, Merchant {
 
     /**
      * Checks if the given location is near cursed entities.
-     * This is determined by checking if any of the exits from the location
-     * lead to a ground with the CURSED capability.
+     * This is determined by checking if there is a ground with the CURSED capability
+     * next to any of the location's neighbours, i.e. within two steps.
      *
      * @param loc The location to check
      * @return true if near cursed entities, false otherwise
      */
     private boolean isNearCursedEntities(Location loc) {
-        for (Exit exit : loc.getExits()) {
-
-            if (EntityUtils.hasNearbyWithCapability(exit.getDestination(), GameCapability.CURSED)) {
-                return true;
-            }
-
-        }
-        return false;
+        int distance = loc.map().groundDistance(loc, GameCapability.CURSED);
+        return distance >= 0 && distance <= CURSED_RANGE;
     }
 
     /* ------------------------ Monologues ------------------------ */
@@ -163,8 +160,7 @@ public class Kale extends NPC implements MonologueSource, Merchant {
         }
 
         if (map.locationOf(this) != null && map.locationOf(otherActor) != null &&
-                map.locationOf(this).getExits().stream()
-                        .anyMatch(e -> e.getDestination().equals(map.locationOf(otherActor)))) {
+                map.locationOf(this).isNeighbour(map.locationOf(otherActor))) {
 
             if (!getMonologues(otherActor, map).isEmpty()) {
                 list.add(new ListenAction(this, this));
@@ -112,8 +112,7 @@ public class Sellen extends NPC implements MonologueSource, Merchant {
 
         /* In speaking range? */
         if (map.locationOf(this) != null && map.locationOf(otherActor) != null &&
-                map.locationOf(this).getExits().stream()
-                        .anyMatch(e -> e.getDestination().equals(map.locationOf(otherActor)))) {
+                map.locationOf(this).isNeighbour(map.locationOf(otherActor))) {
 
             /* Listen */
             if (!getMonologues(otherActor, map).isEmpty()) {
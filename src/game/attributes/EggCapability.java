@@ -0,0 +1,11 @@
+package game.attributes;
+
+/**
+ * Represents the capability related to creatures that lay eggs.
+ * 
+ * This enum is used as a key in the Actor's attribute map to count the turns
+ * since the creature last laid an egg.
+ */
+public enum EggCapability {
+    EGG_COUNTER
+}
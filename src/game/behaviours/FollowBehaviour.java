@@ -2,7 +2,8 @@ package game.behaviours;
 
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actions.Action;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
+import edu.monash.fit2099.engine.positions.FlowField;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.actions.MoveActorAction;
@@ -29,7 +30,8 @@ public class FollowBehaviour implements Behaviour {
      * Determines the next action for the actor to move closer to a target actor.
      * If the target is not already set, it searches for a followable actor in the surrounding exits.
      * If the target is unreachable or not on the map, it returns null.
-     * Otherwise, it calculates the shortest path to the target and returns a move action.
+     * Otherwise, it takes the next step of the shortest path to the target, found with a flow field
+     * shared by all the actors following it, and returns a move action.
      *
      * @param actor The actor performing the behaviour
      * @param map   The game map containing the actor and target
@@ -41,9 +43,10 @@ public class FollowBehaviour implements Behaviour {
 
         if (target == null) {
 
-            for (Exit exit : here.getExits()) {
+            for (int d = 0; d < Direction.count(); d++) {
 
-                Actor candidate = exit.getDestination().getActor();
+                Location neighbour = here.neighbour(Direction.get(d));
+                Actor candidate = neighbour == null ? null : neighbour.getActor();
 
                 if (candidate != null && candidate.hasCapability(Status.FOLLOWABLE)) {
 
@@ -56,36 +59,19 @@ public class FollowBehaviour implements Behaviour {
 
             return null;
 
-        Location there = map.locationOf(target);
+        // One field per tick is shared by everything following the target
+        FlowField field = map.flowFieldTo(target, actor);
 
-        int currentDistance = distance(here, there);
+        if (field == null)
 
-        for (Exit exit : here.getExits()) {
-
-            Location destination = exit.getDestination();
-
-            if (destination.canActorEnter(actor)) {
-
-                int newDistance = distance(destination, there);
+            return null;
 
-                if (newDistance < currentDistance) {
+        Direction direction = field.nextStep(actor, here);
 
-                    return new MoveActorAction(destination, exit.getName());
-                }
-            }
-        }
+        if (direction == null)
 
-        return null;
-    }
+            return null;
 
-    /**
-     * Compute the Manhattan distance between two locations.
-     *
-     * @param a the first location
-     * @param b the first location
-     * @return the number of steps between a and b if you only move in the four cardinal directions.
-     */
-    private int distance(Location a, Location b) {
-        return Math.abs(a.x() - b.x()) + Math.abs(a.y() - b.y());
+        return new MoveActorAction(here.neighbour(direction), direction.getName());
     }
 }
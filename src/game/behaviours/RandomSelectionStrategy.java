@@ -4,8 +4,8 @@ import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actions.Action;
 import edu.monash.fit2099.engine.actors.Behaviour;
 import edu.monash.fit2099.engine.positions.GameMap;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Random behaviour selection strategy.
@@ -16,7 +16,6 @@ import java.util.Random;
  * @author Tadiwa Kennedy Vambe
  */
 public class RandomSelectionStrategy implements BehaviourStrategy {
-    private final Random random = new Random();
 
     /**
      * Randomly selects a behaviour and returns its action.
@@ -30,7 +29,7 @@ public class RandomSelectionStrategy implements BehaviourStrategy {
     public Action selectBehaviour(List<Behaviour> behaviours, Actor actor, GameMap map) {
         if (behaviours.isEmpty()) return null;
 
-        int index = random.nextInt(behaviours.size());
+        int index = RandomStream.current().nextInt(behaviours.size());
         Behaviour selected = behaviours.get(index);
         return selected.getAction(actor, map);
     }
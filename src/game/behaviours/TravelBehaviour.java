@@ -0,0 +1,79 @@
+package game.behaviours;
+
+import edu.monash.fit2099.engine.actions.Action;
+import edu.monash.fit2099.engine.actions.MoveActorAction;
+import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.actors.Behaviour;
+import edu.monash.fit2099.engine.positions.Direction;
+import edu.monash.fit2099.engine.positions.GameMap;
+import edu.monash.fit2099.engine.positions.Location;
+import edu.monash.fit2099.engine.positions.Route;
+import game.actions.TeleportAction;
+
+/**
+ * TravelBehaviour takes an actor to a far away location, one step per turn.
+ *
+ * The way there is found once with the engine's hierarchical path finding, and may
+ * go through Teleportation Circles to other maps. The actor waits while another
+ * actor is in its way, and finds a new way if it is taken off the old one.
+ * Once the actor arrives, the behaviour returns null.
+ */
+public class TravelBehaviour implements Behaviour {
+
+    private final Location destination;
+    private Route route;
+
+    /**
+     * Constructor.
+     *
+     * @param destination the location to travel to
+     */
+    public TravelBehaviour(Location destination) {
+        this.destination = destination;
+    }
+
+    /**
+     * Returns the next step towards the destination, or a TeleportAction where the
+     * way goes through a teleporter.
+     *
+     * @param actor the Actor enacting the behaviour
+     * @param map the map that actor is currently on
+     * @return an Action, or null if the actor has arrived, is blocked for now, or there is no way
+     */
+    @Override
+    public Action getAction(Actor actor, GameMap map) {
+
+        Location here = map.locationOf(actor);
+
+        if (here == null || here == destination) {
+
+            return null;
+        }
+
+        if (route == null || route.isLost()) {
+
+            route = map.routeTo(actor, destination);
+
+            if (route == null) {
+
+                return null;
+            }
+        }
+
+        Location link = route.linkFrom(here);
+
+        if (link != null) {
+
+            return link.containsAnActor() ? null : new TeleportAction(link);
+        }
+
+        Direction direction = route.nextStep(actor, here);
+
+        if (direction == null) {
+
+            return null;
+        }
+
+        return new MoveActorAction(here.neighbour(direction), direction.getName());
+    }
+}
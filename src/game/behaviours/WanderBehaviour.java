@@ -3,12 +3,12 @@ package game.behaviours;
 import edu.monash.fit2099.engine.actors.Behaviour;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actions.Action;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
+import edu.monash.fit2099.engine.positions.RandomStream;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 /**
  * This class is adapted from the Huntsman demo given with the FIT2099 engine
@@ -23,8 +23,6 @@ import java.util.Random;
 
 public class WanderBehaviour implements Behaviour {
 
-    private final Random rand = new Random();
-
     /**
      * Returns a MoveAction to wander to a random location, if possible.
      * If no movement is possible, returns null.
@@ -38,16 +36,19 @@ public class WanderBehaviour implements Behaviour {
 
         ArrayList<Action> moves = new ArrayList<>();
 
-        for (Exit exit : map.locationOf(actor).getExits()) {
+        Location here = map.locationOf(actor);
+
+        for (int d = 0; d < Direction.count(); d++) {
 
-            Location destination = exit.getDestination();
+            Direction direction = Direction.get(d);
+            Location destination = here.neighbour(direction);
 
-            if (destination.canActorEnter(actor)) {
+            if (destination != null && destination.canActorEnter(actor)) {
 
-                moves.add(exit.getDestination().getMoveAction(actor, "around", exit.getHotKey()));
+                moves.add(destination.getMoveAction(actor, "around", direction.getHotKey()));
             }
         }
 
-        return moves.isEmpty() ? null : moves.get(rand.nextInt(moves.size()));
+        return moves.isEmpty() ? null : moves.get(RandomStream.current().nextInt(moves.size()));
     }
 }
@@ -14,4 +14,9 @@ public class Blight extends Ground {
         // Adding Infestation capability to the blight
         addCapability(GameCapability.CURSED);
     }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
 }
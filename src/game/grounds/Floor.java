@@ -10,4 +10,9 @@ public class Floor extends Ground {
     public Floor() {
         super('_', "Floor");
     }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
 }
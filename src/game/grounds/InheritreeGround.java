@@ -1,6 +1,6 @@
 package game.grounds;
 
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.Ground;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.actors.Actor;
@@ -39,13 +39,13 @@ public class InheritreeGround extends Ground {
     public void tick(Location location) {
 
         // Look through all adjacent tiles
-        for (Exit exit : location.getExits()) {
+        for (int d = 0; d < Direction.count(); d++) {
 
-            // Get the location of the exit
-            Location exitLoc = exit.getDestination();
+            // Get the adjacent location, if it is on the map
+            Location exitLoc = location.neighbour(Direction.get(d));
 
-            // Check if the exit location contains an actor
-            if (exitLoc.containsAnActor()) {
+            // Check if the adjacent location contains an actor
+            if (exitLoc != null && exitLoc.containsAnActor()) {
 
                 // Get the actor in the exit location and heal them
                 Actor target = exitLoc.getActor();
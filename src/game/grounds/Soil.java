@@ -13,4 +13,9 @@ public class Soil extends Ground {
         super('.', "Soil");
         addCapability(GroundCapability.PLANTABLE_AT);
     }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
 }
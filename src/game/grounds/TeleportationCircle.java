@@ -7,6 +7,7 @@ import edu.monash.fit2099.engine.positions.Ground;
 import edu.monash.fit2099.engine.positions.Location;
 import game.actions.TeleportAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 /**
  * Special ground type representing a teleportation gate.
@@ -23,6 +24,7 @@ import java.util.List;
  */
 public class TeleportationCircle extends Ground {
     private final List<Location> destinations = new ArrayList<>();
+    private Location location; // where the teleporter has been placed, once it has
 
     /**
      * Constructs a teleportation circle.
@@ -34,10 +36,26 @@ public class TeleportationCircle extends Ground {
     /**
      * Adds a destination location to this teleporter.
      *
+     * If the teleporter has been placed already, its map is told, so that
+     * path finding plans routes through the new destination too.
+     *
      * @param destination The location this teleporter leads to
      */
     public void addDestination(Location destination) {
         destinations.add(destination);
+        if (location != null) {
+            location.map().terrainChanged(location);
+        }
+    }
+
+    /**
+     * Remembers where the teleporter is, to tell its map when a destination is added.
+     *
+     * @param location The teleporter's location
+     */
+    @Override
+    protected void placedOn(Location location) {
+        this.location = location;
     }
 
     /**
@@ -69,4 +87,15 @@ public class TeleportationCircle extends Ground {
     public boolean canActorEnter(Actor actor) {
         return true;
     }
+
+    /**
+     * The destinations are links, so that path finding can plan routes through them.
+     *
+     * @param location The teleporter's location
+     * @return The locations this teleporter leads to
+     */
+    @Override
+    public List<Location> getLinks(Location location) {
+        return Collections.unmodifiableList(destinations);
+    }
 }
\ No newline at end of file
@@ -17,4 +17,9 @@ public class Wall extends Ground {
     public boolean canActorEnter(Actor actor) {
         return false;
     }
+
+    @Override
+    public boolean isStateless() {
+        return true;
+    }
 }
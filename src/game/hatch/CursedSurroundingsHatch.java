@@ -32,7 +32,15 @@ public class CursedSurroundingsHatch implements HatchStrategy {
     @Override
     public boolean canHatch(Location loc, EggItem egg) {
 
-        return EntityUtils.hasNearbyWithCapability(loc, GameCapability.CURSED);
+        int distance = loc.map().groundDistance(loc, GameCapability.CURSED);
+
+        // An egg lying on cursed ground still needs some next to it
+        if (distance == 0) {
+
+            return EntityUtils.hasNearbyWithCapability(loc, GameCapability.CURSED);
+        }
+
+        return distance == 1;
     }
 
     /**
@@ -34,6 +34,28 @@ public class TurnBasedHatch implements HatchStrategy {
         remainingTurns--;
     }
 
+    /**
+     * Returns the remaining turns, since they are all that decides when the egg hatches.
+     *
+     * @return the number of turns left before the egg can hatch
+     */
+    @Override
+    public int turnsUntilHatch() {
+
+        return Math.max(remainingTurns, 0);
+    }
+
+    /**
+     * Takes the turns the egg slept through off the remaining turns in one go.
+     *
+     * @param turns the number of turns that went by
+     */
+    @Override
+    public void turnsPassed(int turns) {
+
+        remainingTurns -= turns;
+    }
+
     /**
      * Determines if the egg can hatch based on the remaining turns.
      *
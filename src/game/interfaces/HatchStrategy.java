@@ -18,6 +18,27 @@ public interface HatchStrategy {
      */
     void tick();
 
+    /**
+     * Returns how many more turns the egg has to wait before it can hatch, if nothing but time decides it.
+     * An egg with such a strategy sleeps on the World's clock instead of being ticked every turn.
+     *
+     * @return the number of turns left, or -1 if hatching has to be checked every turn
+     */
+    default int turnsUntilHatch() {
+        return -1;
+    }
+
+    /**
+     * Catches up on turns that went by while the egg was asleep, as if tick() had been called for each.
+     *
+     * @param turns the number of turns that went by
+     */
+    default void turnsPassed(int turns) {
+        for (int i = 0; i < turns; i++) {
+            tick();
+        }
+    }
+
     /**
      * Determines if the egg is ready to hatch at the given location.
      *
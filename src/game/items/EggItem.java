@@ -6,12 +6,14 @@ import edu.monash.fit2099.engine.items.Item;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
 import edu.monash.fit2099.engine.positions.Location;
 import edu.monash.fit2099.engine.positions.GameMap;
+import edu.monash.fit2099.engine.positions.TimingWheel;
 import game.util.EntityUtils;
 import game.actions.ConsumeAction;
 import game.attributes.Status;
 import game.interfaces.Consumable;
 import game.interfaces.HatchStrategy;
 
+import java.io.Serializable;
 import java.util.function.Supplier;
 
 /**
@@ -20,6 +22,10 @@ import java.util.function.Supplier;
  * The egg will automatically hatch after 3 turns if left on the ground. If carried by a Farmer,
  * it can be eaten to permanently increase maximum health by 10 points.
  *
+ * If its hatch strategy only depends on time, the egg sleeps on the World's clock between its
+ * first turn on the ground and hatching, instead of being ticked every turn. Picking it up
+ * pauses the countdown until it is put down again.
+ *
  * Implements the Consumable interface to provide consumption mechanics.
  *
  * @author Ibrahim
@@ -28,15 +34,26 @@ import java.util.function.Supplier;
 public class EggItem extends Item implements Consumable {
 
     private final HatchStrategy hatchStrategy;
-    private final Supplier<Actor> parent;
+    private final Parent parent;
     private final int consumeValue;
     private final Enum<?> capabilityToChange;
+    private TimingWheel.Timer hatchTimer;
+    private Location restingAt;
+    private int sleepingFor;
+
+    /**
+     * Creates the creature that hatches from the egg, e.g. {@code OmenSheep::new}.
+     * It is Serializable so that an egg can go into a snapshot of the World.
+     */
+    @FunctionalInterface
+    public interface Parent extends Supplier<Actor>, Serializable {
+    }
 
     /**
      * Constructor for the Omen Sheep Egg.
      * Initializes with name 'Omen Sheep Egg', display character '0', and marks it as portable.
      */
-    public EggItem(String name, char displayChar, HatchStrategy strategy, Supplier<Actor> parent, Enum<?> capabilityToChange, int consumeValue) {
+    public EggItem(String name, char displayChar, HatchStrategy strategy, Parent parent, Enum<?> capabilityToChange, int consumeValue) {
 
         super(name, displayChar, true);
         this.hatchStrategy = strategy;
@@ -107,15 +124,97 @@ public class EggItem extends Item implements Consumable {
 
         if (hatchStrategy.canHatch(currentLocation, this)) {
 
-            Actor child = hatchStrategy.hatchCreature(currentLocation, this);
-            Location freeLoc = EntityUtils.findFreeLocation(currentLocation);
+            hatch(currentLocation);
+            return;
+        }
+
+        // Nothing but time left to wait for, so sleep until then
+        int turns = hatchStrategy.turnsUntilHatch();
+        TimingWheel timers = currentLocation.map().getTimers();
+        if (turns > 0 && timers != null) {
+
+            restingAt = currentLocation;
+            sleepingFor = turns;
+            hatchTimer = timers.schedule(turns, this::wake);
+        }
+    }
+
+    /**
+     * Pauses the countdown of a sleeping egg that has been picked up.
+     *
+     * @param currentLocation The location of the actor carrying the egg
+     * @param actor           The actor carrying the egg
+     */
+    @Override
+    public void tick(Location currentLocation, Actor actor) {
+
+        if (hatchTimer != null) {
+
+            int slept = sleepingFor - (int) hatchTimer.remaining();
+            hatchTimer.cancel();
+            hatchTimer = null;
+            hatchStrategy.turnsPassed(slept);
+        }
+    }
+
+    /**
+     * A sleeping egg only needs ticking again once it wakes up.
+     *
+     * @return true unless the egg is waiting on the World's clock
+     */
+    @Override
+    public boolean ticksOnGround() {
+
+        return hatchTimer == null;
+    }
 
-            if (EntityUtils.locationIsFree(freeLoc)) {
+    /**
+     * Called when the countdown of a sleeping egg runs out.
+     * Hatches the egg if it is still where it went to sleep, and tries again next turn if there was no room.
+     * Otherwise the egg goes back to being ticked wherever it lies now.
+     */
+    private void wake() {
 
-                currentLocation.map().addActor(child, freeLoc);
-                currentLocation.removeItem(this);
+        hatchTimer = null;
+        hatchStrategy.turnsPassed(sleepingFor);
+
+        if (restingAt.getItems().contains(this) && hatchStrategy.canHatch(restingAt, this)) {
+
+            if (!hatch(restingAt)) {
+
+                sleepingFor = 1;
+                hatchTimer = restingAt.map().getTimers().schedule(1, this::wake);
             }
+            return;
+        }
+
+        // Moved before the pause caught it, or not ready after all: its Location has to tick it again
+        Location location = getLocation();
+
+        if (location != null) {
+
+            location.itemTickingChanged();
+        }
+    }
+
+    /**
+     * Hatches the creature next to the egg, if there is room.
+     *
+     * @param currentLocation The location of the egg
+     * @return true if the egg hatched
+     */
+    private boolean hatch(Location currentLocation) {
+
+        Actor child = hatchStrategy.hatchCreature(currentLocation, this);
+        Location freeLoc = EntityUtils.findFreeLocation(currentLocation);
+
+        if (EntityUtils.locationIsFree(freeLoc)) {
+
+            currentLocation.map().addActor(child, freeLoc);
+            currentLocation.removeItem(this);
+            return true;
         }
+        return false;
     }
     /**
      * Provides allowable actions for this egg.
@@ -49,7 +49,7 @@ public class Talisman extends Item {
         Location here = map.locationOf(actor);
 
         // Check if the ground is infested and actor has sufficient stamina
-        if (here.getGround().hasCapability(GameCapability.CURSED) && actor.getAttribute(BaseActorAttributes.STAMINA) >= 50) {
+        if (here.getGround().hasCapability(GameCapability.CURSED) && actor.getIntAttribute(BaseActorAttributes.STAMINA) >= 50) {
 
             // Add the CureGroundAction to the list of actions
             actions.add(new CureGroundAction(here));
@@ -3,7 +3,6 @@ package game.items.seeds;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
-import edu.monash.fit2099.engine.positions.Exit;
 import edu.monash.fit2099.engine.positions.Location;
 import game.attributes.GameCapability;
 import game.grounds.InheritreeGround;
@@ -54,18 +53,15 @@ public class InheritreeSeed extends Seed{
         here.setGround(new InheritreeGround());
 
         // Look through all adjacent tiles
-        for (Exit exit : here.getExits()) {
+        here.forEachNeighbour((direction, adj) -> {
 
-            // Get the location of the exit
-            Location adj = exit.getDestination();
-
-            // Check if the exit location contains an infested ground
+            // Check if the neighbouring location contains an infested ground
             if (adj.getGround().hasCapability(GameCapability.CURSED)) {
 
                 // Cure the infested ground
                 adj.setGround(new Soil());
             }
-        }
+        });
         
         return farmer + " plants an Inheritree. Blight is removed.";
     }
@@ -44,7 +44,7 @@ public abstract class Seed extends Item implements Plantable {
         Location here = map.locationOf(actor);
 
         // Check if the ground is valid for planting and actor has sufficient stamina
-        if (here.getGround().hasCapability(GroundCapability.PLANTABLE_AT) && actor.getAttribute(BaseActorAttributes.STAMINA) >= requiredStamina) {
+        if (here.getGround().hasCapability(GroundCapability.PLANTABLE_AT) && actor.getIntAttribute(BaseActorAttributes.STAMINA) >= requiredStamina) {
 
             // Add the PlantAction to the list of actions
             actions.add(new PlantAction(this, this));
@@ -1,8 +1,8 @@
 package game.time;
 
 import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.actors.EntityStore;
 import edu.monash.fit2099.engine.positions.GameMap;
-import edu.monash.fit2099.engine.positions.Location;
 import game.attributes.Status;
 import game.weapons.AnimalRam;
 
@@ -24,25 +24,45 @@ public class EveningPhase implements TimePhase {
      */
     @Override
     public void applyEffects(GameMap map) {
-        // Iterate through all map locations
-        for (int y : map.getYRange()) {
-            for (int x : map.getXRange()) {
-                Location location = map.at(x, y);
-                if (location.containsAnActor()) {
-                    Actor actor = location.getActor();
-                    // OmenSheep and SpiritGoat become hostile
-                    if (actor.hasCapability(Status.BECOMES_HOSTILE)) {
-                        actor.addCapability(Status.HOSTILE_TO_FARMER);
-                        actor.setIntrinsicWeapon(new AnimalRam(ANIMAL_ATTACK_DAMAGE, "rams"));
-                    }
-
-                    // Guts' damage multiplier is not active during the evening
-                    if (actor.hasCapability(Status.AFFECTED_BY_NIGHT)) {
-                        actor.removeCapability(Status.NIGHT_DAMAGE_MULTIPLIER);
-                    }
-                }
-            }
+        // With an entity store, only the actors that evening changes need to be visited
+        EntityStore entities = map.getEntityStore();
+        if (entities != null) {
+            entities.forEachWith(map, Status.BECOMES_HOSTILE, this::provoke);
+            entities.forEachWith(map, Status.AFFECTED_BY_NIGHT, this::weaken);
+            return;
         }
+
+        // Visit every actor on the map
+        map.forEachActor(actor -> {
+            // OmenSheep and SpiritGoat become hostile
+            if (actor.hasCapability(Status.BECOMES_HOSTILE)) {
+                provoke(actor);
+            }
+
+            // Guts' damage multiplier is not active during the evening
+            if (actor.hasCapability(Status.AFFECTED_BY_NIGHT)) {
+                weaken(actor);
+            }
+        });
+    }
+
+    /**
+     * Makes an animal hostile to the farmer, armed with its ram.
+     *
+     * @param actor The actor, e.g. an Omen Sheep.
+     */
+    private void provoke(Actor actor) {
+        actor.addCapability(Status.HOSTILE_TO_FARMER);
+        actor.setIntrinsicWeapon(new AnimalRam(ANIMAL_ATTACK_DAMAGE, "rams"));
+    }
+
+    /**
+     * Takes away the night damage multiplier of an actor affected by night.
+     *
+     * @param actor The actor, e.g. Guts.
+     */
+    private void weaken(Actor actor) {
+        actor.removeCapability(Status.NIGHT_DAMAGE_MULTIPLIER);
     }
 
     /**
@@ -2,12 +2,12 @@ package game.time;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 import edu.monash.fit2099.engine.displays.Display;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import game.actors.Player;
 
 /**
@@ -15,9 +15,7 @@ import game.actors.Player;
  * @author Muhammad Fahim Mohamed Sirajudeen
  */
 public class MorningPhase implements TimePhase {
-    private final Random rand = new Random();
     private final Player player;
-    private final Display display = new Display();
 
     /**
      * @param player the one-and-only player to affect
@@ -53,19 +51,19 @@ public class MorningPhase implements TimePhase {
         }
 
         Location here = map.locationOf(player);
-        List<Exit> validExits = new ArrayList<>();
-        for (Exit e : here.getExits()) {
-            Location dest = e.getDestination();
-            if (dest.canActorEnter(player)) {
-                validExits.add(e);
+        List<Location> validExits = new ArrayList<>();
+        for (int d = 0; d < Direction.count(); d++) {
+            Location dest = here.neighbour(Direction.get(d));
+            if (dest != null && dest.canActorEnter(player)) {
+                validExits.add(dest);
             }
         }
 
+        Display display = Display.getInstance();
         if (validExits.isEmpty()) {
             display.println("Sandstorm rages, but you cannot be moved from " + here + ".");
         } else {
-            Exit chosen = validExits.get(rand.nextInt(validExits.size()));
-            Location dest = chosen.getDestination();
+            Location dest = validExits.get(RandomStream.current().nextInt(validExits.size()));
             map.moveActor(player, dest);
             display.println("Sandstorm pushes you from " + here + " to " + dest + ".");
         }
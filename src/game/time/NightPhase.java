@@ -1,8 +1,8 @@
 package game.time;
 
 import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.actors.EntityStore;
 import edu.monash.fit2099.engine.positions.GameMap;
-import edu.monash.fit2099.engine.positions.Location;
 import game.attributes.Status;
 
 /**
@@ -21,21 +21,41 @@ public class NightPhase implements TimePhase {
      */
     @Override
     public void applyEffects(GameMap map) {
-        for (int y : map.getYRange()) {
-            for (int x : map.getXRange()) {
-                Location location = map.at(x, y);
-                if (location.containsAnActor()) {
-                    Actor actor = location.getActor();
-                    if (actor.hasCapability(Status.AFFECTED_BY_NIGHT)) {
-                        actor.addCapability(Status.NIGHT_DAMAGE_MULTIPLIER);
-                    }
-                    if (actor.hasCapability(Status.BECOMES_HOSTILE)) {
-                        actor.removeCapability(Status.HOSTILE_TO_FARMER);
-                        actor.setIntrinsicWeapon(null);
-                    }
-                }
-            }
+        // With an entity store, only the actors that night changes need to be visited
+        EntityStore entities = map.getEntityStore();
+        if (entities != null) {
+            entities.forEachWith(map, Status.AFFECTED_BY_NIGHT, this::strengthen);
+            entities.forEachWith(map, Status.BECOMES_HOSTILE, this::pacify);
+            return;
         }
+
+        map.forEachActor(actor -> {
+            if (actor.hasCapability(Status.AFFECTED_BY_NIGHT)) {
+                strengthen(actor);
+            }
+            if (actor.hasCapability(Status.BECOMES_HOSTILE)) {
+                pacify(actor);
+            }
+        });
+    }
+
+    /**
+     * Gives an actor affected by night its damage multiplier.
+     *
+     * @param actor The actor, e.g. Guts.
+     */
+    private void strengthen(Actor actor) {
+        actor.addCapability(Status.NIGHT_DAMAGE_MULTIPLIER);
+    }
+
+    /**
+     * Makes an animal peaceful again.
+     *
+     * @param actor The actor, e.g. an Omen Sheep.
+     */
+    private void pacify(Actor actor) {
+        actor.removeCapability(Status.HOSTILE_TO_FARMER);
+        actor.setIntrinsicWeapon(null);
     }
 
     /**
@@ -1,9 +1,8 @@
 package game.util;
 
-import edu.monash.fit2099.engine.actors.Actor;
-import edu.monash.fit2099.engine.items.Item;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.positions.Location;
+import edu.monash.fit2099.engine.positions.RandomStream;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,6 +18,7 @@ public class EntityUtils {
 
     /**
      * Checks if there is any ground, actor, or item with the specified capability in the nearby locations.
+     * The map answers this from its capability bitmaps, without visiting each neighbour.
      *
      * @param loc        The current location to check from
      * @param capability The capability to search for
@@ -26,36 +26,12 @@ public class EntityUtils {
      */
     public static boolean hasNearbyWithCapability(Location loc, Enum<?> capability) {
 
-        for (Exit e : loc.getExits()) {
-
-            Location dest = e.getDestination();
-
-            if (dest.getGround().hasCapability(capability)) {
-
-                return true;
-            }
-
-            Actor a = dest.getActor();
-
-            if (a != null && a.hasCapability(capability)) {
-
-                return true;
-            }
-
-            for (Item i : dest.getItems()) {
-
-                if (i.hasCapability(capability)) {
-
-                    return true;
-                }
-            }
-        }
-        return false;
+        return loc.map().hasCapabilityAround(loc, 1, capability);
     }
 
     /**
      * Finds a free location for an actor to enter, starting from the current location.
-     * If the current location is free, it is returned. Otherwise, it searches nearby exits.
+     * If the current location is free, it is returned. Otherwise, it searches the neighbouring locations.
      *
      * @param currentLocation The current location to start the search
      * @return A free location that an actor can enter, or the current location if no free location is found
@@ -67,12 +43,11 @@ public class EntityUtils {
             return currentLocation;
         }
 
-        List<Exit> exits = new ArrayList<>(currentLocation.getExits());
-        Collections.shuffle(exits);
-
-        for (Exit exit : exits) {
+        List<Location> neighbours = new ArrayList<>(Direction.count());
+        currentLocation.forEachNeighbour((direction, neighbour) -> neighbours.add(neighbour));
+        Collections.shuffle(neighbours, RandomStream.current());
 
-            Location dest = exit.getDestination();
+        for (Location dest : neighbours) {
 
             if (locationIsFree(dest)) {
 
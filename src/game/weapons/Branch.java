@@ -1,12 +1,12 @@
 package game.weapons;
 
 import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import game.actors.npc.hostile.BedOfChaos;
 import game.interfaces.PlantPart;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * A tree branch part of the Bed of Chaos boss.
@@ -18,7 +18,6 @@ public class Branch implements PlantPart {
 
     private final List<PlantPart> children = new ArrayList<>();
     private static final int BRANCH_DAMAGE = 3;
-    private static final Random RNG = new Random();
 
     /**
      * A branch’s total damage is its own damage plus
@@ -56,7 +55,7 @@ public class Branch implements PlantPart {
     @Override
     public void grow(BedOfChaos boss, Display display) {
         display.println("Branch is growing...");
-        boolean spawnBranch = RNG.nextBoolean();
+        boolean spawnBranch = RandomStream.current().nextBoolean();
         if (spawnBranch) {
             Branch newBranch = new Branch();
             children.add(newBranch);
@@ -7,7 +7,7 @@ import game.actors.npc.nonhostile.merchant.Merchant;
 import game.actors.npc.nonhostile.merchant.MerchantId;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
@@ -56,9 +56,10 @@ public class DragonslayerGreatsword extends WeaponItem implements Buyable {
         );
         if (seller.getMerchantId() == MerchantId.SELLEN) {
             Location here = map.locationOf(buyer);
-            for (Exit e : here.getExits()) {
-                if (!e.getDestination().containsAnActor()) {
-                    map.addActor(new GoldenBeetle(), e.getDestination());
+            for (int i = 0; i < Direction.count(); i++) {
+                Location dest = here.neighbour(Direction.get(i));
+                if (dest != null && !dest.containsAnActor()) {
+                    map.addActor(new GoldenBeetle(), dest);
                     break;
                 }
             }
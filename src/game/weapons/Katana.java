@@ -7,7 +7,7 @@ import game.actors.npc.nonhostile.merchant.Merchant;
 import game.actors.npc.nonhostile.merchant.MerchantId;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
-import edu.monash.fit2099.engine.positions.Exit;
+import edu.monash.fit2099.engine.positions.Direction;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
 import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
@@ -60,9 +60,10 @@ public class Katana extends WeaponItem implements Buyable {
                 20
         );
         Location sellLoc = map.locationOf(seller.asActor());
-        for (Exit e : sellLoc.getExits()) {
-            if (!e.getDestination().containsAnActor()) {
-                map.addActor(new OmenSheep(), e.getDestination());
+        for (int i = 0; i < Direction.count(); i++) {
+            Location dest = sellLoc.neighbour(Direction.get(i));
+            if (dest != null && !dest.containsAnActor()) {
+                map.addActor(new OmenSheep(), dest);
                 break;
             }
         }
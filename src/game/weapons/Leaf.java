@@ -36,7 +36,7 @@ public class Leaf implements PlantPart {
     @Override
     public void grow(BedOfChaos boss, Display display) {
         boss.heal(HEAL_AMOUNT);
-        int currentHP = boss.getAttribute(BaseActorAttributes.HEALTH);
+        int currentHP = boss.getIntAttribute(BaseActorAttributes.HEALTH);
         int maxHP     = boss.getAttributeMaximum(BaseActorAttributes.HEALTH);
         display.println("Bed of Chaos (" + currentHP + "/" + maxHP + ") is healed");
     }
@@ -3,12 +3,11 @@ package game.weapons;
 import edu.monash.fit2099.engine.actions.ActionList;
 import edu.monash.fit2099.engine.actors.Actor;
 import edu.monash.fit2099.engine.items.*;
-import edu.monash.fit2099.engine.positions.Exit;
 import edu.monash.fit2099.engine.positions.GameMap;
 import edu.monash.fit2099.engine.positions.Location;
+import edu.monash.fit2099.engine.positions.RandomStream;
 import edu.monash.fit2099.engine.weapons.Weapon;
 import game.actions.AttackAction;
-import java.util.Random;
 
 /**
  * Class representing items that can be used as a weapon.
@@ -41,8 +40,7 @@ public class WeaponItem extends Item implements Weapon {
 
     @Override
     public String attack(Actor attacker, Actor target, GameMap map) {
-        Random rand = new Random();
-        if (!(rand.nextInt(100) < this.hitRate)) {
+        if (!(RandomStream.current().nextInt(100) < this.hitRate)) {
             return attacker + " misses " + target + ".";
         }
 
@@ -68,15 +66,14 @@ public class WeaponItem extends Item implements Weapon {
         ActionList actions = new ActionList();
         // find all adjacent targets
         Location here = map.locationOf(owner);
-        for (Exit exit : here.getExits()) {
-            Location dest = exit.getDestination();
+        here.forEachNeighbour((direction, dest) -> {
             if (dest.containsAnActor()) {
                 // AttackAction(targetActor, directionString, thisWeapon)
                 actions.add(new AttackAction(dest.getActor(),
-                        exit.getName(),
+                        direction.getName(),
                         this));
-                }
             }
+        });
         return actions;
     }
 
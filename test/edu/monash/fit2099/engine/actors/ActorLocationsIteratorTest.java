@@ -0,0 +1,156 @@
+package edu.monash.fit2099.engine.actors;
+
+import edu.monash.fit2099.engine.actions.Action;
+import edu.monash.fit2099.engine.actions.ActionList;
+import edu.monash.fit2099.engine.actions.DoNothingAction;
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.positions.FancyGroundFactory;
+import edu.monash.fit2099.engine.positions.GameMap;
+import game.grounds.Soil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ActorLocationsIteratorTest {
+
+	private static class Dummy extends Actor {
+		Dummy(String name) {
+			super(name, 'd', 10);
+		}
+
+		@Override
+		public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
+			return new DoNothingAction();
+		}
+	}
+
+	private final GameMap map = new GameMap("Field", new FancyGroundFactory(new Soil()), '.', 10, 10);
+	private final ActorLocationsIterator registry = new ActorLocationsIterator();
+
+	private List<Actor> addDummies(int count) {
+		List<Actor> dummies = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Actor dummy = new Dummy("d" + i);
+			registry.add(dummy, map.at(i % 10, i / 10));
+			dummies.add(dummy);
+		}
+		return dummies;
+	}
+
+	private List<Actor> pass() {
+		List<Actor> seen = new ArrayList<>();
+		for (Actor actor : registry) {
+			seen.add(actor);
+		}
+		return seen;
+	}
+
+	private List<Actor> passWithoutIterator() {
+		List<Actor> seen = new ArrayList<>();
+		int length = registry.passLength();
+		for (int i = 0; i < length; i++) {
+			Actor actor = registry.inTurnOrder(i, length);
+			if (actor != null)
+				seen.add(actor);
+		}
+		return seen;
+	}
+
+	@Test
+	void playerComesFirstThenTheOthersInTheOrderTheyWereAdded() {
+		List<Actor> dummies = addDummies(40);
+		Actor player = new Dummy("player");
+		registry.add(player, map.at(9, 9));
+		registry.setPlayer(player);
+
+		List<Actor> expected = new ArrayList<>();
+		expected.add(player);
+		expected.addAll(dummies);
+		assertEquals(expected, pass());
+		assertEquals(expected, passWithoutIterator());
+		assertEquals(41, registry.size());
+	}
+
+	@Test
+	void addingAndRemovingKeepTheGridInStep() {
+		Actor dummy = addDummies(1).get(0);
+		assertSame(dummy, registry.getActorAt(map.at(0, 0)));
+		assertThrows(IllegalArgumentException.class, () -> registry.add(new Dummy("other"), map.at(0, 0)));
+		assertThrows(IllegalArgumentException.class, () -> registry.add(dummy, map.at(5, 5)));
+
+		registry.move(dummy, map.at(5, 5));
+		assertFalse(registry.isAnActorAt(map.at(0, 0)));
+		assertSame(map.at(5, 5), registry.locationOf(dummy));
+
+		registry.remove(dummy);
+		assertFalse(registry.contains(dummy));
+		assertNull(registry.locationOf(dummy));
+		assertFalse(registry.isAnActorAt(map.at(5, 5)));
+		assertEquals(0, registry.size());
+	}
+
+	@Test
+	void passSkipsActorsRemovedDuringItAndLeavesNewOnesForTheNext() {
+		List<Actor> dummies = addDummies(5);
+		Actor late = new Dummy("late");
+		List<Actor> seen = new ArrayList<>();
+		for (Actor actor : registry) {
+			seen.add(actor);
+			if (actor == dummies.get(1)) {
+				registry.remove(dummies.get(3));
+				registry.add(late, map.at(9, 9));
+			}
+		}
+		assertEquals(List.of(dummies.get(0), dummies.get(1), dummies.get(2), dummies.get(4)), seen);
+		assertEquals(List.of(dummies.get(0), dummies.get(1), dummies.get(2), dummies.get(4), late), pass());
+	}
+
+	@Test
+	void compactingKeepsTheOrderAndTheLocations() {
+		List<Actor> dummies = addDummies(20);
+		for (int i = 0; i < 20; i += 3) {
+			registry.remove(dummies.get(i));
+		}
+		List<Actor> before = pass();
+		registry.compact();
+
+		assertEquals(before, pass());
+		assertEquals(before.size(), registry.size());
+		assertEquals(before.size() + 1, registry.passLength());
+		for (int i = 0; i < 20; i++) {
+			Actor dummy = dummies.get(i);
+			if (i % 3 == 0) {
+				assertFalse(registry.contains(dummy));
+			} else {
+				assertSame(map.at(i % 10, i / 10), registry.locationOf(dummy));
+			}
+		}
+
+		// Slots have moved, so the registry must still find the Actors through them
+		Actor moved = dummies.get(19);
+		registry.move(moved, map.at(5, 5));
+		assertSame(moved, registry.getActorAt(map.at(5, 5)));
+		registry.remove(dummies.get(1));
+		assertFalse(pass().contains(dummies.get(1)));
+		assertTrue(pass().contains(moved));
+	}
+
+	@Test
+	void removedPlayerIsSkipped() {
+		addDummies(3);
+		Actor player = new Dummy("player");
+		registry.add(player, map.at(9, 9));
+		registry.setPlayer(player);
+		registry.remove(player);
+		assertFalse(pass().contains(player));
+		assertEquals(3, passWithoutIterator().size());
+	}
+}
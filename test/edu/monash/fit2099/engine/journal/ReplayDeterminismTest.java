@@ -0,0 +1,89 @@
+package edu.monash.fit2099.engine.journal;
+
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.displays.HeadlessDisplay;
+import edu.monash.fit2099.engine.positions.World;
+import game.Application;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplayDeterminismTest {
+
+	private static final int TICKS = 150;
+
+	@TempDir
+	Path directory;
+
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+
+	@AfterEach
+	void shutDown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Run the game for a while, recording it.
+	 *
+	 * @return the checksum of the World at the end
+	 */
+	private long record(Path file, boolean planTurns) throws IOException {
+		HeadlessDisplay display = new HeadlessDisplay("8462a");
+		Display.setInstance(display);
+		World world = Application.createWorld(display);
+		world.setSeed(20_261_017L);
+		try (JournalWriter journal = new JournalWriter(file, world.getSeed(), planTurns, true)) {
+			world.setJournal(journal);
+			world.setMapTickExecutor(pool);
+			if (planTurns)
+				world.setTurnPlanningExecutor(pool);
+			world.runFor(TICKS, 0);
+		}
+		return world.checksum();
+	}
+
+	/**
+	 * Replay a recorded run, which fails as soon as a turn's checksum differs from the recorded one.
+	 *
+	 * @return the checksum of the World at the end
+	 */
+	private long replay(Path file, ForkJoinPool executor, boolean planTurns) throws IOException {
+		JournalReader journal = new JournalReader(file);
+		ReplayDisplay display = new ReplayDisplay(journal);
+		Display.setInstance(display);
+		World world = Application.createWorld(display);
+		world.setSeed(journal.seed());
+		if (executor != null) {
+			world.setMapTickExecutor(executor);
+			if (planTurns)
+				world.setTurnPlanningExecutor(executor);
+		}
+		assertEquals(journal.turns(), world.replay(journal).getTicks());
+		return world.checksum();
+	}
+
+	@Test
+	void mapsTickedConcurrentlyReplayOneAfterTheOther() throws IOException {
+		Path file = directory.resolve("maps.jnl");
+		long recorded = record(file, false);
+		assertEquals(recorded, replay(file, null, false));
+	}
+
+	@Test
+	void concurrentRunReplaysOnAPoolOfAnotherSize() throws IOException {
+		Path file = directory.resolve("turns.jnl");
+		long recorded = record(file, true);
+		ForkJoinPool other = new ForkJoinPool(2);
+		try {
+			assertEquals(recorded, replay(file, other, true));
+		} finally {
+			other.shutdown();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actions.Action;
+import edu.monash.fit2099.engine.actions.ActionList;
+import edu.monash.fit2099.engine.actions.DoNothingAction;
+import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.actors.attributes.ActorAttributeOperations;
+import edu.monash.fit2099.engine.actors.attributes.BaseActorAttributes;
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.displays.HeadlessDisplay;
+import game.grounds.Soil;
+import game.grounds.Wall;
+import game.items.Talisman;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeJournalTest {
+
+	private enum Mood {
+		GRUMPY
+	}
+
+	private static class Dummy extends Actor {
+		Dummy() {
+			super("Dummy", 'd', 10);
+		}
+
+		@Override
+		public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
+			return new DoNothingAction();
+		}
+	}
+
+	private final World world = new World(new HeadlessDisplay());
+	private final GameMap map = new GameMap("Field", new FancyGroundFactory(new Soil(), new Wall()), '.', 10, 10);
+
+	ChangeJournalTest() {
+		world.addGameMap(map);
+	}
+
+	@Test
+	void journalSeesItsOwnChangesButNobodyElseDoesUntilTheCommit() {
+		Dummy dummy = new Dummy();
+		ChangeJournal journal = new ChangeJournal();
+		journal.record(() -> {
+			map.addActor(dummy, map.at(1, 1));
+			assertSame(map.at(1, 1), map.locationOf(dummy));
+		});
+		assertNull(map.locationOf(dummy));
+		assertTrue(journal.commit());
+		assertSame(map.at(1, 1), map.locationOf(dummy));
+	}
+
+	@Test
+	void conflictingUnitIsDroppedAndTheOthersAreApplied() {
+		Dummy first = new Dummy(), second = new Dummy(), third = new Dummy();
+		ChangeJournal one = new ChangeJournal(), other = new ChangeJournal();
+		one.record(() -> map.addActor(first, map.at(2, 2)));
+		other.record(() -> {
+			map.addActor(second, map.at(3, 3));
+			map.moveActor(second, map.at(2, 2));
+			ChangeJournal.startUnit();
+			map.addActor(third, map.at(4, 4));
+		});
+
+		assertTrue(one.commit());
+		assertFalse(other.commit());
+		assertSame(first, map.getActorAt(map.at(2, 2)));
+		// The whole first unit is undone, not just the move that clashed
+		assertNull(map.locationOf(second));
+		assertFalse(map.isAnActorAt(map.at(3, 3)));
+		assertSame(map.at(4, 4), map.locationOf(third));
+	}
+
+	@Test
+	void rejectedTurnIsTakenBackAsAWhole() {
+		Dummy mover = new Dummy(), blocker = new Dummy();
+		map.addActor(mover, map.at(0, 0));
+		ChangeJournal turn = new ChangeJournal(true);
+		TimingWheel.Timer[] timer = new TimingWheel.Timer[1];
+		turn.record(() -> {
+			map.at(0, 0).addItem(new Talisman());
+			map.at(0, 1).setGround(new Wall());
+			ChangeJournal.startUnit();
+			timer[0] = world.getTimers().schedule(3, () -> { });
+			map.moveActor(mover, map.at(5, 5));
+		});
+		// Changes to Locations are held back from everyone, the turn included
+		assertTrue(map.at(0, 0).getItems().isEmpty());
+
+		map.addActor(blocker, map.at(5, 5));
+		assertFalse(turn.commit());
+		assertSame(map.at(0, 0), map.locationOf(mover));
+		assertTrue(map.at(0, 0).getItems().isEmpty());
+		assertInstanceOf(Soil.class, map.at(0, 1).getGround());
+		assertFalse(timer[0].isPending());
+		assertEquals(0, world.getTimers().pending());
+	}
+
+	@Test
+	void acceptedTurnAppliesEverything() {
+		Dummy mover = new Dummy();
+		map.addActor(mover, map.at(0, 0));
+		ChangeJournal turn = new ChangeJournal(true);
+		turn.record(() -> {
+			map.at(0, 0).addItem(new Talisman());
+			world.getTimers().schedule(3, () -> { });
+			map.moveActor(mover, map.at(5, 5));
+		});
+		assertTrue(turn.commit());
+		assertSame(map.at(5, 5), map.locationOf(mover));
+		assertEquals(1, map.at(0, 0).getItems().size());
+		assertEquals(1, world.getTimers().pending());
+	}
+
+	@Test
+	void actorStateIsPutBackAsItWasSaved() {
+		Dummy dummy = new Dummy();
+		dummy.addBalance(50);
+		Actor.SavedState saved = dummy.saveState();
+
+		dummy.modifyAttribute(BaseActorAttributes.HEALTH, ActorAttributeOperations.DECREASE, 4);
+		dummy.addBalance(25);
+		dummy.addCapability(Mood.GRUMPY);
+		dummy.restoreState(saved);
+
+		assertEquals(10, dummy.getAttribute(BaseActorAttributes.HEALTH));
+		assertEquals(50, dummy.getBalance());
+		assertFalse(dummy.hasCapability(Mood.GRUMPY));
+	}
+}
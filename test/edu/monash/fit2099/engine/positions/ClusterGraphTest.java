@@ -0,0 +1,192 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.actions.Action;
+import edu.monash.fit2099.engine.actions.ActionList;
+import edu.monash.fit2099.engine.actions.DoNothingAction;
+import edu.monash.fit2099.engine.actors.Actor;
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.displays.HeadlessDisplay;
+import game.grounds.Soil;
+import game.grounds.TeleportationCircle;
+import game.grounds.Wall;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterGraphTest {
+
+	private static final int WIDTH = 120;
+	private static final int HEIGHT = 90;
+
+	private static class Walker extends Actor {
+		Walker() {
+			super("Walker", 'w', 10);
+		}
+
+		@Override
+		public Action playTurn(ActionList actions, Action lastAction, GameMap map, Display display) {
+			return new DoNothingAction();
+		}
+	}
+
+	private final FancyGroundFactory grounds = new FancyGroundFactory(new Soil(), new Wall());
+	private final World world = new World(new HeadlessDisplay());
+	private final Walker walker = new Walker();
+
+	private static List<String> randomRows(Random random, int wallPercent) {
+		List<String> rows = new ArrayList<>();
+		for (int y = 0; y < HEIGHT; y++) {
+			StringBuilder row = new StringBuilder();
+			for (int x = 0; x < WIDTH; x++) {
+				row.append(random.nextInt(100) < wallPercent ? '#' : '.');
+			}
+			rows.add(row.toString());
+		}
+		return rows;
+	}
+
+	/**
+	 * The number of steps on a shortest way between two cells, or -1 if there is none, by a
+	 * breadth-first search over the cells that can be entered.
+	 */
+	private static int shortestSteps(GameMap map, int fromX, int fromY, int toX, int toY) {
+		int[] steps = new int[WIDTH * HEIGHT];
+		Arrays.fill(steps, -1);
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		steps[fromY * WIDTH + fromX] = 0;
+		queue.add(fromY * WIDTH + fromX);
+		while (!queue.isEmpty()) {
+			int cell = queue.poll();
+			int x = cell % WIDTH, y = cell / WIDTH;
+			if (x == toX && y == toY)
+				return steps[cell];
+			for (int i = 0; i < Direction.count(); i++) {
+				Direction direction = Direction.get(i);
+				int nx = x + direction.dx(), ny = y + direction.dy();
+				if (nx < 0 || ny < 0 || nx >= WIDTH || ny >= HEIGHT)
+					continue;
+				int next = ny * WIDTH + nx;
+				if (steps[next] < 0 && map.at(nx, ny).getGround().canActorEnter(null)) {
+					steps[next] = steps[cell] + 1;
+					queue.add(next);
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Follow a route step by step.
+	 *
+	 * @return the number of steps taken, or -1 if the walker stopped short, e.g. at a link
+	 */
+	private int walk(GameMap map, Route route, Location destination) {
+		for (int steps = 0; steps < WIDTH * HEIGHT; steps++) {
+			Location here = map.locationOf(walker);
+			if (here == destination)
+				return steps;
+			Direction direction = route.nextStep(walker, here);
+			if (direction == null)
+				return -1;
+			map.moveActor(walker, here.neighbour(direction));
+		}
+		return -1;
+	}
+
+	private void place(Location location) {
+		Location current = world.actorLocations.locationOf(walker);
+		if (current != null)
+			current.map().removeActor(walker);
+		location.map().addActor(walker, location);
+	}
+
+	@Test
+	void routesAgreeWithABreadthFirstSearch() {
+		Random random = new Random(2099);
+		for (int wallPercent : new int[]{20, 40, 45}) {
+			List<String> rows = randomRows(random, wallPercent);
+			boolean chunked = wallPercent == 40;
+			GameMap map = new GameMap("Maze " + wallPercent, grounds, rows, chunked);
+			world.addGameMap(map);
+			for (int query = 0; query < 40; query++) {
+				int fromX, fromY, toX, toY;
+				do {
+					fromX = random.nextInt(WIDTH);
+					fromY = random.nextInt(HEIGHT);
+				} while (rows.get(fromY).charAt(fromX) == '#');
+				do {
+					toX = random.nextInt(WIDTH);
+					toY = random.nextInt(HEIGHT);
+				} while (rows.get(toY).charAt(toX) == '#');
+
+				int shortest = shortestSteps(map, fromX, fromY, toX, toY);
+				place(map.at(fromX, fromY));
+				Location destination = map.at(toX, toY);
+				Route route = map.routeTo(walker, destination);
+				String description = "(" + fromX + ", " + fromY + ") to (" + toX + ", " + toY + ") with " + wallPercent + "% walls" + (chunked ? ", chunked" : "");
+				if (shortest < 0) {
+					assertNull(route, "route where there is no way, " + description);
+					continue;
+				}
+				assertNotNull(route, "no route where there is a way, " + description);
+				int walked = walk(map, route, destination);
+				assertTrue(walked >= shortest, "route got stuck, " + description);
+				assertTrue(walked <= shortest * 3 / 2 + 4, walked + " steps where " + shortest + " would do, " + description);
+			}
+		}
+	}
+
+	@Test
+	void routesFollowChangesToTheTerrain() {
+		List<String> rows = randomRows(new Random(1), 0);
+		GameMap map = new GameMap("Open", grounds, rows);
+		world.addGameMap(map);
+		place(map.at(5, 45));
+		assertNotNull(map.routeTo(walker, map.at(100, 45)));
+
+		// A wall from top to bottom cuts the map in two
+		for (int y = 0; y < HEIGHT; y++) {
+			map.at(60, y).setGround(new Wall());
+		}
+		assertNull(map.routeTo(walker, map.at(100, 45)));
+
+		map.at(60, 80).setGround(new Soil());
+		Route route = map.routeTo(walker, map.at(100, 45));
+		assertNotNull(route);
+		int shortest = shortestSteps(map, 5, 45, 100, 45);
+		int walked = walk(map, route, map.at(100, 45));
+		assertTrue(walked >= shortest && walked <= shortest * 3 / 2 + 4, walked + " steps where " + shortest + " would do");
+	}
+
+	@Test
+	void routesGoThroughTeleportersWhateverOrderTheyWereSetUpIn() {
+		GameMap here = new GameMap("Here", grounds, randomRows(new Random(2), 0));
+		GameMap there = new GameMap("There", grounds, randomRows(new Random(3), 0));
+		world.addGameMap(here);
+		world.addGameMap(there);
+		place(here.at(1, 1));
+
+		TeleportationCircle circle = new TeleportationCircle();
+		here.at(50, 50).setGround(circle);
+		assertNull(here.routeTo(walker, there.at(10, 10)));
+
+		circle.addDestination(there.at(0, 0));
+		Route route = here.routeTo(walker, there.at(10, 10));
+		assertNotNull(route);
+		assertEquals(-1, walk(here, route, there.at(10, 10)));
+		assertSame(here.at(50, 50), here.locationOf(walker));
+		assertSame(there.at(0, 0), route.linkFrom(here.at(50, 50)));
+		place(there.at(0, 0));
+		assertEquals(10, walk(there, route, there.at(10, 10)));
+	}
+}
@@ -0,0 +1,95 @@
+package edu.monash.fit2099.engine.positions;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+
+	private final TimingWheel wheel = new TimingWheel();
+	private final List<String> ran = new ArrayList<>();
+
+	private TimingWheel.Timer schedule(long delay, String name) {
+		return wheel.schedule(delay, () -> ran.add(name + "@" + wheel.now()));
+	}
+
+	private void advance(long ticks) {
+		for (long i = 0; i < ticks; i++) {
+			wheel.advance();
+		}
+	}
+
+	@Test
+	void timersDueOnTheSameTickRunInTheOrderTheyWereScheduled() {
+		schedule(3, "a");
+		schedule(1, "b");
+		schedule(3, "c");
+		schedule(2, "d");
+		advance(3);
+		assertEquals(List.of("b@1", "d@2", "a@3", "c@3"), ran);
+	}
+
+	@Test
+	void timersOnHigherLevelsComeDownOnTheirTick() {
+		long[] delays = {63, 64, 65, 4095, 4096, 4097, 70_000};
+		for (long delay : delays) {
+			schedule(delay, "t" + delay);
+		}
+		advance(70_000);
+		List<String> expected = new ArrayList<>();
+		for (long delay : delays) {
+			expected.add("t" + delay + "@" + delay);
+		}
+		assertEquals(expected, ran);
+		assertEquals(0, wheel.pending());
+	}
+
+	@Test
+	void cancelledAndRescheduledTimers() {
+		TimingWheel.Timer cancelled = schedule(5, "cancelled");
+		TimingWheel.Timer moved = schedule(5, "moved");
+		schedule(5, "stays");
+		assertTrue(cancelled.cancel());
+		assertFalse(cancelled.cancel());
+		moved.reschedule(100);
+		advance(5);
+		assertEquals(List.of("stays@5"), ran);
+		assertEquals(95, moved.remaining());
+		advance(95);
+		assertEquals(List.of("stays@5", "moved@100"), ran);
+		assertFalse(moved.isPending());
+	}
+
+	@Test
+	void timersScheduledInJournalsAreNumberedInCommitOrder() {
+		ChangeJournal first = new ChangeJournal();
+		ChangeJournal second = new ChangeJournal();
+		// The second journal gets to the wheel first, as another thread might
+		second.record(() -> schedule(2, "second"));
+		first.record(() -> schedule(2, "first"));
+		assertEquals(0, wheel.pending());
+
+		first.commit();
+		second.commit();
+		advance(2);
+		assertEquals(List.of("first@2", "second@2"), ran);
+	}
+
+	@Test
+	void timerCancelledWhileHeldNeverGoesIn() {
+		ChangeJournal journal = new ChangeJournal();
+		TimingWheel.Timer[] timer = new TimingWheel.Timer[1];
+		journal.record(() -> timer[0] = schedule(1, "held"));
+		assertTrue(timer[0].isPending());
+		assertTrue(timer[0].cancel());
+		journal.commit();
+		advance(2);
+		assertTrue(ran.isEmpty());
+		assertEquals(0, wheel.pending());
+	}
+}
@@ -0,0 +1,118 @@
+package edu.monash.fit2099.engine.positions;
+
+import edu.monash.fit2099.engine.displays.Display;
+import edu.monash.fit2099.engine.displays.HeadlessDisplay;
+import game.Application;
+import game.grounds.Floor;
+import game.grounds.Soil;
+import game.grounds.Wall;
+import game.items.Talisman;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WorldSnapshotTest {
+
+	private static final long SEED = 20_260_417L;
+
+	private static World newWorld() {
+		HeadlessDisplay display = new HeadlessDisplay("8462a");
+		Display.setInstance(display);
+		World world = Application.createWorld(display);
+		world.setSeed(SEED);
+		return world;
+	}
+
+	private static byte[] save(World world) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		world.saveSnapshot(Channels.newChannel(bytes));
+		return bytes.toByteArray();
+	}
+
+	private static void load(World world, byte[] snapshot) throws IOException {
+		world.loadSnapshot(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+	}
+
+	@Test
+	void loadedWorldMatchesTheSavedOne() throws IOException {
+		World original = newWorld();
+		original.runFor(30, 0);
+
+		World loaded = newWorld();
+		loaded.setSeed(1);
+		load(loaded, save(original));
+
+		assertEquals(SEED, loaded.getSeed());
+		assertEquals(original.getTimers().now(), loaded.getTimers().now());
+		assertEquals(original.getTimers().pending(), loaded.getTimers().pending());
+		assertEquals(original.checksum(), loaded.checksum());
+	}
+
+	@Test
+	void worldsLoadedFromOneSnapshotCarryOnTheSameWay() throws IOException {
+		World original = newWorld();
+		original.runFor(30, 0);
+		byte[] snapshot = save(original);
+
+		// Each gets a Display of its own at the start of the script, so the player chooses the same way
+		World first = newWorld();
+		load(first, snapshot);
+		World second = newWorld();
+		load(second, snapshot);
+		for (int tick = 1; tick <= 20; tick++) {
+			first.runFor(1, 0);
+			second.runFor(1, 0);
+			assertEquals(first.checksum(), second.checksum(), "after " + tick + " more ticks");
+		}
+	}
+
+	@Test
+	void snapshotOfALoadedWorldLoadsTheSameAgain() throws IOException {
+		World original = newWorld();
+		original.runFor(10, 0);
+
+		World once = newWorld();
+		load(once, save(original));
+		World twice = newWorld();
+		load(twice, save(once));
+
+		assertEquals(original.checksum(), twice.checksum());
+		assertEquals(original.getTimers().pending(), twice.getTimers().pending());
+	}
+
+	private static World chunkedWorld() {
+		World world = new World(new HeadlessDisplay());
+		world.addGameMap(new GameMap("Chunks", new FancyGroundFactory(new Soil(), new Wall(), new Floor()), '.', 200, 200, true));
+		return world;
+	}
+
+	@Test
+	void chunkedMapKeepsWhatIsOnItsLocations() throws IOException {
+		World original = chunkedWorld();
+		GameMap map = original.gameMaps.get(0);
+		map.at(70, 3).addItem(new Talisman());
+		map.at(5, 150).addExit(new Exit("down", map.at(199, 199), "d"));
+		map.at(130, 130).setGround(new Wall());
+		// Held by the test but bare, so only in the snapshot because it is still in use
+		Location bare = map.at(100, 100);
+
+		World loaded = chunkedWorld();
+		load(loaded, save(original));
+		GameMap loadedMap = loaded.gameMaps.get(0);
+
+		assertEquals(original.checksum(), loaded.checksum());
+		assertEquals(1, loadedMap.at(70, 3).getItems().size());
+		assertEquals(9, loadedMap.at(5, 150).getExits().size());
+		assertSame(loadedMap.at(199, 199), loadedMap.at(5, 150).getExits().get(8).getDestination());
+		assertEquals('#', loadedMap.at(130, 130).getDisplayChar());
+		assertNotSame(bare, loadedMap.at(100, 100));
+		assertSame(bare, map.at(100, 100));
+	}
+}